@@ -4,8 +4,10 @@ package stanism.marketplace;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 @EntityScan(basePackages = "stanism.marketplace.model")
 public class MarketplaceApplication {
 	public static void main(String[] args) {
@@ -0,0 +1,325 @@
+package stanism.marketplace.chat;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Local append-only journal of accepted chat messages.
+ * Messages are appended to numbered segment files before they are queued for
+ * the database, and a checkpoint file records the highest sequence number
+ * known to be stored. Segments whose messages are all stored are deleted, so
+ * after a crash the journal holds exactly the messages that may be missing
+ * from the database, and {@link #unpersisted()} returns them for replay.
+ * Each record carries a CRC so a record torn by a crash mid-write is
+ * recognised and ignored.
+ * Appends reach the operating system, which survives a JVM crash; a host
+ * crash or power loss only spares records forced to the device through
+ * {@link #sync()}.
+ * This class is not thread-safe; callers serialise access.
+ */
+public class ChatJournal implements Closeable {
+
+    /** Logger for this class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChatJournal.class);
+
+    /** File name prefix of segments. */
+    private static final String SEGMENT_PREFIX = "segment-";
+
+    /** File name suffix of segments. */
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    /** Name of the checkpoint file. */
+    private static final String CHECKPOINT = "checkpoint";
+
+    /** Size of the record header: body length and CRC. */
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+
+    /** Size of the fixed part of a record body. */
+    private static final int FIXED_BODY_BYTES = Long.BYTES * 5 + Integer.BYTES * 2;
+
+    /** Directory holding the segments and checkpoint. */
+    private final Path directory;
+
+    /** Size after which the active segment is closed and a new one started. */
+    private final long segmentBytes;
+
+    /** Closed segments by first sequence number, with their last sequence number. */
+    private final TreeMap<Long, Segment> closedSegments = new TreeMap<>();
+
+    /** Segment currently appended to. */
+    private Segment active;
+
+    /** Channel of the active segment. */
+    private FileChannel activeChannel;
+
+    /** Sequence number of the next appended message. */
+    private long nextSequence;
+
+    /** Highest sequence number known to be stored in the database. */
+    private long checkpoint;
+
+    /**
+     * Opens the journal, treating any segments left by a previous run as closed
+     * and deleting those with no complete record.
+     *
+     * @param directory the journal directory, created if missing
+     * @param segmentBytes the size after which a new segment is started
+     * @throws IOException if the journal cannot be read or created
+     */
+    public ChatJournal(Path directory, long segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        Path checkpointFile = directory.resolve(CHECKPOINT);
+        checkpoint = Files.exists(checkpointFile) ? Long.parseLong(Files.readString(checkpointFile).trim()) : 0;
+
+        long lastSequence = checkpoint;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(ChatJournal::isSegment).toList()) {
+                List<PendingChatMessage> records = read(file);
+                if (records.isEmpty()) {
+                    Files.delete(file);
+                    continue;
+                }
+                long first = firstSequenceOf(file);
+                long last = records.get(records.size() - 1).sequence();
+                closedSegments.put(first, new Segment(file, first, last));
+                lastSequence = Math.max(lastSequence, last);
+            }
+        }
+        nextSequence = lastSequence + 1;
+        openActive();
+    }
+
+    /**
+     * Returns the journaled messages that are not known to be stored, in sequence order.
+     *
+     * @return the messages to replay
+     * @throws IOException if a segment cannot be read
+     */
+    public List<PendingChatMessage> unpersisted() throws IOException {
+        List<PendingChatMessage> messages = new ArrayList<>();
+        for (Segment segment : closedSegments.values()) {
+            if (segment.last() > checkpoint) {
+                read(segment.file()).stream().filter(message -> message.sequence() > checkpoint)
+                        .forEach(messages::add);
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Appends a message, assigning it the next sequence number.
+     *
+     * @param senderId the ID of the sending user
+     * @param receiverId the ID of the receiving user
+     * @param itemId the ID of the item
+     * @param content the message text
+     * @param timestamp when the message was sent
+     * @return the journaled message
+     * @throws IOException if the message cannot be written
+     */
+    public PendingChatMessage append(long senderId, long receiverId, long itemId, String content,
+            LocalDateTime timestamp) throws IOException {
+        PendingChatMessage message = new PendingChatMessage(nextSequence, senderId, receiverId, itemId, content,
+                timestamp);
+        ByteBuffer record = encode(message);
+        while (record.hasRemaining()) {
+            activeChannel.write(record);
+        }
+        nextSequence++;
+        active = new Segment(active.file(), active.first(), message.sequence());
+        if (activeChannel.size() >= segmentBytes) {
+            closeActive();
+            openActive();
+        }
+        return message;
+    }
+
+    /**
+     * Returns a handle that forces every message appended so far to the
+     * storage device. Unlike the journal, the handle may be used without the
+     * callers' serialisation, so one thread can wait for the device while
+     * others keep appending, and a single force covers all of their appends.
+     *
+     * @return the handle
+     */
+    public Sync sync() {
+        return new Sync(activeChannel, nextSequence - 1);
+    }
+
+    /**
+     * Records that every message up to a sequence number is stored, and deletes
+     * segments that hold only stored messages.
+     *
+     * @param sequence the highest stored sequence number
+     * @throws IOException if the checkpoint cannot be written
+     */
+    public void markPersisted(long sequence) throws IOException {
+        if (sequence <= checkpoint) {
+            return;
+        }
+        Path temp = directory.resolve(CHECKPOINT + ".tmp");
+        Files.writeString(temp, Long.toString(sequence));
+        try {
+            Files.move(temp, directory.resolve(CHECKPOINT), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, directory.resolve(CHECKPOINT), StandardCopyOption.REPLACE_EXISTING);
+        }
+        checkpoint = sequence;
+
+        Iterator<Map.Entry<Long, Segment>> segments = closedSegments.entrySet().iterator();
+        while (segments.hasNext()) {
+            Segment segment = segments.next().getValue();
+            if (segment.last() > checkpoint) {
+                break;
+            }
+            Files.deleteIfExists(segment.file());
+            segments.remove();
+        }
+    }
+
+    /**
+     * Gets the highest sequence number known to be stored.
+     *
+     * @return the checkpoint sequence number
+     */
+    public long getCheckpoint() {
+        return checkpoint;
+    }
+
+    @Override
+    public void close() throws IOException {
+        activeChannel.close();
+    }
+
+    private void openActive() throws IOException {
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSequence, SEGMENT_SUFFIX));
+        activeChannel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        active = new Segment(file, nextSequence, nextSequence - 1);
+    }
+
+    private void closeActive() throws IOException {
+        activeChannel.force(false);
+        activeChannel.close();
+        closedSegments.put(active.first(), active);
+    }
+
+    private static ByteBuffer encode(PendingChatMessage message) {
+        byte[] content = message.content() == null ? new byte[0] : message.content().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer body = ByteBuffer.allocate(FIXED_BODY_BYTES + content.length)
+                .putLong(message.sequence())
+                .putLong(message.senderId())
+                .putLong(message.receiverId())
+                .putLong(message.itemId())
+                .putLong(message.timestamp().toEpochSecond(ZoneOffset.UTC))
+                .putInt(message.timestamp().getNano())
+                .putInt(content.length)
+                .put(content)
+                .flip();
+        CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+        return ByteBuffer.allocate(HEADER_BYTES + body.remaining())
+                .putInt(body.remaining())
+                .putInt((int) crc.getValue())
+                .put(body)
+                .flip();
+    }
+
+    private static List<PendingChatMessage> read(Path file) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+        List<PendingChatMessage> messages = new ArrayList<>();
+        while (data.remaining() >= HEADER_BYTES) {
+            int length = data.getInt();
+            int expectedCrc = data.getInt();
+            if (length < FIXED_BODY_BYTES || length > data.remaining()) {
+                break;
+            }
+            ByteBuffer body = data.slice(data.position(), length);
+            CRC32 crc = new CRC32();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != expectedCrc) {
+                break;
+            }
+            data.position(data.position() + length);
+            long sequence = body.getLong();
+            long senderId = body.getLong();
+            long receiverId = body.getLong();
+            long itemId = body.getLong();
+            LocalDateTime timestamp = LocalDateTime.ofEpochSecond(body.getLong(), body.getInt(), ZoneOffset.UTC);
+            byte[] content = new byte[body.getInt()];
+            body.get(content);
+            messages.add(new PendingChatMessage(sequence, senderId, receiverId, itemId,
+                    new String(content, StandardCharsets.UTF_8), timestamp));
+        }
+        if (data.hasRemaining()) {
+            LOGGER.warn("Ignoring {} bytes of incomplete chat journal records in {}", data.remaining(), file);
+        }
+        return messages;
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long firstSequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Forces the journal up to a sequence number to the storage device.
+     *
+     * @param channel the segment that was active when the handle was taken
+     * @param sequence the sequence number of the last message appended by then
+     */
+    public record Sync(FileChannel channel, long sequence) {
+
+        /**
+         * Forces the messages to the storage device.
+         *
+         * @throws IOException if the device reports an error
+         */
+        public void force() throws IOException {
+            try {
+                channel.force(false);
+            } catch (ClosedChannelException e) {
+                // The segment was forced when it was closed, on rollover or shutdown
+            }
+        }
+    }
+
+    /**
+     * A segment file and the range of sequence numbers it holds.
+     *
+     * @param file the segment file
+     * @param first the sequence number of its first record
+     * @param last the sequence number of its last record, or first - 1 if empty
+     */
+    private record Segment(Path file, long first, long last) {
+    }
+}
@@ -0,0 +1,396 @@
+package stanism.marketplace.chat;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import stanism.marketplace.service.ConversationService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind persistence for chat messages.
+ * {@link #submit} appends a message to the {@link ChatJournal} and queues it,
+ * so the STOMP handler can deliver it without waiting for the database. A
+ * single background thread drains the queue and stores messages in batched
+ * JDBC inserts, updating the conversation summaries in the same transaction,
+ * then advances the journal checkpoint. At most
+ * {@code queue-capacity} messages may be waiting; once the database falls that
+ * far behind, senders wait up to {@code offer-timeout} for room and are then
+ * refused. Messages still in the journal at startup are stored before the
+ * flusher starts, skipping any that were stored just before a crash; if the
+ * database stays unavailable for {@code replay-attempts} attempts, startup fails.
+ * With {@code app.chat.journal.fsync} on, {@link #submit} also waits until
+ * the message is forced to the storage device, so an accepted message
+ * survives a host crash or power loss. Senders waiting at the same time
+ * share one force (group commit). With it off, accepted messages survive a
+ * JVM crash but not a host crash.
+ */
+@Component
+public class ChatMessageWriter {
+
+    /** Logger for this class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChatMessageWriter.class);
+
+    /** Statement storing one message. */
+    private static final String INSERT_SQL =
+            "INSERT INTO messages (sender_id, receiver_id, item_id, content, timestamp) VALUES (?, ?, ?, ?, ?)";
+
+    /** Query finding a replayed message that was stored before the checkpoint was written. */
+    private static final String EXISTS_SQL = "SELECT COUNT(*) FROM messages"
+            + " WHERE sender_id = ? AND receiver_id = ? AND item_id = ? AND timestamp = ?";
+
+    /** Template running the inserts. */
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Runs each batch in its own transaction. */
+    private final TransactionTemplate transactionTemplate;
+
+    /** Service keeping the conversation summaries in step with stored messages. */
+    private final ConversationService conversationService;
+
+    /** Messages accepted but not yet stored, in sequence order. */
+    private final BlockingQueue<PendingChatMessage> queue = new LinkedBlockingQueue<>();
+
+    /** Free queue slots; a permit is returned once its message is stored. */
+    private final Semaphore capacity;
+
+    /** Guards the journal, so journal order and queue order agree. */
+    private final Object journalLock = new Object();
+
+    /** Directory of the journal. */
+    private final Path journalDirectory;
+
+    /** Size after which the journal starts a new segment. */
+    private final long segmentBytes;
+
+    /** Whether accepted messages are forced to the storage device before submit returns. */
+    private final boolean fsync;
+
+    /** Serialises journal forces, so senders waiting at the same time share one. */
+    private final Object syncLock = new Object();
+
+    /** Highest sequence number forced to the storage device. Guarded by {@link #syncLock}. */
+    private long syncedSequence;
+
+    /** Longest a sender waits for room in a full queue. */
+    private final Duration offerTimeout;
+
+    /** Longest the flusher waits for a message before checking for shutdown. */
+    private final Duration flushInterval;
+
+    /** Maximum number of messages per insert batch. */
+    private final int batchSize;
+
+    /** Pause before retrying a batch after a database error. */
+    private final Duration retryDelay;
+
+    /** Number of attempts to store the journaled messages at startup before giving up. */
+    private final int replayAttempts;
+
+    /** Journal of accepted messages. */
+    private ChatJournal journal;
+
+    /** Thread storing queued messages. */
+    private Thread flusher;
+
+    /** Whether new messages are accepted and failed batches retried. */
+    private volatile boolean running;
+
+    public ChatMessageWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            ConversationService conversationService, ChatWriterProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.conversationService = conversationService;
+        this.journalDirectory = properties.journal().dir();
+        this.segmentBytes = properties.journal().segmentBytes();
+        this.fsync = properties.journal().fsync();
+        this.capacity = new Semaphore(Math.max(1, properties.writeBehind().queueCapacity()));
+        this.offerTimeout = properties.writeBehind().offerTimeout();
+        this.flushInterval = properties.writeBehind().flushInterval();
+        this.batchSize = Math.max(1, properties.writeBehind().batchSize());
+        this.retryDelay = properties.writeBehind().retryDelay();
+        this.replayAttempts = Math.max(1, properties.writeBehind().replayAttempts());
+    }
+
+    /**
+     * Opens the journal, stores any messages left in it by a previous run and starts the flusher.
+     *
+     * @throws InterruptedException if interrupted while replaying
+     * @throws IllegalStateException if the journaled messages cannot be stored
+     */
+    @PostConstruct
+    public void start() throws InterruptedException {
+        try {
+            journal = new ChatJournal(journalDirectory, segmentBytes);
+            List<PendingChatMessage> replay = journal.unpersisted();
+            if (!replay.isEmpty()) {
+                LOGGER.info("Replaying {} chat messages from the journal", replay.size());
+                long lastSequence = replay.get(replay.size() - 1).sequence();
+                replay(replay);
+                journal.markPersisted(lastSequence);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open chat journal " + journalDirectory, e);
+        } catch (IllegalStateException | InterruptedException e) {
+            closeJournal();
+            throw e;
+        }
+        running = true;
+        flusher = new Thread(this::flushLoop, "chat-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Stops accepting messages, stores everything queued and closes the journal.
+     * Messages that cannot be stored stay in the journal for the next start.
+     *
+     * @throws InterruptedException if interrupted while waiting for the flusher
+     * @throws IOException if the journal cannot be closed
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        running = false;
+        if (flusher != null) {
+            flusher.join();
+        }
+        synchronized (journalLock) {
+            journal.close();
+        }
+    }
+
+    /**
+     * Accepts a message for storage. Returns once the message is journaled,
+     * and forced to the storage device if fsync is on; it reaches the database
+     * within about one flush interval.
+     *
+     * @param senderId the ID of the sending user
+     * @param receiverId the ID of the receiving user
+     * @param itemId the ID of the item
+     * @param content the message text
+     * @param timestamp when the message was sent
+     * @return the accepted message
+     * @throws RejectedExecutionException if the queue stays full for the offer timeout
+     * @throws UncheckedIOException if the message cannot be journaled
+     */
+    public PendingChatMessage submit(long senderId, long receiverId, long itemId, String content,
+            LocalDateTime timestamp) {
+        if (!running) {
+            throw new RejectedExecutionException("Chat message writer is not running");
+        }
+        try {
+            if (!capacity.tryAcquire(offerTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new RejectedExecutionException("Too many chat messages waiting to be stored");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting to store chat message", e);
+        }
+        PendingChatMessage message;
+        try {
+            synchronized (journalLock) {
+                message = journal.append(senderId, receiverId, itemId, content, timestamp);
+                queue.add(message);
+            }
+        } catch (IOException e) {
+            capacity.release();
+            throw new UncheckedIOException("Failed to journal chat message", e);
+        }
+        if (fsync) {
+            try {
+                awaitSynced(message.sequence());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to force chat journal to disk", e);
+            }
+        }
+        return message;
+    }
+
+    /**
+     * Gets the number of messages waiting to be stored.
+     *
+     * @return the queue length
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * Waits until the journal is forced up to a sequence number. The first
+     * waiter forces everything appended so far, which covers the messages of
+     * the senders that queued up behind it while it waited for the device.
+     *
+     * @param sequence the sequence number that must be on the device
+     * @throws IOException if the device reports an error
+     */
+    private void awaitSynced(long sequence) throws IOException {
+        synchronized (syncLock) {
+            if (syncedSequence >= sequence) {
+                return;
+            }
+            ChatJournal.Sync sync;
+            synchronized (journalLock) {
+                sync = journal.sync();
+            }
+            sync.force();
+            syncedSequence = sync.sequence();
+        }
+    }
+
+    /**
+     * Stores messages left in the journal, retrying up to {@code replay-attempts}
+     * times. Every attempt first skips the messages already stored, so a batch
+     * stored by an earlier attempt is not stored twice.
+     *
+     * @param messages the journaled messages, in sequence order
+     * @throws InterruptedException if interrupted between attempts
+     * @throws IllegalStateException if the last attempt fails
+     */
+    private void replay(List<PendingChatMessage> messages) throws InterruptedException {
+        for (int attempt = 1; !replayOnce(messages); attempt++) {
+            if (attempt >= replayAttempts) {
+                throw new IllegalStateException("Failed to store " + messages.size()
+                        + " journaled chat messages after " + attempt + " attempts; is the database available?");
+            }
+            Thread.sleep(retryDelay.toMillis());
+        }
+    }
+
+    private boolean replayOnce(List<PendingChatMessage> messages) throws InterruptedException {
+        try {
+            messages.removeIf(this::isStored);
+        } catch (DataAccessException e) {
+            LOGGER.error("Failed to check {} journaled chat messages", messages.size(), e);
+            return false;
+        }
+        for (int from = 0; from < messages.size(); from += batchSize) {
+            // Not running yet, so a failed batch is returned here instead of retried in store
+            if (!store(new ArrayList<>(messages.subList(from, Math.min(messages.size(), from + batchSize))))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void closeJournal() {
+        try {
+            journal.close();
+        } catch (IOException e) {
+            LOGGER.warn("Failed to close chat journal {}", journalDirectory, e);
+        }
+    }
+
+    private void flushLoop() {
+        List<PendingChatMessage> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingChatMessage first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                int count = batch.size();
+                long lastSequence = batch.get(count - 1).sequence();
+                if (!store(batch)) {
+                    // Shutting down with the database unavailable; the journal still holds the rest
+                    LOGGER.warn("Left {} chat messages in the journal", count + queue.size());
+                    return;
+                }
+                synchronized (journalLock) {
+                    journal.markPersisted(lastSequence);
+                }
+                capacity.release(count);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                // Stored but not checkpointed; at worst the batch is checked again on the next start
+                LOGGER.error("Failed to write chat journal checkpoint", e);
+                capacity.release(batch.size());
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Stores a batch, retrying after database errors while running. Rows the
+     * database rejects outright, such as messages about a deleted item, are dropped.
+     *
+     * @param batch the messages to store; stored messages are removed from it
+     * @return true if the batch was stored, false if stopped before it could be
+     */
+    private boolean store(List<PendingChatMessage> batch) throws InterruptedException {
+        while (true) {
+            try {
+                try {
+                    insertBatch(batch);
+                    batch.clear();
+                } catch (DataIntegrityViolationException e) {
+                    insertEach(batch);
+                }
+                return true;
+            } catch (DataAccessException | TransactionException e) {
+                LOGGER.error("Failed to store {} chat messages", batch.size(), e);
+            }
+            if (!running) {
+                return false;
+            }
+            Thread.sleep(retryDelay.toMillis());
+        }
+    }
+
+    private void insertBatch(List<PendingChatMessage> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (statement, message) -> {
+                statement.setLong(1, message.senderId());
+                statement.setLong(2, message.receiverId());
+                statement.setLong(3, message.itemId());
+                statement.setString(4, message.content());
+                statement.setTimestamp(5, Timestamp.valueOf(message.timestamp()));
+            });
+            conversationService.recordMessages(batch);
+        });
+    }
+
+    private void insertEach(List<PendingChatMessage> batch) {
+        Iterator<PendingChatMessage> messages = batch.iterator();
+        while (messages.hasNext()) {
+            PendingChatMessage message = messages.next();
+            try {
+                insertBatch(List.of(message));
+            } catch (DataIntegrityViolationException e) {
+                LOGGER.warn("Dropping chat message {} rejected by the database: {}", message.sequence(),
+                        e.getMostSpecificCause().getMessage());
+            }
+            messages.remove();
+        }
+    }
+
+    private boolean isStored(PendingChatMessage message) {
+        Integer count = jdbcTemplate.queryForObject(EXISTS_SQL, Integer.class, message.senderId(),
+                message.receiverId(), message.itemId(), Timestamp.valueOf(message.timestamp()));
+        return count != null && count > 0;
+    }
+}
@@ -0,0 +1,49 @@
+package stanism.marketplace.chat;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of the chat write-behind, bound from {@code app.chat.*}.
+ *
+ * @param journal settings of the local journal
+ * @param writeBehind settings of the background flusher
+ */
+@ConfigurationProperties("app.chat")
+public record ChatWriterProperties(@DefaultValue Journal journal, @DefaultValue WriteBehind writeBehind) {
+
+    /**
+     * Settings of the local journal, bound from {@code app.chat.journal.*}.
+     *
+     * @param dir directory of the journal
+     * @param segmentBytes size after which the journal starts a new segment
+     * @param fsync whether accepted messages are forced to the storage device before they are delivered
+     */
+    public record Journal(
+            @DefaultValue("chat-journal") Path dir,
+            @DefaultValue("8388608") long segmentBytes,
+            @DefaultValue("true") boolean fsync) {
+    }
+
+    /**
+     * Settings of the background flusher, bound from {@code app.chat.write-behind.*}.
+     *
+     * @param queueCapacity maximum number of messages waiting to be stored
+     * @param offerTimeout longest a sender waits for room in a full queue
+     * @param flushInterval longest the flusher waits for a message before checking for shutdown
+     * @param batchSize maximum number of messages per insert batch
+     * @param retryDelay pause before retrying a batch after a database error
+     * @param replayAttempts number of attempts to store the journaled messages at startup before startup fails
+     */
+    public record WriteBehind(
+            @DefaultValue("10000") int queueCapacity,
+            @DefaultValue("200ms") Duration offerTimeout,
+            @DefaultValue("50ms") Duration flushInterval,
+            @DefaultValue("500") int batchSize,
+            @DefaultValue("1s") Duration retryDelay,
+            @DefaultValue("30") int replayAttempts) {
+    }
+}
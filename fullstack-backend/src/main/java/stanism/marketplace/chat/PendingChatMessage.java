@@ -0,0 +1,18 @@
+package stanism.marketplace.chat;
+
+import java.time.LocalDateTime;
+
+/**
+ * A chat message that has been accepted and journaled but not necessarily
+ * written to the messages table yet.
+ *
+ * @param sequence the journal sequence number, increasing in acceptance order
+ * @param senderId the ID of the sending user
+ * @param receiverId the ID of the receiving user
+ * @param itemId the ID of the item the conversation is about
+ * @param content the message text
+ * @param timestamp when the message was sent
+ */
+public record PendingChatMessage(long sequence, long senderId, long receiverId, long itemId, String content,
+        LocalDateTime timestamp) {
+}
@@ -0,0 +1,552 @@
+package stanism.marketplace.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import stanism.marketplace.chat.PendingChatMessage;
+import stanism.marketplace.model.ItemStatus;
+import stanism.marketplace.model.OrderStatus;
+import stanism.marketplace.service.ConversationService;
+import stanism.marketplace.service.FavoriteCounterService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Generates large, realistic data sets for load testing, far beyond what
+ * {@link DataSeeder} creates. Target row counts are configured under
+ * {@code app.generator}, and a fixed seed makes every run produce the same data.
+ * Activity follows power laws, as it does in production: a few sellers own most
+ * listings, a few hot items attract most favorites, messages and orders, a few
+ * users are far more active than the rest, and most conversations are a single
+ * message while some run long.
+ * Rows are written with batched JDBC inserts in one transaction per batch, so
+ * tens of millions of rows take minutes with the production profile's
+ * {@code rewriteBatchedStatements}. Users, items, favorites and orders take IDs
+ * from ranges reserved in their sequences, so later JPA inserts never collide
+ * with them. Conversation summaries are updated with each message batch, and
+ * item favorite counts are recomputed at the end.
+ * Meant to run on startup before traffic is served, via {@code --generate-data}.
+ */
+@Component
+public class BulkDataGenerator {
+
+    /** Logger for this class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkDataGenerator.class);
+
+    /** IDs reserved per sequence fetch, matching the entities' allocation size. */
+    private static final int SEQUENCE_BLOCK = 50;
+
+    /** Prime used to scatter popularity ranks over IDs, so hot rows are not all the oldest. */
+    private static final long SCATTER_PRIME = 1_000_003L;
+
+    /** Longest generated conversation. */
+    private static final int MAX_CONVERSATION_LENGTH = 200;
+
+    /** How far back generated dates go, in seconds. */
+    private static final long HISTORY_SECONDS = 365L * 24 * 60 * 60;
+
+    /** Rows between progress log lines. */
+    private static final long PROGRESS_INTERVAL = 1_000_000;
+
+    /** Coordinates of Norwegian cities items are placed around. */
+    private static final double[][] CITIES = {
+            { 59.9139, 10.7522 }, { 60.3913, 5.3221 }, { 63.4305, 10.3951 }, { 58.9700, 5.7331 },
+            { 59.7441, 10.2049 }, { 59.2167, 10.9500 }, { 58.1467, 7.9956 }, { 69.6492, 18.9553 }
+    };
+
+    /** Words item titles are built from. */
+    private static final String[] ADJECTIVES = {
+            "Pent brukt", "Som ny", "Lite brukt", "Eldre", "Ubrukt", "Vintage", "Nyoverhalt", "Strøken"
+    };
+
+    /** Nouns item titles are built from. */
+    private static final String[] NOUNS = {
+            "sykkel", "sofa", "jakke", "mobil", "bord", "ski", "lampe", "barnevogn", "PC", "gitar", "stol", "TV"
+    };
+
+    /** Content of generated chat messages. */
+    private static final String[] MESSAGES = {
+            "Hei, er dette fortsatt tilgjengelig?", "Hva er din beste pris?", "Kan jeg komme og se på det?",
+            "Når kan jeg hente det?", "Har du flere bilder?", "Ja, den er fortsatt ledig.", "Avtale!",
+            "Kan du sende den?"
+    };
+
+    /** Payment methods of generated orders. */
+    private static final String[] PAYMENT_METHODS = { "Vipps", "Kredittkort", "BankID", "PayPal" };
+
+    /** Template for the inserts. */
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Commits each batch on its own. */
+    private final TransactionTemplate transactionTemplate;
+
+    /** Service whose summaries are updated with each message batch. */
+    private final ConversationService conversationService;
+
+    /** Counters whose stored counts are recomputed after favorites are generated. */
+    private final FavoriteCounterService favoriteCounterService;
+
+    /** Encodes the password shared by generated users. */
+    private final PasswordEncoder passwordEncoder;
+
+    /** Number of users to generate. */
+    private final int users;
+
+    /** Number of items to generate. */
+    private final int items;
+
+    /** Largest number of images per item; each item gets between one and this many. */
+    private final int maxImagesPerItem;
+
+    /** Number of favorites to generate. */
+    private final long favorites;
+
+    /** Number of chat messages to generate. */
+    private final long messages;
+
+    /** Number of orders to generate. */
+    private final long orders;
+
+    /** Seed of every random choice. */
+    private final long seed;
+
+    /** Power-law exponent of user activity: how many listings, favorites and chats each user has. */
+    private final double userSkew;
+
+    /** Power-law exponent of item popularity: how favorites, chats and orders spread over items. */
+    private final double itemSkew;
+
+    /** Power-law exponent of conversation length. */
+    private final double chatSkew;
+
+    /** Rows per insert batch. */
+    private final int batchSize;
+
+    /** Whether the database is MySQL, whose sequences are emulated with tables. */
+    private boolean mysql;
+
+    public BulkDataGenerator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            ConversationService conversationService, FavoriteCounterService favoriteCounterService,
+            PasswordEncoder passwordEncoder, BulkDataGeneratorProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.conversationService = conversationService;
+        this.favoriteCounterService = favoriteCounterService;
+        this.passwordEncoder = passwordEncoder;
+        this.users = Math.max(2, properties.users());
+        this.items = Math.max(1, properties.items());
+        this.maxImagesPerItem = Math.max(0, properties.maxImagesPerItem());
+        this.favorites = Math.max(0, properties.favorites());
+        this.messages = Math.max(0, properties.messages());
+        this.orders = Math.max(0, properties.orders());
+        this.seed = properties.seed();
+        this.userSkew = properties.userSkew();
+        this.itemSkew = properties.itemSkew();
+        this.chatSkew = properties.chatSkew();
+        this.batchSize = Math.max(1, properties.batchSize());
+    }
+
+    /**
+     * Generates the configured data set on top of the existing data.
+     * Requires at least one category.
+     */
+    public void generate() {
+        List<Long> categoryIds = jdbcTemplate.queryForList("SELECT id FROM categories ORDER BY id", Long.class);
+        if (categoryIds.isEmpty()) {
+            throw new IllegalStateException("Generating data requires at least one category");
+        }
+        mysql = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql")));
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        long start = System.nanoTime();
+
+        long firstUserId = reserveIds("users", users);
+        generateUsers(firstUserId);
+        long firstItemId = reserveIds("items", items);
+        int[] itemOwners = generateItems(firstItemId, firstUserId, categoryIds, now);
+        generateImages(firstItemId);
+        generateFavorites(reserveIds("favorites", favorites), firstUserId, firstItemId, now);
+        generateMessages(firstUserId, firstItemId, itemOwners, now);
+        generateOrders(reserveIds("orders", orders), firstUserId, firstItemId, now);
+        favoriteCounterService.reconcile();
+
+        LOGGER.info("Generated data set with seed {} in {} s", seed, (System.nanoTime() - start) / 1_000_000_000);
+    }
+
+    private void generateUsers(long firstUserId) {
+        // Every generated user shares a password, so hash it once
+        String password = passwordEncoder.encode("password123");
+        try (BatchWriter<Long> writer = new BatchWriter<>("users",
+                "INSERT INTO users (id, username, email, password, role) VALUES (?, ?, ?, ?, ?)",
+                (statement, id) -> {
+                    statement.setLong(1, id);
+                    statement.setString(2, "load" + id);
+                    statement.setString(3, "load" + id + "@load.example.com");
+                    statement.setString(4, password);
+                    statement.setString(5, "USER");
+                })) {
+            for (int i = 0; i < users; i++) {
+                writer.add(firstUserId + i);
+            }
+        }
+    }
+
+    /**
+     * Generates the items, owned by sellers drawn with the user skew.
+     *
+     * @param firstItemId the first ID of the range reserved for items
+     * @param firstUserId the first generated user ID
+     * @param categoryIds the IDs of the categories items are spread over
+     * @param now the time generated dates count back from
+     * @return the owner of each item, as an offset from the first generated user ID
+     */
+    private int[] generateItems(long firstItemId, long firstUserId, List<Long> categoryIds, LocalDateTime now) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] owners = new int[items];
+        try (BatchWriter<ItemRow> writer = new BatchWriter<>("items",
+                "INSERT INTO items (id, title, brief_description, full_description, price, latitude, longitude,"
+                        + " publish_date, status, user_id, category_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                (statement, item) -> {
+                    statement.setLong(1, item.id());
+                    statement.setString(2, item.title());
+                    statement.setString(3, item.title() + " i god stand");
+                    statement.setString(4, "Selges grunnet flytting. " + item.title() + ", kan hentes eller sendes.");
+                    statement.setDouble(5, item.price());
+                    statement.setDouble(6, item.latitude());
+                    statement.setDouble(7, item.longitude());
+                    statement.setTimestamp(8, Timestamp.valueOf(item.publishDate()));
+                    statement.setString(9, item.status().name());
+                    statement.setLong(10, item.ownerId());
+                    statement.setLong(11, item.categoryId());
+                })) {
+            for (int i = 0; i < items; i++) {
+                owners[i] = pick(random, users, userSkew);
+                String title = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                        + NOUNS[random.nextInt(NOUNS.length)] + " " + (i % 1000);
+                // Log-normal prices: mostly a few hundred kroner, with a long tail of expensive items
+                double price = Math.min(200_000, Math.max(10, Math.round(Math.exp(6.5 + 1.2 * gaussian(random)))));
+                double[] city = CITIES[random.nextInt(CITIES.length)];
+                int roll = random.nextInt(100);
+                ItemStatus status = roll < 92 ? ItemStatus.ACTIVE : roll < 98 ? ItemStatus.SOLD : ItemStatus.ARCHIVED;
+                writer.add(new ItemRow(firstItemId + i, title, price,
+                        city[0] + 0.05 * gaussian(random), city[1] + 0.1 * gaussian(random),
+                        now.minusSeconds(random.nextLong(HISTORY_SECONDS)), status,
+                        firstUserId + owners[i], categoryIds.get(random.nextInt(categoryIds.size()))));
+            }
+        }
+        return owners;
+    }
+
+    private void generateImages(long firstItemId) {
+        if (maxImagesPerItem == 0) {
+            return;
+        }
+        SplittableRandom random = new SplittableRandom(seed + 1);
+        try (BatchWriter<ImageRow> writer = new BatchWriter<>("images",
+                "INSERT INTO images (item_id, image_url, alt_text) VALUES (?, ?, ?)",
+                (statement, image) -> {
+                    statement.setLong(1, image.itemId());
+                    statement.setString(2, "https://example.com/generated/" + image.itemId() + "_" + image.index()
+                            + ".jpg");
+                    statement.setString(3, "Bilde " + (image.index() + 1));
+                })) {
+            for (int i = 0; i < items; i++) {
+                int count = 1 + random.nextInt(maxImagesPerItem);
+                for (int j = 0; j < count; j++) {
+                    writer.add(new ImageRow(firstItemId + i, j));
+                }
+            }
+        }
+    }
+
+    /**
+     * Generates favorites: each user's share follows the user skew, and the
+     * items they pick follow the item skew, without repeating an item per user.
+     *
+     * @param firstFavoriteId the first ID of the range reserved for favorites
+     * @param firstUserId the first generated user ID
+     * @param firstItemId the first generated item ID
+     * @param now the time generated dates count back from
+     */
+    private void generateFavorites(long firstFavoriteId, long firstUserId, long firstItemId, LocalDateTime now) {
+        SplittableRandom random = new SplittableRandom(seed + 2);
+        double totalWeight = 0;
+        for (int rank = 0; rank < users; rank++) {
+            totalWeight += Math.pow(rank + 1, -userSkew);
+        }
+        long nextId = firstFavoriteId;
+        try (BatchWriter<long[]> writer = new BatchWriter<>("favorites",
+                "INSERT INTO favorites (id, user_id, item_id, date_added) VALUES (?, ?, ?, ?)",
+                (statement, favorite) -> {
+                    statement.setLong(1, favorite[0]);
+                    statement.setLong(2, favorite[1]);
+                    statement.setLong(3, favorite[2]);
+                    statement.setTimestamp(4, Timestamp.valueOf(now.minusSeconds(favorite[3])));
+                })) {
+            double share = 0;
+            long written = 0;
+            for (int user = 0; user < users && written < favorites; user++) {
+                // Carry the rounding remainder forward so the shares add up to the target
+                share += favorites * Math.pow(rank(user, users) + 1, -userSkew) / totalWeight;
+                long count = Math.min(Math.min(items, favorites - written), Math.round(share) - written);
+                Set<Integer> chosen = new HashSet<>();
+                while (chosen.size() < count) {
+                    int item = pick(random, items, itemSkew);
+                    if (!chosen.add(item) && chosen.size() > items / 2) {
+                        // Very heavy users of a small catalogue: fall back to uniform picks to finish quickly
+                        chosen.add(random.nextInt(items));
+                    }
+                }
+                for (int item : chosen) {
+                    writer.add(new long[] { nextId++, firstUserId + user, firstItemId + item,
+                            random.nextLong(HISTORY_SECONDS) });
+                }
+                written += chosen.size();
+            }
+        }
+    }
+
+    /**
+     * Generates conversations between buyers, drawn with the user skew, and the
+     * owners of items drawn with the item skew, until the message target is met.
+     *
+     * @param firstUserId the first generated user ID
+     * @param firstItemId the first generated item ID
+     * @param itemOwners the owner of each item, as an offset from the first generated user ID
+     * @param now the time generated dates count back from
+     */
+    private void generateMessages(long firstUserId, long firstItemId, int[] itemOwners, LocalDateTime now) {
+        SplittableRandom random = new SplittableRandom(seed + 3);
+        try (BatchWriter<PendingChatMessage> writer = new BatchWriter<>("messages",
+                "INSERT INTO messages (sender_id, receiver_id, item_id, content, timestamp) VALUES (?, ?, ?, ?, ?)",
+                (statement, message) -> {
+                    statement.setLong(1, message.senderId());
+                    statement.setLong(2, message.receiverId());
+                    statement.setLong(3, message.itemId());
+                    statement.setString(4, message.content());
+                    statement.setTimestamp(5, Timestamp.valueOf(message.timestamp()));
+                }, conversationService::recordMessages)) {
+            long written = 0;
+            while (written < messages) {
+                int item = pick(random, items, itemSkew);
+                long seller = firstUserId + itemOwners[item];
+                long buyer = firstUserId + pick(random, users, userSkew);
+                if (buyer == seller) {
+                    continue;
+                }
+                int length = (int) Math.min(messages - written, 1 + pick(random, MAX_CONVERSATION_LENGTH, chatSkew));
+                LocalDateTime timestamp = now.minusSeconds(random.nextLong(HISTORY_SECONDS));
+                for (int i = 0; i < length; i++) {
+                    boolean fromBuyer = i % 2 == 0;
+                    timestamp = timestamp.plusSeconds(1 + random.nextInt(3600));
+                    writer.add(new PendingChatMessage(0, fromBuyer ? buyer : seller, fromBuyer ? seller : buyer,
+                            firstItemId + item, MESSAGES[random.nextInt(MESSAGES.length)], timestamp));
+                }
+                written += length;
+            }
+        }
+    }
+
+    private void generateOrders(long firstOrderId, long firstUserId, long firstItemId, LocalDateTime now) {
+        SplittableRandom random = new SplittableRandom(seed + 4);
+        OrderStatus[] statuses = OrderStatus.values();
+        try (BatchWriter<Long> writer = new BatchWriter<>("orders",
+                "INSERT INTO orders (id, buyer_id, item_id, order_date, status, payment_method, transaction_id)"
+                        + " VALUES (?, ?, ?, ?, ?, ?, ?)",
+                (statement, id) -> {
+                    statement.setLong(1, id);
+                    statement.setLong(2, firstUserId + pick(random, users, userSkew));
+                    statement.setLong(3, firstItemId + pick(random, items, itemSkew));
+                    statement.setTimestamp(4, Timestamp.valueOf(now.minusSeconds(random.nextLong(HISTORY_SECONDS))));
+                    statement.setString(5, statuses[random.nextInt(statuses.length)].name());
+                    statement.setString(6, PAYMENT_METHODS[random.nextInt(PAYMENT_METHODS.length)]);
+                    statement.setString(7, "TRX" + id);
+                })) {
+            for (long i = 0; i < orders; i++) {
+                writer.add(firstOrderId + i);
+            }
+        }
+    }
+
+    /**
+     * Reserves a range of IDs in a table's sequence, above every existing row
+     * and every block the sequence has already handed out.
+     *
+     * @param table the table whose sequence is advanced
+     * @param count the number of IDs to reserve
+     * @return the first ID of the range
+     */
+    private long reserveIds(String table, long count) {
+        String sequence = table + "_seq";
+        Long reserved = transactionTemplate.execute(status -> {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            Long current = mysql
+                    ? jdbcTemplate.queryForObject("SELECT next_val FROM " + sequence + " FOR UPDATE", Long.class)
+                    : jdbcTemplate.queryForObject("SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES"
+                            + " WHERE SEQUENCE_NAME = ?", Long.class, sequence.toUpperCase());
+            long first = Math.max(maxId, current) + 1;
+            // The next fetch returns the end of a block, so leave the sequence one block past the range
+            long next = first + count - 1 + SEQUENCE_BLOCK;
+            if (mysql) {
+                jdbcTemplate.update("UPDATE " + sequence + " SET next_val = ?", next);
+            } else {
+                jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + next);
+            }
+            return first;
+        });
+        return reserved;
+    }
+
+    /**
+     * Draws a rank from a bounded power law, so rank 0 is the most likely,
+     * and scatters it so the popular entries are spread over the range.
+     *
+     * @param random the source of randomness
+     * @param size the number of entries to pick from
+     * @param exponent the power-law exponent; larger values favour the top ranks more
+     * @return an offset in {@code [0, size)}
+     */
+    private static int pick(SplittableRandom random, int size, double exponent) {
+        return rank(powerLawRank(random, size, exponent), size);
+    }
+
+    private static int powerLawRank(SplittableRandom random, int size, double exponent) {
+        // Inverse of the CDF of a continuous power law on [1, size + 1)
+        double u = random.nextDouble();
+        double x;
+        if (Math.abs(exponent - 1) < 1e-9) {
+            x = Math.pow(size + 1, u);
+        } else {
+            double a = 1 - exponent;
+            x = Math.pow(1 + u * (Math.pow(size + 1, a) - 1), 1 / a);
+        }
+        return Math.min(size - 1, Math.max(0, (int) x - 1));
+    }
+
+    /**
+     * Maps an offset to a distinct offset in the same range, so rank and position are unrelated.
+     *
+     * @param offset the offset to map
+     * @param size the size of the range
+     * @return the mapped offset
+     */
+    private static int rank(int offset, int size) {
+        return size % SCATTER_PRIME == 0 ? offset : (int) (offset * SCATTER_PRIME % size);
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        // Box-Muller transform; SplittableRandom has no nextGaussian
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    /**
+     * Buffers rows and inserts them in batches, one transaction per batch.
+     *
+     * @param <T> the type of the buffered rows
+     */
+    private final class BatchWriter<T> implements AutoCloseable {
+        /** Table name used in log lines. */
+        private final String name;
+
+        /** Insert statement. */
+        private final String sql;
+
+        /** Binds one row to the statement. */
+        private final ParameterizedPreparedStatementSetter<T> setter;
+
+        /** Runs in each batch's transaction after the insert. */
+        private final Consumer<List<T>> afterInsert;
+
+        /** Rows waiting to be inserted. */
+        private final List<T> rows = new ArrayList<>(batchSize);
+
+        /** When the writer was created. */
+        private final long startedAt = System.nanoTime();
+
+        /** Number of rows inserted so far. */
+        private long written;
+
+        private BatchWriter(String name, String sql, ParameterizedPreparedStatementSetter<T> setter) {
+            this(name, sql, setter, batch -> { });
+        }
+
+        private BatchWriter(String name, String sql, ParameterizedPreparedStatementSetter<T> setter,
+                Consumer<List<T>> afterInsert) {
+            this.name = name;
+            this.sql = sql;
+            this.setter = setter;
+            this.afterInsert = afterInsert;
+        }
+
+        private void add(T row) {
+            rows.add(row);
+            if (rows.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (rows.isEmpty()) {
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(sql, rows, rows.size(), setter);
+                afterInsert.accept(rows);
+            });
+            long before = written;
+            written += rows.size();
+            rows.clear();
+            if (written / PROGRESS_INTERVAL > before / PROGRESS_INTERVAL) {
+                LOGGER.info("Generated {} {}", written, name);
+            }
+        }
+
+        @Override
+        public void close() {
+            flush();
+            double seconds = Math.max(1e-9, (System.nanoTime() - startedAt) / 1e9);
+            LOGGER.info("Generated {} {} in {} ms ({} rows/s)", written, name, Math.round(seconds * 1000),
+                    Math.round(written / seconds));
+        }
+    }
+
+    /**
+     * A generated item.
+     *
+     * @param id the item ID
+     * @param title the title
+     * @param price the price
+     * @param latitude the latitude
+     * @param longitude the longitude
+     * @param publishDate when the item was published
+     * @param status the status
+     * @param ownerId the ID of the seller
+     * @param categoryId the ID of the category
+     */
+    private record ItemRow(long id, String title, double price, double latitude, double longitude,
+            LocalDateTime publishDate, ItemStatus status, long ownerId, long categoryId) {
+    }
+
+    /**
+     * A generated image of an item.
+     *
+     * @param itemId the ID of the item
+     * @param index the position of the image among the item's images
+     */
+    private record ImageRow(long itemId, int index) {
+    }
+}
@@ -0,0 +1,34 @@
+package stanism.marketplace.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Target sizes and distributions of the load-test data set, bound from {@code app.generator.*}.
+ *
+ * @param users number of users to generate
+ * @param items number of items to generate
+ * @param maxImagesPerItem largest number of images per item; each item gets between one and this many
+ * @param favorites number of favorites to generate
+ * @param messages number of chat messages to generate
+ * @param orders number of orders to generate
+ * @param seed seed of every random choice
+ * @param userSkew power-law exponent of user activity: how many listings, favorites and chats each user has
+ * @param itemSkew power-law exponent of item popularity: how favorites, chats and orders spread over items
+ * @param chatSkew power-law exponent of conversation length
+ * @param batchSize rows per insert batch
+ */
+@ConfigurationProperties("app.generator")
+public record BulkDataGeneratorProperties(
+        @DefaultValue("100000") int users,
+        @DefaultValue("1000000") int items,
+        @DefaultValue("3") int maxImagesPerItem,
+        @DefaultValue("2000000") long favorites,
+        @DefaultValue("5000000") long messages,
+        @DefaultValue("200000") long orders,
+        @DefaultValue("42") long seed,
+        @DefaultValue("1.0") double userSkew,
+        @DefaultValue("1.1") double itemSkew,
+        @DefaultValue("1.8") double chatSkew,
+        @DefaultValue("1000") int batchSize) {
+}
@@ -5,6 +5,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import stanism.marketplace.model.Category;
 import stanism.marketplace.model.Favorite;
 import stanism.marketplace.model.Image;
@@ -15,15 +17,21 @@ import stanism.marketplace.model.OrderStatus;
 import stanism.marketplace.model.Role;
 import stanism.marketplace.model.User;
 import stanism.marketplace.repository.CategoryRepository;
+import stanism.marketplace.repository.ConversationRepository;
 import stanism.marketplace.repository.FavoriteRepository;
 import stanism.marketplace.repository.ImageRepository;
 import stanism.marketplace.repository.ItemRepository;
 import stanism.marketplace.repository.MessageRepository;
 import stanism.marketplace.repository.OrderRepository;
 import stanism.marketplace.repository.UserRepository;
+import stanism.marketplace.service.ConversationService;
+import stanism.marketplace.service.FavoriteCounterService;
 
-import java.util.Random;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
 
 /**
  * Configuration class for seeding initial data into the database.
@@ -118,18 +126,56 @@ public class DataSeeder {
     /**
      * Initializes the database with sample data only if it's empty.
      *
+     * @param conversationService
+     *            the service summarising the seeded messages into conversations
+     * @param favoriteCounterService
+     *            the counters of how many users favorited each item
+     * @param transactionManager
+     *            the transaction manager the seeding runs in
      * @return a CommandLineRunner that initializes the database
      */
     @Bean
-    CommandLineRunner initDatabase() {
+    CommandLineRunner initDatabase(ConversationService conversationService,
+            FavoriteCounterService favoriteCounterService, PlatformTransactionManager transactionManager) {
+        // Runs the seeding in one transaction, so inserts are sent in JDBC batches
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
         return args -> {
             // Check if database is empty by checking if any users exist
             if (userRepository.count() == 0) {
-                createCategories();
-                createUsers();
-                createItemsAndRelatedData();
-                createRandomFavoritesAndMessages();
-                createRandomOrders();
+                transactionTemplate.executeWithoutResult(status -> {
+                    createCategories();
+                    List<User> users = createUsers();
+                    List<Item> items = createItemsAndRelatedData(users);
+                    createRandomFavoritesAndMessages(users, items);
+                    createRandomOrders(users, items);
+                });
+                // Both are derived from rows written above, bypassing the services that maintain them
+                favoriteCounterService.reconcile();
+                conversationService.rebuildIfEmpty();
+            }
+        };
+    }
+
+    /**
+     * Generates a large synthetic data set for load testing on top of the
+     * existing data. Only runs if the command line argument '--generate-data'
+     * is present; sizes and seed are configured under {@code app.generator}.
+     *
+     * @param args
+     *            the command line arguments
+     * @param generator
+     *            the generator writing the data set
+     * @param transactionManager
+     *            the transaction manager the categories are created in
+     * @return a CommandLineRunner that generates the data set
+     */
+    @Bean
+    CommandLineRunner generateData(ApplicationArguments args, BulkDataGenerator generator,
+            PlatformTransactionManager transactionManager) {
+        return commandLineArgs -> {
+            if (args.containsOption("generate-data")) {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> createCategories());
+                generator.generate();
             }
         };
     }
@@ -141,13 +187,16 @@ public class DataSeeder {
      * 
      * @param args
      *            the command line arguments
+     * @param conversationRepository
+     *            repository for conversation summaries
      * @return a CommandLineRunner that cleans the database
      */
     @Bean
-    CommandLineRunner cleanDatabase(ApplicationArguments args) {
+    CommandLineRunner cleanDatabase(ApplicationArguments args, ConversationRepository conversationRepository) {
         return commandLineArgs -> {
             if (args.containsOption("clean-db")) {
                 // Delete all data in reverse order of dependencies
+                conversationRepository.deleteAll();
                 orderRepository.deleteAll();
                 messageRepository.deleteAll();
                 favoriteRepository.deleteAll();
@@ -164,54 +213,61 @@ public class DataSeeder {
                 "Elektronikk", "Klær", "Møbler", "Bøker", "Sport", "Bil", "Hjem", "Barn"
         };
 
+        List<Category> categories = new ArrayList<>();
         for (String categoryName : categoryNames) {
             if (!categoryRepository.findByName(categoryName).isPresent()) {
                 Category category = new Category();
                 category.setName(categoryName);
-                categoryRepository.save(category);
+                categories.add(category);
             }
         }
+        categoryRepository.saveAll(categories);
     }
 
-    private void createUsers() {
-        // Check if admin user already exists
-        if (!userRepository.findByEmail("admin@example.com").isPresent()) {
-            User admin = new User();
-            admin.setUsername("admin");
-            admin.setEmail("admin@example.com");
-            admin.setPassword(passwordEncoder.encode("admin123"));
-            admin.setRole(Role.ADMIN);
-            userRepository.save(admin);
-        }
+    /**
+     * Creates the admin and the regular users. The database has no users when
+     * seeding starts, so duplicates are only checked among the new users.
+     *
+     * @return the regular users
+     */
+    private List<User> createUsers() {
+        User admin = new User();
+        admin.setUsername("admin");
+        admin.setEmail("admin@example.com");
+        admin.setPassword(passwordEncoder.encode("admin123"));
+        admin.setRole(Role.ADMIN);
 
         String[] firstNames = { "Ola", "Kari", "Erik", "Ingrid", "Lars", "Mari", "Anders", "Hanne", "Per", "Anne" };
         String[] lastNames = { "Hansen", "Johansen", "Olsen", "Larsen", "Andersen",
                 "Nilsen", "Kristiansen", "Jensen", "Karlsen", "Berg" };
 
-        // Create regular users, checking for duplicates
-        int usersCreated = 0;
-        while (usersCreated < 20) {
+        // Every regular user shares a password, so hash it once rather than once per user
+        String password = passwordEncoder.encode("password123");
+        Set<String> emails = new HashSet<>();
+        List<User> users = new ArrayList<>();
+        while (users.size() < 20) {
             String firstName = firstNames[random.nextInt(firstNames.length)];
             String lastName = lastNames[random.nextInt(lastNames.length)];
             String username = firstName + "_" + lastName;
             String email = username.toLowerCase() + "@example.com";
 
             // Skip if user with this email already exists
-            if (userRepository.findByEmail(email).isPresent()) {
+            if (!emails.add(email)) {
                 continue;
             }
 
             User user = new User();
             user.setUsername(username);
             user.setEmail(email);
-            user.setPassword(passwordEncoder.encode("password123"));
+            user.setPassword(password);
             user.setRole(Role.USER);
-            userRepository.save(user);
-            usersCreated++;
+            users.add(user);
         }
+        userRepository.save(admin);
+        return userRepository.saveAll(users);
     }
 
-    private void createItemsAndRelatedData() {
+    private List<Item> createItemsAndRelatedData(List<User> users) {
         String[] electronicsItems = {
                 "iPhone 14 Pro", "Samsung Galaxy S23", "MacBook Air M2", "iPad Pro", "Sony WH-1000XM5",
                 "Apple Watch Series 8", "Samsung 65\" QLED TV", "PlayStation 5", "Xbox Series X", "Nintendo Switch OLED"
@@ -252,17 +308,26 @@ public class DataSeeder {
                 "Leander seng", "Done by Deer leker", "Konges Sløjd klær", "Liewood leker"
         };
 
-        createItemsForCategory("Elektronikk", electronicsItems, 50);
-        createItemsForCategory("Klær", clothingItems, 40);
-        createItemsForCategory("Møbler", furnitureItems, 35);
-        createItemsForCategory("Bøker", booksItems, 30);
-        createItemsForCategory("Sport", sportItems, 45);
-        createItemsForCategory("Bil", carItems, 25);
-        createItemsForCategory("Hjem", homeItems, 30);
-        createItemsForCategory("Barn", childrenItems, 25);
+        Set<String> titles = new HashSet<>();
+        List<Item> items = new ArrayList<>();
+        List<Image> images = new ArrayList<>();
+        createItemsForCategory("Elektronikk", electronicsItems, 50, users, titles, items, images);
+        createItemsForCategory("Klær", clothingItems, 40, users, titles, items, images);
+        createItemsForCategory("Møbler", furnitureItems, 35, users, titles, items, images);
+        createItemsForCategory("Bøker", booksItems, 30, users, titles, items, images);
+        createItemsForCategory("Sport", sportItems, 45, users, titles, items, images);
+        createItemsForCategory("Bil", carItems, 25, users, titles, items, images);
+        createItemsForCategory("Hjem", homeItems, 30, users, titles, items, images);
+        createItemsForCategory("Barn", childrenItems, 25, users, titles, items, images);
+
+        // Images use identity IDs and are inserted one by one, so save them after the batched items
+        List<Item> saved = itemRepository.saveAll(items);
+        imageRepository.saveAll(images);
+        return saved;
     }
 
-    private void createItemsForCategory(String categoryName, String[] itemTemplates, int count) {
+    private void createItemsForCategory(String categoryName, String[] itemTemplates, int count, List<User> users,
+            Set<String> titles, List<Item> items, List<Image> images) {
         Category category = categoryRepository.findByName(categoryName).get();
 
         for (int i = 0; i < count; i++) {
@@ -270,7 +335,7 @@ public class DataSeeder {
             String fullTitle = title + " " + (random.nextInt(5) + 1);
 
             // Skip if item with this title already exists
-            if (itemRepository.findByTitle(fullTitle).isPresent()) {
+            if (!titles.add(fullTitle)) {
                 continue;
             }
 
@@ -285,92 +350,95 @@ public class DataSeeder {
                     .price((double) (1000 + random.nextInt(20000)))
                     .latitude(coords[0])
                     .longitude(coords[1])
-                    .user(userRepository.findAll().get(random.nextInt(20) + 1)) // Skip admin
+                    .user(users.get(random.nextInt(users.size())))
                     .category(category)
                     .build();
-            itemRepository.save(item);
+            items.add(item);
 
             // Add 1-3 images per item
             int imageCount = random.nextInt(3) + 1;
             for (int j = 0; j < imageCount; j++) {
                 String imageUrl = "https://example.com/" +
                         title.toLowerCase().replace(" ", "_") + "_" + j + ".jpg";
-                Image image = new Image(item, imageUrl, title + " bilde " + (j + 1));
-                imageRepository.save(image);
+                images.add(new Image(item, imageUrl, title + " bilde " + (j + 1)));
             }
         }
     }
 
-    private void createRandomFavoritesAndMessages() {
+    private void createRandomFavoritesAndMessages(List<User> users, List<Item> items) {
         // Create 100 random favorites
+        Set<String> favoriteKeys = new HashSet<>();
+        List<Favorite> favorites = new ArrayList<>();
         for (int i = 0; i < 100; i++) {
-            User user = userRepository.findAll().get(random.nextInt(20) + 1);
-            Item item = itemRepository.findAll().get(random.nextInt(itemRepository.findAll().size()));
+            User user = users.get(random.nextInt(users.size()));
+            Item item = items.get(random.nextInt(items.size()));
 
             // Skip if this favorite already exists
-            if (favoriteRepository.findByUserAndItem(user, item).isPresent()) {
+            if (!favoriteKeys.add(user.getId() + ":" + item.getId())) {
                 continue;
             }
 
-            Favorite favorite = new Favorite(user, item);
-            favoriteRepository.save(favorite);
+            favorites.add(new Favorite(user, item));
         }
+        favoriteRepository.saveAll(favorites);
+
+        String[] messages = {
+                "Hei, er dette fortsatt tilgjengelig?",
+                "Kan du gi meg mer informasjon?",
+                "Hva er din beste pris?",
+                "Kan jeg komme og se på det?",
+                "Er det mulig å forhandle om prisen?",
+                "Når kan jeg hente det?",
+                "Har du flere bilder?",
+                "Er det i god stand?"
+        };
 
         // Create 200 random messages
+        Set<String> messageKeys = new HashSet<>();
+        List<Message> conversationMessages = new ArrayList<>();
         for (int i = 0; i < 200; i++) {
-            User sender = userRepository.findAll().get(random.nextInt(20) + 1);
+            User sender = users.get(random.nextInt(users.size()));
             User receiver;
             do {
-                receiver = userRepository.findAll().get(random.nextInt(20) + 1);
+                receiver = users.get(random.nextInt(users.size()));
             } while (receiver.equals(sender));
 
-            Item item = itemRepository.findAll().get(random.nextInt(itemRepository.findAll().size()));
-
-            String[] messages = {
-                    "Hei, er dette fortsatt tilgjengelig?",
-                    "Kan du gi meg mer informasjon?",
-                    "Hva er din beste pris?",
-                    "Kan jeg komme og se på det?",
-                    "Er det mulig å forhandle om prisen?",
-                    "Når kan jeg hente det?",
-                    "Har du flere bilder?",
-                    "Er det i god stand?"
-            };
-
+            Item item = items.get(random.nextInt(items.size()));
             String messageContent = messages[random.nextInt(messages.length)];
 
-            // Skip if this exact message already exists
-            List<Message> existingMessages = messageRepository
-                    .findBySenderAndReceiverAndItemOrReceiverAndSenderAndItemOrderByTimestampAsc(
-                            sender, receiver, item, sender, receiver, item);
-            if (!existingMessages.isEmpty() && existingMessages.stream()
-                    .anyMatch(m -> m.getContent().equals(messageContent))) {
+            // Skip if this exact message already exists in the conversation, in either direction
+            long low = Math.min(sender.getId(), receiver.getId());
+            long high = Math.max(sender.getId(), receiver.getId());
+            if (!messageKeys.add(low + ":" + high + ":" + item.getId() + ":" + messageContent)) {
                 continue;
             }
 
-            Message message = new Message(sender, receiver, item, messageContent);
-            messageRepository.save(message);
+            conversationMessages.add(new Message(sender, receiver, item, messageContent));
         }
+        messageRepository.saveAll(conversationMessages);
     }
 
-    private void createRandomOrders() {
+    private void createRandomOrders(List<User> users, List<Item> items) {
+        String[] paymentMethods = { "Vipps", "Kredittkort", "BankID", "PayPal" };
+        OrderStatus[] statuses = { OrderStatus.RESERVED, OrderStatus.COMPLETED, OrderStatus.CANCELLED };
+
         // Create 50 random orders
+        Set<String> orderKeys = new HashSet<>();
+        List<Order> orders = new ArrayList<>();
         for (int i = 0; i < 50; i++) {
-            User buyer = userRepository.findAll().get(random.nextInt(20) + 1);
-            Item item = itemRepository.findAll().get(random.nextInt(itemRepository.findAll().size()));
+            User buyer = users.get(random.nextInt(users.size()));
+            Item item = items.get(random.nextInt(items.size()));
 
             // Skip if order for this buyer and item already exists
-            if (orderRepository.findByBuyerAndItem(buyer, item).isPresent()) {
+            if (!orderKeys.add(buyer.getId() + ":" + item.getId())) {
                 continue;
             }
 
-            String[] paymentMethods = { "Vipps", "Kredittkort", "BankID", "PayPal" };
-            OrderStatus[] statuses = { OrderStatus.RESERVED, OrderStatus.COMPLETED, OrderStatus.CANCELLED };
-
             Order order = new Order(buyer, item, paymentMethods[random.nextInt(paymentMethods.length)]);
             order.setStatus(statuses[random.nextInt(statuses.length)]);
             order.setTransactionId("TRX" + String.format("%06d", random.nextInt(1000000)));
-            orderRepository.save(order);
+            orders.add(order);
         }
+        orderRepository.saveAll(orders);
     }
-}
\ No newline at end of file
+}
@@ -1,11 +1,17 @@
 package stanism.marketplace.config;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+import stanism.marketplace.storage.ImageStorage;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 
 @Configuration
 public class FileStorageConfig implements WebMvcConfigurer {
@@ -14,7 +20,13 @@ public class FileStorageConfig implements WebMvcConfigurer {
      */
     private final Path uploadDir = Paths.get("uploads");
 
-    public FileStorageConfig() {
+    /**
+     * Storage backend that maps image URLs to stored files.
+     */
+    private final ImageStorage imageStorage;
+
+    public FileStorageConfig(ImageStorage imageStorage) {
+        this.imageStorage = imageStorage;
         try {
             if (!uploadDir.toFile().exists()) {
                 uploadDir.toFile().mkdirs();
@@ -26,7 +38,17 @@ public class FileStorageConfig implements WebMvcConfigurer {
 
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        // Stored uploads are never overwritten, so clients may cache them for a long time
         registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:uploads/");
+                .addResourceLocations("file:uploads/")
+                .setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                .resourceChain(true)
+                .addResolver(new PathResourceResolver() {
+                    @Override
+                    protected Resource getResource(String resourcePath, Resource location) {
+                        // Image URLs carry the storage key, which may live in a shard directory
+                        return imageStorage.resolve(resourcePath).map(FileSystemResource::new).orElse(null);
+                    }
+                });
     }
-}
\ No newline at end of file
+}
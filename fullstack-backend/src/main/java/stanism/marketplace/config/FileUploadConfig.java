@@ -19,6 +19,8 @@ public class FileUploadConfig {
         factory.setMaxFileSize(DataSize.ofMegabytes(512));
         // Set maximum request size to 1GB (for multiple files)
         factory.setMaxRequestSize(DataSize.ofGigabytes(1));
+        // Spool every part to disk so uploads are streamed rather than held in memory
+        factory.setFileSizeThreshold(DataSize.ofBytes(0));
         return factory.createMultipartConfig();
     }
 
@@ -0,0 +1,54 @@
+package stanism.marketplace.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executors used to write uploaded item images to disk in parallel and to
+ * pre-generate their variants. Both pools and their queues are bounded.
+ * When the ingestion pool is full the submitting request thread copies the
+ * image itself, which throttles uploads instead of rejecting them. When the
+ * variant pool is full the task is dropped, since variants are generated on
+ * first request anyway.
+ */
+@Configuration
+public class ImageIngestionConfig {
+
+    /** Logger for this class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImageIngestionConfig.class);
+
+    @Bean(name = "imageIngestionExecutor")
+    public ThreadPoolTaskExecutor imageIngestionExecutor(
+            @Value("${app.images.ingest.threads:4}") int threads,
+            @Value("${app.images.ingest.queue-capacity:64}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-ingest-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    @Bean(name = "imageVariantExecutor")
+    public ThreadPoolTaskExecutor imageVariantExecutor(
+            @Value("${app.images.variants.pregenerate-threads:1}") int threads,
+            @Value("${app.images.variants.pregenerate-queue-capacity:256}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-variant-");
+        executor.setRejectedExecutionHandler((task, pool) ->
+                LOGGER.warn("Variant pre-generation queue is full; variants will be generated on first request"));
+        return executor;
+    }
+}
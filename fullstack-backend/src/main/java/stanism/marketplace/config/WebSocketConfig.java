@@ -1,46 +1,116 @@
 package stanism.marketplace.config;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import stanism.marketplace.logging.StompCorrelationInterceptor;
+import stanism.marketplace.metrics.StompMetrics;
 import stanism.marketplace.security.WebSocketAuthInterceptor;
 
+/**
+ * STOMP over WebSocket configuration.
+ * Chat is delivered on user destinations ({@code /user/queue/chat}), so each
+ * message is routed only to the sessions of its sender and receiver rather
+ * than matched against every subscription; {@code /topic} carries broadcast
+ * events such as item status changes. The inbound and outbound channels run
+ * on bounded pools sized for many concurrent sessions, outbound messages keep
+ * their per-session order, and the broker exchanges heartbeats with clients
+ * so dead connections are dropped.
+ */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     /**
-     * 
+     *
      * auth for websocket.
      */
     private final WebSocketAuthInterceptor webSocketAuthInterceptor;
 
-    public WebSocketConfig(WebSocketAuthInterceptor webSocketAuthInterceptor) {
+    /** Scheduler sending broker heartbeats; lazy because the broker configuration creates it. */
+    private final TaskScheduler heartbeatScheduler;
+
+    /** Counts messages on the client channels. */
+    private final StompMetrics stompMetrics;
+
+    /** Carries correlation IDs from the handshake and frames into the MDC. */
+    private final StompCorrelationInterceptor correlationInterceptor;
+
+    /** Threads handling messages from clients. */
+    @Value("${app.websocket.inbound.threads:16}")
+    private int inboundThreads;
+
+    /** Threads writing messages to clients. */
+    @Value("${app.websocket.outbound.threads:16}")
+    private int outboundThreads;
+
+    /** Messages that may wait for a channel thread before further messages are rejected. */
+    @Value("${app.websocket.queue-capacity:10000}")
+    private int queueCapacity;
+
+    /** Interval between server heartbeats, and the longest expected gap between client heartbeats. */
+    @Value("${app.websocket.heartbeat-ms:10000}")
+    private long heartbeatMillis;
+
+    /** Destinations whose subscribers the broker caches; one per connected session with user destinations. */
+    @Value("${app.websocket.broker.cache-limit:16384}")
+    private int brokerCacheLimit;
+
+    public WebSocketConfig(WebSocketAuthInterceptor webSocketAuthInterceptor,
+            @Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler heartbeatScheduler,
+            StompMetrics stompMetrics, StompCorrelationInterceptor correlationInterceptor) {
         this.webSocketAuthInterceptor = webSocketAuthInterceptor;
+        this.heartbeatScheduler = heartbeatScheduler;
+        this.stompMetrics = stompMetrics;
+        this.correlationInterceptor = correlationInterceptor;
     }
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        config.enableSimpleBroker("/topic", "/queue")
+                .setHeartbeatValue(new long[] { heartbeatMillis, heartbeatMillis })
+                .setTaskScheduler(heartbeatScheduler)
+                // No client uses selectors, so skip evaluating them for every subscription
+                .setSelectorHeaderName(null);
         config.setApplicationDestinationPrefixes("/app");
         config.setUserDestinationPrefix("/user");
+        config.setCacheLimit(brokerCacheLimit);
+        config.setPreservePublishOrder(true);
     }
 
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws")
                 .setAllowedOrigins("http://localhost:3173")
+                .addInterceptors(correlationInterceptor)
                 .withSockJS()
                 .setClientLibraryUrl("https://cdn.jsdelivr.net/npm/sockjs-client@1/dist/sockjs.min.js");
     }
 
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
-        registration.interceptors(webSocketAuthInterceptor);
+        registration.interceptors(correlationInterceptor, webSocketAuthInterceptor, stompMetrics.inboundInterceptor());
+        registration.taskExecutor()
+                .corePoolSize(inboundThreads)
+                .maxPoolSize(inboundThreads)
+                .queueCapacity(queueCapacity);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompMetrics.outboundInterceptor());
+        registration.taskExecutor()
+                .corePoolSize(outboundThreads)
+                .maxPoolSize(outboundThreads)
+                .queueCapacity(queueCapacity);
     }
 
     @Override
@@ -49,4 +119,4 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setSendBufferSizeLimit(512 * 1024)
                 .setMessageSizeLimit(128 * 1024);
     }
-}
\ No newline at end of file
+}
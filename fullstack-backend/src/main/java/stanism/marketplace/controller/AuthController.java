@@ -9,6 +9,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -34,6 +36,9 @@ import stanism.marketplace.model.dto.UserResponse;
 @Tag(name = "Authentication", description = "Endpoints for user authentication and session management")
 public class AuthController {
 
+        /** Logger for this class. */
+        private static final Logger LOGGER = LoggerFactory.getLogger(AuthController.class);
+
         /** Service for handling user-related operations. */
         private final UserService userService;
 
@@ -94,7 +99,7 @@ public class AuthController {
 
                         return ResponseEntity.ok("Login successful");
                 } catch (Exception e) {
-                        System.out.println(e.getMessage());
+                        LOGGER.debug("Login failed: {}", e.getMessage());
                         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials");
                 }
         }
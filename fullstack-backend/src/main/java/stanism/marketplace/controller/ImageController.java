@@ -2,19 +2,16 @@ package stanism.marketplace.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
-import org.springframework.http.MediaType;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.net.MalformedURLException;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.IOException;
 
 @RestController
 @RequestMapping("/api/images")
@@ -22,22 +19,22 @@ import java.nio.file.Paths;
 @Tag(name = "Image Management", description = "Endpoints for managing item images")
 public class ImageController {
 
+    /** Builds cacheable, range-aware image responses. */
+    private final ImageResponseFactory imageResponseFactory;
+
+    public ImageController(ImageResponseFactory imageResponseFactory) {
+        this.imageResponseFactory = imageResponseFactory;
+    }
+
     @GetMapping("/{filename:.+}")
-    @Operation(summary = "Get item image", 
-              description = "Retrieves an image file for an item")
-    public ResponseEntity<Resource> getImage(@PathVariable String filename) {
-        try {
-            Path imagePath = Paths.get("uploads/" + filename);
-            UrlResource image = new UrlResource(imagePath.toUri());
-            if (image.exists() && image.isReadable()) {
-                return ResponseEntity.ok()
-                        .contentType(MediaType.IMAGE_PNG)
-                        .body(image);
-            } else {
-                throw new RuntimeException("Could not read the file!");
-            }
-        } catch (MalformedURLException e) {
-            throw new RuntimeException("Error: " + e.getMessage());
-        }
+    @Operation(summary = "Get item image",
+              description = "Retrieves an image file for an item, optionally resized to a variant or width. "
+                      + "Supports conditional and range requests")
+    public ResponseEntity<?> getImage(
+            @PathVariable String filename,
+            @RequestParam(value = "variant", required = false) String variant,
+            @RequestParam(value = "w", required = false) Integer width,
+            HttpServletRequest request) throws IOException {
+        return imageResponseFactory.serve(filename, variant, width, request);
     }
 } 
\ No newline at end of file
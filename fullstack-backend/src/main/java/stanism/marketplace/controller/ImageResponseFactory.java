@@ -0,0 +1,251 @@
+package stanism.marketplace.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import stanism.marketplace.service.ImageVariantService;
+import stanism.marketplace.storage.ImageFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Builds HTTP responses for stored image files.
+ * Responses carry a strong ETag derived from the file's SHA-256, a
+ * Last-Modified date and a long-lived Cache-Control header, and conditional
+ * requests are answered with 304 Not Modified. A single byte range is served
+ * as 206 Partial Content. The media type is detected from the file's leading
+ * bytes, never from the name the client uploaded it under: a file that is not
+ * a recognised image is served as {@code application/octet-stream} with
+ * {@code X-Content-Type-Options: nosniff}, so an upload named .html or .svg
+ * cannot run as active content on this origin. File bodies are handed to the servlet
+ * container's sendfile support when it is available, and otherwise copied
+ * with {@link FileChannel#transferTo}, so image bytes never pass through a
+ * heap buffer of the application.
+ */
+@Component
+public class ImageResponseFactory {
+
+    /** Request attribute Tomcat sets when the connector supports sendfile. */
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+    /** Request attribute naming the file Tomcat should send. */
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+    /** Request attribute holding the first byte Tomcat should send. */
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+
+    /** Request attribute holding the byte after the last one Tomcat should send. */
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /** Smallest body worth handing to sendfile; smaller bodies are cheaper to copy. */
+    private static final long SENDFILE_THRESHOLD = 48 * 1024;
+
+    /** Number of files whose detected media type is remembered. */
+    private static final int MAX_MEDIA_TYPES = 10_000;
+
+    /** Service used to compute content hashes. */
+    private final ImageVariantService imageVariantService;
+
+    /** Cache-Control header sent with every image. */
+    private final CacheControl cacheControl;
+
+    /** Detected media type per file, least recently used first out; stored images never change content. */
+    private final Map<Path, MediaType> mediaTypes = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Path, MediaType> eldest) {
+                    return size() > MAX_MEDIA_TYPES;
+                }
+            });
+
+    public ImageResponseFactory(ImageVariantService imageVariantService,
+            @Value("${app.images.cache-max-age:365d}") Duration cacheMaxAge) {
+        this.imageVariantService = imageVariantService;
+        this.cacheControl = CacheControl.maxAge(cacheMaxAge).cachePublic().immutable();
+    }
+
+    /**
+     * Builds the response for an image request by stored file name, resolving
+     * the requested variant or width first.
+     *
+     * @param filename the stored file name of the original
+     * @param variant the requested variant name, or null
+     * @param width the width the client will display the image at, or null
+     * @param request the current request
+     * @return the image response, or 400 for an invalid variant or width and 404 for an unknown image
+     * @throws IOException if the file cannot be read
+     */
+    public ResponseEntity<?> serve(String filename, String variant, Integer width, HttpServletRequest request)
+            throws IOException {
+        Optional<Path> imagePath;
+        try {
+            imagePath = imageVariantService.resolve(filename, variant, width);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+        if (imagePath.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Image not found");
+        }
+        return serve(imagePath.get(), request);
+    }
+
+    /**
+     * Builds the response for a stored image, honouring conditional and range headers.
+     *
+     * @param file the image file to serve
+     * @param request the current request
+     * @return a 200, 206, 304 or 416 response
+     * @throws IOException if the file cannot be read
+     */
+    public ResponseEntity<?> serve(Path file, HttpServletRequest request) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = "\"" + imageVariantService.contentHash(file) + "\"";
+
+        if (isNotModified(request, etag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .lastModified(lastModified)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        headers.setLastModified(lastModified);
+        headers.setCacheControl(cacheControl);
+        headers.setContentType(mediaTypeOf(file));
+        headers.set("X-Content-Type-Options", "nosniff");
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        long start = 0;
+        long end = length - 1;
+        HttpStatus status = HttpStatus.OK;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && length > 0 && rangeStillValid(request, etag, lastModified)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            // Multiple ranges would need a multipart body; answering with the whole file is allowed
+            if (ranges.size() == 1) {
+                HttpRange range = ranges.get(0);
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+                if (start >= length || start > end) {
+                    return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                            .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                            .build();
+                }
+                status = HttpStatus.PARTIAL_CONTENT;
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = length == 0 ? 0 : end - start + 1;
+        headers.setContentLength(count);
+        if (count >= SENDFILE_THRESHOLD && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return ResponseEntity.status(status).headers(headers).build();
+        }
+        long position = start;
+        StreamingResponseBody body = outputStream -> transfer(file, position, count, outputStream);
+        return ResponseEntity.status(status).headers(headers).body(body);
+    }
+
+    private static void transfer(Path file, long position, long count, OutputStream outputStream)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(outputStream);
+            long sent = 0;
+            while (sent < count) {
+                long written = channel.transferTo(position + sent, count - sent, target);
+                if (written <= 0) {
+                    break;
+                }
+                sent += written;
+            }
+        }
+    }
+
+    private static boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return matchesEtag(ifNoneMatch, etag);
+        }
+        long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        // HTTP dates have one-second precision
+        return ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    private static boolean rangeStillValid(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        long date = dateHeader(request, HttpHeaders.IF_RANGE);
+        return date >= 0 && lastModified / 1000 == date / 1000;
+    }
+
+    private static boolean matchesEtag(String header, String etag) {
+        return Arrays.stream(header.split(","))
+                .map(String::trim)
+                .map(candidate -> candidate.startsWith("W/") ? candidate.substring(2) : candidate)
+                .anyMatch(candidate -> candidate.equals("*") || candidate.equals(etag));
+    }
+
+    private static long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private MediaType mediaTypeOf(Path file) throws IOException {
+        MediaType known = mediaTypes.get(file);
+        if (known != null) {
+            return known;
+        }
+        byte[] head;
+        try (InputStream input = Files.newInputStream(file)) {
+            head = input.readNBytes(ImageFormat.HEADER_LENGTH);
+        }
+        MediaType detected = ImageFormat.detect(head)
+                .map(format -> MediaType.parseMediaType(format.getMediaType()))
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+        mediaTypes.put(file, detected);
+        return detected;
+    }
+}
@@ -3,8 +3,11 @@ package stanism.marketplace.controller;
 import io.swagger.v3.oas.annotations.Operation;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -18,34 +21,42 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import stanism.marketplace.model.Category;
 import stanism.marketplace.model.Favorite;
 import stanism.marketplace.model.Image;
 import stanism.marketplace.model.Item;
-import stanism.marketplace.model.ItemStatus;
 import stanism.marketplace.model.User;
 import stanism.marketplace.model.dto.CreateItemRequestDTO;
+import stanism.marketplace.model.dto.FacetCountDTO;
+import stanism.marketplace.model.dto.ItemCursor;
+import stanism.marketplace.model.dto.ItemFilterRequestDTO;
+import stanism.marketplace.model.dto.ItemFilterResponseDTO;
+import stanism.marketplace.model.dto.ItemPageDTO;
 import stanism.marketplace.model.dto.ItemResponseDTO;
+import stanism.marketplace.model.dto.ItemSearchResponseDTO;
 import stanism.marketplace.model.dto.ItemMapper;
+import stanism.marketplace.search.ItemFacetIndex;
+import stanism.marketplace.search.ItemFilter;
+import stanism.marketplace.search.ItemGeoIndex;
 import stanism.marketplace.security.JwtUtil;
 import stanism.marketplace.service.CategoryService;
 import stanism.marketplace.service.ItemService;
 import stanism.marketplace.service.UserService;
 import stanism.marketplace.service.FavoriteService;
-import stanism.marketplace.service.ImageService;
+import stanism.marketplace.service.ImageIngestionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.time.LocalDateTime;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @RestController
@@ -65,8 +76,11 @@ public class ItemController {
     /** Service for handling category-related operations. */
     private final CategoryService categoryService;
 
-    /** Service for handling image-related operations. */
-    private final ImageService imageService;
+    /** Service that stores uploaded item images. */
+    private final ImageIngestionService imageIngestionService;
+
+    /** Builds cacheable, range-aware image responses. */
+    private final ImageResponseFactory imageResponseFactory;
 
     /** Utility for JWT token operations. */
     private final JwtUtil jwtUtil;
@@ -74,25 +88,316 @@ public class ItemController {
     /** Service for handling favorite-related operations. */
     private final FavoriteService favoriteService;
 
+    /** Shared JSON mapper used for request parsing and streamed responses. */
+    private final ObjectMapper objectMapper;
+
+    /** Page size used by the item feed when the client does not specify one. */
+    @Value("${app.items.feed.default-page-size:20}")
+    private int defaultPageSize;
+
+    /** Upper bound on the page size a client may request from the item feed. */
+    @Value("${app.items.feed.max-page-size:100}")
+    private int maxPageSize;
+
+    /** Number of top results a client may page through in a ranked search. */
+    @Value("${app.items.search.max-result-window:10000}")
+    private int maxResultWindow;
+
+    /** Largest radius accepted by the nearby search, in kilometres. */
+    @Value("${app.items.geo.max-radius-km:500}")
+    private double maxRadiusKm;
+
+    /** Largest latitude or longitude span accepted by the bounding-box search, in degrees. */
+    @Value("${app.items.geo.max-box-degrees:10}")
+    private double maxBoxDegrees;
+
+    /** Largest number of item IDs accepted by one favorite status lookup. */
+    @Value("${app.favorites.lookup.max-item-ids:500}")
+    private int maxFavoriteLookupIds;
+
     public ItemController(ItemService itemService, UserService userService,
             CategoryService categoryService, JwtUtil jwtUtil,
-            FavoriteService favoriteService, ImageService imageService) {
+            FavoriteService favoriteService, ImageIngestionService imageIngestionService,
+            ImageResponseFactory imageResponseFactory,
+            ObjectMapper objectMapper) {
         this.itemService = itemService;
         this.userService = userService;
         this.categoryService = categoryService;
         this.jwtUtil = jwtUtil;
         this.favoriteService = favoriteService;
-        this.imageService = imageService;
+        this.imageIngestionService = imageIngestionService;
+        this.imageResponseFactory = imageResponseFactory;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
-    @Operation(summary = "Get all items", description = "Retrieves a list of all items in the marketplace")
-    public ResponseEntity<List<ItemResponseDTO>> getAllItems() {
-        List<Item> items = itemService.getAllItems();
-        List<ItemResponseDTO> itemDTOs = items.stream()
+    @Operation(summary = "Get all items",
+            description = "Streams every item in the marketplace as a JSON array, newest first")
+    public ResponseEntity<StreamingResponseBody> getAllItems() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                itemService.forEachItem(item -> {
+                    try {
+                        generator.writeObject(ItemMapper.toDTO(item));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @GetMapping("/feed")
+    @Operation(summary = "Get item feed page",
+            description = "Retrieves one page of items, newest first, continuing from an optional cursor")
+    public ResponseEntity<?> getItemFeed(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        ItemCursor after;
+        try {
+            after = cursor == null || cursor.isBlank() ? null : ItemCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid cursor");
+        }
+
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        // Fetch one extra row to learn whether a next page exists without a COUNT query
+        List<Item> items = itemService.getItemFeedPage(after, pageSize + 1);
+        boolean hasMore = items.size() > pageSize;
+        List<Item> page = hasMore ? items.subList(0, pageSize) : items;
+
+        String nextCursor = null;
+        if (hasMore) {
+            Item last = page.get(page.size() - 1);
+            nextCursor = new ItemCursor(last.getPublishDate(), last.getId()).encode();
+        }
+
+        List<ItemResponseDTO> itemDTOs = page.stream()
                 .map(ItemMapper::toDTO)
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(itemDTOs);
+        return ResponseEntity.ok(new ItemPageDTO(markFavorites(itemDTOs), nextCursor));
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search items",
+            description = "Full-text search over item titles and descriptions, ranked by relevance")
+    public ResponseEntity<?> searchItems(
+            @RequestParam("q") String query,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", required = false) Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        if (!isInResultWindow(page, pageSize)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Page must be within the first " + maxResultWindow + " results");
+        }
+        Page<Item> results = itemService.searchItems(query, PageRequest.of(page, pageSize));
+        List<ItemResponseDTO> itemDTOs = results.getContent().stream()
+                .map(ItemMapper::toDTO)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(new ItemSearchResponseDTO(markFavorites(itemDTOs), page, pageSize,
+                results.getTotalElements()));
+    }
+
+    /**
+     * Checks that a page of a ranked search lies within the result window.
+     * Ranking a page costs time proportional to its end, so deep pages are
+     * refused rather than ranked.
+     *
+     * @param page the zero-based page number
+     * @param pageSize the page size
+     * @return whether the page may be requested
+     */
+    private boolean isInResultWindow(int page, int pageSize) {
+        return page >= 0 && (long) page * pageSize < maxResultWindow;
+    }
+
+    @GetMapping("/nearby")
+    @Operation(summary = "Get items near a location",
+            description = "Retrieves items within a radius of a point, nearest first")
+    public ResponseEntity<?> getItemsNearby(
+            @RequestParam("lat") double latitude,
+            @RequestParam("lon") double longitude,
+            @RequestParam(value = "radiusKm", defaultValue = "10") double radiusKm,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", required = false) Integer size) {
+        if (!isValidCoordinate(latitude, longitude)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid coordinates");
+        }
+        if (radiusKm <= 0 || radiusKm > maxRadiusKm) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Radius must be between 0 and " + maxRadiusKm + " km");
+        }
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        if (!isInResultWindow(page, pageSize)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Page must be within the first " + maxResultWindow + " results");
+        }
+
+        Page<Item> results = itemService.getItemsNearby(latitude, longitude, radiusKm,
+                PageRequest.of(page, pageSize));
+        List<ItemResponseDTO> itemDTOs = results.getContent().stream()
+                .map(item -> {
+                    ItemResponseDTO dto = ItemMapper.toDTO(item);
+                    dto.setDistanceKm(ItemGeoIndex.haversineKm(latitude, longitude,
+                            item.getLatitude(), item.getLongitude()));
+                    return dto;
+                })
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(new ItemSearchResponseDTO(markFavorites(itemDTOs), page, pageSize,
+                results.getTotalElements()));
+    }
+
+    @GetMapping("/within")
+    @Operation(summary = "Get items inside a bounding box",
+            description = "Retrieves items inside a latitude/longitude box, ordered by distance from its centre")
+    public ResponseEntity<?> getItemsWithin(
+            @RequestParam("minLat") double minLatitude,
+            @RequestParam("minLon") double minLongitude,
+            @RequestParam("maxLat") double maxLatitude,
+            @RequestParam("maxLon") double maxLongitude,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", required = false) Integer size) {
+        if (!isValidCoordinate(minLatitude, minLongitude) || !isValidCoordinate(maxLatitude, maxLongitude)
+                || minLatitude > maxLatitude) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid bounding box");
+        }
+        // A box whose western edge is east of its eastern edge crosses the antimeridian
+        double eastEdge = maxLongitude < minLongitude ? maxLongitude + 360 : maxLongitude;
+        if (maxLatitude - minLatitude > maxBoxDegrees || eastEdge - minLongitude > maxBoxDegrees) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Bounding box must not span more than " + maxBoxDegrees + " degrees");
+        }
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        if (!isInResultWindow(page, pageSize)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Page must be within the first " + maxResultWindow + " results");
+        }
+        Page<Item> results = itemService.getItemsWithin(minLatitude, minLongitude, maxLatitude, eastEdge,
+                PageRequest.of(page, pageSize));
+        List<ItemResponseDTO> itemDTOs = results.getContent().stream()
+                .map(ItemMapper::toDTO)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(new ItemSearchResponseDTO(markFavorites(itemDTOs), page, pageSize,
+                results.getTotalElements()));
+    }
+
+    @GetMapping("/filter")
+    @Operation(summary = "Filter items",
+            description = "Filters items by category, price range, status, location and publish date in one query, "
+                    + "with item counts per category and price bucket")
+    public ResponseEntity<?> filterItems(@ParameterObject ItemFilterRequestDTO request) {
+        Double minPrice = request.getMinPrice();
+        Double maxPrice = request.getMaxPrice();
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Minimum price must not exceed maximum price");
+        }
+        Double latitude = request.getLat();
+        Double longitude = request.getLon();
+        Double radiusKm = request.getRadiusKm();
+        boolean hasLocation = latitude != null || longitude != null;
+        if (hasLocation) {
+            if (latitude == null || longitude == null || !isValidCoordinate(latitude, longitude)) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid coordinates");
+            }
+            radiusKm = radiusKm == null ? 10 : radiusKm;
+            if (radiusKm <= 0 || radiusKm > maxRadiusKm) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body("Radius must be between 0 and " + maxRadiusKm + " km");
+            }
+        } else if (request.getSort() == ItemFilter.Sort.DISTANCE) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Sorting by distance requires a location");
+        }
+        int page = request.getPage();
+        int pageSize = request.getSize() == null ? defaultPageSize
+                : Math.max(1, Math.min(request.getSize(), maxPageSize));
+        if (!isInResultWindow(page, pageSize)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Page must be within the first " + maxResultWindow + " results");
+        }
+
+        ItemFilter filter = new ItemFilter.Builder()
+                .categoryId(request.getCategoryId())
+                .price(minPrice, maxPrice)
+                .status(request.getStatus())
+                .near(latitude, longitude, hasLocation ? radiusKm : null)
+                .published(request.getPublishedAfter(), request.getPublishedBefore())
+                .sort(request.getSort() == null ? ItemFilter.Sort.NEWEST : request.getSort())
+                .build();
+        ItemFacetIndex.FacetResult result = itemService.filterItems(filter, PageRequest.of(page, pageSize));
+
+        List<ItemResponseDTO> itemDTOs = itemService.findAllInOrder(result.itemIds()).stream()
+                .map(item -> {
+                    ItemResponseDTO dto = ItemMapper.toDTO(item);
+                    if (hasLocation && item.getLatitude() != null && item.getLongitude() != null) {
+                        dto.setDistanceKm(ItemGeoIndex.haversineKm(latitude, longitude,
+                                item.getLatitude(), item.getLongitude()));
+                    }
+                    return dto;
+                })
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(new ItemFilterResponseDTO(markFavorites(itemDTOs), page, pageSize,
+                result.totalHits(), categoryFacets(result), priceFacets(result)));
+    }
+
+    /**
+     * Labels the category facet counts of a filter result with category names.
+     *
+     * @param result the filter result
+     * @return the category facets
+     */
+    private List<FacetCountDTO> categoryFacets(ItemFacetIndex.FacetResult result) {
+        Map<Long, String> categoryNames = categoryService.getAllCategories().stream()
+                .collect(Collectors.toMap(Category::getId, Category::getName));
+        return result.categoryCounts().entrySet().stream()
+                .map(entry -> new FacetCountDTO(String.valueOf(entry.getKey()),
+                        categoryNames.getOrDefault(entry.getKey(), ""), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Labels the price bucket counts of a filter result with their ranges.
+     *
+     * @param result the filter result
+     * @return the price facets
+     */
+    private static List<FacetCountDTO> priceFacets(ItemFacetIndex.FacetResult result) {
+        return result.priceBuckets().stream()
+                .map(bucket -> {
+                    String range = bucket.max() == null
+                            ? String.format("%.0f-", bucket.min())
+                            : String.format("%.0f-%.0f", bucket.min(), bucket.max());
+                    return new FacetCountDTO(range, range, bucket.count());
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Sets the favorited flag on listed items for a signed-in user, using one
+     * lookup in the user's cached favorite set instead of a request per item.
+     *
+     * @param itemDTOs the listed items
+     * @return the same list, with favorited flags set when a user is signed in
+     */
+    private List<ItemResponseDTO> markFavorites(List<ItemResponseDTO> itemDTOs) {
+        Optional<User> currentUser = userService.getAuthenticatedUser();
+        if (currentUser.isEmpty() || itemDTOs.isEmpty()) {
+            return itemDTOs;
+        }
+        Set<Long> favorited = favoriteService.getFavoritedItemIds(currentUser.get(),
+                itemDTOs.stream().map(ItemResponseDTO::getId).collect(Collectors.toList()));
+        for (ItemResponseDTO dto : itemDTOs) {
+            dto.setFavorited(favorited.contains(dto.getId()));
+        }
+        return itemDTOs;
+    }
+
+    private boolean isValidCoordinate(double latitude, double longitude) {
+        return latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
     }
 
     @GetMapping("/{itemId}")
@@ -102,7 +407,9 @@ public class ItemController {
         if (optionalItem.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Item not found");
         }
-        return ResponseEntity.ok(ItemMapper.toDTO(optionalItem.get()));
+        ItemResponseDTO dto = ItemMapper.toDTO(optionalItem.get());
+        markFavorites(List.of(dto));
+        return ResponseEntity.ok(dto);
     }
 
     @GetMapping("/user")
@@ -125,7 +432,7 @@ public class ItemController {
             List<ItemResponseDTO> itemDTOs = userItems.stream()
                     .map(ItemMapper::toDTO)
                     .collect(Collectors.toList());
-            return ResponseEntity.ok(itemDTOs);
+            return ResponseEntity.ok(markFavorites(itemDTOs));
         }
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not logged in");
     }
@@ -143,7 +450,7 @@ public class ItemController {
         List<ItemResponseDTO> itemDTOs = items.stream()
                 .map(ItemMapper::toDTO)
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(itemDTOs);
+        return ResponseEntity.ok(markFavorites(itemDTOs));
     }
 
     @PostMapping
@@ -199,7 +506,6 @@ public class ItemController {
     }
 
     private CreateItemRequestDTO parseItemData(String itemDataJson) throws IOException {
-        ObjectMapper objectMapper = new ObjectMapper();
         CreateItemRequestDTO itemData = objectMapper.readValue(itemDataJson, CreateItemRequestDTO.class);
         LOGGER.debug("Parsed item data: {}", itemData);
         return itemData;
@@ -251,46 +557,19 @@ public class ItemController {
         Item createdItem = itemService.saveItem(item);
         LOGGER.info("Saved item with ID: {}", createdItem.getId());
 
-        for (MultipartFile imageFile : imageFiles) {
-            try {
-                LOGGER.debug("Saving image: {}", imageFile.getOriginalFilename());
-                Image image = saveImage(imageFile, createdItem);
-                image = imageService.saveImage(image);
-                createdItem.getImages().add(image);
-                LOGGER.info("Successfully saved image: {}", image.getImageUrl());
-            } catch (IOException e) {
-                LOGGER.error("Failed to save image: {}", e.getMessage(), e);
-                itemService.deleteItem(createdItem.getId());
-                throw e;
-            }
+        try {
+            List<Image> images = imageIngestionService.ingest(createdItem, imageFiles);
+            createdItem.getImages().addAll(images);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Failed to save images: {}", e.getMessage(), e);
+            itemService.deleteItem(createdItem.getId());
+            throw e;
         }
 
-        createdItem = itemService.saveItem(createdItem);
         LOGGER.info("Successfully created item with {} images", createdItem.getImages().size());
         return createdItem;
     }
 
-    private Image saveImage(MultipartFile imageFile, Item item) throws IOException {
-        LOGGER.debug("Saving image file: {}", imageFile.getOriginalFilename());
-
-        String originalFilename = imageFile.getOriginalFilename();
-        String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        String fileName = UUID.randomUUID().toString() + extension;
-        LOGGER.debug("Generated filename: {}", fileName);
-
-        Path filePath = Paths.get("uploads", fileName);
-        LOGGER.debug("Saving to path: {}", filePath);
-
-        Files.createDirectories(filePath.getParent());
-        Files.write(filePath, imageFile.getBytes());
-        LOGGER.info("Successfully saved image file to: {}", filePath);
-
-        String imageUrl = "/uploads/" + fileName;
-        LOGGER.debug("Created image URL: {}", imageUrl);
-
-        return new Image(item, imageUrl, originalFilename);
-    }
-
     @DeleteMapping("/{itemId}")
     @Operation(summary = "Delete item", description = "Deletes an item by its ID")
     public ResponseEntity<?> deleteItem(@PathVariable Long itemId) {
@@ -304,21 +583,15 @@ public class ItemController {
     }
 
     @GetMapping("/images/{filename:.+}")
-    @Operation(summary = "Get item image", description = "Retrieves an image file for an item")
-    public ResponseEntity<Resource> getImage(@PathVariable String filename) {
-        try {
-            Path imagePath = Paths.get("uploads/" + filename);
-            UrlResource image = new UrlResource(imagePath.toUri());
-            if (image.exists() && image.isReadable()) {
-                return ResponseEntity.ok()
-                        .contentType(MediaType.IMAGE_PNG)
-                        .body(image);
-            } else {
-                throw new RuntimeException("Could not read the file!");
-            }
-        } catch (MalformedURLException e) {
-            throw new RuntimeException("Error: " + e.getMessage());
-        }
+    @Operation(summary = "Get item image",
+            description = "Retrieves an image file for an item, optionally resized to a variant or width. "
+                    + "Supports conditional and range requests")
+    public ResponseEntity<?> getImage(
+            @PathVariable String filename,
+            @RequestParam(value = "variant", required = false) String variant,
+            @RequestParam(value = "w", required = false) Integer width,
+            HttpServletRequest request) throws IOException {
+        return imageResponseFactory.serve(filename, variant, width, request);
     }
 
     @PostMapping("/{itemId}/favorite")
@@ -371,7 +644,11 @@ public class ItemController {
 
         List<Favorite> favorites = favoriteService.getUserFavorites(currentUser.get());
         List<ItemResponseDTO> itemDTOs = favorites.stream()
-                .map(favorite -> ItemMapper.toDTO(favorite.getItem()))
+                .map(favorite -> {
+                    ItemResponseDTO dto = ItemMapper.toDTO(favorite.getItem());
+                    dto.setFavorited(true);
+                    return dto;
+                })
                 .collect(Collectors.toList());
         return ResponseEntity.ok(itemDTOs);
     }
@@ -382,8 +659,7 @@ public class ItemController {
     public ResponseEntity<?> isItemFavorited(
             @PathVariable Long itemId) {
 
-        Optional<Item> optionalItem = itemService.getItemById(itemId);
-        if (optionalItem.isEmpty()) {
+        if (!itemService.itemExists(itemId)) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Item not found");
         }
 
@@ -392,59 +668,18 @@ public class ItemController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not logged in");
         }
 
-        boolean isFavorited = favoriteService.isItemFavorited(currentUser.get(), optionalItem.get());
+        boolean isFavorited = favoriteService.isItemFavorited(currentUser.get(), itemId);
         return ResponseEntity.ok(isFavorited);
     }
 
-    @PostMapping("/{itemId}/reserve")
-    @Operation(summary = "Reserve item", description = "Reserves an item for one hour")
-    public ResponseEntity<?> reserveItem(
-            @PathVariable Long itemId) {
-
-        Optional<Item> optionalItem = itemService.getItemById(itemId);
-        if (optionalItem.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Item not found");
-        }
-
-        Optional<User> currentUser = userService.getCurrentUser();
-        if (currentUser.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not logged in");
-        }
-
-        Item item = optionalItem.get();
-        User user = currentUser.get();
-
-        // Check if item is already reserved
-        if (item.getStatus() == ItemStatus.RESERVED) {
-            // Check if reservation has expired (1 hour)
-            if (item.getReservationDate() != null &&
-                    item.getReservationDate().plusHours(1).isAfter(LocalDateTime.now())) {
-                return ResponseEntity.status(HttpStatus.CONFLICT).body("Item is already reserved");
-            }
-        }
-
-        // Reserve the item
-        item.setStatus(ItemStatus.RESERVED);
-        item.setReservationDate(LocalDateTime.now());
-        item.setReservedBy(user);
-        itemService.saveItem(item);
-
-        return ResponseEntity.ok(ItemMapper.toDTO(item));
-    }
-
-    @DeleteMapping("/{itemId}/reserve")
-    @Operation(summary = "Cancel reservation", description = "Cancels the reservation of an item")
-    public ResponseEntity<?> cancelReservation(
-            @RequestHeader(value = "Authorization", required = false) String token,
-            @PathVariable Long itemId) {
-
-        if (!validateToken(token)) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
-        }
-
-        Optional<Item> optionalItem = itemService.getItemById(itemId);
-        if (optionalItem.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Item not found");
+    @GetMapping("/favorites/status")
+    @Operation(summary = "Check favorite status of several items",
+            description = "Returns, for each given item ID, whether the current user has favorited it")
+    public ResponseEntity<?> getFavoriteStatus(
+            @RequestParam("itemIds") List<Long> itemIds) {
+        if (itemIds.size() > maxFavoriteLookupIds) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("At most " + maxFavoriteLookupIds + " item IDs can be checked at once");
         }
 
         Optional<User> currentUser = userService.getCurrentUser();
@@ -452,20 +687,11 @@ public class ItemController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not logged in");
         }
 
-        Item item = optionalItem.get();
-        User user = currentUser.get();
-
-        // Check if user is the one who reserved the item
-        if (item.getReservedBy() == null || !item.getReservedBy().getId().equals(user.getId())) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You are not the reserver of this item");
+        Set<Long> favorited = favoriteService.getFavoritedItemIds(currentUser.get(), itemIds);
+        Map<Long, Boolean> status = new LinkedHashMap<>();
+        for (Long itemId : itemIds) {
+            status.put(itemId, favorited.contains(itemId));
         }
-
-        // Cancel the reservation
-        item.setStatus(ItemStatus.ACTIVE);
-        item.setReservationDate(null);
-        item.setReservedBy(null);
-        itemService.saveItem(item);
-
-        return ResponseEntity.ok(ItemMapper.toDTO(item));
+        return ResponseEntity.ok(status);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,100 @@
+package stanism.marketplace.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import stanism.marketplace.model.User;
+import stanism.marketplace.model.dto.ItemMapper;
+import stanism.marketplace.security.JwtUtil;
+import stanism.marketplace.service.ItemReservationService;
+import stanism.marketplace.service.UserService;
+
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/items")
+@CrossOrigin(origins = "http://localhost:3173")
+@Tag(name = "Item Management", description = "Endpoints for managing marketplace items")
+public class ItemReservationController {
+
+    /** Service for handling user-related operations. */
+    private final UserService userService;
+
+    /** Utility for JWT token operations. */
+    private final JwtUtil jwtUtil;
+
+    /** Service that reserves items atomically. */
+    private final ItemReservationService itemReservationService;
+
+    public ItemReservationController(UserService userService, JwtUtil jwtUtil,
+            ItemReservationService itemReservationService) {
+        this.userService = userService;
+        this.jwtUtil = jwtUtil;
+        this.itemReservationService = itemReservationService;
+    }
+
+    @PostMapping("/{itemId}/reserve")
+    @Operation(summary = "Reserve item", description = "Reserves an item for one hour")
+    public ResponseEntity<?> reserveItem(
+            @PathVariable Long itemId) {
+
+        Optional<User> currentUser = userService.getCurrentUser();
+        if (currentUser.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not logged in");
+        }
+
+        ItemReservationService.Result result = itemReservationService.reserve(itemId, currentUser.get());
+        switch (result.outcome()) {
+            case OK:
+                return ResponseEntity.ok(ItemMapper.toDTO(result.item()));
+            case NOT_FOUND:
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Item not found");
+            case ALREADY_RESERVED:
+                return ResponseEntity.status(HttpStatus.CONFLICT).body("Item is already reserved");
+            default:
+                return ResponseEntity.status(HttpStatus.CONFLICT).body("Item is not available for reservation");
+        }
+    }
+
+    @DeleteMapping("/{itemId}/reserve")
+    @Operation(summary = "Cancel reservation", description = "Cancels the reservation of an item")
+    public ResponseEntity<?> cancelReservation(
+            @RequestHeader(value = "Authorization", required = false) String token,
+            @PathVariable Long itemId) {
+
+        if (!validateToken(token)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
+        }
+
+        Optional<User> currentUser = userService.getCurrentUser();
+        if (currentUser.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not logged in");
+        }
+
+        ItemReservationService.Result result = itemReservationService.cancel(itemId, currentUser.get());
+        switch (result.outcome()) {
+            case OK:
+                return ResponseEntity.ok(ItemMapper.toDTO(result.item()));
+            case NOT_FOUND:
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Item not found");
+            default:
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You are not the reserver of this item");
+        }
+    }
+
+    private boolean validateToken(String token) {
+        if (token == null || token.trim().isEmpty()) {
+            return false;
+        }
+
+        return jwtUtil.validateToken(token);
+    }
+}
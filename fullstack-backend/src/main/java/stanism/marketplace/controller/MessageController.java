@@ -3,23 +3,30 @@ package stanism.marketplace.controller;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import stanism.marketplace.model.Message;
 import stanism.marketplace.model.User;
-import stanism.marketplace.model.Item;
+import stanism.marketplace.model.dto.ConversationDTO;
+import stanism.marketplace.model.dto.ConversationMapper;
 import stanism.marketplace.model.dto.MessageResponseDTO;
+import stanism.marketplace.service.ConversationService;
 import stanism.marketplace.service.MessageService;
 import stanism.marketplace.service.UserService;
 import stanism.marketplace.service.ItemService;
 import stanism.marketplace.model.dto.MessageMapper;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @RestController
@@ -28,6 +35,11 @@ import java.util.stream.Collectors;
 @SecurityRequirement(name = "bearerAuth")
 public class MessageController {
 
+        /**
+         * Logger for this class.
+         */
+        private static final Logger LOGGER = LoggerFactory.getLogger(MessageController.class);
+
         /**
          * Service for handling message-related operations.
          */
@@ -43,61 +55,82 @@ public class MessageController {
          */
         private final ItemService itemService;
 
-        public MessageController(MessageService messageService, UserService userService, ItemService itemService) {
+        /**
+         * Service for reading conversation summaries.
+         */
+        private final ConversationService conversationService;
+
+        /**
+         * Number of messages returned per history page when the client does not specify one.
+         */
+        @Value("${app.messages.history.default-page-size:50}")
+        private int defaultPageSize;
+
+        /**
+         * Upper bound on the number of messages a client may request per history page.
+         */
+        @Value("${app.messages.history.max-page-size:200}")
+        private int maxPageSize;
+
+        public MessageController(MessageService messageService, UserService userService, ItemService itemService,
+                        ConversationService conversationService) {
                 this.messageService = messageService;
                 this.userService = userService;
                 this.itemService = itemService;
+                this.conversationService = conversationService;
         }
 
         @GetMapping("/conversations")
-        @Operation(summary = "Get all conversations for the authenticated user")
-        public ResponseEntity<List<MessageResponseDTO>> getUserConversations(@AuthenticationPrincipal User user) {
-                List<Message> messages = messageService.getUserMessages(user);
-                List<MessageResponseDTO> dtos = messages.stream()
-                                .map(MessageMapper::toDTO)
+        @Operation(summary = "Get all conversations for the authenticated user",
+                        description = "Retrieves one summary per conversation, most recent first, with the latest "
+                                        + "message and the number of unread messages")
+        public ResponseEntity<List<ConversationDTO>> getUserConversations() {
+                Optional<User> user = userService.getCurrentUser();
+                if (user.isEmpty()) {
+                        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+                }
+                List<ConversationDTO> dtos = conversationService.getConversations(user.get().getId()).stream()
+                                .map(ConversationMapper::toDTO)
                                 .collect(Collectors.toList());
                 return ResponseEntity.ok(dtos);
         }
 
         @GetMapping("/conversation/{itemId}/{userId}")
-        @Operation(summary = "Get conversation between two users for a specific item")
-        public ResponseEntity<List<MessageResponseDTO>> getConversation(
+        @Operation(summary = "Get conversation between two users for a specific item",
+                        description = "Retrieves the newest messages, oldest first. Older messages are fetched by "
+                                        + "passing the ID of the oldest message received as the before parameter. "
+                                        + "Reading the newest messages marks the conversation as read.")
+        public ResponseEntity<?> getConversation(
                         @PathVariable Long userId,
-                        @PathVariable Long itemId) {
+                        @PathVariable Long itemId,
+                        @RequestParam(value = "before", required = false) Long before,
+                        @RequestParam(value = "limit", required = false) Integer limit) {
                 // Get current user from SecurityContextHolder
                 String email = SecurityContextHolder.getContext().getAuthentication().getName();
-                System.out.println("Current user email from SecurityContext: " + email);
+                LOGGER.debug("Conversation of {} with user {} about item {} requested", email, userId, itemId);
 
                 User currentUser = userService.getUserByEmail(email)
-                                .orElseThrow(() -> {
-                                        System.out.println("Failed to find user with email: " + email);
-                                        return new RuntimeException("Current user not found with email: " + email);
-                                });
-
-                System.out.println("Found current user: " + currentUser.getId() + " - " + currentUser.getEmail());
-
+                                .orElseThrow(() -> new RuntimeException("Current user not found with email: " + email));
                 User otherUser = userService.getUserById(userId)
-                                .orElseThrow(() -> {
-                                        System.out.println("Failed to find other user with ID: " + userId);
-                                        return new RuntimeException("Other user not found with ID: " + userId);
-                                });
-
-                System.out.println("Found other user: " + otherUser.getId() + " - " + otherUser.getEmail());
-
-                Item item = itemService.getItemById(itemId)
-                                .orElseThrow(() -> {
-                                        System.out.println("Failed to find item with ID: " + itemId);
-                                        return new RuntimeException("Item not found with ID: " + itemId);
-                                });
-
-                System.out.println("Found item: " + item.getId() + " - " + item.getTitle());
-
-                List<Message> messages = messageService.getMessagesBetweenUsers(currentUser, otherUser, item);
-                System.out.println("Found " + messages.size() + " messages");
+                                .orElseThrow(() -> new RuntimeException("Other user not found with ID: " + userId));
+
+                if (!itemService.itemExists(itemId)) {
+                        return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Item not found");
+                }
+                if (limit != null && limit <= 0) {
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Limit must be positive");
+                }
+                int pageSize = limit == null ? defaultPageSize : Math.min(limit, maxPageSize);
+
+                List<Message> messages = messageService.getConversationPage(currentUser.getId(), otherUser.getId(),
+                                itemId, before, pageSize);
+                if (before == null) {
+                        conversationService.markRead(currentUser.getId(), otherUser.getId(), itemId);
+                }
 
                 List<MessageResponseDTO> dtos = messages.stream()
-                                .map(MessageMapper::toDTO)
+                                .map(MessageMapper::toHistoryDTO)
                                 .collect(Collectors.toList());
                 return ResponseEntity.ok(dtos);
         }
-}
\ No newline at end of file
+}
@@ -112,7 +112,7 @@ public class UserController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("User not found");
         }
 
-        userRepository.delete(userOptional.get());
+        userService.deleteUser(userOptional.get());
         return ResponseEntity.ok("User deleted successfully");
     }
 
@@ -7,20 +7,34 @@ import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
+import stanism.marketplace.chat.ChatMessageWriter;
 import stanism.marketplace.model.Message;
 import stanism.marketplace.model.User;
-import stanism.marketplace.model.Item;
-import stanism.marketplace.service.MessageService;
+import stanism.marketplace.model.dto.MessageMapper;
+import stanism.marketplace.model.dto.MessageResponseDTO;
 import stanism.marketplace.service.UserService;
 import stanism.marketplace.service.ItemService;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
 @Controller
 public class WebSocketController {
 
     /**
-     * Service for handling message-related operations.
+     * User destination chat messages are delivered to.
+     */
+    private static final String CHAT_QUEUE = "/queue/chat";
+
+    /**
+     * Longest message text the messages.content column holds.
+     */
+    private static final int MAX_CONTENT_LENGTH = 255;
+
+    /**
+     * Stores chat messages in the background.
      */
-    private final MessageService messageService;
+    private final ChatMessageWriter chatMessageWriter;
 
     /**
      * Service for handling user-related operations.
@@ -37,9 +51,9 @@ public class WebSocketController {
      */
     private final SimpMessagingTemplate messagingTemplate;
 
-    public WebSocketController(MessageService messageService, UserService userService, ItemService itemService,
-            SimpMessagingTemplate messagingTemplate) {
-        this.messageService = messageService;
+    public WebSocketController(ChatMessageWriter chatMessageWriter, UserService userService,
+            ItemService itemService, SimpMessagingTemplate messagingTemplate) {
+        this.chatMessageWriter = chatMessageWriter;
         this.userService = userService;
         this.itemService = itemService;
         this.messagingTemplate = messagingTemplate;
@@ -52,23 +66,37 @@ public class WebSocketController {
             throw new RuntimeException("User not authenticated");
         }
 
+        // Refuse text the database would reject, before it is journaled and delivered
+        String content = chatMessage.getContent();
+        if (content == null || content.isBlank()) {
+            throw new IllegalArgumentException("Message must not be empty");
+        }
+        if (content.length() > MAX_CONTENT_LENGTH) {
+            throw new IllegalArgumentException("Message must not exceed " + MAX_CONTENT_LENGTH + " characters");
+        }
+
         // Get sender from security context
         User sender = userService.getUserByEmail(authentication.getName())
                 .orElseThrow(() -> new RuntimeException("Sender not found"));
 
-        // Get receiver and item from the message
+        // Get receiver and item from the message; users are cached and items checked against the index
         User receiver = userService.getUserById(chatMessage.getReceiver().getId())
                 .orElseThrow(() -> new RuntimeException("Receiver not found"));
-        Item item = itemService.getItemById(chatMessage.getItem().getId())
-                .orElseThrow(() -> new RuntimeException("Item not found"));
+        Long itemId = chatMessage.getItem().getId();
+        if (!itemService.itemExists(itemId)) {
+            throw new RuntimeException("Item not found");
+        }
 
-        // Create and save the message
-        Message message = new Message(sender, receiver, item, chatMessage.getContent());
-        Message savedMessage = messageService.saveMessage(message);
+        // Journal the message for background storage; microsecond precision matches the stored column
+        LocalDateTime timestamp = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        chatMessageWriter.submit(sender.getId(), receiver.getId(), itemId, content, timestamp);
+        MessageResponseDTO message = MessageMapper.toDTO(sender, receiver, itemId, content, timestamp);
 
-        // Send the message to both users
-        String topic = "/topic/chat/" + item.getId() + "/" + receiver.getId();
-        messagingTemplate.convertAndSend(topic, savedMessage);
+        // Deliver to the sessions of both users; principal names are email addresses
+        messagingTemplate.convertAndSendToUser(receiver.getEmail(), CHAT_QUEUE, message);
+        if (!sender.getId().equals(receiver.getId())) {
+            messagingTemplate.convertAndSendToUser(sender.getEmail(), CHAT_QUEUE, message);
+        }
     }
 
     @MessageMapping("/chat.addUser")
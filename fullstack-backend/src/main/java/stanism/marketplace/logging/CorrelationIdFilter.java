@@ -0,0 +1,73 @@
+package stanism.marketplace.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Gives every HTTP request a correlation ID, so all log events of a request
+ * can be found together. The ID is taken from the {@code X-Request-Id} header
+ * when a proxy or client supplied a well-formed one, and generated otherwise.
+ * It is put in the MDC as {@code requestId} for the duration of the request,
+ * where the log layouts pick it up, and echoed in the response header.
+ * Runs before every other filter, including Spring Security, so events logged
+ * during authentication carry the ID too.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorrelationIdFilter extends OncePerRequestFilter {
+
+    /** Header carrying the correlation ID on requests, responses and STOMP frames. */
+    public static final String HEADER = "X-Request-Id";
+
+    /** MDC key of the correlation ID. */
+    public static final String MDC_KEY = "requestId";
+
+    /** Accepted client-supplied IDs; anything else is replaced, so clients cannot inject into log lines. */
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        String requestId = resolve(request.getHeader(HEADER));
+        MDC.put(MDC_KEY, requestId);
+        request.setAttribute(MDC_KEY, requestId);
+        response.setHeader(HEADER, requestId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_KEY);
+        }
+    }
+
+    /**
+     * Returns the supplied ID if it is well-formed, or a new one.
+     *
+     * @param supplied the ID supplied by the client, or null
+     * @return the ID to use
+     */
+    static String resolve(String supplied) {
+        return supplied != null && VALID_ID.matcher(supplied).matches() ? supplied : newId();
+    }
+
+    /**
+     * Generates an ID: 64 random bits in hex. IDs only need to be unique
+     * within the log retention, so this avoids the shared SecureRandom
+     * behind {@link java.util.UUID#randomUUID()}.
+     *
+     * @return the ID
+     */
+    static String newId() {
+        return Long.toHexString(ThreadLocalRandom.current().nextLong() | Long.MIN_VALUE);
+    }
+}
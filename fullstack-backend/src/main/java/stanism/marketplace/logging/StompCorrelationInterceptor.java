@@ -0,0 +1,98 @@
+package stanism.marketplace.logging;
+
+import org.slf4j.MDC;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.util.Map;
+
+/**
+ * Carries correlation IDs from HTTP into STOMP.
+ * During the WebSocket handshake the ID of the upgrade request, set by
+ * {@link CorrelationIdFilter}, is stored in the session attributes as the
+ * connection ID. Each inbound STOMP frame then gets its own request ID, taken
+ * from its {@code X-Request-Id} native header when the client sent one and
+ * generated otherwise, stored in the message headers so it survives the hop
+ * to the inbound channel's executor threads. The interceptor puts the request
+ * ID and connection ID in the MDC while the frame is intercepted and while it
+ * is handled, so everything logged for it, including by the controllers and
+ * services it reaches, can be correlated with the connection it arrived on.
+ * Register it first on the inbound channel, before interceptors that log.
+ */
+@Component
+public class StompCorrelationInterceptor implements ExecutorChannelInterceptor, HandshakeInterceptor {
+
+    /** Session attribute and MDC key of the ID of the HTTP request that opened the connection. */
+    public static final String CONNECTION_ID = "connectionId";
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+            WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        Object requestId = request instanceof ServletServerHttpRequest servletRequest
+                ? servletRequest.getServletRequest().getAttribute(CorrelationIdFilter.MDC_KEY)
+                : null;
+        attributes.put(CONNECTION_ID, requestId != null ? requestId : CorrelationIdFilter.newId());
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+            WebSocketHandler wsHandler, Exception exception) {
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor accessor =
+                MessageHeaderAccessor.getAccessor(message, SimpMessageHeaderAccessor.class);
+        if (accessor != null && accessor.isMutable() && accessor.getHeader(CorrelationIdFilter.MDC_KEY) == null) {
+            accessor.setHeader(CorrelationIdFilter.MDC_KEY,
+                    CorrelationIdFilter.resolve(accessor.getFirstNativeHeader(CorrelationIdFilter.HEADER)));
+        }
+        bind(message);
+        return message;
+    }
+
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        clear();
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        bind(message);
+        return message;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler,
+            Exception ex) {
+        clear();
+    }
+
+    private static void bind(Message<?> message) {
+        Object requestId = message.getHeaders().get(CorrelationIdFilter.MDC_KEY);
+        if (requestId != null) {
+            MDC.put(CorrelationIdFilter.MDC_KEY, requestId.toString());
+        }
+        Map<String, Object> attributes = SimpMessageHeaderAccessor.getSessionAttributes(message.getHeaders());
+        Object connectionId = attributes != null ? attributes.get(CONNECTION_ID) : null;
+        if (connectionId != null) {
+            MDC.put(CONNECTION_ID, connectionId.toString());
+        }
+    }
+
+    private static void clear() {
+        MDC.remove(CorrelationIdFilter.MDC_KEY);
+        MDC.remove(CONNECTION_ID);
+    }
+}
@@ -0,0 +1,72 @@
+package stanism.marketplace.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+import stanism.marketplace.security.JwtUtil;
+import stanism.marketplace.service.FavoriteSetCache;
+import stanism.marketplace.service.ImageVariantService;
+import stanism.marketplace.service.UserCache;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes the hit and miss counts and sizes of the application's in-process
+ * caches under Micrometer's standard cache meter names, {@code cache.gets}
+ * tagged with {@code result=hit|miss} and {@code cache.size}, so the hit
+ * ratio of each cache can be graphed as
+ * {@code rate(cache_gets_total{result="hit"}) / rate(cache_gets_total)}.
+ * The counts are read from the caches at scrape time.
+ */
+@Component
+public class CacheMetrics implements MeterBinder {
+
+    /** Cache of users by ID and email. */
+    private final UserCache userCache;
+
+    /** Cache of each user's favorited item IDs. */
+    private final FavoriteSetCache favoriteSetCache;
+
+    /** Holder of the verified-token cache. */
+    private final JwtUtil jwtUtil;
+
+    /** Holder of the on-disk image variant cache. */
+    private final ImageVariantService imageVariantService;
+
+    public CacheMetrics(UserCache userCache, FavoriteSetCache favoriteSetCache, JwtUtil jwtUtil,
+            ImageVariantService imageVariantService) {
+        this.userCache = userCache;
+        this.favoriteSetCache = favoriteSetCache;
+        this.jwtUtil = jwtUtil;
+        this.imageVariantService = imageVariantService;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, "users", userCache.getStats(), userCache, UserCache::size);
+        bind(registry, "favorite-sets", favoriteSetCache.getStats(), favoriteSetCache, FavoriteSetCache::size);
+        bind(registry, "jwt-tokens", jwtUtil.getCacheStats(), jwtUtil, JwtUtil::getCacheSize);
+        bind(registry, "image-variants", imageVariantService.getCacheStats(), imageVariantService,
+                ImageVariantService::getCacheSize);
+    }
+
+    private static <T> void bind(MeterRegistry registry, String name, CacheStats stats, T cache,
+            ToDoubleFunction<T> size) {
+        FunctionCounter.builder("cache.gets", stats, CacheStats::hits)
+                .tag("cache", name)
+                .tag("result", "hit")
+                .description("Lookups answered from the cache")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", stats, CacheStats::misses)
+                .tag("cache", name)
+                .tag("result", "miss")
+                .description("Lookups that had to load or compute the value")
+                .register(registry);
+        Gauge.builder("cache.size", cache, size)
+                .tag("cache", name)
+                .description("Number of entries in the cache")
+                .register(registry);
+    }
+}
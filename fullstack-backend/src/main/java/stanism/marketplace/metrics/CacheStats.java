@@ -0,0 +1,45 @@
+package stanism.marketplace.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit and miss counts of an in-process cache, published by {@link CacheMetrics}.
+ * Counting is a striped increment, so caches can record every lookup on
+ * their hot path.
+ */
+public final class CacheStats {
+
+    /** Lookups answered from the cache. */
+    private final LongAdder hits = new LongAdder();
+
+    /** Lookups that had to load or compute the value. */
+    private final LongAdder misses = new LongAdder();
+
+    /** Records a lookup answered from the cache. */
+    public void hit() {
+        hits.increment();
+    }
+
+    /** Records a lookup that had to load or compute the value. */
+    public void miss() {
+        misses.increment();
+    }
+
+    /**
+     * Returns the number of lookups answered from the cache.
+     *
+     * @return the hit count
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that had to load or compute the value.
+     *
+     * @return the miss count
+     */
+    public long misses() {
+        return misses.sum();
+    }
+}
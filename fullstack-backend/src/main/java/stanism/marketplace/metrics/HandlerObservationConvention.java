@@ -0,0 +1,39 @@
+package stanism.marketplace.metrics;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Tags the {@code http.server.requests} timers with the controller method
+ * that handled the request, e.g. {@code handler=ItemController#getItemFeed},
+ * so latency can be broken down per controller method rather than only per
+ * URI pattern. Requests not handled by a controller method, such as static
+ * resources and rejected requests, are tagged {@code none}.
+ */
+@Component
+public class HandlerObservationConvention extends DefaultServerRequestObservationConvention {
+
+    /** Tag value of requests without a handler method. */
+    private static final KeyValue NO_HANDLER = KeyValue.of("handler", "none");
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context).and(handler(context));
+    }
+
+    private static KeyValue handler(ServerRequestObservationContext context) {
+        if (context.getCarrier() == null) {
+            return NO_HANDLER;
+        }
+        Object handler = context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod method) {
+            return KeyValue.of("handler", method.getBeanType().getSimpleName() + "#" + method.getMethod().getName());
+        }
+        return NO_HANDLER;
+    }
+}
@@ -0,0 +1,111 @@
+package stanism.marketplace.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts STOMP traffic and connected sessions.
+ * Registered as an interceptor on the client inbound and outbound channels,
+ * it counts messages by direction and type in {@code stomp.messages}: inbound
+ * SENDs are chat messages from clients, outbound MESSAGEs are deliveries to
+ * subscribers. {@code stomp.sessions} gauges the sessions currently connected.
+ * The counters are resolved up front, so counting a message is one increment.
+ */
+@Component
+public class StompMetrics {
+
+    /** Sessions currently connected. */
+    private final AtomicInteger sessions = new AtomicInteger();
+
+    /** Interceptor for the client inbound channel. */
+    private final ChannelInterceptor inbound;
+
+    /** Interceptor for the client outbound channel. */
+    private final ChannelInterceptor outbound;
+
+    public StompMetrics(MeterRegistry registry) {
+        Gauge.builder("stomp.sessions", sessions, AtomicInteger::get)
+                .description("STOMP sessions currently connected")
+                .register(registry);
+        this.inbound = new CountingInterceptor(counters(registry, "inbound"));
+        this.outbound = new CountingInterceptor(counters(registry, "outbound"));
+    }
+
+    /**
+     * Returns the interceptor counting messages received from clients.
+     *
+     * @return the interceptor
+     */
+    public ChannelInterceptor inboundInterceptor() {
+        return inbound;
+    }
+
+    /**
+     * Returns the interceptor counting messages sent to clients.
+     *
+     * @return the interceptor
+     */
+    public ChannelInterceptor outboundInterceptor() {
+        return outbound;
+    }
+
+    /**
+     * Counts a session that completed the STOMP handshake.
+     *
+     * @param event the connection event
+     */
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        sessions.incrementAndGet();
+    }
+
+    /**
+     * Counts a session that closed.
+     *
+     * @param event the disconnection event
+     */
+    @EventListener
+    public void onDisconnected(SessionDisconnectEvent event) {
+        sessions.updateAndGet(count -> Math.max(0, count - 1));
+    }
+
+    private static Map<SimpMessageType, Counter> counters(MeterRegistry registry, String direction) {
+        Map<SimpMessageType, Counter> counters = new EnumMap<>(SimpMessageType.class);
+        for (SimpMessageType type : SimpMessageType.values()) {
+            counters.put(type, Counter.builder("stomp.messages")
+                    .tag("direction", direction)
+                    .tag("type", type.name())
+                    .description("STOMP messages by direction and type")
+                    .register(registry));
+        }
+        return counters;
+    }
+
+    /**
+     * Counts each message by its type.
+     *
+     * @param counters the counters by message type
+     */
+    private record CountingInterceptor(Map<SimpMessageType, Counter> counters) implements ChannelInterceptor {
+        @Override
+        public Message<?> preSend(Message<?> message, MessageChannel channel) {
+            SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+            counters.get(type == null ? SimpMessageType.OTHER : type).increment();
+            return message;
+        }
+    }
+}
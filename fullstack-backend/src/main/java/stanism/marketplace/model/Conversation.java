@@ -0,0 +1,125 @@
+package stanism.marketplace.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Entity class summarising one user's side of a conversation about an item.
+ * Each pair of users chatting about an item has two rows, one per
+ * participant, holding the latest message and how many messages the owner
+ * has not read yet. Rows are maintained as messages are stored, so the inbox
+ * is read without scanning the messages table.
+ */
+@Entity
+@Table(name = "conversations")
+public class Conversation {
+    /** Unique identifier for the conversation summary. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** The user whose inbox this row belongs to. */
+    @ManyToOne
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    /** The other participant of the conversation. */
+    @ManyToOne
+    @JoinColumn(name = "other_user_id", nullable = false)
+    private User otherUser;
+
+    /** The item the conversation is about. */
+    @ManyToOne
+    @JoinColumn(name = "item_id", nullable = false)
+    private Item item;
+
+    /** The content of the latest message. */
+    @Column(name = "last_message")
+    private String lastMessage;
+
+    /** The ID of the user who sent the latest message. */
+    @Column(name = "last_sender_id", nullable = false)
+    private Long lastSenderId;
+
+    /** The date and time of the latest message. */
+    @Column(name = "last_timestamp", nullable = false)
+    private LocalDateTime lastTimestamp;
+
+    /** The number of messages received by the owner since they last read the conversation. */
+    @Column(name = "unread_count", nullable = false)
+    private int unreadCount;
+
+    public Conversation() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public User getOtherUser() {
+        return otherUser;
+    }
+
+    public void setOtherUser(User otherUser) {
+        this.otherUser = otherUser;
+    }
+
+    public Item getItem() {
+        return item;
+    }
+
+    public void setItem(Item item) {
+        this.item = item;
+    }
+
+    public String getLastMessage() {
+        return lastMessage;
+    }
+
+    public void setLastMessage(String lastMessage) {
+        this.lastMessage = lastMessage;
+    }
+
+    public Long getLastSenderId() {
+        return lastSenderId;
+    }
+
+    public void setLastSenderId(Long lastSenderId) {
+        this.lastSenderId = lastSenderId;
+    }
+
+    public LocalDateTime getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    public void setLastTimestamp(LocalDateTime lastTimestamp) {
+        this.lastTimestamp = lastTimestamp;
+    }
+
+    public int getUnreadCount() {
+        return unreadCount;
+    }
+
+    public void setUnreadCount(int unreadCount) {
+        this.unreadCount = unreadCount;
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import jakarta.persistence.JoinColumn;
@@ -12,7 +13,7 @@ import jakarta.persistence.JoinColumn;
  * Entity class representing an image associated with an item in the marketplace.
  */
 @Entity
-@Table(name = "images")
+@Table(name = "images", indexes = @Index(name = "idx_images_image_url", columnList = "imageUrl"))
 public class Image {
     /** Unique identifier for the image. */
     @Id
@@ -4,6 +4,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
@@ -12,6 +13,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Column;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.BatchSize;
 import java.time.LocalDateTime;
 import java.util.Set;
 import java.util.HashSet;
@@ -29,7 +31,8 @@ import java.util.HashSet;
 public class Item {
     /** Unique identifier for the item. */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id;
 
     /** Title of the item. */
@@ -50,7 +53,8 @@ public class Item {
     /** Longitude coordinate of the item's location. */
     private Double longitude;
 
-    /** The date and time when the item was published. */
+    /** The date and time when the item was published; the feed is paged by it, so it is never null. */
+    @Column(nullable = false)
     private LocalDateTime publishDate;
 
     /** The date and time when the item was reserved. */
@@ -67,6 +71,10 @@ public class Item {
     @Column(length = 20)
     private ItemStatus status;
 
+    /** Number of users who favorited the item, written only by the favorite counters. */
+    @Column(name = "favorite_count", nullable = false, insertable = false, updatable = false)
+    private int favoriteCount;
+
     /** User who owns or listed the item. */
     @ManyToOne
     @JoinColumn(name = "user_id", nullable = false)
@@ -78,8 +86,9 @@ public class Item {
     @JoinColumn(name = "category_id", nullable = false)
     private Category category;
 
-    /** Set of images associated with the item. */
+    /** Set of images associated with the item, batch-loaded for listing pages. */
     @OneToMany(mappedBy = "item")
+    @BatchSize(size = 128)
     @JsonIgnore
     private Set<Image> images = new HashSet<>();
 
@@ -432,6 +441,25 @@ public class Item {
         this.reservationDate = reservationDate;
     }
 
+    /**
+     * Returns the number of users who favorited this item, as of the last counter flush.
+     *
+     * @return the item's favorite count.
+     */
+    public int getFavoriteCount() {
+        return favoriteCount;
+    }
+
+    /**
+     * Sets the number of users who favorited this item.
+     *
+     * @param favoriteCount
+     *            the new favorite count for the item.
+     */
+    public void setFavoriteCount(int favoriteCount) {
+        this.favoriteCount = favoriteCount;
+    }
+
     /**
      * Returns the user who reserved this item.
      *
@@ -0,0 +1,190 @@
+package stanism.marketplace.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object (DTO) representing one conversation in a user's inbox:
+ * the other participant, the item, the latest message and the number of
+ * unread messages.
+ *
+ * @author Stanism Marketplace Team
+ * @version 1.0
+ */
+@Schema(description = "Conversation summary in the inbox")
+public class ConversationDTO {
+    /**
+     * ID of the item the conversation is about.
+     */
+    @Schema(description = "ID of the item")
+    private Long itemId;
+
+    /**
+     * Title of the item the conversation is about.
+     */
+    @Schema(description = "Title of the item")
+    private String itemTitle;
+
+    /**
+     * The other participant of the conversation.
+     */
+    @Schema(description = "Other participant")
+    private UserResponse otherUser;
+
+    /**
+     * Content of the latest message.
+     */
+    @Schema(description = "Latest message content")
+    private String lastMessage;
+
+    /**
+     * ID of the user who sent the latest message.
+     */
+    @Schema(description = "ID of the sender of the latest message")
+    private Long lastSenderId;
+
+    /**
+     * Date and time of the latest message.
+     */
+    @Schema(description = "Time of the latest message")
+    private LocalDateTime lastTimestamp;
+
+    /**
+     * Number of messages the user has not read yet.
+     */
+    @Schema(description = "Number of unread messages")
+    private int unreadCount;
+
+    /**
+     * Gets the ID of the item the conversation is about.
+     *
+     * @return the item ID
+     */
+    public Long getItemId() {
+        return itemId;
+    }
+
+    /**
+     * Sets the ID of the item the conversation is about.
+     *
+     * @param itemId
+     *            the item ID to set
+     */
+    public void setItemId(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    /**
+     * Gets the title of the item the conversation is about.
+     *
+     * @return the item title
+     */
+    public String getItemTitle() {
+        return itemTitle;
+    }
+
+    /**
+     * Sets the title of the item the conversation is about.
+     *
+     * @param itemTitle
+     *            the item title to set
+     */
+    public void setItemTitle(String itemTitle) {
+        this.itemTitle = itemTitle;
+    }
+
+    /**
+     * Gets the other participant of the conversation.
+     *
+     * @return the other participant
+     */
+    public UserResponse getOtherUser() {
+        return otherUser;
+    }
+
+    /**
+     * Sets the other participant of the conversation.
+     *
+     * @param otherUser
+     *            the other participant to set
+     */
+    public void setOtherUser(UserResponse otherUser) {
+        this.otherUser = otherUser;
+    }
+
+    /**
+     * Gets the content of the latest message.
+     *
+     * @return the latest message content
+     */
+    public String getLastMessage() {
+        return lastMessage;
+    }
+
+    /**
+     * Sets the content of the latest message.
+     *
+     * @param lastMessage
+     *            the latest message content to set
+     */
+    public void setLastMessage(String lastMessage) {
+        this.lastMessage = lastMessage;
+    }
+
+    /**
+     * Gets the ID of the user who sent the latest message.
+     *
+     * @return the sender ID of the latest message
+     */
+    public Long getLastSenderId() {
+        return lastSenderId;
+    }
+
+    /**
+     * Sets the ID of the user who sent the latest message.
+     *
+     * @param lastSenderId
+     *            the sender ID of the latest message to set
+     */
+    public void setLastSenderId(Long lastSenderId) {
+        this.lastSenderId = lastSenderId;
+    }
+
+    /**
+     * Gets the date and time of the latest message.
+     *
+     * @return the time of the latest message
+     */
+    public LocalDateTime getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    /**
+     * Sets the date and time of the latest message.
+     *
+     * @param lastTimestamp
+     *            the time of the latest message to set
+     */
+    public void setLastTimestamp(LocalDateTime lastTimestamp) {
+        this.lastTimestamp = lastTimestamp;
+    }
+
+    /**
+     * Gets the number of messages the user has not read yet.
+     *
+     * @return the unread message count
+     */
+    public int getUnreadCount() {
+        return unreadCount;
+    }
+
+    /**
+     * Sets the number of messages the user has not read yet.
+     *
+     * @param unreadCount
+     *            the unread message count to set
+     */
+    public void setUnreadCount(int unreadCount) {
+        this.unreadCount = unreadCount;
+    }
+}
@@ -0,0 +1,21 @@
+package stanism.marketplace.model.dto;
+
+import stanism.marketplace.model.Conversation;
+
+public class ConversationMapper {
+    public static ConversationDTO toDTO(Conversation conversation) {
+        if (conversation == null) {
+            return null;
+        }
+
+        ConversationDTO dto = new ConversationDTO();
+        dto.setItemId(conversation.getItem().getId());
+        dto.setItemTitle(conversation.getItem().getTitle());
+        dto.setOtherUser(MessageMapper.toUserResponse(conversation.getOtherUser()));
+        dto.setLastMessage(conversation.getLastMessage());
+        dto.setLastSenderId(conversation.getLastSenderId());
+        dto.setLastTimestamp(conversation.getLastTimestamp());
+        dto.setUnreadCount(conversation.getUnreadCount());
+        return dto;
+    }
+}
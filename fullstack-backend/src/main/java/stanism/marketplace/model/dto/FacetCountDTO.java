@@ -0,0 +1,104 @@
+package stanism.marketplace.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Data Transfer Object (DTO) representing the number of filtered items that
+ * fall under one facet value, such as a category or a price bucket.
+ *
+ * @author Stanism Marketplace Team
+ * @version 1.0
+ */
+@Schema(description = "Item count for one facet value")
+public class FacetCountDTO {
+    /**
+     * The facet value to pass back as a filter parameter.
+     */
+    @Schema(description = "Facet value, e.g. a category ID or a price range")
+    private String value;
+
+    /**
+     * Human-readable label for the facet value.
+     */
+    @Schema(description = "Display label")
+    private String label;
+
+    /**
+     * The number of items under this facet value.
+     */
+    @Schema(description = "Number of matching items")
+    private long count;
+
+    /**
+     * Creates a new facet count.
+     *
+     * @param value
+     *            the facet value
+     * @param label
+     *            the display label
+     * @param count
+     *            the number of matching items
+     */
+    public FacetCountDTO(String value, String label, long count) {
+        this.value = value;
+        this.label = label;
+        this.count = count;
+    }
+
+    /**
+     * Gets the facet value.
+     *
+     * @return the facet value
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Sets the facet value.
+     *
+     * @param value
+     *            the facet value to set
+     */
+    public void setValue(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Gets the display label.
+     *
+     * @return the display label
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Sets the display label.
+     *
+     * @param label
+     *            the display label to set
+     */
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Gets the number of matching items.
+     *
+     * @return the item count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Sets the number of matching items.
+     *
+     * @param count
+     *            the item count to set
+     */
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
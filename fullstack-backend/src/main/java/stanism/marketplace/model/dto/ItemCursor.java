@@ -0,0 +1,89 @@
+package stanism.marketplace.model.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Opaque continuation token for the keyset-paginated item feed.
+ * The cursor points at the last item of a page by its (publishDate, id) pair,
+ * which is the sort key of the feed, so the next page can be fetched with a
+ * range predicate instead of an OFFSET scan. The publish date column is
+ * NOT NULL, as a range predicate never matches a NULL.
+ */
+public final class ItemCursor {
+    /** Separator between the encoded fields. */
+    private static final String SEPARATOR = "|";
+
+    /** Publish date of the last item on the previous page. */
+    private final LocalDateTime publishDate;
+
+    /** ID of the last item on the previous page. */
+    private final Long id;
+
+    /**
+     * Creates a new cursor.
+     *
+     * @param publishDate
+     *            publish date of the last item on the previous page
+     * @param id
+     *            ID of the last item on the previous page
+     */
+    public ItemCursor(LocalDateTime publishDate, Long id) {
+        this.publishDate = Objects.requireNonNull(publishDate, "publishDate");
+        this.id = Objects.requireNonNull(id, "id");
+    }
+
+    /**
+     * Encodes this cursor into a URL-safe opaque token.
+     *
+     * @return the encoded token
+     */
+    public String encode() {
+        String raw = publishDate + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token previously produced by {@link #encode()}.
+     *
+     * @param token
+     *            the token to decode
+     * @return the decoded cursor
+     * @throws IllegalArgumentException
+     *             if the token is malformed
+     */
+    public static ItemCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            LocalDateTime publishDate = LocalDateTime.parse(raw.substring(0, separator));
+            Long id = Long.valueOf(raw.substring(separator + 1));
+            return new ItemCursor(publishDate, id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Gets the publish date of the last item on the previous page.
+     *
+     * @return the publish date
+     */
+    public LocalDateTime getPublishDate() {
+        return publishDate;
+    }
+
+    /**
+     * Gets the ID of the last item on the previous page.
+     *
+     * @return the item ID
+     */
+    public Long getId() {
+        return id;
+    }
+}
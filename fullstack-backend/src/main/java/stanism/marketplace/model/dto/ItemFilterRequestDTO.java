@@ -0,0 +1,164 @@
+package stanism.marketplace.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.format.annotation.DateTimeFormat;
+import stanism.marketplace.model.ItemStatus;
+import stanism.marketplace.search.ItemFilter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object (DTO) holding the query parameters of an item filter
+ * request. Every criterion is optional; unset criteria do not filter.
+ *
+ * @author Stanism Marketplace Team
+ * @version 1.0
+ */
+@Schema(description = "Query parameters of an item filter request")
+public class ItemFilterRequestDTO {
+    /** Category the items must belong to. */
+    @Schema(description = "Category ID")
+    private Long categoryId;
+
+    /** Lowest price, inclusive. */
+    @Schema(description = "Minimum price, inclusive")
+    private Double minPrice;
+
+    /** Highest price, inclusive. */
+    @Schema(description = "Maximum price, inclusive")
+    private Double maxPrice;
+
+    /** Status the items must have. */
+    @Schema(description = "Item status")
+    private ItemStatus status;
+
+    /** Latitude of the location to search around. */
+    @Schema(description = "Latitude of the location to search around")
+    private Double lat;
+
+    /** Longitude of the location to search around. */
+    @Schema(description = "Longitude of the location to search around")
+    private Double lon;
+
+    /** Search radius around the location, in kilometres. */
+    @Schema(description = "Search radius around the location in kilometres, 10 if unset")
+    private Double radiusKm;
+
+    /** Earliest publish date, inclusive. */
+    @Schema(description = "Earliest publish date, ISO date-time")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime publishedAfter;
+
+    /** Latest publish date, inclusive. */
+    @Schema(description = "Latest publish date, ISO date-time")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime publishedBefore;
+
+    /** Order of the results. */
+    @Schema(description = "Order of the results", defaultValue = "NEWEST")
+    private ItemFilter.Sort sort = ItemFilter.Sort.NEWEST;
+
+    /** Zero-based page number. */
+    @Schema(description = "Zero-based page number", defaultValue = "0")
+    private int page;
+
+    /** Page size, or null for the default. */
+    @Schema(description = "Page size")
+    private Integer size;
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(Double minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(Double maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public ItemStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ItemStatus status) {
+        this.status = status;
+    }
+
+    public Double getLat() {
+        return lat;
+    }
+
+    public void setLat(Double lat) {
+        this.lat = lat;
+    }
+
+    public Double getLon() {
+        return lon;
+    }
+
+    public void setLon(Double lon) {
+        this.lon = lon;
+    }
+
+    public Double getRadiusKm() {
+        return radiusKm;
+    }
+
+    public void setRadiusKm(Double radiusKm) {
+        this.radiusKm = radiusKm;
+    }
+
+    public LocalDateTime getPublishedAfter() {
+        return publishedAfter;
+    }
+
+    public void setPublishedAfter(LocalDateTime publishedAfter) {
+        this.publishedAfter = publishedAfter;
+    }
+
+    public LocalDateTime getPublishedBefore() {
+        return publishedBefore;
+    }
+
+    public void setPublishedBefore(LocalDateTime publishedBefore) {
+        this.publishedBefore = publishedBefore;
+    }
+
+    public ItemFilter.Sort getSort() {
+        return sort;
+    }
+
+    public void setSort(ItemFilter.Sort sort) {
+        this.sort = sort;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public Integer getSize() {
+        return size;
+    }
+
+    public void setSize(Integer size) {
+        this.size = size;
+    }
+}
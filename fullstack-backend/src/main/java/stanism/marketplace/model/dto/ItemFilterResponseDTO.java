@@ -0,0 +1,88 @@
+package stanism.marketplace.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) representing one page of filtered items together
+ * with facet counts over the whole filtered result.
+ *
+ * @author Stanism Marketplace Team
+ * @version 1.0
+ */
+@Schema(description = "Page of filtered items with facet counts")
+public class ItemFilterResponseDTO extends ItemSearchResponseDTO {
+    /**
+     * Matching items per category, ignoring the category filter.
+     */
+    @Schema(description = "Matching items per category, ignoring the category filter")
+    private List<FacetCountDTO> categoryFacets;
+
+    /**
+     * Matching items per price bucket, ignoring the price filter.
+     */
+    @Schema(description = "Matching items per price bucket, ignoring the price filter")
+    private List<FacetCountDTO> priceFacets;
+
+    /**
+     * Creates a new filter response.
+     *
+     * @param items
+     *            the matching items on this page
+     * @param page
+     *            the zero-based page number
+     * @param size
+     *            the requested page size
+     * @param totalHits
+     *            the total number of matching items
+     * @param categoryFacets
+     *            the category facet counts
+     * @param priceFacets
+     *            the price bucket facet counts
+     */
+    public ItemFilterResponseDTO(List<ItemResponseDTO> items, int page, int size, long totalHits,
+            List<FacetCountDTO> categoryFacets, List<FacetCountDTO> priceFacets) {
+        super(items, page, size, totalHits);
+        this.categoryFacets = categoryFacets;
+        this.priceFacets = priceFacets;
+    }
+
+    /**
+     * Gets the category facet counts.
+     *
+     * @return the category facet counts
+     */
+    public List<FacetCountDTO> getCategoryFacets() {
+        return categoryFacets;
+    }
+
+    /**
+     * Sets the category facet counts.
+     *
+     * @param categoryFacets
+     *            the category facet counts to set
+     */
+    public void setCategoryFacets(List<FacetCountDTO> categoryFacets) {
+        this.categoryFacets = categoryFacets;
+    }
+
+    /**
+     * Gets the price bucket facet counts.
+     *
+     * @return the price bucket facet counts
+     */
+    public List<FacetCountDTO> getPriceFacets() {
+        return priceFacets;
+    }
+
+    /**
+     * Sets the price bucket facet counts.
+     *
+     * @param priceFacets
+     *            the price bucket facet counts to set
+     */
+    public void setPriceFacets(List<FacetCountDTO> priceFacets) {
+        this.priceFacets = priceFacets;
+    }
+}
@@ -22,6 +22,7 @@ public class ItemMapper {
         dto.setPublishDate(item.getPublishDate());
         dto.setStatus(item.getStatus());
         dto.setReservationDate(item.getReservationDate());
+        dto.setFavoriteCount(item.getFavoriteCount());
 
         // Convert user to UserResponse
         UserResponse userResponse = new UserResponse();
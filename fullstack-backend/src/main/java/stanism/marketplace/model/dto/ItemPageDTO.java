@@ -0,0 +1,105 @@
+package stanism.marketplace.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) representing one page of the item feed.
+ * The next page is requested by passing {@link #getNextCursor()} back as the
+ * {@code cursor} parameter.
+ *
+ * @author Stanism Marketplace Team
+ * @version 1.0
+ */
+@Schema(description = "Page of items in the marketplace feed")
+public class ItemPageDTO {
+    /**
+     * The items on this page.
+     */
+    @Schema(description = "Items on this page")
+    private List<ItemResponseDTO> items;
+
+    /**
+     * Opaque token for fetching the next page, or null on the last page.
+     */
+    @Schema(description = "Continuation token for the next page, null on the last page")
+    private String nextCursor;
+
+    /**
+     * Whether more items exist after this page.
+     */
+    @Schema(description = "Whether more items exist after this page")
+    private boolean hasMore;
+
+    /**
+     * Creates a new page.
+     *
+     * @param items
+     *            the items on this page
+     * @param nextCursor
+     *            the continuation token, or null on the last page
+     */
+    public ItemPageDTO(List<ItemResponseDTO> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+
+    /**
+     * Gets the items on this page.
+     *
+     * @return the items
+     */
+    public List<ItemResponseDTO> getItems() {
+        return items;
+    }
+
+    /**
+     * Sets the items on this page.
+     *
+     * @param items
+     *            the items to set
+     */
+    public void setItems(List<ItemResponseDTO> items) {
+        this.items = items;
+    }
+
+    /**
+     * Gets the continuation token for the next page.
+     *
+     * @return the continuation token, or null on the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Sets the continuation token for the next page.
+     *
+     * @param nextCursor
+     *            the continuation token to set
+     */
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Gets whether more items exist after this page.
+     *
+     * @return true if there is a next page
+     */
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    /**
+     * Sets whether more items exist after this page.
+     *
+     * @param hasMore
+     *            whether there is a next page
+     */
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -1,5 +1,6 @@
 package stanism.marketplace.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import stanism.marketplace.model.ItemStatus;
 
@@ -101,6 +102,26 @@ public class ItemResponseDTO {
     @Schema(description = "Image URLs")
     private Set<String> imageUrls;
 
+    /**
+     * The number of users who favorited the item.
+     */
+    @Schema(description = "Number of users who favorited the item")
+    private int favoriteCount;
+
+    /**
+     * Distance in kilometres from the query point, only set on location searches.
+     */
+    @Schema(description = "Distance from the query point in kilometres (location searches only)")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double distanceKm;
+
+    /**
+     * Whether the current user has favorited the item, only set for signed-in users.
+     */
+    @Schema(description = "Whether the current user has favorited the item (signed-in users only)")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean favorited;
+
     /**
      * 
      * Gets the unique identifier of the item.
@@ -378,4 +399,61 @@ public class ItemResponseDTO {
     public void setImageUrls(Set<String> imageUrls) {
         this.imageUrls = imageUrls;
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the number of users who favorited the item.
+     *
+     * @return the favorite count
+     */
+    public int getFavoriteCount() {
+        return favoriteCount;
+    }
+
+    /**
+     * Sets the number of users who favorited the item.
+     *
+     * @param favoriteCount
+     *            the favorite count to set
+     */
+    public void setFavoriteCount(int favoriteCount) {
+        this.favoriteCount = favoriteCount;
+    }
+
+    /**
+     * Gets the distance from the query point.
+     *
+     * @return the distance in kilometres, or null outside location searches
+     */
+    public Double getDistanceKm() {
+        return distanceKm;
+    }
+
+    /**
+     * Sets the distance from the query point.
+     *
+     * @param distanceKm
+     *            the distance in kilometres to set
+     */
+    public void setDistanceKm(Double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+
+    /**
+     * Gets whether the current user has favorited the item.
+     *
+     * @return true if favorited, or null for anonymous requests
+     */
+    public Boolean getFavorited() {
+        return favorited;
+    }
+
+    /**
+     * Sets whether the current user has favorited the item.
+     *
+     * @param favorited
+     *            whether the item is favorited
+     */
+    public void setFavorited(Boolean favorited) {
+        this.favorited = favorited;
+    }
+}
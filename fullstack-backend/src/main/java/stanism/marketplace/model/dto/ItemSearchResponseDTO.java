@@ -0,0 +1,134 @@
+package stanism.marketplace.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) representing one page of item search results.
+ * Results are ordered by relevance, best match first.
+ *
+ * @author Stanism Marketplace Team
+ * @version 1.0
+ */
+@Schema(description = "Page of item search results")
+public class ItemSearchResponseDTO {
+    /**
+     * The matching items on this page.
+     */
+    @Schema(description = "Matching items, best match first")
+    private List<ItemResponseDTO> items;
+
+    /**
+     * The zero-based page number.
+     */
+    @Schema(description = "Zero-based page number")
+    private int page;
+
+    /**
+     * The requested page size.
+     */
+    @Schema(description = "Page size")
+    private int size;
+
+    /**
+     * The total number of items matching the query.
+     */
+    @Schema(description = "Total number of matching items")
+    private long totalHits;
+
+    /**
+     * Creates a new search response.
+     *
+     * @param items
+     *            the matching items on this page
+     * @param page
+     *            the zero-based page number
+     * @param size
+     *            the requested page size
+     * @param totalHits
+     *            the total number of matching items
+     */
+    public ItemSearchResponseDTO(List<ItemResponseDTO> items, int page, int size, long totalHits) {
+        this.items = items;
+        this.page = page;
+        this.size = size;
+        this.totalHits = totalHits;
+    }
+
+    /**
+     * Gets the matching items on this page.
+     *
+     * @return the matching items
+     */
+    public List<ItemResponseDTO> getItems() {
+        return items;
+    }
+
+    /**
+     * Sets the matching items on this page.
+     *
+     * @param items
+     *            the matching items to set
+     */
+    public void setItems(List<ItemResponseDTO> items) {
+        this.items = items;
+    }
+
+    /**
+     * Gets the zero-based page number.
+     *
+     * @return the page number
+     */
+    public int getPage() {
+        return page;
+    }
+
+    /**
+     * Sets the zero-based page number.
+     *
+     * @param page
+     *            the page number to set
+     */
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    /**
+     * Gets the requested page size.
+     *
+     * @return the page size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Sets the requested page size.
+     *
+     * @param size
+     *            the page size to set
+     */
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Gets the total number of items matching the query.
+     *
+     * @return the total hit count
+     */
+    public long getTotalHits() {
+        return totalHits;
+    }
+
+    /**
+     * Sets the total number of items matching the query.
+     *
+     * @param totalHits
+     *            the total hit count to set
+     */
+    public void setTotalHits(long totalHits) {
+        this.totalHits = totalHits;
+    }
+}
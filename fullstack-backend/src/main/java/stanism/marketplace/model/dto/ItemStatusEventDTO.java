@@ -0,0 +1,75 @@
+package stanism.marketplace.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import stanism.marketplace.model.ItemStatus;
+
+/**
+ * Data Transfer Object (DTO) pushed over STOMP when the status of an item
+ * changes outside a client request, such as when a reservation expires.
+ *
+ * @author Stanism Marketplace Team
+ * @version 1.0
+ */
+@Schema(description = "Item status change event")
+public class ItemStatusEventDTO {
+    /**
+     * The ID of the item whose status changed.
+     */
+    @Schema(description = "ID of the item")
+    private Long itemId;
+
+    /**
+     * The new status of the item.
+     */
+    @Schema(description = "New status of the item")
+    private ItemStatus status;
+
+    /**
+     * The ID of the user now holding the reservation, if any.
+     */
+    @Schema(description = "ID of the reserving user, or null if the item is not reserved")
+    private Long reservedById;
+
+    /**
+     * Creates a new status event.
+     *
+     * @param itemId
+     *            the ID of the item
+     * @param status
+     *            the new status of the item
+     * @param reservedById
+     *            the ID of the reserving user, or null
+     */
+    public ItemStatusEventDTO(Long itemId, ItemStatus status, Long reservedById) {
+        this.itemId = itemId;
+        this.status = status;
+        this.reservedById = reservedById;
+    }
+
+    /**
+     * Gets the ID of the item.
+     *
+     * @return the item ID
+     */
+    public Long getItemId() {
+        return itemId;
+    }
+
+    /**
+     * Gets the new status of the item.
+     *
+     * @return the item status
+     */
+    public ItemStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the ID of the user now holding the reservation.
+     *
+     * @return the reserving user's ID, or null if the item is not reserved
+     */
+    public Long getReservedById() {
+        return reservedById;
+    }
+}
@@ -1,6 +1,9 @@
 package stanism.marketplace.model.dto;
 
 import stanism.marketplace.model.Message;
+import stanism.marketplace.model.User;
+
+import java.time.LocalDateTime;
 
 public class MessageMapper {
     public static MessageResponseDTO toDTO(Message message) {
@@ -12,26 +15,61 @@ public class MessageMapper {
         dto.setId(message.getId());
         dto.setContent(message.getContent());
         dto.setTimestamp(message.getTimestamp());
-
-        // Convert sender to UserResponse
-        UserResponse senderResponse = new UserResponse();
-        senderResponse.setId(message.getSender().getId());
-        senderResponse.setUsername(message.getSender().getUsername());
-        senderResponse.setEmail(message.getSender().getEmail());
-        senderResponse.setRole(message.getSender().getRole());
-        dto.setSender(senderResponse);
-
-        // Convert receiver to UserResponse
-        UserResponse receiverResponse = new UserResponse();
-        receiverResponse.setId(message.getReceiver().getId());
-        receiverResponse.setUsername(message.getReceiver().getUsername());
-        receiverResponse.setEmail(message.getReceiver().getEmail());
-        receiverResponse.setRole(message.getReceiver().getRole());
-        dto.setReceiver(receiverResponse);
+        dto.setSender(toUserResponse(message.getSender()));
+        dto.setReceiver(toUserResponse(message.getReceiver()));
 
         // Convert item to ItemResponseDTO
         dto.setItem(ItemMapper.toDTO(message.getItem()));
 
         return dto;
     }
-}
\ No newline at end of file
+
+    /**
+     * Builds the DTO of a message in conversation history. Every message of a
+     * conversation is about the same item, so the item carries only its ID.
+     *
+     * @param message the stored message
+     * @return the message DTO
+     */
+    public static MessageResponseDTO toHistoryDTO(Message message) {
+        MessageResponseDTO dto = toDTO(message.getSender(), message.getReceiver(), message.getItem().getId(),
+                message.getContent(), message.getTimestamp());
+        dto.setId(message.getId());
+        return dto;
+    }
+
+    /**
+     * Builds the DTO of a chat message that has been accepted but not stored yet,
+     * so it has no ID and its item carries only the item ID.
+     *
+     * @param sender the sending user
+     * @param receiver the receiving user
+     * @param itemId the ID of the item
+     * @param content the message text
+     * @param timestamp when the message was sent
+     * @return the message DTO
+     */
+    public static MessageResponseDTO toDTO(User sender, User receiver, Long itemId, String content,
+            LocalDateTime timestamp) {
+        MessageResponseDTO dto = new MessageResponseDTO();
+        dto.setContent(content);
+        dto.setTimestamp(timestamp);
+        dto.setSender(toUserResponse(sender));
+        dto.setReceiver(toUserResponse(receiver));
+
+        ItemResponseDTO item = new ItemResponseDTO();
+        item.setId(itemId);
+        dto.setItem(item);
+
+        return dto;
+    }
+
+    static UserResponse toUserResponse(User user) {
+        UserResponse response = new UserResponse();
+        response.setId(user.getId());
+        response.setUsername(user.getUsername());
+        response.setEmail(user.getEmail());
+        response.setRole(user.getRole());
+        return response;
+    }
+}
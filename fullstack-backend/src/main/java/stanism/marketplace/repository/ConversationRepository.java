@@ -0,0 +1,36 @@
+package stanism.marketplace.repository;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import stanism.marketplace.model.Conversation;
+
+import java.util.List;
+
+public interface ConversationRepository extends JpaRepository<Conversation, Long> {
+    /**
+     * Finds a user's conversations, most recent first, with the other
+     * participant and item loaded for the inbox.
+     *
+     * @param userId the ID of the inbox owner
+     * @return the user's conversations
+     */
+    @EntityGraph(attributePaths = { "otherUser", "item" })
+    List<Conversation> findByUserIdOrderByLastTimestampDesc(Long userId);
+
+    /**
+     * Marks a conversation as read by its owner.
+     *
+     * @param userId the ID of the inbox owner
+     * @param otherUserId the ID of the other participant
+     * @param itemId the ID of the item
+     * @return the number of rows updated
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Conversation c SET c.unreadCount = 0 WHERE c.user.id = :userId"
+            + " AND c.otherUser.id = :otherUserId AND c.item.id = :itemId AND c.unreadCount > 0")
+    int markRead(@Param("userId") Long userId, @Param("otherUserId") Long otherUserId,
+            @Param("itemId") Long itemId);
+}
@@ -1,6 +1,10 @@
 package stanism.marketplace.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import stanism.marketplace.model.Favorite;
 import stanism.marketplace.model.User;
 import stanism.marketplace.model.Item;
@@ -10,5 +14,27 @@ import java.util.Optional;
 public interface FavoriteRepository extends JpaRepository<Favorite, Long> {
     Optional<Favorite> findByUserAndItem(User user, Item item);
 
+    @EntityGraph(attributePaths = { "user", "item", "item.user", "item.reservedBy", "item.category",
+            "item.images" })
     List<Favorite> findByUser(User user);
-}
\ No newline at end of file
+
+    /**
+     * Finds the IDs of the items a user has favorited.
+     *
+     * @param userId the ID of the user
+     * @return the favorited item IDs
+     */
+    @Query("SELECT f.item.id FROM Favorite f WHERE f.user.id = :userId")
+    List<Long> findItemIdsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Removes an item from a user's favorites.
+     *
+     * @param userId the ID of the user
+     * @param itemId the ID of the item
+     * @return the number of rows deleted
+     */
+    @Modifying
+    @Query("DELETE FROM Favorite f WHERE f.user.id = :userId AND f.item.id = :itemId")
+    int deleteByUserIdAndItemId(@Param("userId") Long userId, @Param("itemId") Long itemId);
+}
@@ -1,7 +1,20 @@
 package stanism.marketplace.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import stanism.marketplace.model.Image;
 
+import java.util.List;
+
 public interface ImageRepository extends JpaRepository<Image, Long> {
-} 
\ No newline at end of file
+    boolean existsByImageUrl(String imageUrl);
+
+    @Query("SELECT i.imageUrl FROM Image i WHERE i.item.id = :itemId")
+    List<String> findImageUrlsByItemId(@Param("itemId") Long itemId);
+
+    @Modifying
+    @Query("DELETE FROM Image i WHERE i.item.id = :itemId")
+    int deleteByItemId(@Param("itemId") Long itemId);
+}
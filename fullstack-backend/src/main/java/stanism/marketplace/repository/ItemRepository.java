@@ -1,17 +1,92 @@
 package stanism.marketplace.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import stanism.marketplace.model.Category;
 import stanism.marketplace.model.Item;
 import stanism.marketplace.model.User;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
     Optional<Item> findByTitle(String title);
-    List<Item> findByBriefDescriptionContainingOrFullDescriptionContaining(String keyword, String keyword2);
     List<Item> findByPriceBetween(Double minPrice, Double maxPrice);
+
+    @EntityGraph(attributePaths = { "user", "reservedBy", "category", "images" })
+    List<Item> findByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = { "user", "reservedBy", "category", "images" })
     List<Item> findByUser(User user);
+
+    @EntityGraph(attributePaths = { "user", "reservedBy", "category", "images" })
     List<Item> findByCategory(Category category);
-}
\ No newline at end of file
+
+    // Paged queries fetch the to-one associations only; images are batch-loaded
+    // afterwards because join-fetching a collection would force in-memory paging.
+    @EntityGraph(attributePaths = { "user", "reservedBy", "category" })
+    @Query("SELECT i FROM Item i ORDER BY i.publishDate DESC, i.id DESC")
+    List<Item> findFeedFirstPage(Pageable pageable);
+
+    @EntityGraph(attributePaths = { "user", "reservedBy", "category" })
+    @Query("SELECT i FROM Item i "
+            + "WHERE i.publishDate < :publishDate OR (i.publishDate = :publishDate AND i.id < :id) "
+            + "ORDER BY i.publishDate DESC, i.id DESC")
+    List<Item> findFeedPageAfter(@Param("publishDate") LocalDateTime publishDate, @Param("id") Long id,
+            Pageable pageable);
+
+    // Reservation is a single conditional UPDATE so the availability check and the write are atomic:
+    // under concurrent attempts the database row lock lets exactly one of them match.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Item i SET i.status = stanism.marketplace.model.ItemStatus.RESERVED, "
+            + "i.reservationDate = :now, i.reservedBy = :user "
+            + "WHERE i.id = :id AND (i.status = stanism.marketplace.model.ItemStatus.ACTIVE "
+            + "OR (i.status = stanism.marketplace.model.ItemStatus.RESERVED "
+            + "AND (i.reservationDate IS NULL OR i.reservationDate <= :expiredBefore)))")
+    int reserveIfAvailable(@Param("id") Long id, @Param("user") User user, @Param("now") LocalDateTime now,
+            @Param("expiredBefore") LocalDateTime expiredBefore);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Item i SET i.status = stanism.marketplace.model.ItemStatus.ACTIVE, "
+            + "i.reservationDate = NULL, i.reservedBy = NULL "
+            + "WHERE i.id = :id AND i.status = stanism.marketplace.model.ItemStatus.RESERVED "
+            + "AND i.reservedBy.id = :userId")
+    int cancelReservation(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Item i SET i.status = stanism.marketplace.model.ItemStatus.ACTIVE, "
+            + "i.reservationDate = NULL, i.reservedBy = NULL "
+            + "WHERE i.id IN :ids AND i.status = stanism.marketplace.model.ItemStatus.RESERVED "
+            + "AND (i.reservationDate IS NULL OR i.reservationDate <= :expiredBefore)")
+    int releaseExpiredReservations(@Param("ids") Collection<Long> ids,
+            @Param("expiredBefore") LocalDateTime expiredBefore);
+
+    @Query("SELECT i.id AS id, i.reservationDate AS reservationDate FROM Item i "
+            + "WHERE i.status = stanism.marketplace.model.ItemStatus.RESERVED")
+    List<ReservationView> findReservations();
+
+    /**
+     * Projection of a reserved item's ID and reservation date.
+     */
+    interface ReservationView {
+        /**
+         * Gets the ID of the reserved item.
+         *
+         * @return the item ID
+         */
+        Long getId();
+
+        /**
+         * Gets when the item was reserved.
+         *
+         * @return the reservation date, or null if unknown
+         */
+        LocalDateTime getReservationDate();
+    }
+}
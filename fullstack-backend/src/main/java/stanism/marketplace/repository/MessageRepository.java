@@ -1,14 +1,28 @@
 package stanism.marketplace.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import stanism.marketplace.model.Message;
-import stanism.marketplace.model.User;
-import stanism.marketplace.model.Item;
 import java.util.List;
 
 public interface MessageRepository extends JpaRepository<Message, Long> {
-    List<Message> findBySenderAndReceiverAndItemOrReceiverAndSenderAndItemOrderByTimestampAsc(
-            User sender, User receiver, Item item, User receiver2, User sender2, Item item2);
-
-    List<Message> findBySenderOrReceiverOrderByTimestampDesc(User sender, User receiver);
-}
\ No newline at end of file
+    /**
+     * Finds one page of the messages between two users about an item, newest
+     * first, continuing below a message ID.
+     *
+     * @param userId the ID of one participant
+     * @param otherUserId the ID of the other participant
+     * @param itemId the ID of the item
+     * @param before only messages with a lower ID are returned, or null for the newest page
+     * @param pageable the page size
+     * @return the messages on the page
+     */
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender JOIN FETCH m.receiver WHERE m.item.id = :itemId"
+            + " AND ((m.sender.id = :userId AND m.receiver.id = :otherUserId)"
+            + " OR (m.sender.id = :otherUserId AND m.receiver.id = :userId))"
+            + " AND (:before IS NULL OR m.id < :before) ORDER BY m.id DESC")
+    List<Message> findConversationPage(@Param("userId") Long userId, @Param("otherUserId") Long otherUserId,
+            @Param("itemId") Long itemId, @Param("before") Long before, Pageable pageable);
+}
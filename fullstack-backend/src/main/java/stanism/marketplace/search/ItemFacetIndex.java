@@ -0,0 +1,459 @@
+package stanism.marketplace.search;
+
+import org.springframework.stereotype.Component;
+import stanism.marketplace.model.Item;
+import stanism.marketplace.model.ItemStatus;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Columnar in-memory index of the item attributes used by the faceted filter.
+ * Each item occupies a dense ordinal in primitive column arrays, and status
+ * membership is kept as bitmaps, so a filter query walks only the status
+ * bitmap, evaluates every predicate in one pass and accumulates category and
+ * price-bucket facet counts in that same pass. Categories are numbered
+ * densely too, so their counts are kept in an array, and only the hits up to
+ * the requested page are kept, in a bounded heap.
+ * Facets are disjunctive: category counts ignore the category predicate and
+ * price-bucket counts ignore the price predicate, so the client can show how
+ * many results each alternative choice would give.
+ */
+@Component
+public class ItemFacetIndex {
+
+    /** Lower bounds of the price buckets; the last bucket is open-ended. */
+    private static final double[] PRICE_BUCKET_BOUNDS = { 0, 500, 1000, 5000, 10000, 20000 };
+
+    /** Marker for a missing long value. */
+    private static final long NONE = Long.MIN_VALUE;
+
+    /** Category ordinal of items without a category, and of filters on an unknown category. */
+    private static final int NO_CATEGORY = -1;
+
+    /** Initial capacity of the column arrays. */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /** Item ID to ordinal. */
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+
+    /** Ordinals freed by removals, reused before the arrays grow. */
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+
+    /** Ordinals currently holding an item. */
+    private final BitSet live = new BitSet();
+
+    /** Ordinals per item status. */
+    private final Map<ItemStatus, BitSet> byStatus = new EnumMap<>(ItemStatus.class);
+
+    /** Guards all columns and bitmaps. */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Item ID per ordinal. */
+    private long[] ids = new long[INITIAL_CAPACITY];
+
+    /** Category ID to category ordinal. Categories are never forgotten, since there are few of them. */
+    private final Map<Long, Integer> categoryOrdinals = new HashMap<>();
+
+    /** Category ID per category ordinal. */
+    private long[] categoryIds = new long[16];
+
+    /** Category ordinal per ordinal, or {@link #NO_CATEGORY}. */
+    private int[] categories = new int[INITIAL_CAPACITY];
+
+    /** Price per ordinal, NaN when missing. */
+    private double[] prices = new double[INITIAL_CAPACITY];
+
+    /** Publish date per ordinal as UTC epoch seconds. */
+    private long[] publishDates = new long[INITIAL_CAPACITY];
+
+    /** Latitude per ordinal, NaN when missing. */
+    private double[] latitudes = new double[INITIAL_CAPACITY];
+
+    /** Longitude per ordinal, NaN when missing. */
+    private double[] longitudes = new double[INITIAL_CAPACITY];
+
+    /** Number of users who favorited the item, per ordinal. */
+    private int[] favoriteCounts = new int[INITIAL_CAPACITY];
+
+    /** Next never-used ordinal. */
+    private int nextOrdinal;
+
+    /**
+     * Creates an empty index.
+     */
+    public ItemFacetIndex() {
+        for (ItemStatus status : ItemStatus.values()) {
+            byStatus.put(status, new BitSet());
+        }
+    }
+
+    /**
+     * Adds an item to the index, replacing any previous version of it.
+     * The favorite count of an item already in the index is kept, since it is
+     * maintained through {@link #addFavoriteCounts(Map)} and may be ahead of
+     * the count stored with the item.
+     *
+     * @param item the item to index
+     */
+    public void index(Item item) {
+        if (item == null || item.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer existing = ordinals.get(item.getId());
+            int ordinal = existing != null ? existing : allocateOrdinal();
+            if (existing != null) {
+                byStatus.values().forEach(bits -> bits.clear(ordinal));
+            }
+            ordinals.put(item.getId(), ordinal);
+            ids[ordinal] = item.getId();
+            categories[ordinal] = item.getCategory() == null || item.getCategory().getId() == null
+                    ? NO_CATEGORY : categoryOrdinal(item.getCategory().getId());
+            prices[ordinal] = item.getPrice() == null ? Double.NaN : item.getPrice();
+            publishDates[ordinal] = toEpoch(item.getPublishDate());
+            latitudes[ordinal] = item.getLatitude() == null ? Double.NaN : item.getLatitude();
+            longitudes[ordinal] = item.getLongitude() == null ? Double.NaN : item.getLongitude();
+            if (existing == null) {
+                favoriteCounts[ordinal] = item.getFavoriteCount();
+            }
+            live.set(ordinal);
+            if (item.getStatus() != null) {
+                byStatus.get(item.getStatus()).set(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes an item from the index.
+     *
+     * @param itemId the ID of the item to remove
+     */
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.remove(itemId);
+            if (ordinal == null) {
+                return;
+            }
+            live.clear(ordinal);
+            byStatus.values().forEach(bits -> bits.clear(ordinal));
+            freeOrdinals.push(ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies changes to the favorite counts of indexed items.
+     *
+     * @param deltas the change in favorite count by item ID
+     */
+    public void addFavoriteCounts(Map<Long, Long> deltas) {
+        lock.writeLock().lock();
+        try {
+            deltas.forEach((itemId, delta) -> {
+                Integer ordinal = ordinals.get(itemId);
+                if (ordinal != null) {
+                    favoriteCounts[ordinal] = (int) Math.max(0, favoriteCounts[ordinal] + delta);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every item from the index.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ordinals.clear();
+            freeOrdinals.clear();
+            live.clear();
+            byStatus.values().forEach(BitSet::clear);
+            nextOrdinal = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Checks whether an item is indexed.
+     *
+     * @param itemId the ID of the item
+     * @return true if the item is in the index
+     */
+    public boolean contains(Long itemId) {
+        lock.readLock().lock();
+        try {
+            return ordinals.containsKey(itemId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of indexed items.
+     *
+     * @return the number of indexed items
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Evaluates a filter and computes its facet counts in a single pass.
+     *
+     * @param filter the predicates to apply
+     * @param offset the number of ordered hits to skip
+     * @param limit the maximum number of hits to return
+     * @return the requested slice of hits with facet counts
+     */
+    public FacetResult filter(ItemFilter filter, int offset, int limit) {
+        Map<Long, Integer> categoryCounts;
+        int[] bucketCounts = new int[PRICE_BUCKET_BOUNDS.length];
+        TopHits hits;
+        int totalHits;
+
+        lock.readLock().lock();
+        try {
+            int category = filter.getCategoryId() == null ? NO_CATEGORY
+                    : categoryOrdinals.getOrDefault(filter.getCategoryId(), NO_CATEGORY);
+            int[] countsByCategory = new int[categoryOrdinals.size()];
+            // Ties broken by newer (higher) ID first
+            hits = new TopHits((int) Math.min((long) offset + limit, ordinals.size()), true);
+            BitSet candidates = filter.getStatus() == null ? live : byStatus.get(filter.getStatus());
+            totalHits = collect(candidates, Criteria.of(filter, category), countsByCategory, bucketCounts, hits);
+            categoryCounts = categoryCounts(countsByCategory);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new FacetResult(page(hits, offset), totalHits, categoryCounts, priceBuckets(bucketCounts));
+    }
+
+    /**
+     * Offers the candidates matching a filter to the hits and counts their facets.
+     * Category counts ignore the category predicate and price bucket counts
+     * ignore the price predicate, so each facet value shows how many hits
+     * selecting it would give.
+     *
+     * @param candidates the ordinals that pass the status predicate
+     * @param criteria the remaining predicates
+     * @param countsByCategory receives the hit count per category ordinal
+     * @param bucketCounts receives the hit count per price bucket
+     * @param hits the best hits found so far
+     * @return the number of items matching every predicate
+     */
+    private int collect(BitSet candidates, Criteria criteria, int[] countsByCategory, int[] bucketCounts,
+            TopHits hits) {
+        ItemFilter filter = criteria.filter();
+        int matches = 0;
+        for (int ord = candidates.nextSetBit(0); ord >= 0; ord = candidates.nextSetBit(ord + 1)) {
+            if (!criteria.publishedInRange(publishDates[ord])) {
+                continue;
+            }
+            double distance = Double.NaN;
+            if (filter.hasLocation()) {
+                if (Double.isNaN(latitudes[ord])) {
+                    continue;
+                }
+                distance = ItemGeoIndex.haversineKm(filter.getLatitude(), filter.getLongitude(),
+                        latitudes[ord], longitudes[ord]);
+                if (distance > filter.getRadiusKm()) {
+                    continue;
+                }
+            }
+
+            double price = prices[ord];
+            boolean categoryMatches = criteria.categoryMatches(categories[ord]);
+            boolean priceMatches = criteria.priceInRange(price);
+
+            if (priceMatches && categories[ord] != NO_CATEGORY) {
+                countsByCategory[categories[ord]]++;
+            }
+            if (categoryMatches && !Double.isNaN(price)) {
+                bucketCounts[bucketOf(price)]++;
+            }
+            if (categoryMatches && priceMatches) {
+                matches++;
+                hits.offer(sortKey(filter.getSort(), ord, distance), ids[ord]);
+            }
+        }
+        return matches;
+    }
+
+    private static List<Long> page(TopHits hits, int offset) {
+        hits.sort();
+        List<Long> page = new ArrayList<>(Math.max(0, hits.size() - offset));
+        for (int i = offset; i < hits.size(); i++) {
+            page.add(hits.itemId(i));
+        }
+        return page;
+    }
+
+    private double sortKey(ItemFilter.Sort sort, int ord, double distance) {
+        switch (sort) {
+            case PRICE_ASC:
+                return Double.isNaN(prices[ord]) ? Double.POSITIVE_INFINITY : prices[ord];
+            case PRICE_DESC:
+                return Double.isNaN(prices[ord]) ? Double.POSITIVE_INFINITY : -prices[ord];
+            case DISTANCE:
+                if (!Double.isNaN(distance)) {
+                    return distance;
+                }
+                return publishDates[ord] == NONE ? Double.POSITIVE_INFINITY : -publishDates[ord];
+            case MOST_FAVORITED:
+                return -favoriteCounts[ord];
+            case NEWEST:
+            default:
+                return publishDates[ord] == NONE ? Double.POSITIVE_INFINITY : -publishDates[ord];
+        }
+    }
+
+    private int categoryOrdinal(long categoryId) {
+        Integer existing = categoryOrdinals.get(categoryId);
+        if (existing != null) {
+            return existing;
+        }
+        int ordinal = categoryOrdinals.size();
+        if (ordinal == categoryIds.length) {
+            categoryIds = Arrays.copyOf(categoryIds, ordinal * 2);
+        }
+        categoryIds[ordinal] = categoryId;
+        categoryOrdinals.put(categoryId, ordinal);
+        return ordinal;
+    }
+
+    private Map<Long, Integer> categoryCounts(int[] counts) {
+        Map<Long, Integer> byCategoryId = new TreeMap<>();
+        for (int ordinal = 0; ordinal < counts.length; ordinal++) {
+            if (counts[ordinal] > 0) {
+                byCategoryId.put(categoryIds[ordinal], counts[ordinal]);
+            }
+        }
+        return byCategoryId;
+    }
+
+    private int allocateOrdinal() {
+        if (!freeOrdinals.isEmpty()) {
+            return freeOrdinals.pop();
+        }
+        if (nextOrdinal == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            publishDates = Arrays.copyOf(publishDates, capacity);
+            latitudes = Arrays.copyOf(latitudes, capacity);
+            longitudes = Arrays.copyOf(longitudes, capacity);
+            favoriteCounts = Arrays.copyOf(favoriteCounts, capacity);
+        }
+        return nextOrdinal++;
+    }
+
+    private static int bucketOf(double price) {
+        for (int i = PRICE_BUCKET_BOUNDS.length - 1; i > 0; i--) {
+            if (price >= PRICE_BUCKET_BOUNDS[i]) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private static List<PriceBucket> priceBuckets(int[] counts) {
+        List<PriceBucket> buckets = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            Double max = i + 1 < PRICE_BUCKET_BOUNDS.length ? PRICE_BUCKET_BOUNDS[i + 1] : null;
+            buckets.add(new PriceBucket(PRICE_BUCKET_BOUNDS[i], max, counts[i]));
+        }
+        return buckets;
+    }
+
+    private static long toEpoch(LocalDateTime dateTime) {
+        return dateTime == null ? NONE : dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * The date, category and price predicates of a filter, resolved against the index.
+     *
+     * @param filter the filter
+     * @param category the ordinal of the requested category, or {@link #NO_CATEGORY} if none or unknown
+     * @param minPrice the lowest accepted price
+     * @param maxPrice the highest accepted price
+     * @param publishedAfter the earliest accepted publish date, in epoch seconds
+     * @param publishedBefore the latest accepted publish date, in epoch seconds
+     */
+    private record Criteria(ItemFilter filter, int category, double minPrice, double maxPrice,
+            long publishedAfter, long publishedBefore) {
+
+        static Criteria of(ItemFilter filter, int category) {
+            return new Criteria(filter, category,
+                    filter.getMinPrice() == null ? Double.NEGATIVE_INFINITY : filter.getMinPrice(),
+                    filter.getMaxPrice() == null ? Double.POSITIVE_INFINITY : filter.getMaxPrice(),
+                    filter.getPublishedAfter() == null ? Long.MIN_VALUE : toEpoch(filter.getPublishedAfter()),
+                    filter.getPublishedBefore() == null ? Long.MAX_VALUE : toEpoch(filter.getPublishedBefore()));
+        }
+
+        boolean publishedInRange(long published) {
+            if (filter.getPublishedAfter() == null && filter.getPublishedBefore() == null) {
+                return true;
+            }
+            return published != NONE && published >= publishedAfter && published <= publishedBefore;
+        }
+
+        boolean categoryMatches(int itemCategory) {
+            return filter.getCategoryId() == null || (category != NO_CATEGORY && itemCategory == category);
+        }
+
+        boolean priceInRange(double price) {
+            if (filter.getMinPrice() == null && filter.getMaxPrice() == null) {
+                return true;
+            }
+            return !Double.isNaN(price) && price >= minPrice && price <= maxPrice;
+        }
+    }
+
+    /**
+     * Number of items whose price falls in a bucket.
+     *
+     * @param min the inclusive lower bound of the bucket
+     * @param max the exclusive upper bound of the bucket, or null if open-ended
+     * @param count the number of items in the bucket
+     */
+    public record PriceBucket(double min, Double max, int count) {
+    }
+
+    /**
+     * A page of filtered hits with facet counts over the whole result.
+     *
+     * @param itemIds the IDs of the items on the requested page, in order
+     * @param totalHits the total number of items matching every predicate
+     * @param categoryCounts matching items per category ID, ignoring the category predicate
+     * @param priceBuckets matching items per price bucket, ignoring the price predicate
+     */
+    public record FacetResult(List<Long> itemIds, int totalHits, Map<Long, Integer> categoryCounts,
+            List<PriceBucket> priceBuckets) {
+    }
+}
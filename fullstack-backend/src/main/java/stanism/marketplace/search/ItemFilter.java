@@ -0,0 +1,292 @@
+package stanism.marketplace.search;
+
+import stanism.marketplace.model.ItemStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable set of predicates for the faceted item filter.
+ * Every criterion is optional; unset criteria match all items.
+ */
+public final class ItemFilter {
+
+    /**
+     * Result ordering for filtered items.
+     */
+    public enum Sort {
+        /** Newest items first. */
+        NEWEST,
+
+        /** Cheapest items first. */
+        PRICE_ASC,
+
+        /** Most expensive items first. */
+        PRICE_DESC,
+
+        /** Nearest items first; requires a location. */
+        DISTANCE,
+
+        /** Most favorited items first. */
+        MOST_FAVORITED
+    }
+
+    /** Category the item must belong to. */
+    private final Long categoryId;
+
+    /** Inclusive lower price bound. */
+    private final Double minPrice;
+
+    /** Inclusive upper price bound. */
+    private final Double maxPrice;
+
+    /** Status the item must have. */
+    private final ItemStatus status;
+
+    /** Latitude of the centre of the location filter. */
+    private final Double latitude;
+
+    /** Longitude of the centre of the location filter. */
+    private final Double longitude;
+
+    /** Radius of the location filter in kilometres. */
+    private final Double radiusKm;
+
+    /** Inclusive lower bound on the publish date. */
+    private final LocalDateTime publishedAfter;
+
+    /** Inclusive upper bound on the publish date. */
+    private final LocalDateTime publishedBefore;
+
+    /** Result ordering. */
+    private final Sort sort;
+
+    private ItemFilter(Builder builder) {
+        this.categoryId = builder.categoryId;
+        this.minPrice = builder.minPrice;
+        this.maxPrice = builder.maxPrice;
+        this.status = builder.status;
+        this.latitude = builder.latitude;
+        this.longitude = builder.longitude;
+        this.radiusKm = builder.radiusKm;
+        this.publishedAfter = builder.publishedAfter;
+        this.publishedBefore = builder.publishedBefore;
+        this.sort = builder.sort == null ? Sort.NEWEST : builder.sort;
+    }
+
+    /**
+     * Builder class for ItemFilter.
+     */
+    public static class Builder {
+        /** Category the item must belong to. */
+        private Long categoryId;
+
+        /** Inclusive lower price bound. */
+        private Double minPrice;
+
+        /** Inclusive upper price bound. */
+        private Double maxPrice;
+
+        /** Status the item must have. */
+        private ItemStatus status;
+
+        /** Latitude of the centre of the location filter. */
+        private Double latitude;
+
+        /** Longitude of the centre of the location filter. */
+        private Double longitude;
+
+        /** Radius of the location filter in kilometres. */
+        private Double radiusKm;
+
+        /** Inclusive lower bound on the publish date. */
+        private LocalDateTime publishedAfter;
+
+        /** Inclusive upper bound on the publish date. */
+        private LocalDateTime publishedBefore;
+
+        /** Result ordering. */
+        private Sort sort;
+
+        /**
+         * Restricts results to a category.
+         *
+         * @param categoryId the category ID, or null for any
+         * @return this builder instance for method chaining
+         */
+        public Builder categoryId(Long categoryId) {
+            this.categoryId = categoryId;
+            return this;
+        }
+
+        /**
+         * Restricts results to a price range.
+         *
+         * @param minPrice the inclusive lower bound, or null for none
+         * @param maxPrice the inclusive upper bound, or null for none
+         * @return this builder instance for method chaining
+         */
+        public Builder price(Double minPrice, Double maxPrice) {
+            this.minPrice = minPrice;
+            this.maxPrice = maxPrice;
+            return this;
+        }
+
+        /**
+         * Restricts results to a status.
+         *
+         * @param status the status, or null for any
+         * @return this builder instance for method chaining
+         */
+        public Builder status(ItemStatus status) {
+            this.status = status;
+            return this;
+        }
+
+        /**
+         * Restricts results to a radius around a point.
+         *
+         * @param latitude the latitude of the centre point
+         * @param longitude the longitude of the centre point
+         * @param radiusKm the radius in kilometres
+         * @return this builder instance for method chaining
+         */
+        public Builder near(Double latitude, Double longitude, Double radiusKm) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.radiusKm = radiusKm;
+            return this;
+        }
+
+        /**
+         * Restricts results to a publish date window.
+         *
+         * @param publishedAfter the inclusive lower bound, or null for none
+         * @param publishedBefore the inclusive upper bound, or null for none
+         * @return this builder instance for method chaining
+         */
+        public Builder published(LocalDateTime publishedAfter, LocalDateTime publishedBefore) {
+            this.publishedAfter = publishedAfter;
+            this.publishedBefore = publishedBefore;
+            return this;
+        }
+
+        /**
+         * Sets the result ordering.
+         *
+         * @param sort the ordering, or null for newest first
+         * @return this builder instance for method chaining
+         */
+        public Builder sort(Sort sort) {
+            this.sort = sort;
+            return this;
+        }
+
+        /**
+         * Builds and returns a new ItemFilter with the configured criteria.
+         *
+         * @return a new ItemFilter
+         */
+        public ItemFilter build() {
+            return new ItemFilter(this);
+        }
+    }
+
+    /**
+     * Checks whether the filter has a complete location criterion.
+     *
+     * @return true if latitude, longitude and radius are all set
+     */
+    public boolean hasLocation() {
+        return latitude != null && longitude != null && radiusKm != null;
+    }
+
+    /**
+     * Gets the category the item must belong to.
+     *
+     * @return the category ID, or null for any
+     */
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    /**
+     * Gets the inclusive lower price bound.
+     *
+     * @return the lower bound, or null for none
+     */
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    /**
+     * Gets the inclusive upper price bound.
+     *
+     * @return the upper bound, or null for none
+     */
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    /**
+     * Gets the status the item must have.
+     *
+     * @return the status, or null for any
+     */
+    public ItemStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the latitude of the centre of the location filter.
+     *
+     * @return the latitude, or null for no location filter
+     */
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    /**
+     * Gets the longitude of the centre of the location filter.
+     *
+     * @return the longitude, or null for no location filter
+     */
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * Gets the radius of the location filter.
+     *
+     * @return the radius in kilometres, or null for no location filter
+     */
+    public Double getRadiusKm() {
+        return radiusKm;
+    }
+
+    /**
+     * Gets the inclusive lower bound on the publish date.
+     *
+     * @return the lower bound, or null for none
+     */
+    public LocalDateTime getPublishedAfter() {
+        return publishedAfter;
+    }
+
+    /**
+     * Gets the inclusive upper bound on the publish date.
+     *
+     * @return the upper bound, or null for none
+     */
+    public LocalDateTime getPublishedBefore() {
+        return publishedBefore;
+    }
+
+    /**
+     * Gets the result ordering.
+     *
+     * @return the ordering
+     */
+    public Sort getSort() {
+        return sort;
+    }
+}
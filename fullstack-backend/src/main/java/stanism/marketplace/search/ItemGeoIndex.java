@@ -0,0 +1,328 @@
+package stanism.marketplace.search;
+
+import org.springframework.stereotype.Component;
+import stanism.marketplace.model.Item;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory spatial index over item locations.
+ * Items are bucketed into a fixed latitude/longitude grid, so a radius or
+ * bounding-box query only visits the cells overlapping the query area and
+ * its cost depends on how many items are near the query point rather than
+ * on the size of the catalogue. Hits are ordered by haversine distance, and
+ * only the nearest up to the end of the requested page are kept.
+ */
+@Component
+public class ItemGeoIndex {
+
+    /** Grid cell size in degrees (roughly 11 km north-south). */
+    private static final double CELL_DEGREES = 0.1;
+
+    /** Number of grid columns around the globe. */
+    private static final int LONGITUDE_CELLS = (int) Math.round(360 / CELL_DEGREES);
+
+    /** Number of grid rows from pole to pole. */
+    private static final int LATITUDE_CELLS = (int) Math.round(180 / CELL_DEGREES);
+
+    /** Mean Earth radius in kilometres. */
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    /** Grid cell key to the IDs of the items located in that cell. */
+    private final Map<Long, Set<Long>> cells = new HashMap<>();
+
+    /** Item ID to its indexed location. */
+    private final Map<Long, double[]> locations = new HashMap<>();
+
+    /** Guards cells and locations. */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds or moves an item in the index. Items without coordinates are removed.
+     *
+     * @param item the item to index
+     */
+    public void index(Item item) {
+        if (item == null || item.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(item.getId());
+            if (item.getLatitude() == null || item.getLongitude() == null) {
+                return;
+            }
+            double[] location = { item.getLatitude(), item.getLongitude() };
+            locations.put(item.getId(), location);
+            cells.computeIfAbsent(cellKey(row(location[0]), column(location[1])), key -> new HashSet<>())
+                    .add(item.getId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes an item from the index.
+     *
+     * @param itemId the ID of the item to remove
+     */
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every item from the index.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            locations.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of indexed items.
+     *
+     * @return the number of indexed items
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return locations.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds items within a radius of a point, nearest first.
+     *
+     * @param latitude the latitude of the centre point
+     * @param longitude the longitude of the centre point
+     * @param radiusKm the search radius in kilometres
+     * @param offset the number of nearest hits to skip
+     * @param limit the maximum number of hits to return
+     * @return the requested slice of hits
+     */
+    public GeoResult nearby(double latitude, double longitude, double radiusKm, int offset, int limit) {
+        double angularRadius = radiusKm / EARTH_RADIUS_KM;
+        double latitudeSpan = Math.toDegrees(angularRadius);
+        // The circle's widest longitude extent; once it reaches a pole it covers every longitude
+        double sinRadius = Math.sin(Math.min(angularRadius, Math.PI / 2));
+        double cosLatitude = Math.cos(Math.toRadians(latitude));
+        double longitudeSpan = sinRadius >= cosLatitude ? 180 : Math.toDegrees(Math.asin(sinRadius / cosLatitude));
+        return query(new Area(latitude - latitudeSpan, longitude - longitudeSpan,
+                latitude + latitudeSpan, longitude + longitudeSpan,
+                latitude, longitude, radiusKm), offset, limit);
+    }
+
+    /**
+     * Finds items inside a bounding box, ordered by distance from its centre.
+     *
+     * @param minLatitude the southern edge
+     * @param minLongitude the western edge
+     * @param maxLatitude the northern edge
+     * @param maxLongitude the eastern edge
+     * @param offset the number of nearest hits to skip
+     * @param limit the maximum number of hits to return
+     * @return the requested slice of hits
+     */
+    public GeoResult within(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+            int offset, int limit) {
+        double centreLatitude = (minLatitude + maxLatitude) / 2;
+        double centreLongitude = (minLongitude + maxLongitude) / 2;
+        return query(new Area(minLatitude, minLongitude, maxLatitude, maxLongitude,
+                centreLatitude, centreLongitude, Double.POSITIVE_INFINITY), offset, limit);
+    }
+
+    /**
+     * Computes the great-circle distance between two points.
+     *
+     * @param lat1 latitude of the first point
+     * @param lon1 longitude of the first point
+     * @param lat2 latitude of the second point
+     * @param lon2 longitude of the second point
+     * @return the distance in kilometres
+     */
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                        * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private GeoResult query(Area area, int offset, int limit) {
+        int firstRow = row(Math.max(-90, area.minLatitude()));
+        int lastRow = row(Math.min(90, area.maxLatitude()));
+        int firstColumn = (int) Math.floor((area.minLongitude() + 180) / CELL_DEGREES);
+        int lastColumn = (int) Math.floor((area.maxLongitude() + 180) / CELL_DEGREES);
+        if (lastColumn - firstColumn >= LONGITUDE_CELLS) {
+            firstColumn = 0;
+            lastColumn = LONGITUDE_CELLS - 1;
+        }
+        long gridCells = (long) (lastRow - firstRow + 1) * (lastColumn - firstColumn + 1);
+
+        int examined = 0;
+        TopHits hits;
+        lock.readLock().lock();
+        try {
+            // Nearest first; ties broken by lower ID first
+            hits = new TopHits((int) Math.min((long) offset + limit, locations.size()), false);
+            if (gridCells <= cells.size()) {
+                for (int row = firstRow; row <= lastRow; row++) {
+                    for (int column = firstColumn; column <= lastColumn; column++) {
+                        // Wrap across the antimeridian
+                        examined += collect(cells.get(cellKey(row, Math.floorMod(column, LONGITUDE_CELLS))),
+                                area, hits);
+                    }
+                }
+            } else {
+                // A large area spans more grid cells than are occupied, so walk the occupied ones instead
+                for (Map.Entry<Long, Set<Long>> cell : cells.entrySet()) {
+                    int row = (int) (cell.getKey() / LONGITUDE_CELLS);
+                    int column = (int) (cell.getKey() % LONGITUDE_CELLS);
+                    if (row >= firstRow && row <= lastRow
+                            && Math.floorMod(column - firstColumn, LONGITUDE_CELLS) <= lastColumn - firstColumn) {
+                        examined += collect(cell.getValue(), area, hits);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hits.sort();
+        List<GeoHit> page = new ArrayList<>(Math.max(0, hits.size() - offset));
+        for (int i = offset; i < hits.size(); i++) {
+            page.add(new GeoHit(hits.itemId(i), hits.key(i)));
+        }
+        return new GeoResult(page, hits.offered(), examined);
+    }
+
+    /**
+     * Offers the items of a cell that lie inside an area to the hits.
+     *
+     * @param cell the IDs of the items in the cell, or null for an empty cell
+     * @param area the area searched
+     * @param hits the nearest hits found so far
+     * @return the number of items examined
+     */
+    private int collect(Set<Long> cell, Area area, TopHits hits) {
+        if (cell == null) {
+            return 0;
+        }
+        for (Long itemId : cell) {
+            double[] location = locations.get(itemId);
+            if (!area.contains(location)) {
+                continue;
+            }
+            double distance = haversineKm(area.originLatitude(), area.originLongitude(), location[0], location[1]);
+            if (distance <= area.radiusKm()) {
+                hits.offer(distance, itemId);
+            }
+        }
+        return cell.size();
+    }
+
+    private void removeUnlocked(Long itemId) {
+        double[] previous = locations.remove(itemId);
+        if (previous == null) {
+            return;
+        }
+        long key = cellKey(row(previous[0]), column(previous[1]));
+        Set<Long> cell = cells.get(key);
+        if (cell != null) {
+            cell.remove(itemId);
+            if (cell.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    private static int row(double latitude) {
+        return Math.min(LATITUDE_CELLS - 1, (int) Math.floor((latitude + 90) / CELL_DEGREES));
+    }
+
+    private static int column(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / CELL_DEGREES), LONGITUDE_CELLS);
+    }
+
+    private static long cellKey(int row, int column) {
+        return (long) row * LONGITUDE_CELLS + column;
+    }
+
+    /**
+     * The area of a spatial query: a bounding box, optionally narrowed to a
+     * radius around an origin from which hits are ordered.
+     *
+     * @param minLatitude the southern edge
+     * @param minLongitude the western edge
+     * @param maxLatitude the northern edge
+     * @param maxLongitude the eastern edge, beyond 180 when the box crosses the antimeridian
+     * @param originLatitude the latitude distances are measured from
+     * @param originLongitude the longitude distances are measured from
+     * @param radiusKm the largest distance from the origin, or infinity for the whole box
+     */
+    private record Area(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+            double originLatitude, double originLongitude, double radiusKm) {
+
+        /**
+         * Checks whether a location lies inside the box.
+         *
+         * @param location the latitude and longitude
+         * @return whether the location is inside
+         */
+        boolean contains(double[] location) {
+            if (location[0] < minLatitude || location[0] > maxLatitude) {
+                return false;
+            }
+            if (maxLongitude - minLongitude >= 360) {
+                return true;
+            }
+            double longitude = location[1];
+            // Shift the point into the box's longitude range when the box crosses the antimeridian
+            if (longitude < minLongitude) {
+                longitude += 360;
+            } else if (longitude > maxLongitude) {
+                longitude -= 360;
+            }
+            return longitude >= minLongitude && longitude <= maxLongitude;
+        }
+    }
+
+    /**
+     * A single spatial hit.
+     *
+     * @param itemId the ID of the matching item
+     * @param distanceKm the distance from the query origin in kilometres
+     */
+    public record GeoHit(Long itemId, double distanceKm) {
+    }
+
+    /**
+     * A distance-ordered slice of spatial hits.
+     *
+     * @param hits the hits on the requested page, nearest first
+     * @param totalHits the total number of items matching the query
+     * @param candidatesExamined the number of indexed items visited to answer the query
+     */
+    public record GeoResult(List<GeoHit> hits, int totalHits, int candidatesExamined) {
+    }
+}
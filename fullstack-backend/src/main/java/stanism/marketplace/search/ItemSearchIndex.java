@@ -0,0 +1,353 @@
+package stanism.marketplace.search;
+
+import org.springframework.stereotype.Component;
+import stanism.marketplace.model.Item;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over item titles and descriptions.
+ * Each field is analysed with {@link NorwegianAnalyzer} and weighted
+ * (title over brief description over full description) into a single
+ * term frequency per item; queries are ranked with Okapi BM25.
+ * Readers share a lock, so searches run concurrently and only block while
+ * an item is being (re)indexed.
+ * Items are addressed by dense ordinals, so postings and scores are kept in
+ * primitive arrays and a query allocates nothing per matching item.
+ */
+@Component
+public class ItemSearchIndex {
+
+    /** BM25 term-frequency saturation parameter. */
+    private static final double K1 = 1.2;
+
+    /** BM25 document-length normalisation parameter. */
+    private static final double B = 0.75;
+
+    /** Weight of a term occurrence in the title. */
+    private static final float TITLE_WEIGHT = 3.0f;
+
+    /** Weight of a term occurrence in the brief description. */
+    private static final float BRIEF_WEIGHT = 2.0f;
+
+    /** Weight of a term occurrence in the full description. */
+    private static final float FULL_WEIGHT = 1.0f;
+
+    /** Initial number of document ordinals and postings per term. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Postings: term to the ordinals of the items containing it. */
+    private final Map<String, PostingList> postings = new HashMap<>();
+
+    /** Ordinal per indexed item ID. Only consulted when items are indexed or removed. */
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+
+    /** Item ID per ordinal. */
+    private long[] itemIds = new long[INITIAL_CAPACITY];
+
+    /** Weighted text length per ordinal, for BM25 length normalisation. */
+    private float[] lengths = new float[INITIAL_CAPACITY];
+
+    /** Distinct terms per ordinal, needed to remove an item from its postings. */
+    private String[][] documentTerms = new String[INITIAL_CAPACITY][];
+
+    /** Number of ordinals handed out so far; freed ordinals below it are reused. */
+    private int ordinalCount;
+
+    /** Ordinals of removed items, available for reuse. */
+    private int[] freeOrdinals = new int[INITIAL_CAPACITY];
+
+    /** Number of entries in {@link #freeOrdinals}. */
+    private int freeCount;
+
+    /** Guards postings, ordinals and the per-ordinal arrays. */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Zeroed score accumulators, one slot per ordinal, handed between queries
+     * so that concurrent searches do not each allocate one. At most one per core is kept.
+     */
+    private final BlockingQueue<float[]> scratch = new ArrayBlockingQueue<>(
+            Runtime.getRuntime().availableProcessors());
+
+    /** Sum of weighted document lengths, for the average length in BM25. */
+    private double totalLength;
+
+    /**
+     * Adds an item to the index, replacing any previous version of it.
+     *
+     * @param item the item to index
+     */
+    public void index(Item item) {
+        if (item == null || item.getId() == null) {
+            return;
+        }
+        Map<String, Float> frequencies = new HashMap<>();
+        addField(frequencies, item.getTitle(), TITLE_WEIGHT);
+        addField(frequencies, item.getBriefDescription(), BRIEF_WEIGHT);
+        addField(frequencies, item.getFullDescription(), FULL_WEIGHT);
+        float length = 0;
+        for (float frequency : frequencies.values()) {
+            length += frequency;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(item.getId());
+            int ordinal = allocateOrdinal();
+            for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new PostingList())
+                        .add(ordinal, entry.getValue());
+            }
+            ordinals.put(item.getId(), ordinal);
+            itemIds[ordinal] = item.getId();
+            lengths[ordinal] = length;
+            documentTerms[ordinal] = frequencies.keySet().toArray(new String[0]);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes an item from the index.
+     *
+     * @param itemId the ID of the item to remove
+     */
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every item from the index.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            ordinals.clear();
+            itemIds = new long[INITIAL_CAPACITY];
+            lengths = new float[INITIAL_CAPACITY];
+            documentTerms = new String[INITIAL_CAPACITY][];
+            ordinalCount = 0;
+            freeOrdinals = new int[INITIAL_CAPACITY];
+            freeCount = 0;
+            totalLength = 0;
+            scratch.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of indexed items.
+     *
+     * @return the number of indexed items
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks items against a free-text query.
+     *
+     * @param query the query text
+     * @param offset the number of top-ranked hits to skip
+     * @param limit the maximum number of hits to return
+     * @return the requested slice of hits together with the total hit count
+     */
+    public SearchResult search(String query, int offset, int limit) {
+        List<String> terms = NorwegianAnalyzer.analyze(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return new SearchResult(Collections.emptyList(), 0);
+        }
+
+        lock.readLock().lock();
+        try {
+            float[] scores = borrowScores(ordinalCount);
+            int documentCount = ordinals.size();
+            float averageLength = documentCount == 0 ? 0 : (float) (totalLength / documentCount);
+            boolean matched = false;
+            for (String term : new LinkedHashSet<>(terms)) {
+                PostingList termPostings = postings.get(term);
+                if (termPostings == null) {
+                    continue;
+                }
+                matched = true;
+                termPostings.score(scores, lengths, documentCount, averageLength);
+            }
+            // Collecting the hits zeroes the accumulator again, so it can be handed to the next query
+            SearchResult result = matched ? topHits(scores, offset, limit)
+                    : new SearchResult(Collections.emptyList(), 0);
+            scratch.offer(scores);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private float[] borrowScores(int size) {
+        float[] scores = scratch.poll();
+        return scores != null && scores.length >= size ? scores : new float[Math.max(size, INITIAL_CAPACITY)];
+    }
+
+    private SearchResult topHits(float[] scores, int offset, int limit) {
+        // Never more than the number of ordinals, so a deep offset cannot overflow or size the heap past them
+        int wanted = (int) Math.min((long) offset + limit, ordinalCount);
+        // Best score first; ties broken by newer (higher) ID first
+        TopHits heap = new TopHits(wanted, true);
+        int totalHits = 0;
+        for (int ordinal = 0; ordinal < ordinalCount; ordinal++) {
+            float score = scores[ordinal];
+            if (score > 0) {
+                totalHits++;
+                heap.offer(-score, itemIds[ordinal]);
+                scores[ordinal] = 0;
+            }
+        }
+        heap.sort();
+        if (offset >= heap.size()) {
+            return new SearchResult(Collections.emptyList(), totalHits);
+        }
+        List<Long> page = new ArrayList<>(heap.size() - offset);
+        for (int i = offset; i < heap.size(); i++) {
+            page.add(heap.itemId(i));
+        }
+        return new SearchResult(page, totalHits);
+    }
+
+    private void addField(Map<String, Float> frequencies, String text, float weight) {
+        for (String term : NorwegianAnalyzer.analyze(text)) {
+            frequencies.merge(term, weight, Float::sum);
+        }
+    }
+
+    private int allocateOrdinal() {
+        if (freeCount > 0) {
+            return freeOrdinals[--freeCount];
+        }
+        if (ordinalCount == itemIds.length) {
+            int capacity = itemIds.length * 2;
+            itemIds = Arrays.copyOf(itemIds, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            documentTerms = Arrays.copyOf(documentTerms, capacity);
+        }
+        return ordinalCount++;
+    }
+
+    private void removeUnlocked(Long itemId) {
+        Integer ordinal = ordinals.remove(itemId);
+        if (ordinal == null) {
+            return;
+        }
+        for (String term : documentTerms[ordinal]) {
+            PostingList termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(ordinal);
+                if (termPostings.size == 0) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= lengths[ordinal];
+        documentTerms[ordinal] = null;
+        lengths[ordinal] = 0;
+        if (freeCount == freeOrdinals.length) {
+            freeOrdinals = Arrays.copyOf(freeOrdinals, freeCount * 2);
+        }
+        freeOrdinals[freeCount++] = ordinal;
+    }
+
+    /**
+     * The items containing one term, as parallel arrays of ordinals and
+     * weighted term frequencies in no particular order.
+     */
+    private static final class PostingList {
+
+        /** Ordinals of the items containing the term. */
+        private int[] ordinals = new int[INITIAL_CAPACITY];
+
+        /** Weighted term frequency per entry of {@link #ordinals}. */
+        private float[] frequencies = new float[INITIAL_CAPACITY];
+
+        /** Number of entries in use. */
+        private int size;
+
+        void add(int ordinal, float frequency) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            ordinals[size] = ordinal;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        /**
+         * Removes an ordinal by moving the last entry into its place.
+         * Linear in the posting count, which only re-indexing and removal pay.
+         *
+         * @param ordinal the ordinal of the removed item
+         */
+        void remove(int ordinal) {
+            for (int i = 0; i < size; i++) {
+                if (ordinals[i] == ordinal) {
+                    size--;
+                    ordinals[i] = ordinals[size];
+                    frequencies[i] = frequencies[size];
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Adds this term's BM25 contribution to the score of every item containing it.
+         *
+         * @param scores the score accumulator, indexed by ordinal
+         * @param lengths the weighted text length per ordinal
+         * @param documentCount the number of indexed items
+         * @param averageLength the average weighted text length
+         */
+        void score(float[] scores, float[] lengths, int documentCount, float averageLength) {
+            float idf = (float) Math.log(1 + (documentCount - size + 0.5) / (size + 0.5));
+            float lengthWeight = (float) (K1 * B / averageLength);
+            float baseNorm = (float) (K1 * (1 - B));
+            float boost = (float) (K1 + 1);
+            for (int i = 0; i < size; i++) {
+                int ordinal = ordinals[i];
+                float frequency = frequencies[i];
+                float norm = baseNorm + lengthWeight * lengths[ordinal];
+                scores[ordinal] += idf * frequency * boost / (frequency + norm);
+            }
+        }
+    }
+
+    /**
+     * A ranked slice of search hits.
+     *
+     * @param itemIds the IDs of the matching items, best match first
+     * @param totalHits the total number of items matching the query
+     */
+    public record SearchResult(List<Long> itemIds, int totalHits) {
+    }
+}
@@ -0,0 +1,156 @@
+package stanism.marketplace.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns free text into index terms for item search.
+ * Text is lower-cased, split on anything that is not a letter or digit,
+ * stripped of common Norwegian stop words and reduced with a light
+ * Norwegian suffix stemmer modelled on the Snowball algorithm, so that
+ * "jakke", "jakken" and "jakkene" all map to the same term.
+ */
+public final class NorwegianAnalyzer {
+
+    /** Common Norwegian words that carry no search value. */
+    private static final Set<String> STOP_WORDS = Set.of(
+            "og", "i", "jeg", "det", "at", "en", "et", "den", "til", "er", "som", "på", "de", "med",
+            "han", "av", "ikke", "der", "så", "var", "meg", "seg", "men", "ett", "har", "om", "vi",
+            "min", "mitt", "ha", "hadde", "hun", "nå", "over", "da", "ved", "fra", "du", "ut", "sin",
+            "dem", "oss", "opp", "man", "kan", "hans", "hvor", "eller", "hva", "skal", "selv", "sjøl",
+            "her", "alle", "vil", "bli", "ble", "blitt", "kunne", "inn", "når", "være", "kom", "noen",
+            "noe", "ville", "dere", "deres", "kun", "ja", "etter", "ned", "skulle", "denne", "for",
+            "deg", "si", "sine", "sitt", "mot", "å", "meget", "hvorfor", "dette", "disse", "uten",
+            "hvordan", "ingen", "din", "ditt", "blir", "samme", "hvilken", "hvilke", "sånn", "inni",
+            "mellom", "vår", "hver", "hvem", "vors", "hvis", "både", "bare", "enn", "fordi", "før",
+            "mange", "også", "slik", "vært", "båe", "begge", "siden", "dykk", "dykkar", "dei", "deira",
+            "deim", "di", "då", "eg", "ein", "eit", "eitt", "elles", "honom", "hjå", "ho", "hoe",
+            "henne", "hennar", "hennes", "hoss", "hossen", "ingi", "inkje", "korleis", "korso", "kva",
+            "kvar", "kvarhelst", "kven", "kvi", "kvifor", "me", "medan", "mi", "mine", "mykje", "no",
+            "nokon", "noka", "nokor", "noko", "nokre", "sia", "sidan", "so", "somt", "somme", "um",
+            "upp", "vere", "vore", "verte", "vort", "varte", "vart", "the", "a", "an", "and", "of");
+
+    /** Step 1 suffixes, longest first so the longest match wins. */
+    private static final String[] STEP1_SUFFIXES = {
+        "hetenes", "hetene", "hetens", "heter", "heten", "endes", "ande", "ende", "edes", "enes",
+        "erte", "ede", "ane", "ene", "ens", "ers", "ets", "het", "ast", "ert", "en", "ar", "er",
+        "as", "es", "et", "a", "e"
+    };
+
+    /** Step 3 derivational suffixes, longest first. */
+    private static final String[] STEP3_SUFFIXES = {
+        "hetslov", "eleg", "elig", "elov", "slov", "leg", "eig", "lig", "els", "lov", "ig"
+    };
+
+    /** Consonants after which a trailing "s" is treated as a genitive ending. */
+    private static final String S_ENDING = "bcdfghjlmnoprtvyz";
+
+    /** Norwegian vowels, used to find the stemmer's R1 region. */
+    private static final String VOWELS = "aeiouyæåø";
+
+    /** Terms shorter than this are dropped. */
+    private static final int MIN_TERM_LENGTH = 2;
+
+    private NorwegianAnalyzer() {
+    }
+
+    /**
+     * Splits text into stemmed index terms, preserving duplicates so that
+     * callers can derive term frequencies.
+     *
+     * @param text the text to analyse, may be null
+     * @return the terms in the order they occur
+     */
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                addTerm(terms, lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Stems a single lower-case word.
+     *
+     * @param word the word to stem
+     * @return the stemmed word
+     */
+    public static String stem(String word) {
+        int r1 = regionOne(word);
+        if (r1 >= word.length()) {
+            return word;
+        }
+        String stemmed = stripStep1(word, r1);
+        // Step 2: "dt" and "vt" lose the final consonant
+        if (stemmed.length() - 2 >= r1 && (stemmed.endsWith("dt") || stemmed.endsWith("vt"))) {
+            stemmed = stemmed.substring(0, stemmed.length() - 1);
+        }
+        return stripSuffix(stemmed, r1, STEP3_SUFFIXES);
+    }
+
+    private static void addTerm(List<String> terms, String word) {
+        if (word.length() < MIN_TERM_LENGTH || STOP_WORDS.contains(word)) {
+            return;
+        }
+        terms.add(stem(word));
+    }
+
+    private static String stripStep1(String word, int r1) {
+        for (String suffix : STEP1_SUFFIXES) {
+            if (word.endsWith(suffix) && word.length() - suffix.length() >= r1) {
+                String stem = word.substring(0, word.length() - suffix.length());
+                // "erte" and "ert" are participle endings that reduce to "er"
+                return suffix.startsWith("ert") ? stem + "er" : stem;
+            }
+        }
+        if (word.endsWith("s") && word.length() - 1 >= r1 && word.length() >= 2) {
+            char before = word.charAt(word.length() - 2);
+            boolean genitive = S_ENDING.indexOf(before) >= 0
+                    || (before == 'k' && word.length() >= 3 && VOWELS.indexOf(word.charAt(word.length() - 3)) < 0);
+            if (genitive) {
+                return word.substring(0, word.length() - 1);
+            }
+        }
+        return word;
+    }
+
+    private static String stripSuffix(String word, int r1, String[] suffixes) {
+        for (String suffix : suffixes) {
+            if (word.endsWith(suffix) && word.length() - suffix.length() >= r1) {
+                return word.substring(0, word.length() - suffix.length());
+            }
+        }
+        return word;
+    }
+
+    /**
+     * Finds the start of R1: the region after the first non-vowel that
+     * follows a vowel, adjusted so that at least three letters precede it.
+     *
+     * @param word the word to examine
+     * @return the index at which R1 starts
+     */
+    private static int regionOne(String word) {
+        int r1 = word.length();
+        for (int i = 1; i < word.length(); i++) {
+            if (VOWELS.indexOf(word.charAt(i)) < 0 && VOWELS.indexOf(word.charAt(i - 1)) >= 0) {
+                r1 = i + 1;
+                break;
+            }
+        }
+        return Math.max(r1, 3);
+    }
+}
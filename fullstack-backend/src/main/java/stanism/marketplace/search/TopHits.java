@@ -0,0 +1,151 @@
+package stanism.marketplace.search;
+
+/**
+ * Bounded selection of the best hits of a query, ordered by ascending key.
+ * Only the best {@code capacity} hits offered are kept, in a heap of parallel
+ * primitive arrays with the worst retained hit at the root, so selecting a
+ * page from any number of hits allocates nothing per hit and costs
+ * O(n log k) instead of sorting every hit.
+ */
+final class TopHits {
+
+    /** Keys of the retained hits, in heap order until {@link #sort()} is called. */
+    private final double[] keys;
+
+    /** Item IDs of the retained hits, parallel to {@link #keys}. */
+    private final long[] itemIds;
+
+    /** Whether the higher item ID wins a tie; otherwise the lower one does. */
+    private final boolean higherIdFirst;
+
+    /** Number of retained hits. */
+    private int size;
+
+    /** Number of hits offered, retained or not. */
+    private int offered;
+
+    /**
+     * Creates an empty selection.
+     *
+     * @param capacity the number of best hits to keep
+     * @param higherIdFirst true if hits with equal keys are ordered by descending item ID
+     */
+    TopHits(int capacity, boolean higherIdFirst) {
+        this.keys = new double[Math.max(0, capacity)];
+        this.itemIds = new long[keys.length];
+        this.higherIdFirst = higherIdFirst;
+    }
+
+    /**
+     * Offers a hit, keeping it if it is among the best seen so far.
+     *
+     * @param key the ascending sort key of the hit
+     * @param itemId the ID of the item
+     */
+    void offer(double key, long itemId) {
+        offered++;
+        if (size < keys.length) {
+            keys[size] = key;
+            itemIds[size] = itemId;
+            siftUp(size++);
+        } else if (size > 0 && before(key, itemId, keys[0], itemIds[0])) {
+            keys[0] = key;
+            itemIds[0] = itemId;
+            siftDown(0, size);
+        }
+    }
+
+    /**
+     * Orders the retained hits best first. No hits may be offered afterwards.
+     */
+    void sort() {
+        for (int end = size - 1; end > 0; end--) {
+            swap(0, end);
+            siftDown(0, end);
+        }
+    }
+
+    /**
+     * Gets the number of retained hits.
+     *
+     * @return the number of retained hits
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of hits offered, including those not retained.
+     *
+     * @return the number of hits offered
+     */
+    int offered() {
+        return offered;
+    }
+
+    /**
+     * Gets the key of a retained hit.
+     *
+     * @param index the position of the hit, best first once sorted
+     * @return the key of the hit
+     */
+    double key(int index) {
+        return keys[index];
+    }
+
+    /**
+     * Gets the item ID of a retained hit.
+     *
+     * @param index the position of the hit, best first once sorted
+     * @return the item ID of the hit
+     */
+    long itemId(int index) {
+        return itemIds[index];
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!before(keys[parent], itemIds[parent], keys[index], itemIds[index])) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index, int end) {
+        while (true) {
+            int worst = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < end && before(keys[worst], itemIds[worst], keys[left], itemIds[left])) {
+                worst = left;
+            }
+            if (right < end && before(keys[worst], itemIds[worst], keys[right], itemIds[right])) {
+                worst = right;
+            }
+            if (worst == index) {
+                return;
+            }
+            swap(index, worst);
+            index = worst;
+        }
+    }
+
+    private boolean before(double key, long itemId, double otherKey, long otherItemId) {
+        if (key != otherKey) {
+            return key < otherKey;
+        }
+        return higherIdFirst ? itemId > otherItemId : itemId < otherItemId;
+    }
+
+    private void swap(int i, int j) {
+        double key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        long itemId = itemIds[i];
+        itemIds[i] = itemIds[j];
+        itemIds[j] = itemId;
+    }
+}
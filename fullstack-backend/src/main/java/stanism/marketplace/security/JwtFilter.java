@@ -65,10 +65,9 @@ public class JwtFilter extends OncePerRequestFilter {
         return;
       }
 
-      if (jwtUtil.validateToken(token)) {
-        String username = jwtUtil.extractUsername(token);
-
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+      String username = jwtUtil.validateAndExtractUsername(token);
+      if (username != null) {
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
           UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
               username,
               null,
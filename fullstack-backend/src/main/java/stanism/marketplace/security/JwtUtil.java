@@ -2,6 +2,7 @@ package stanism.marketplace.security;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -12,15 +13,26 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import stanism.marketplace.metrics.CacheStats;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.function.Function;
 
 /**
  * Utility class for handling JWT (JSON Web Token) operations.
  * This class provides methods for generating, validating, and extracting
  * information from JWT tokens.
+ * Tokens are parsed with a single shared parser, and the claims of every
+ * successfully verified token are cached under the token's SHA-256 until the
+ * token expires, so a token's signature is verified once per lifetime rather
+ * than on every request.
  */
 @Component
 public class JwtUtil {
@@ -38,19 +50,46 @@ public class JwtUtil {
   /** Secret key used for JWT signing. */
   private final SecretKey secretKey;
 
+  /** Thread-safe parser reused for every token. */
+  private final JwtParser parser;
+
+  /**
+   * Claims of verified tokens keyed by the token's SHA-256, least recently used first;
+   * only valid tokens are cached. Guarded by its own monitor.
+   */
+  private final LinkedHashMap<String, VerifiedToken> verifiedTokens;
+
+  /** Maximum number of cached tokens; 0 disables the cache. */
+  private final int cacheMaxEntries;
+
+  /** Hit and miss counts of verified-token lookups. */
+  private final CacheStats cacheStats = new CacheStats();
+
   /**
    * Constructs a new JwtUtil instance with the provided secret key and expiration
    * time.
    *
    * @param secretKeyString The secret key string for JWT signing
    * @param expirationTime  The token expiration time in milliseconds
+   * @param cacheMaxEntries The maximum number of verified tokens to cache, 0 to disable caching
    */
   public JwtUtil(
       @Value("${jwt.secret}") String secretKeyString,
-      @Value("${jwt.expiration}") long expirationTime) {
+      @Value("${jwt.expiration}") long expirationTime,
+      @Value("${jwt.cache.max-entries:10000}") int cacheMaxEntries) {
     this.secretKeyString = secretKeyString;
     this.expirationTime = expirationTime;
     this.secretKey = Keys.hmacShaKeyFor(secretKeyString.getBytes());
+    this.parser = Jwts.parserBuilder()
+        .setSigningKey(secretKey)
+        .build();
+    this.cacheMaxEntries = cacheMaxEntries;
+    this.verifiedTokens = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+        return size() > cacheMaxEntries;
+      }
+    };
   }
 
   /**
@@ -111,11 +150,33 @@ public class JwtUtil {
    * @return All claims from the token
    */
   public Claims extractAllClaims(String token) {
-    return Jwts.parserBuilder()
-        .setSigningKey(secretKey)
-        .build()
-        .parseClaimsJws(token)
-        .getBody();
+    String key = cacheKey(token);
+    synchronized (verifiedTokens) {
+      VerifiedToken cached = verifiedTokens.get(key);
+      if (cached != null) {
+        if (cached.expiresAt() > System.currentTimeMillis()) {
+          cacheStats.hit();
+          return cached.claims();
+        }
+        verifiedTokens.remove(key);
+      }
+    }
+    cacheStats.miss();
+
+    Claims claims = parser.parseClaimsJws(token).getBody();
+    cache(key, claims);
+    return claims;
+  }
+
+  /**
+   * Validates the token and extracts its username in one step.
+   *
+   * @param token The JWT token to validate
+   * @return The username from a valid token, or null if the token is invalid
+   */
+  public String validateAndExtractUsername(String token) {
+    Claims claims = verifiedClaims(token);
+    return claims == null ? null : claims.getSubject();
   }
 
   /**
@@ -125,12 +186,18 @@ public class JwtUtil {
    * @return true if the token is valid, false otherwise
    */
   public boolean validateToken(String token) {
+    return verifiedClaims(token) != null;
+  }
+
+  /**
+   * Verifies the token and returns its claims, logging why an invalid token was rejected.
+   *
+   * @param token The JWT token to verify
+   * @return The token's claims, or null if the token is invalid
+   */
+  private Claims verifiedClaims(String token) {
     try {
-      Jwts.parserBuilder()
-          .setSigningKey(secretKey)
-          .build()
-          .parseClaimsJws(token);
-      return true;
+      return extractAllClaims(token);
     } catch (SignatureException e) {
       LOGGER.error("Invalid JWT signature: {}", e.getMessage());
     } catch (MalformedJwtException e) {
@@ -142,7 +209,7 @@ public class JwtUtil {
     } catch (IllegalArgumentException e) {
       LOGGER.error("JWT claims string is empty: {}", e.getMessage());
     }
-    return false;
+    return null;
   }
 
   /**
@@ -163,4 +230,55 @@ public class JwtUtil {
   public long getExpirationTime() {
     return expirationTime;
   }
-}
\ No newline at end of file
+
+  /**
+   * Returns the number of verified tokens cached.
+   *
+   * @return The number of cached tokens
+   */
+  public int getCacheSize() {
+    synchronized (verifiedTokens) {
+      return verifiedTokens.size();
+    }
+  }
+
+  /**
+   * Returns the hit and miss counts of verified-token lookups.
+   *
+   * @return The counts
+   */
+  public CacheStats getCacheStats() {
+    return cacheStats;
+  }
+
+  private void cache(String key, Claims claims) {
+    if (cacheMaxEntries <= 0 || claims.getExpiration() == null) {
+      return;
+    }
+    // Past the bound the least recently used token is dropped; it is re-verified if seen again
+    synchronized (verifiedTokens) {
+      verifiedTokens.put(key, new VerifiedToken(claims, claims.getExpiration().getTime()));
+    }
+  }
+
+  private static String cacheKey(String token) {
+    if (token == null) {
+      throw new IllegalArgumentException("JWT string is null");
+    }
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  /**
+   * Claims of a token whose signature has been verified.
+   *
+   * @param claims    The token's claims
+   * @param expiresAt The token's expiry in epoch milliseconds
+   */
+  private record VerifiedToken(Claims claims, long expiresAt) {
+  }
+}
@@ -1,5 +1,6 @@
 package stanism.marketplace.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -37,6 +38,10 @@ public class SecurityConfig {
     /** User repository for user-related operations. */
     private final UserRepository userRepository;
 
+    /** Port of the separate management listener, or -1 when actuator shares the public port. */
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     /**
      * Constructs a new SecurityConfig instance.
      *
@@ -102,6 +107,11 @@ public class SecurityConfig {
                 .requestMatchers("/api/admin/**").permitAll()
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()
                 .requestMatchers("/ws/**").permitAll()
+                .requestMatchers("/actuator/health").permitAll()
+                // Scraped by Prometheus over the management port; never served on the public listener
+                .requestMatchers(request -> managementPort > 0 && request.getLocalPort() == managementPort)
+                .permitAll()
+                .requestMatchers("/actuator/prometheus").denyAll()
                 .requestMatchers("/api/userinfo/**").authenticated()
                 .anyRequest().authenticated());
 
@@ -1,5 +1,7 @@
 package stanism.marketplace.security;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.simp.stomp.StompCommand;
@@ -13,6 +15,9 @@ import org.springframework.stereotype.Component;
 @Component
 public class WebSocketAuthInterceptor implements ChannelInterceptor {
 
+    /** Logger for this class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(WebSocketAuthInterceptor.class);
+
     public WebSocketAuthInterceptor() {
     }
 
@@ -22,15 +27,13 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
 
         if (accessor != null) {
             if (StompCommand.CONNECT.equals(accessor.getCommand())) {
-                System.out.println("Processing CONNECT command");
-                System.out.println("Message headers: " + accessor.getMessageHeaders());
-
                 Authentication authentication = (Authentication) accessor.getUser();
                 if (authentication != null && authentication.isAuthenticated()) {
-                    System.out.println("User already authenticated: " + authentication.getName());
+                    LOGGER.debug("STOMP session {} connected as {}", accessor.getSessionId(),
+                            authentication.getName());
                     SecurityContextHolder.getContext().setAuthentication(authentication);
                 } else {
-                    System.out.println("No valid authentication found");
+                    LOGGER.debug("STOMP session {} rejected without authentication", accessor.getSessionId());
                     throw new RuntimeException("User not authenticated");
                 }
             } else if (StompCommand.SEND.equals(accessor.getCommand())) {
@@ -38,6 +41,12 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
                 if (authentication == null || !authentication.isAuthenticated()) {
                     throw new RuntimeException("User not authenticated");
                 }
+            } else if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+                // Queues are per-session targets of user destinations; clients must subscribe via /user/queue/...
+                String destination = accessor.getDestination();
+                if (destination != null && destination.startsWith("/queue/")) {
+                    throw new RuntimeException("Subscribe to /user" + destination + " instead");
+                }
             }
         }
 
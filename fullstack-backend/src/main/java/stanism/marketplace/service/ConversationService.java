@@ -0,0 +1,242 @@
+package stanism.marketplace.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import stanism.marketplace.chat.PendingChatMessage;
+import stanism.marketplace.model.Conversation;
+import stanism.marketplace.repository.ConversationRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains and reads the per-user conversation summaries behind the inbox.
+ * Summaries are updated in the same transaction that stores a batch of chat
+ * messages: the batch is folded into one change per conversation side, and
+ * existing rows are updated while new conversations are inserted, so the
+ * cost depends on the conversations touched rather than on message history.
+ * Summaries are rebuilt from the messages table on startup if none exist yet.
+ */
+@Service
+public class ConversationService {
+
+    /** Logger for this class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConversationService.class);
+
+    /** Statement applying a batch of messages to an existing summary. */
+    private static final String UPDATE_SQL = "UPDATE conversations SET last_message = ?, last_sender_id = ?,"
+            + " last_timestamp = ?, unread_count = unread_count + ?"
+            + " WHERE user_id = ? AND other_user_id = ? AND item_id = ?";
+
+    /** Statement creating the summary of a new conversation. */
+    private static final String INSERT_SQL = "INSERT INTO conversations (user_id, other_user_id, item_id,"
+            + " last_message, last_sender_id, last_timestamp, unread_count) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    /** Time recorded for stored messages that have none. */
+    private static final LocalDateTime UNKNOWN_TIMESTAMP = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    /** Number of rows per insert batch when rebuilding summaries. */
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    /** Repository for reading summaries. */
+    private final ConversationRepository conversationRepository;
+
+    /** Template for the summary updates, joining the caller's transaction. */
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Runs the startup rebuild in a transaction. */
+    private final TransactionTemplate transactionTemplate;
+
+    public ConversationService(ConversationRepository conversationRepository, JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager) {
+        this.conversationRepository = conversationRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Builds the summaries from stored messages if there are none yet, such as
+     * on the first start after upgrading. Existing messages count as read.
+     */
+    @PostConstruct
+    public void rebuildIfEmpty() {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM conversations", Integer.class);
+        if (existing != null && existing > 0) {
+            return;
+        }
+        Map<ConversationKey, Summary> summaries = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT sender_id, receiver_id, item_id, content, timestamp FROM messages ORDER BY id",
+                resultSet -> {
+                    Timestamp timestamp = resultSet.getTimestamp(5);
+                    fold(summaries, new PendingChatMessage(0, resultSet.getLong(1), resultSet.getLong(2),
+                            resultSet.getLong(3), resultSet.getString(4),
+                            timestamp == null ? UNKNOWN_TIMESTAMP : timestamp.toLocalDateTime()), false);
+                });
+        if (summaries.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> insert(new ArrayList<>(summaries.entrySet())));
+        LOGGER.info("Built {} conversation summaries from stored messages", summaries.size());
+    }
+
+    /**
+     * Applies newly stored messages to the summaries of both participants.
+     * Must be called in the transaction that stores the messages.
+     *
+     * @param messages the stored messages, in the order they were sent
+     */
+    public void recordMessages(List<PendingChatMessage> messages) {
+        Map<ConversationKey, Summary> summaries = new LinkedHashMap<>();
+        for (PendingChatMessage message : messages) {
+            fold(summaries, message, true);
+        }
+        if (summaries.isEmpty()) {
+            return;
+        }
+        Set<ConversationKey> existing = findExisting(summaries.keySet());
+        List<Map.Entry<ConversationKey, Summary>> updates = new ArrayList<>();
+        List<Map.Entry<ConversationKey, Summary>> inserts = new ArrayList<>();
+        for (Map.Entry<ConversationKey, Summary> entry : summaries.entrySet()) {
+            (existing.contains(entry.getKey()) ? updates : inserts).add(entry);
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates, updates.size(), (statement, entry) -> {
+                Summary summary = entry.getValue();
+                ConversationKey key = entry.getKey();
+                statement.setString(1, summary.lastMessage);
+                statement.setLong(2, summary.lastSenderId);
+                statement.setTimestamp(3, Timestamp.valueOf(summary.lastTimestamp));
+                statement.setInt(4, summary.unread);
+                statement.setLong(5, key.userId());
+                statement.setLong(6, key.otherUserId());
+                statement.setLong(7, key.itemId());
+            });
+        }
+        insert(inserts);
+    }
+
+    /**
+     * Retrieves a user's conversations, most recent first.
+     *
+     * @param userId the ID of the user
+     * @return the user's conversation summaries
+     */
+    @Transactional(readOnly = true)
+    public List<Conversation> getConversations(Long userId) {
+        return conversationRepository.findByUserIdOrderByLastTimestampDesc(userId);
+    }
+
+    /**
+     * Clears the unread count of a user's side of a conversation.
+     *
+     * @param userId the ID of the user who read the conversation
+     * @param otherUserId the ID of the other participant
+     * @param itemId the ID of the item
+     */
+    @Transactional
+    public void markRead(Long userId, Long otherUserId, Long itemId) {
+        conversationRepository.markRead(userId, otherUserId, itemId);
+    }
+
+    private static void fold(Map<ConversationKey, Summary> summaries, PendingChatMessage message,
+            boolean countUnread) {
+        summaries.computeIfAbsent(new ConversationKey(message.senderId(), message.receiverId(), message.itemId()),
+                key -> new Summary()).apply(message, false);
+        if (message.senderId() != message.receiverId()) {
+            summaries.computeIfAbsent(new ConversationKey(message.receiverId(), message.senderId(),
+                    message.itemId()), key -> new Summary()).apply(message, countUnread);
+        }
+    }
+
+    private Set<ConversationKey> findExisting(Set<ConversationKey> keys) {
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> itemIds = new HashSet<>();
+        for (ConversationKey key : keys) {
+            userIds.add(key.userId());
+            itemIds.add(key.itemId());
+        }
+        List<Object> parameters = new ArrayList<>(userIds);
+        parameters.addAll(itemIds);
+        String sql = "SELECT user_id, other_user_id, item_id FROM conversations WHERE user_id IN ("
+                + placeholders(userIds.size()) + ") AND item_id IN (" + placeholders(itemIds.size()) + ")";
+        Set<ConversationKey> existing = new HashSet<>();
+        jdbcTemplate.query(sql, resultSet -> {
+            ConversationKey key = new ConversationKey(resultSet.getLong(1), resultSet.getLong(2),
+                    resultSet.getLong(3));
+            if (keys.contains(key)) {
+                existing.add(key);
+            }
+        }, parameters.toArray());
+        return existing;
+    }
+
+    private void insert(List<Map.Entry<ConversationKey, Summary>> inserts) {
+        if (inserts.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, inserts, REBUILD_BATCH_SIZE, (statement, entry) -> {
+            Summary summary = entry.getValue();
+            ConversationKey key = entry.getKey();
+            statement.setLong(1, key.userId());
+            statement.setLong(2, key.otherUserId());
+            statement.setLong(3, key.itemId());
+            statement.setString(4, summary.lastMessage);
+            statement.setLong(5, summary.lastSenderId);
+            statement.setTimestamp(6, Timestamp.valueOf(summary.lastTimestamp));
+            statement.setInt(7, summary.unread);
+        });
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    /**
+     * Identifies one participant's side of a conversation.
+     *
+     * @param userId the ID of the inbox owner
+     * @param otherUserId the ID of the other participant
+     * @param itemId the ID of the item
+     */
+    private record ConversationKey(long userId, long otherUserId, long itemId) {
+    }
+
+    /**
+     * The change a batch of messages makes to one summary.
+     */
+    private static final class Summary {
+        /** Content of the latest message. */
+        private String lastMessage;
+
+        /** Sender of the latest message. */
+        private long lastSenderId;
+
+        /** Time of the latest message. */
+        private LocalDateTime lastTimestamp;
+
+        /** Number of messages to add to the unread count. */
+        private int unread;
+
+        private void apply(PendingChatMessage message, boolean received) {
+            lastMessage = message.content();
+            lastSenderId = message.senderId();
+            lastTimestamp = message.timestamp();
+            if (received) {
+                unread++;
+            }
+        }
+    }
+}
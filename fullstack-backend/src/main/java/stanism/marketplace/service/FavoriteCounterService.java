@@ -0,0 +1,209 @@
+package stanism.marketplace.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import stanism.marketplace.search.ItemFacetIndex;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how many users favorited each item.
+ * Adding or removing a favorite only bumps a striped {@link LongAdder} for the
+ * item, so concurrent favorites of a popular item never contend on a lock or a
+ * row. A background thread periodically drains the accumulated changes into
+ * the denormalised {@code items.favorite_count} column in one batch and
+ * applies them to the facet index used for sorting by popularity, so both lag
+ * the live count by at most one flush interval.
+ * Changes not yet flushed are lost if the process dies; the counts can be
+ * recomputed from the favorites table on startup to repair that drift.
+ * Adders of items whose count did not change during a flush interval are
+ * dropped, so the flusher only walks recently favorited items.
+ */
+@Service
+public class FavoriteCounterService {
+
+    /** Logger for this class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(FavoriteCounterService.class);
+
+    /** Statement applying a change to a stored count. */
+    private static final String UPDATE_SQL =
+            "UPDATE items SET favorite_count = GREATEST(favorite_count + ?, 0) WHERE id = ?";
+
+    /** Statement recomputing every stored count from the favorites table. */
+    private static final String RECONCILE_SQL =
+            "UPDATE items SET favorite_count = (SELECT COUNT(*) FROM favorites f WHERE f.item_id = items.id)";
+
+    /** Number of rows per update batch. */
+    private static final int BATCH_SIZE = 500;
+
+    /** Unflushed changes by item ID. */
+    private final ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Adders dropped from {@link #pending} by the last flush. The next flush
+     * drains them once more, so an increment made through a reference obtained
+     * just before the removal is still counted. Guarded by this service.
+     */
+    private List<Map.Entry<Long, LongAdder>> retired = new ArrayList<>();
+
+    /** Template for the count updates. */
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Applies each flush atomically, so a failed flush can be retried in full. */
+    private final TransactionTemplate transactionTemplate;
+
+    /** Index whose popularity sort is kept in step with the flushed counts. */
+    private final ItemFacetIndex facetIndex;
+
+    /** How often pending changes are flushed. */
+    private final Duration flushInterval;
+
+    /** Whether to recompute the stored counts on startup. */
+    private final boolean reconcileOnStartup;
+
+    /** Thread flushing pending changes. */
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "favorite-counter-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public FavoriteCounterService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            ItemFacetIndex facetIndex,
+            @Value("${app.favorites.counters.flush-interval:5s}") Duration flushInterval,
+            @Value("${app.favorites.counters.reconcile-on-startup:false}") boolean reconcileOnStartup) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.facetIndex = facetIndex;
+        this.flushInterval = flushInterval;
+        this.reconcileOnStartup = reconcileOnStartup;
+    }
+
+    /**
+     * Recomputes the stored counts if configured to, and starts the flusher.
+     * Runs before the item indexes are built, so they start from the repaired counts.
+     * Reconciling updates every item row in one statement, so it is off by
+     * default and meant for repairing drift, not for every start.
+     */
+    @PostConstruct
+    public void start() {
+        if (reconcileOnStartup) {
+            reconcile();
+        }
+        long interval = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the flusher and writes the remaining changes.
+     */
+    @PreDestroy
+    public void stop() {
+        flusher.shutdownNow();
+        flushQuietly();
+    }
+
+    /**
+     * Recomputes the stored counts from the favorites table, for favorites
+     * written without going through the counters.
+     */
+    public void reconcile() {
+        jdbcTemplate.update(RECONCILE_SQL);
+        LOGGER.info("Recomputed item favorite counts from stored favorites");
+    }
+
+    /**
+     * Records that a user favorited an item.
+     *
+     * @param itemId the ID of the item
+     */
+    public void increment(Long itemId) {
+        adder(itemId).increment();
+    }
+
+    /**
+     * Records that a user removed an item from their favorites.
+     *
+     * @param itemId the ID of the item
+     */
+    public void decrement(Long itemId) {
+        adder(itemId).decrement();
+    }
+
+    /**
+     * Gets the adder collecting the unflushed changes of an item, creating it if needed.
+     *
+     * @param itemId the ID of the item
+     * @return the adder
+     */
+    LongAdder adder(Long itemId) {
+        return pending.computeIfAbsent(itemId, id -> new LongAdder());
+    }
+
+    /**
+     * Writes the pending changes to the stored counts and the facet index.
+     *
+     * @return the number of items whose count changed
+     */
+    public synchronized int flush() {
+        Map<Long, Long> deltas = new HashMap<>();
+        for (Map.Entry<Long, LongAdder> entry : retired) {
+            long late = entry.getValue().sumThenReset();
+            if (late != 0) {
+                deltas.merge(entry.getKey(), late, Long::sum);
+            }
+        }
+        List<Map.Entry<Long, LongAdder>> idle = new ArrayList<>();
+        pending.forEach((itemId, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                deltas.merge(itemId, delta, Long::sum);
+            } else if (pending.remove(itemId, adder)) {
+                // A later change to the item creates a fresh adder
+                idle.add(Map.entry(itemId, adder));
+            }
+        });
+        retired = idle;
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        List<Map.Entry<Long, Long>> updates = new ArrayList<>(deltas.entrySet());
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(UPDATE_SQL, updates, BATCH_SIZE, (statement, entry) -> {
+                        statement.setLong(1, entry.getValue());
+                        statement.setLong(2, entry.getKey());
+                    }));
+        } catch (RuntimeException e) {
+            // Put the changes back so the next flush retries them
+            deltas.forEach((itemId, delta) -> adder(itemId).add(delta));
+            throw e;
+        }
+        facetIndex.addFavoriteCounts(deltas);
+        return deltas.size();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to flush item favorite counts, will retry", e);
+        }
+    }
+}
@@ -1,45 +1,121 @@
 package stanism.marketplace.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import stanism.marketplace.model.Favorite;
 import stanism.marketplace.model.Item;
 import stanism.marketplace.model.User;
 import stanism.marketplace.repository.FavoriteRepository;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+/**
+ * Service class for managing users' favorite items.
+ * Favorite checks are answered from the per-user sets in {@link FavoriteSetCache},
+ * which are kept up to date as favorites are added and removed.
+ */
 @Service
 public class FavoriteService {
     /** Repository for managing favorite relationships between users and items. */
     private final FavoriteRepository favoriteRepository;
 
+    /** Cache of the item IDs each user has favorited. */
+    private final FavoriteSetCache favoriteSetCache;
+
+    /** Per-item counts of how many users favorited each item. */
+    private final FavoriteCounterService favoriteCounterService;
+
     @Autowired
-    public FavoriteService(FavoriteRepository favoriteRepository) {
+    public FavoriteService(FavoriteRepository favoriteRepository, FavoriteSetCache favoriteSetCache,
+            FavoriteCounterService favoriteCounterService) {
         this.favoriteRepository = favoriteRepository;
+        this.favoriteSetCache = favoriteSetCache;
+        this.favoriteCounterService = favoriteCounterService;
     }
 
     public Favorite addFavorite(User user, Item item) {
-        Optional<Favorite> existingFavorite = favoriteRepository.findByUserAndItem(user, item);
-        if (existingFavorite.isPresent()) {
-            return existingFavorite.get();
+        if (isItemFavorited(user, item.getId())) {
+            Optional<Favorite> existingFavorite = favoriteRepository.findByUserAndItem(user, item);
+            if (existingFavorite.isPresent()) {
+                return existingFavorite.get();
+            }
         }
 
-        Favorite favorite = new Favorite(user, item);
-        return favoriteRepository.save(favorite);
+        Favorite favorite;
+        try {
+            favorite = favoriteRepository.save(new Favorite(user, item));
+        } catch (DataIntegrityViolationException e) {
+            // Favorited concurrently; the unique key on (user_id, item_id) kept the first row
+            favoriteSetCache.evict(user.getId());
+            return favoriteRepository.findByUserAndItem(user, item).orElseThrow(() -> e);
+        }
+        favoriteSetCache.added(user.getId(), item.getId());
+        favoriteCounterService.increment(item.getId());
+        return favorite;
     }
 
+    @Transactional
     public void removeFavorite(User user, Item item) {
-        Optional<Favorite> favorite = favoriteRepository.findByUserAndItem(user, item);
-        favorite.ifPresent(favoriteRepository::delete);
+        int deleted = favoriteRepository.deleteByUserIdAndItemId(user.getId(), item.getId());
+        favoriteSetCache.removed(user.getId(), item.getId());
+        // Apply the removal again once committed, in case a concurrent read re-cached the row being deleted
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    favoriteSetCache.removed(user.getId(), item.getId());
+                    if (deleted > 0) {
+                        favoriteCounterService.decrement(item.getId());
+                    }
+                } else {
+                    favoriteSetCache.evict(user.getId());
+                }
+            }
+        });
     }
 
     public List<Favorite> getUserFavorites(User user) {
         return favoriteRepository.findByUser(user);
     }
 
-    public boolean isItemFavorited(User user, Item item) {
-        return favoriteRepository.findByUserAndItem(user, item).isPresent();
+    /**
+     * Checks whether a user has favorited an item.
+     *
+     * @param user the user
+     * @param itemId the ID of the item
+     * @return true if the item is one of the user's favorites
+     */
+    public boolean isItemFavorited(User user, Long itemId) {
+        return FavoriteSetCache.contains(favoriteItemIds(user), itemId);
+    }
+
+    /**
+     * Finds which of the given items a user has favorited.
+     *
+     * @param user the user
+     * @param itemIds the IDs of the items to check
+     * @return the subset of the given item IDs the user has favorited
+     */
+    public Set<Long> getFavoritedItemIds(User user, Collection<Long> itemIds) {
+        long[] favorites = favoriteItemIds(user);
+        Set<Long> favorited = new HashSet<>();
+        for (Long itemId : itemIds) {
+            if (FavoriteSetCache.contains(favorites, itemId)) {
+                favorited.add(itemId);
+            }
+        }
+        return favorited;
+    }
+
+    private long[] favoriteItemIds(User user) {
+        return favoriteSetCache.get(user.getId(), () -> favoriteRepository.findItemIdsByUserId(user.getId()));
     }
-}
\ No newline at end of file
+}
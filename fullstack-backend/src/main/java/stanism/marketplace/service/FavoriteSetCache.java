@@ -0,0 +1,227 @@
+package stanism.marketplace.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import stanism.marketplace.metrics.CacheStats;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, time-limited cache of the item IDs each user has favorited.
+ * A user's favorites are held as a sorted {@code long[]}, so a lookup is a
+ * binary search over a few bytes per favorite instead of a database query.
+ * Sets are never modified in place: additions and removals replace the array,
+ * so a set handed out earlier stays a consistent snapshot.
+ * {@link FavoriteService} applies its own writes to cached sets; the time
+ * limit bounds how long a change made elsewhere can stay unseen.
+ */
+@Component
+public class FavoriteSetCache {
+
+    /** The set of a user without favorites. */
+    private static final long[] EMPTY = new long[0];
+
+    /** Cached favorite sets by user ID, least recently used first. */
+    private final LinkedHashMap<Long, Entry> byUser = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Maximum number of users whose favorites are cached. */
+    private final int maxUsers;
+
+    /** How long a cached set stays valid, in nanoseconds. */
+    private final long ttlNanos;
+
+    /** Loads in progress by user ID, so a write for that user can discard what they read. */
+    private final Map<Long, Loading> loading = new HashMap<>();
+
+    /** Hit and miss counts of lookups. */
+    private final CacheStats stats = new CacheStats();
+
+    /**
+     * Creates the cache.
+     *
+     * @param maxUsers the maximum number of users whose favorites are cached; 0 disables caching
+     * @param ttl how long a cached set stays valid
+     */
+    public FavoriteSetCache(@Value("${app.favorites.cache.max-users:10000}") int maxUsers,
+            @Value("${app.favorites.cache.ttl:10m}") Duration ttl) {
+        this.maxUsers = Math.max(0, maxUsers);
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Gets the sorted item IDs a user has favorited, loading and caching them on a miss.
+     * The returned array must not be modified.
+     *
+     * @param userId the ID of the user
+     * @param loader loads the favorited item IDs when they are not cached
+     * @return the sorted item IDs
+     */
+    public long[] get(Long userId, Supplier<Collection<Long>> loader) {
+        Loading load;
+        long writesBeforeLoad;
+        synchronized (this) {
+            Entry entry = byUser.get(userId);
+            if (entry != null && System.nanoTime() - entry.loadedAt() < ttlNanos) {
+                stats.hit();
+                return entry.itemIds();
+            }
+            stats.miss();
+            byUser.remove(userId);
+            load = loading.computeIfAbsent(userId, id -> new Loading());
+            load.loads++;
+            writesBeforeLoad = load.writes;
+        }
+        long[] itemIds;
+        try {
+            itemIds = toSortedArray(loader.get());
+        } finally {
+            synchronized (this) {
+                if (--load.loads == 0) {
+                    loading.remove(userId);
+                }
+            }
+        }
+        synchronized (this) {
+            // A write for this user during the load may be missing from what was read, so only cache a set
+            // no write for the same user raced with
+            if (maxUsers > 0 && load.writes == writesBeforeLoad) {
+                byUser.put(userId, new Entry(itemIds, System.nanoTime()));
+                Iterator<Map.Entry<Long, Entry>> eldest = byUser.entrySet().iterator();
+                while (byUser.size() > maxUsers && eldest.hasNext()) {
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+        }
+        return itemIds;
+    }
+
+    /**
+     * Records that a user favorited an item.
+     *
+     * @param userId the ID of the user
+     * @param itemId the ID of the item
+     */
+    public synchronized void added(Long userId, Long itemId) {
+        written(userId);
+        Entry entry = byUser.get(userId);
+        if (entry == null || contains(entry.itemIds(), itemId)) {
+            return;
+        }
+        long[] itemIds = Arrays.copyOf(entry.itemIds(), entry.itemIds().length + 1);
+        itemIds[itemIds.length - 1] = itemId;
+        Arrays.sort(itemIds);
+        byUser.put(userId, new Entry(itemIds, entry.loadedAt()));
+    }
+
+    /**
+     * Records that a user removed an item from their favorites.
+     *
+     * @param userId the ID of the user
+     * @param itemId the ID of the item
+     */
+    public synchronized void removed(Long userId, Long itemId) {
+        written(userId);
+        Entry entry = byUser.get(userId);
+        if (entry == null) {
+            return;
+        }
+        int index = Arrays.binarySearch(entry.itemIds(), itemId);
+        if (index < 0) {
+            return;
+        }
+        long[] itemIds = new long[entry.itemIds().length - 1];
+        System.arraycopy(entry.itemIds(), 0, itemIds, 0, index);
+        System.arraycopy(entry.itemIds(), index + 1, itemIds, index, itemIds.length - index);
+        byUser.put(userId, new Entry(itemIds, entry.loadedAt()));
+    }
+
+    /**
+     * Removes a user's favorites from the cache.
+     *
+     * @param userId the ID of the user
+     */
+    public synchronized void evict(Long userId) {
+        written(userId);
+        byUser.remove(userId);
+    }
+
+    /**
+     * Removes every cached set.
+     */
+    public synchronized void clear() {
+        loading.values().forEach(load -> load.writes++);
+        byUser.clear();
+    }
+
+    /**
+     * Returns the number of users whose favorites are cached.
+     *
+     * @return the number of cached sets
+     */
+    public synchronized int size() {
+        return byUser.size();
+    }
+
+    /**
+     * Returns the hit and miss counts of lookups.
+     *
+     * @return the counts
+     */
+    public CacheStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Checks whether a sorted set of item IDs contains an item.
+     *
+     * @param itemIds the sorted item IDs
+     * @param itemId the ID to look for
+     * @return true if the item is in the set
+     */
+    public static boolean contains(long[] itemIds, Long itemId) {
+        return itemId != null && Arrays.binarySearch(itemIds, itemId) >= 0;
+    }
+
+    private void written(Long userId) {
+        Loading load = loading.get(userId);
+        if (load != null) {
+            load.writes++;
+        }
+    }
+
+    private static long[] toSortedArray(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return EMPTY;
+        }
+        return itemIds.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+    }
+
+    /**
+     * A cached favorite set and when it was loaded.
+     *
+     * @param itemIds the sorted favorited item IDs
+     * @param loadedAt the {@link System#nanoTime()} at which it was loaded
+     */
+    private record Entry(long[] itemIds, long loadedAt) {
+    }
+
+    /**
+     * Loads of one user's favorites in progress. Guarded by the cache.
+     */
+    private static final class Loading {
+
+        /** Number of loads in progress. */
+        private int loads;
+
+        /** Number of writes for the user since the first of them started. */
+        private long writes;
+    }
+}
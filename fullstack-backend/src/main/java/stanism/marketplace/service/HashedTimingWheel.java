@@ -0,0 +1,132 @@
+package stanism.marketplace.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timing wheel of keyed deadlines.
+ * Time is divided into ticks and each deadline is hashed into the slot of the
+ * tick it falls in; entries keep their absolute tick, so deadlines more than
+ * one revolution away simply stay in their slot until it comes round again.
+ * Scheduling, rescheduling and cancelling are O(1) and each tick only visits
+ * one slot. Rescheduling a key replaces its previous deadline.
+ * Deadlines are accurate to one tick.
+ *
+ * @param <K> the key type
+ */
+public class HashedTimingWheel<K> {
+
+    /** Slots of pending deadlines, indexed by tick modulo the wheel size. */
+    private final List<List<Timeout<K>>> slots;
+
+    /** Current deadline tick of every scheduled key. */
+    private final Map<K, Long> deadlines = new HashMap<>();
+
+    /** Length of one tick in milliseconds. */
+    private final long tickMillis;
+
+    /** Mask turning a tick into a slot index. */
+    private final int mask;
+
+    /** Next tick to be processed. */
+    private long nextTick;
+
+    /**
+     * Creates a wheel.
+     *
+     * @param tickMillis the length of one tick in milliseconds
+     * @param wheelSize the number of slots, rounded up to a power of two
+     * @param startMillis the current time in milliseconds
+     */
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick length and wheel size must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.slots = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            slots.add(new ArrayList<>());
+        }
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.nextTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedules a key to expire at a deadline, replacing any earlier deadline for it.
+     * Deadlines in the past expire on the next advance.
+     *
+     * @param key the key to schedule
+     * @param deadlineMillis the deadline in milliseconds
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        long tick = Math.max(nextTick, ceilDiv(deadlineMillis, tickMillis));
+        deadlines.put(key, tick);
+        slots.get((int) (tick & mask)).add(new Timeout<>(key, tick));
+    }
+
+    /**
+     * Cancels the deadline of a key.
+     *
+     * @param key the key to cancel
+     */
+    public synchronized void cancel(K key) {
+        // The slot entry is left behind and discarded when its tick comes round
+        deadlines.remove(key);
+    }
+
+    /**
+     * Advances the wheel to the given time and returns the keys that expired.
+     *
+     * @param nowMillis the current time in milliseconds
+     * @return the expired keys, in no particular order
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        List<K> expired = new ArrayList<>();
+        long currentTick = nowMillis / tickMillis;
+        // After a long pause every slot is due at most once, so never walk more than one revolution
+        long lastTick = Math.min(currentTick, nextTick + mask);
+        for (long tick = nextTick; tick <= lastTick; tick++) {
+            Iterator<Timeout<K>> timeouts = slots.get((int) (tick & mask)).iterator();
+            while (timeouts.hasNext()) {
+                Timeout<K> timeout = timeouts.next();
+                Long deadline = deadlines.get(timeout.key());
+                if (deadline == null || deadline != timeout.tick()) {
+                    timeouts.remove();
+                } else if (timeout.tick() <= currentTick) {
+                    timeouts.remove();
+                    deadlines.remove(timeout.key());
+                    expired.add(timeout.key());
+                }
+            }
+        }
+        nextTick = Math.max(nextTick, currentTick + 1);
+        return expired;
+    }
+
+    /**
+     * Gets the number of keys with a pending deadline.
+     *
+     * @return the number of scheduled keys
+     */
+    public synchronized int size() {
+        return deadlines.size();
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+
+    /**
+     * A deadline for a key.
+     *
+     * @param key the scheduled key
+     * @param tick the tick the deadline falls in
+     * @param <K> the type of the scheduled key
+     */
+    private record Timeout<K>(K key, long tick) {
+    }
+}
@@ -0,0 +1,146 @@
+package stanism.marketplace.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import stanism.marketplace.model.Image;
+import stanism.marketplace.model.Item;
+import stanism.marketplace.storage.ImageStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Writes uploaded item images to image storage and records them.
+ * Each upload is streamed from the multipart part into storage, so it is
+ * never held on the heap as a whole; the uploads of one request are stored
+ * in parallel on a bounded executor, and the resulting image rows are
+ * inserted in a single batch once every file is stored.
+ * Thumbnail and card variants are then generated in the background.
+ */
+@Service
+public class ImageIngestionService {
+    /** Logger for this class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImageIngestionService.class);
+
+    /** Service for persisting image rows. */
+    private final ImageService imageService;
+
+    /** Service that derives resized variants of stored images. */
+    private final ImageVariantService imageVariantService;
+
+    /** Backend holding the image files. */
+    private final ImageStorage imageStorage;
+
+    /** Bounded executor for the per-image copies. */
+    private final AsyncTaskExecutor executor;
+
+    /** Count and bytes of stored uploads. */
+    private final DistributionSummary uploads;
+
+    public ImageIngestionService(ImageService imageService, ImageVariantService imageVariantService,
+            ImageStorage imageStorage, @Qualifier("imageIngestionExecutor") AsyncTaskExecutor executor,
+            MeterRegistry meterRegistry) {
+        this.imageService = imageService;
+        this.imageVariantService = imageVariantService;
+        this.imageStorage = imageStorage;
+        this.executor = executor;
+        this.uploads = DistributionSummary.builder("images.uploads")
+                .baseUnit("bytes")
+                .description("Sizes of image uploads stored")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stores the uploaded images for an item and saves their rows.
+     * If any upload fails, no rows are saved and files stored by this call that
+     * nothing else references are deleted.
+     *
+     * @param item the saved item the images belong to
+     * @param imageFiles the uploaded image files
+     * @return the saved images, in upload order
+     * @throws IOException if an upload could not be stored
+     */
+    public List<Image> ingest(Item item, MultipartFile[] imageFiles) throws IOException {
+        List<CompletableFuture<String>> stores = new ArrayList<>(imageFiles.length);
+        for (MultipartFile imageFile : imageFiles) {
+            stores.add(CompletableFuture.supplyAsync(() -> store(imageFile), executor));
+        }
+
+        List<String> keys = new ArrayList<>(imageFiles.length);
+        boolean saved = false;
+        try {
+            awaitAll(stores, keys);
+            List<Image> images = new ArrayList<>(imageFiles.length);
+            for (int i = 0; i < imageFiles.length; i++) {
+                images.add(new Image(item, ImageService.URL_PREFIX + keys.get(i),
+                        imageFiles[i].getOriginalFilename()));
+            }
+            imageService.saveImages(images);
+            saved = true;
+            LOGGER.info("Stored {} images for item {}", images.size(), item.getId());
+            imageVariantService.pregenerate(images.stream().map(Image::getImageUrl).toList());
+            return images;
+        } finally {
+            keys.forEach(imageStorage::release);
+            if (!saved) {
+                imageService.deleteUnreferencedFiles(keys.stream()
+                        .map(key -> ImageService.URL_PREFIX + key)
+                        .toList());
+            }
+        }
+    }
+
+    private String store(MultipartFile imageFile) {
+        try (InputStream input = imageFile.getInputStream()) {
+            String key = imageStorage.store(input);
+            uploads.record(imageFile.getSize());
+            return key;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Waits for every store to finish, collecting the keys of those that succeeded
+     * so they can be cleaned up if another one failed.
+     *
+     * @param stores the pending stores, in upload order
+     * @param keys receives the keys of the stores that succeeded
+     * @throws IOException if any store failed or the wait was interrupted
+     */
+    private void awaitAll(List<CompletableFuture<String>> stores, List<String> keys) throws IOException {
+        IOException failure = null;
+        for (int i = 0; i < stores.size(); i++) {
+            try {
+                keys.add(stores.get(i).get());
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof UncheckedIOException io ? io.getCause()
+                            : new IOException(e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                // Stores still running clean up after themselves once they finish
+                stores.subList(i, stores.size()).forEach(pending -> pending.thenAccept(key -> {
+                    imageStorage.release(key);
+                    imageService.deleteUnreferencedFiles(List.of(ImageService.URL_PREFIX + key));
+                }));
+                throw new IOException("Interrupted while storing images", e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
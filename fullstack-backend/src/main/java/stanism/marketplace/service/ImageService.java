@@ -1,25 +1,48 @@
 package stanism.marketplace.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import stanism.marketplace.model.Image;
 
 import stanism.marketplace.repository.ImageRepository;
+import stanism.marketplace.storage.ImageStorage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 @Service
 public class ImageService {
     /** Logger for this class. */
     private static final Logger LOGGER = LoggerFactory.getLogger(ImageService.class);
 
+    /** URL prefix of images held in image storage; the rest of the URL is the storage key. */
+    public static final String URL_PREFIX = "/uploads/";
+
     /** Repository for handling image persistence. */
     private final ImageRepository imageRepository;
 
+    /** JDBC access for multi-row inserts. */
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Backend holding the image files. */
+    private final ImageStorage imageStorage;
+
     @Autowired
-    public ImageService(ImageRepository imageRepository) {
+    public ImageService(ImageRepository imageRepository, JdbcTemplate jdbcTemplate, ImageStorage imageStorage) {
         this.imageRepository = imageRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.imageStorage = imageStorage;
     }
 
     @Transactional
@@ -30,10 +53,100 @@ public class ImageService {
         return savedImage;
     }
 
+    /**
+     * Inserts several images with a single multi-row INSERT statement.
+     * Image IDs are database-generated, which stops Hibernate from batching
+     * the inserts, so the rows are written directly and the generated keys
+     * copied back onto the given images.
+     *
+     * @param images the new images, all unsaved
+     * @return the same images with their IDs set
+     */
+    @Transactional
+    public List<Image> saveImages(List<Image> images) {
+        if (images.isEmpty()) {
+            return images;
+        }
+        StringBuilder sql = new StringBuilder("INSERT INTO images (item_id, image_url, alt_text) VALUES ");
+        for (int i = 0; i < images.size(); i++) {
+            sql.append(i == 0 ? "(?, ?, ?)" : ", (?, ?, ?)");
+        }
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql.toString(),
+                    Statement.RETURN_GENERATED_KEYS);
+            int index = 1;
+            for (Image image : images) {
+                statement.setLong(index++, image.getItem().getId());
+                statement.setString(index++, image.getImageUrl());
+                statement.setString(index++, image.getAltText());
+            }
+            return statement;
+        }, keys);
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        for (int i = 0; i < images.size() && i < generated.size(); i++) {
+            Object id = generated.get(i).values().iterator().next();
+            images.get(i).setId(((Number) id).longValue());
+        }
+        LOGGER.info("Saved {} images in one statement", images.size());
+        return images;
+    }
+
     @Transactional
     public void deleteImage(Long id) {
         LOGGER.info("Deleting image with ID: {}", id);
-        imageRepository.deleteById(id);
+        imageRepository.findById(id).ifPresent(image -> {
+            imageRepository.delete(image);
+            deleteUnreferencedFilesAfterCommit(List.of(image.getImageUrl()));
+        });
         LOGGER.info("Successfully deleted image with ID: {}", id);
     }
+
+    /**
+     * Deletes the image rows of an item. Stored files that no other image row
+     * references are deleted once the surrounding transaction commits.
+     *
+     * @param itemId the ID of the item whose images to delete
+     * @return the number of image rows deleted
+     */
+    @Transactional
+    public int deleteImagesForItem(Long itemId) {
+        List<String> imageUrls = imageRepository.findImageUrlsByItemId(itemId);
+        int deleted = imageRepository.deleteByItemId(itemId);
+        deleteUnreferencedFilesAfterCommit(imageUrls);
+        return deleted;
+    }
+
+    /**
+     * Deletes stored files that no image row references any more.
+     * Files of images still being uploaded are kept, see {@link ImageStorage#deleteIfUnused}.
+     *
+     * @param imageUrls the URLs of the images whose files may be unreferenced
+     */
+    public void deleteUnreferencedFiles(Collection<String> imageUrls) {
+        for (String imageUrl : imageUrls) {
+            if (imageUrl == null || !imageUrl.startsWith(URL_PREFIX)) {
+                continue;
+            }
+            String key = imageUrl.substring(URL_PREFIX.length());
+            imageStorage.deleteIfUnused(key, () -> imageRepository.existsByImageUrl(imageUrl));
+        }
+    }
+
+    private void deleteUnreferencedFilesAfterCommit(Collection<String> imageUrls) {
+        if (imageUrls.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deleteUnreferencedFiles(imageUrls);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deleteUnreferencedFiles(imageUrls);
+            }
+        });
+    }
 }
\ No newline at end of file
@@ -0,0 +1,533 @@
+package stanism.marketplace.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import stanism.marketplace.metrics.CacheStats;
+import stanism.marketplace.storage.ImageStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Stream;
+
+/**
+ * Produces resized, re-encoded variants of uploaded item images.
+ * Variants are keyed by the SHA-256 of the original image and the variant
+ * width, so identical uploads share their derived files and a changed
+ * original never serves a stale variant. Generated files live in an on-disk
+ * cache whose total size is bounded; the least recently served variants are
+ * evicted first. Concurrent requests for the same missing variant wait for a
+ * single resize rather than each decoding the original.
+ */
+@Service
+public class ImageVariantService {
+    /** Logger for this class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImageVariantService.class);
+
+    /** JPEG quality used for every variant. */
+    private static final float JPEG_QUALITY = 0.82f;
+
+    /** Variants generated eagerly when an image is uploaded. */
+    private static final List<Variant> PREGENERATED = List.of(Variant.THUMB, Variant.CARD);
+
+    /** Number of originals whose content hash is remembered. */
+    private static final int MAX_FINGERPRINTS = 10_000;
+
+    /**
+     * Predefined image sizes.
+     */
+    public enum Variant {
+        /** Small square-ish preview for lists and chat. */
+        THUMB(200),
+
+        /** Listing card image. */
+        CARD(480),
+
+        /** Detail view image. */
+        FULL(1280);
+
+        /** Maximum width and height in pixels. */
+        private final int maxDimension;
+
+        Variant(int maxDimension) {
+            this.maxDimension = maxDimension;
+        }
+
+        /**
+         * Gets the maximum width and height of the variant.
+         *
+         * @return the bounding dimension in pixels
+         */
+        public int getMaxDimension() {
+            return maxDimension;
+        }
+
+        /**
+         * Picks the smallest variant at least as wide as the requested width.
+         *
+         * @param width the width the client will display the image at
+         * @return the matching variant, or FULL for widths above every variant
+         */
+        public static Variant forWidth(int width) {
+            for (Variant variant : values()) {
+                if (variant.maxDimension >= width) {
+                    return variant;
+                }
+            }
+            return FULL;
+        }
+
+        /**
+         * Parses a variant name, ignoring case.
+         *
+         * @param name the variant name
+         * @return the variant, or empty if the name is unknown
+         */
+        public static Optional<Variant> parse(String name) {
+            for (Variant variant : values()) {
+                if (variant.name().equalsIgnoreCase(name)) {
+                    return Optional.of(variant);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    /** Backend holding the original uploads. */
+    private final ImageStorage imageStorage;
+
+    /** Directory holding generated variants. */
+    private final Path cacheDir;
+
+    /** Upper bound on the total size of cached variants. */
+    private final long maxCacheBytes;
+
+    /** Executor used for pre-generating variants after upload. */
+    private final AsyncTaskExecutor executor;
+
+    /** Cached variant files in least-recently-served order, with their sizes. Guarded by itself. */
+    private final LinkedHashMap<Path, Long> lru = new LinkedHashMap<>(256, 0.75f, true);
+
+    /** Variants currently being generated, so concurrent requests share one resize. */
+    private final Map<Path, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Content hash per original file, invalidated when the file's size or modification time changes.
+     * Bounded, least recently used first out, since every distinct original adds an entry.
+     */
+    private final Map<Path, Fingerprint> fingerprints = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Path, Fingerprint> eldest) {
+                    return size() > MAX_FINGERPRINTS;
+                }
+            });
+
+    /** Largest original, in pixels, that is decoded to generate a variant. */
+    private final long maxSourcePixels;
+
+    /** Total size of the cached variants. Guarded by {@link #lru}. */
+    private long cachedBytes;
+
+    /** Hit and miss counts of served variant lookups; pre-generation is not counted. */
+    private final CacheStats cacheStats = new CacheStats();
+
+    public ImageVariantService(
+            @Value("${app.images.variants.cache-dir:uploads-cache}") String cacheDir,
+            @Value("${app.images.variants.max-cache-bytes:536870912}") long maxCacheBytes,
+            @Value("${app.images.variants.max-source-pixels:50000000}") long maxSourcePixels,
+            @Qualifier("imageVariantExecutor") AsyncTaskExecutor executor,
+            ImageStorage imageStorage) {
+        this.imageStorage = imageStorage;
+        this.cacheDir = Paths.get(cacheDir);
+        this.maxCacheBytes = maxCacheBytes;
+        this.maxSourcePixels = maxSourcePixels;
+        this.executor = executor;
+        loadExistingCache();
+    }
+
+    /**
+     * Resolves an original upload by its storage key.
+     *
+     * @param filename the storage key, i.e. the last segment of the image URL
+     * @return the path of the original, or empty if it does not exist
+     */
+    public Optional<Path> resolveOriginal(String filename) {
+        return imageStorage.resolve(filename);
+    }
+
+    /**
+     * Resolves the file to serve for an image request.
+     * A named variant takes precedence over a width; with neither, or when the
+     * original cannot be decoded, the original upload is served.
+     *
+     * @param filename the stored file name of the original
+     * @param variantName the requested variant name, or null
+     * @param width the width the client will display the image at, or null
+     * @return the file to serve, or empty if the original does not exist
+     * @throws IllegalArgumentException if the variant name is unknown or the width is not positive
+     */
+    public Optional<Path> resolve(String filename, String variantName, Integer width) {
+        Optional<Variant> variant;
+        if (variantName != null) {
+            variant = Optional.of(Variant.parse(variantName)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown image variant: " + variantName)));
+        } else if (width != null) {
+            if (width <= 0) {
+                throw new IllegalArgumentException("Width must be positive");
+            }
+            variant = Optional.of(Variant.forWidth(width));
+        } else {
+            variant = Optional.empty();
+        }
+
+        Optional<Path> original = resolveOriginal(filename);
+        if (original.isEmpty() || variant.isEmpty()) {
+            return original;
+        }
+        try {
+            return Optional.of(getVariant(original.get(), variant.get()));
+        } catch (IOException e) {
+            LOGGER.warn("Serving original {} instead of {} variant: {}", filename, variant.get(), e.getMessage());
+            return original;
+        }
+    }
+
+    /**
+     * Gets a variant of an original image, generating and caching it on first use.
+     *
+     * @param original the path of the original upload
+     * @param variant the requested variant
+     * @return the path of the variant file
+     * @throws IOException if the original cannot be read or is not a supported image
+     */
+    public Path getVariant(Path original, Variant variant) throws IOException {
+        return getVariant(original, variant, true);
+    }
+
+    /**
+     * Returns the number of cached variant files.
+     *
+     * @return the number of cached variants
+     */
+    public int getCacheSize() {
+        synchronized (lru) {
+            return lru.size();
+        }
+    }
+
+    /**
+     * Returns the hit and miss counts of served variant lookups.
+     *
+     * @return the counts
+     */
+    public CacheStats getCacheStats() {
+        return cacheStats;
+    }
+
+    private Path getVariant(Path original, Variant variant, boolean served) throws IOException {
+        Path target = variantPath(original, variant);
+        synchronized (lru) {
+            if (lru.get(target) != null && Files.exists(target)) {
+                if (served) {
+                    cacheStats.hit();
+                }
+                return target;
+            }
+        }
+        if (served) {
+            cacheStats.miss();
+        }
+
+        CompletableFuture<Path> created = new CompletableFuture<>();
+        CompletableFuture<Path> pending = inFlight.putIfAbsent(target, created);
+        if (pending != null) {
+            return await(pending);
+        }
+        try {
+            created.complete(generate(original, target, variant));
+        } catch (IOException | RuntimeException e) {
+            created.completeExceptionally(e);
+        } finally {
+            inFlight.remove(target);
+        }
+        return await(created);
+    }
+
+    /**
+     * Generates the list and card variants of newly uploaded images in the background.
+     * Images that do not fit in the pre-generation queue are skipped and get
+     * their variants on first request.
+     *
+     * @param imageUrls the URLs of the stored uploads, e.g. "/uploads/abc.jpg"
+     */
+    public void pregenerate(List<String> imageUrls) {
+        for (String imageUrl : imageUrls) {
+            String filename = imageUrl.substring(imageUrl.lastIndexOf('/') + 1);
+            executor.execute(() -> resolveOriginal(filename).ifPresent(original -> {
+                for (Variant variant : PREGENERATED) {
+                    try {
+                        getVariant(original, variant, false);
+                    } catch (IOException e) {
+                        LOGGER.warn("Could not pre-generate {} variant of {}: {}", variant, filename,
+                                e.getMessage());
+                        return;
+                    }
+                }
+            }));
+        }
+    }
+
+    private Path generate(Path original, Path target, Variant variant) throws IOException {
+        BufferedImage source = decode(original, variant.getMaxDimension());
+        BufferedImage resized = resize(source, variant.getMaxDimension());
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), "variant-", ".tmp");
+        try {
+            writeJpeg(resized, temp);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        long size = Files.size(target);
+        LOGGER.debug("Generated {} variant of {} ({} bytes)", variant, original.getFileName(), size);
+        record(target, size);
+        return target;
+    }
+
+    /**
+     * Decodes an original no larger than needed for a variant. The dimensions
+     * are read from the header first, so an image whose pixels would not fit
+     * in memory, such as a decompression bomb, is refused before decoding,
+     * and large originals are decoded with source subsampling to at most
+     * about twice the variant's size.
+     *
+     * @param original the original upload
+     * @param maxDimension the largest width and height of the variant
+     * @return the decoded image
+     * @throws IOException if the original cannot be read, is not a supported image or is too large
+     */
+    private BufferedImage decode(Path original, int maxDimension) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = input == null ? Collections.emptyIterator()
+                    : ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format: " + original.getFileName());
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxSourcePixels) {
+                    throw new IOException("Image too large to resize: " + width + "x" + height);
+                }
+                int step = Math.max(1, Math.max(width, height) / (2 * maxDimension));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage resize(BufferedImage source, int maxDimension) {
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        // JPEG has no alpha channel, so always draw onto an opaque RGB canvas
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static void writeJpeg(BufferedImage image, Path target) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!writers.hasNext()) {
+            throw new IOException("No JPEG encoder available");
+        }
+        ImageWriter writer = writers.next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(JPEG_QUALITY);
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private Path variantPath(Path original, Variant variant) throws IOException {
+        String hash = contentHash(original);
+        // Two-character shards keep directories small
+        return cacheDir.resolve(hash.substring(0, 2))
+                .resolve(hash + "-" + variant.name().toLowerCase(Locale.ROOT) + ".jpg");
+    }
+
+    /**
+     * Gets the SHA-256 of a file, hashing it only when its size or modification time has changed.
+     *
+     * @param original the file to hash
+     * @return the hex-encoded SHA-256 of the file content
+     * @throws IOException if the file cannot be read
+     */
+    public String contentHash(Path original) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(original, BasicFileAttributes.class);
+        Fingerprint known = fingerprints.get(original);
+        if (known != null && known.matches(attributes)) {
+            return known.sha256();
+        }
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream input = Files.newInputStream(original)) {
+            int read;
+            while ((read = input.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        String hash = HexFormat.of().formatHex(digest.digest());
+        fingerprints.put(original, new Fingerprint(attributes.size(), attributes.lastModifiedTime(), hash));
+        return hash;
+    }
+
+    private void record(Path target, long size) {
+        synchronized (lru) {
+            Long previous = lru.put(target, size);
+            cachedBytes += size - (previous == null ? 0 : previous);
+            Iterator<Map.Entry<Path, Long>> eldest = lru.entrySet().iterator();
+            while (cachedBytes > maxCacheBytes && eldest.hasNext()) {
+                Map.Entry<Path, Long> entry = eldest.next();
+                if (entry.getKey().equals(target)) {
+                    continue;
+                }
+                eldest.remove();
+                cachedBytes -= entry.getValue();
+                try {
+                    Files.deleteIfExists(entry.getKey());
+                } catch (IOException e) {
+                    LOGGER.warn("Could not evict cached variant {}: {}", entry.getKey(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Registers variants left on disk by a previous run, oldest first, so they count
+     * towards the size bound and are evicted before anything served since.
+     */
+    private void loadExistingCache() {
+        if (!Files.isDirectory(cacheDir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(cacheDir)) {
+            files.filter(path -> path.toString().endsWith(".jpg"))
+                    .sorted(Comparator.comparing(ImageVariantService::lastModified))
+                    .forEach(path -> {
+                        try {
+                            record(path, Files.size(path));
+                        } catch (IOException e) {
+                            LOGGER.warn("Skipping unreadable cached variant {}", path);
+                        }
+                    });
+        } catch (IOException e) {
+            LOGGER.warn("Could not scan variant cache {}: {}", cacheDir, e.getMessage());
+        }
+        LOGGER.info("Variant cache holds {} files ({} bytes)", lru.size(), cachedBytes);
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Path await(CompletableFuture<Path> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while generating image variant", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Content hash of an original together with the file attributes it was computed from.
+     *
+     * @param size the file size
+     * @param modified the last modification time
+     * @param sha256 the hex-encoded SHA-256 of the file
+     */
+    private record Fingerprint(long size, FileTime modified, String sha256) {
+        boolean matches(BasicFileAttributes attributes) {
+            return attributes.size() == size && attributes.lastModifiedTime().equals(modified);
+        }
+    }
+}
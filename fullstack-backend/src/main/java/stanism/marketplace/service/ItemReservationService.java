@@ -0,0 +1,154 @@
+package stanism.marketplace.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import stanism.marketplace.model.Item;
+import stanism.marketplace.model.ItemStatus;
+import stanism.marketplace.model.User;
+import stanism.marketplace.repository.ItemRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Reserves items for buyers.
+ * Each reservation or cancellation is a single conditional UPDATE, so the
+ * availability check and the write happen atomically in the database: when
+ * many buyers race for the same item, exactly one update matches the row and
+ * the others see zero affected rows, without any Java-side locking or retries.
+ * Successful changes are handed to {@link ReservationExpiryService}, which
+ * releases the reservation when it lapses and pushes status events to clients,
+ * once the transaction has committed.
+ */
+@Service
+public class ItemReservationService {
+
+    /**
+     * Outcome of a reservation request.
+     */
+    public enum Outcome {
+        /** The request succeeded. */
+        OK,
+
+        /** No item has the given ID. */
+        NOT_FOUND,
+
+        /** Another buyer holds an unexpired reservation on the item. */
+        ALREADY_RESERVED,
+
+        /** The item is sold or archived. */
+        NOT_AVAILABLE,
+
+        /** The item is not reserved by the requesting user. */
+        NOT_RESERVER
+    }
+
+    /**
+     * Result of a reservation request.
+     *
+     * @param outcome what happened
+     * @param item the current state of the item, or null if it does not exist
+     */
+    public record Result(Outcome outcome, Item item) {
+    }
+
+    /** Repository performing the conditional updates. */
+    private final ItemRepository itemRepository;
+
+    /** Service keeping the search indexes in step with item changes. */
+    private final ItemService itemService;
+
+    /** Service releasing reservations once they expire. */
+    private final ReservationExpiryService expiryService;
+
+    /** How long a reservation holds an item. */
+    private final Duration reservationDuration;
+
+    public ItemReservationService(ItemRepository itemRepository, ItemService itemService,
+            ReservationExpiryService expiryService,
+            @Value("${app.items.reservation.duration:1h}") Duration reservationDuration) {
+        this.itemRepository = itemRepository;
+        this.itemService = itemService;
+        this.expiryService = expiryService;
+        this.reservationDuration = reservationDuration;
+    }
+
+    /**
+     * Reserves an item for a user if it is active or its reservation has expired.
+     *
+     * @param itemId the ID of the item to reserve
+     * @param user the user reserving the item
+     * @return the outcome and the resulting item
+     */
+    @Transactional
+    public Result reserve(Long itemId, User user) {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = itemRepository.reserveIfAvailable(itemId, user, now, now.minus(reservationDuration));
+        Optional<Item> item = itemRepository.findById(itemId);
+        if (item.isEmpty()) {
+            return new Result(Outcome.NOT_FOUND, null);
+        }
+        if (updated == 1) {
+            afterCommit(() -> {
+                itemService.reindex(item.get());
+                expiryService.schedule(itemId, item.get().getReservationDate());
+            });
+            expiryService.publishStatus(item.get());
+            return new Result(Outcome.OK, item.get());
+        }
+        Outcome outcome = item.get().getStatus() == ItemStatus.RESERVED ? Outcome.ALREADY_RESERVED
+                : Outcome.NOT_AVAILABLE;
+        return new Result(outcome, item.get());
+    }
+
+    /**
+     * Cancels a user's reservation of an item.
+     *
+     * @param itemId the ID of the reserved item
+     * @param user the user who holds the reservation
+     * @return the outcome and the resulting item
+     */
+    @Transactional
+    public Result cancel(Long itemId, User user) {
+        int updated = itemRepository.cancelReservation(itemId, user.getId());
+        Optional<Item> item = itemRepository.findById(itemId);
+        if (item.isEmpty()) {
+            return new Result(Outcome.NOT_FOUND, null);
+        }
+        if (updated == 1) {
+            afterCommit(() -> {
+                itemService.reindex(item.get());
+                expiryService.cancel(itemId);
+            });
+            expiryService.publishStatus(item.get());
+            return new Result(Outcome.OK, item.get());
+        }
+        return new Result(Outcome.NOT_RESERVER, item.get());
+    }
+
+    /**
+     * Runs an update of the indexes and the expiry wheel once the current
+     * transaction commits, or at once outside a transaction, so a rollback
+     * cannot leave them out of step with the database. It is registered before
+     * {@link ReservationExpiryService#publishStatus(Item)}, which defers itself,
+     * so clients are told of a change only after it is searchable.
+     *
+     * @param update the update
+     */
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+}
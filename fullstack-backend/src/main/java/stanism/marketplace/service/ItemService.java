@@ -1,14 +1,37 @@
 package stanism.marketplace.service;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import stanism.marketplace.model.Category;
 import stanism.marketplace.model.Item;
 import stanism.marketplace.model.User;
+import stanism.marketplace.model.dto.ItemCursor;
 import stanism.marketplace.repository.ItemRepository;
+import stanism.marketplace.search.ItemFacetIndex;
+import stanism.marketplace.search.ItemFilter;
+import stanism.marketplace.search.ItemGeoIndex;
+import stanism.marketplace.search.ItemSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * Service class for managing items in the marketplace.
@@ -17,22 +40,91 @@ import java.util.Optional;
 @Service
 public class ItemService {
 
+    /** Logger for this class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ItemService.class);
+
+    /** Number of items read per round-trip when walking the whole catalogue. */
+    private static final int STREAM_CHUNK_SIZE = 128;
+
     /** Repository for item data access. */
     private final ItemRepository itemRepository;
 
+    /** Full-text index kept in step with item writes. */
+    private final ItemSearchIndex searchIndex;
+
+    /** Spatial index kept in step with item writes. */
+    private final ItemGeoIndex geoIndex;
+
+    /** Attribute index for faceted filtering, kept in step with item writes. */
+    private final ItemFacetIndex facetIndex;
+
+    /** Service that deletes an item's images and their unreferenced files. */
+    private final ImageService imageService;
+
+    /** Entity manager used to release streamed pages once they are consumed. */
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
-    public ItemService(ItemRepository itemRepository) {
+    public ItemService(ItemRepository itemRepository, ItemSearchIndex searchIndex, ItemGeoIndex geoIndex,
+            ItemFacetIndex facetIndex, ImageService imageService) {
         this.itemRepository = itemRepository;
+        this.searchIndex = searchIndex;
+        this.geoIndex = geoIndex;
+        this.facetIndex = facetIndex;
+        this.imageService = imageService;
     }
 
     /**
-     * Saves an item to the repository.
+     * Builds the in-memory search indexes from the database once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildIndexes() {
+        searchIndex.clear();
+        geoIndex.clear();
+        facetIndex.clear();
+        forEachItem(this::updateIndexes);
+        LOGGER.info("Indexed {} items for search, {} for location and {} for filtering",
+                searchIndex.size(), geoIndex.size(), facetIndex.size());
+    }
+
+    /**
+     * Saves an item to the repository and updates the search indexes.
      *
      * @param item the item to save
      * @return the saved item
      */
     public Item saveItem(Item item) {
-        return itemRepository.save(item);
+        Item saved = itemRepository.save(item);
+        updateIndexes(saved);
+        return saved;
+    }
+
+    /**
+     * Updates the search indexes for an item changed outside {@link #saveItem(Item)},
+     * such as by a bulk update query.
+     *
+     * @param item the current state of the item
+     */
+    public void reindex(Item item) {
+        updateIndexes(item);
+    }
+
+    private void updateIndexes(Item item) {
+        searchIndex.index(item);
+        geoIndex.index(item);
+        facetIndex.index(item);
+    }
+
+    /**
+     * Checks whether an item exists, using the in-memory index rather than the database.
+     *
+     * @param id the ID of the item
+     * @return true if the item exists
+     */
+    public boolean itemExists(Long id) {
+        return id != null && facetIndex.contains(id);
     }
 
     /**
@@ -55,12 +147,60 @@ public class ItemService {
     }
 
     /**
-     * Deletes an item by its ID.
+     * Retrieves one page of the item feed, newest first.
+     * Pages are addressed by keyset on (publishDate, id), so the cost of a page
+     * does not depend on how deep into the feed it is.
+     *
+     * @param cursor the position of the last item on the previous page, or null for the first page
+     * @param limit the maximum number of items to return
+     * @return the items on the requested page
+     */
+    public List<Item> getItemFeedPage(ItemCursor cursor, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        if (cursor == null) {
+            return itemRepository.findFeedFirstPage(page);
+        }
+        return itemRepository.findFeedPageAfter(cursor.getPublishDate(), cursor.getId(), page);
+    }
+
+    /**
+     * Walks every item in feed order without materialising the whole table.
+     * Items are read in keyset pages and the persistence context is cleared
+     * after each page, so memory stays bounded and each page costs a fixed
+     * number of queries.
+     *
+     * @param consumer the callback invoked for each item, inside the read transaction
+     */
+    @Transactional(readOnly = true)
+    public void forEachItem(Consumer<Item> consumer) {
+        List<Item> page = getItemFeedPage(null, STREAM_CHUNK_SIZE);
+        while (!page.isEmpty()) {
+            page.forEach(consumer);
+            Item last = page.get(page.size() - 1);
+            ItemCursor cursor = new ItemCursor(last.getPublishDate(), last.getId());
+            entityManager.clear();
+            if (page.size() < STREAM_CHUNK_SIZE) {
+                break;
+            }
+            page = getItemFeedPage(cursor, STREAM_CHUNK_SIZE);
+        }
+    }
+
+    /**
+     * Deletes an item by its ID together with its images.
+     * Image files no other item uses are removed after the deletion commits.
      *
      * @param id the ID of the item to delete
      */
+    @Transactional
     public void deleteItem(Long id) {
+        imageService.deleteImagesForItem(id);
         itemRepository.deleteById(id);
+        afterCommit(() -> {
+            searchIndex.remove(id);
+            geoIndex.remove(id);
+            facetIndex.remove(id);
+        });
     }
 
     /**
@@ -74,13 +214,82 @@ public class ItemService {
     }
 
     /**
-     * Searches for items by a keyword in their descriptions.
+     * Searches items by title and description, best match first.
      *
-     * @param keyword the keyword to search for
-     * @return a list of items containing the keyword in their brief or full description
+     * @param query the free-text query
+     * @param pageable the page of results to return
+     * @return the requested page of matching items
      */
-    public List<Item> searchItemsByDescription(String keyword) {
-        return itemRepository.findByBriefDescriptionContainingOrFullDescriptionContaining(keyword, keyword);
+    public Page<Item> searchItems(String query, Pageable pageable) {
+        ItemSearchIndex.SearchResult result = searchIndex.search(query, offsetOf(pageable),
+                pageable.getPageSize());
+        return new PageImpl<>(findAllInOrder(result.itemIds()), pageable, result.totalHits());
+    }
+
+    /**
+     * Retrieves items within a radius of a point, nearest first.
+     *
+     * @param latitude the latitude of the centre point
+     * @param longitude the longitude of the centre point
+     * @param radiusKm the search radius in kilometres
+     * @param pageable the page of results to return
+     * @return the requested page of items
+     */
+    public Page<Item> getItemsNearby(double latitude, double longitude, double radiusKm, Pageable pageable) {
+        ItemGeoIndex.GeoResult result = geoIndex.nearby(latitude, longitude, radiusKm,
+                offsetOf(pageable), pageable.getPageSize());
+        return toPage(result, pageable);
+    }
+
+    /**
+     * Retrieves items inside a bounding box, ordered by distance from its centre.
+     *
+     * @param minLatitude the southern edge
+     * @param minLongitude the western edge
+     * @param maxLatitude the northern edge
+     * @param maxLongitude the eastern edge
+     * @param pageable the page of results to return
+     * @return the requested page of items
+     */
+    public Page<Item> getItemsWithin(double minLatitude, double minLongitude, double maxLatitude,
+            double maxLongitude, Pageable pageable) {
+        ItemGeoIndex.GeoResult result = geoIndex.within(minLatitude, minLongitude, maxLatitude, maxLongitude,
+                offsetOf(pageable), pageable.getPageSize());
+        return toPage(result, pageable);
+    }
+
+    /**
+     * Applies a combined filter and computes category and price facet counts in the same pass.
+     *
+     * @param filter the predicates to apply
+     * @param pageable the page of results to return
+     * @return the IDs on the requested page together with total hits and facet counts
+     */
+    public ItemFacetIndex.FacetResult filterItems(ItemFilter filter, Pageable pageable) {
+        return facetIndex.filter(filter, offsetOf(pageable), pageable.getPageSize());
+    }
+
+    private Page<Item> toPage(ItemGeoIndex.GeoResult result, Pageable pageable) {
+        List<Long> ids = result.hits().stream()
+                .map(ItemGeoIndex.GeoHit::itemId)
+                .collect(Collectors.toList());
+        return new PageImpl<>(findAllInOrder(ids), pageable, result.totalHits());
+    }
+
+    /**
+     * Loads items by ID in a single query, preserving the order of the given IDs.
+     *
+     * @param ids the IDs of the items to load
+     * @return the items that still exist, in the order of the given IDs
+     */
+    public List<Item> findAllInOrder(List<Long> ids) {
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            rank.put(ids.get(i), i);
+        }
+        return itemRepository.findByIdIn(ids).stream()
+                .sorted(Comparator.comparing(item -> rank.get(item.getId())))
+                .collect(Collectors.toList());
     }
 
     /**
@@ -113,4 +322,35 @@ public class ItemService {
     public List<Item> getItemsByUser(User user) {
         return itemRepository.findByUser(user);
     }
+
+    /**
+     * Gets the offset of a page, saturated at {@link Integer#MAX_VALUE} so a
+     * deep page yields no hits rather than a negative offset.
+     *
+     * @param pageable the page
+     * @return the number of hits to skip
+     */
+    private static int offsetOf(Pageable pageable) {
+        return (int) Math.min(pageable.getOffset(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Runs an index update once the current transaction commits, or at once
+     * outside a transaction, so a rollback cannot leave the indexes out of
+     * step with the database.
+     *
+     * @param update the index update
+     */
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
 }
\ No newline at end of file
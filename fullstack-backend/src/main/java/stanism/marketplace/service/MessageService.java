@@ -1,11 +1,13 @@
 package stanism.marketplace.service;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import stanism.marketplace.model.Message;
-import stanism.marketplace.model.User;
-import stanism.marketplace.model.Item;
 import stanism.marketplace.repository.MessageRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 @Service
@@ -19,24 +21,21 @@ public class MessageService {
         this.messageRepository = messageRepository;
     }
 
-    @Transactional
-    public Message saveMessage(Message message) {
-        return messageRepository.save(message);
-    }
-
+    /**
+     * Retrieves one page of the conversation between two users about an item.
+     *
+     * @param userId the ID of one participant
+     * @param otherUserId the ID of the other participant
+     * @param itemId the ID of the item
+     * @param before only messages with a lower ID are returned, or null for the newest messages
+     * @param limit the maximum number of messages to return
+     * @return the newest matching messages, oldest first
+     */
     @Transactional(readOnly = true)
-    public List<Message> getMessagesBetweenUsers(User user1, User user2, Item item) {
-        System.out.println("Getting messages between users: " + user1.getId() + " and " + user2.getId() +
-                " for item: " + item.getId());
-        List<Message> messages = messageRepository
-                .findBySenderAndReceiverAndItemOrReceiverAndSenderAndItemOrderByTimestampAsc(
-                        user1, user2, item, user1, user2, item);
-        System.out.println("Retrieved " + messages.size() + " messages from repository");
+    public List<Message> getConversationPage(Long userId, Long otherUserId, Long itemId, Long before, int limit) {
+        List<Message> messages = new ArrayList<>(messageRepository.findConversationPage(userId, otherUserId, itemId,
+                before, PageRequest.ofSize(limit)));
+        Collections.reverse(messages);
         return messages;
     }
-
-    @Transactional(readOnly = true)
-    public List<Message> getUserMessages(User user) {
-        return messageRepository.findBySenderOrReceiverOrderByTimestampDesc(user, user);
-    }
-}
\ No newline at end of file
+}
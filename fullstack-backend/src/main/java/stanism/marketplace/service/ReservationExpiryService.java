@@ -0,0 +1,188 @@
+package stanism.marketplace.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import stanism.marketplace.model.Item;
+import stanism.marketplace.model.ItemStatus;
+import stanism.marketplace.model.dto.ItemStatusEventDTO;
+import stanism.marketplace.repository.ItemRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Releases reservations once they expire.
+ * Every reservation deadline is held in a hashed timing wheel, seeded from the
+ * database at startup and kept current as items are reserved and cancelled.
+ * A background thread advances the wheel once per tick and flips the items
+ * whose deadline passed back to {@link ItemStatus#ACTIVE} in batched
+ * conditional updates, then pushes an {@link ItemStatusEventDTO} to
+ * {@value #STATUS_TOPIC} so open clients update without polling.
+ */
+@Service
+public class ReservationExpiryService {
+
+    /** STOMP destination for item status changes. */
+    public static final String STATUS_TOPIC = "/topic/items/status";
+
+    /** Logger for this class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReservationExpiryService.class);
+
+    /** Number of slots in the timing wheel. */
+    private static final int WHEEL_SIZE = 4096;
+
+    /** Repository performing the expiry updates. */
+    private final ItemRepository itemRepository;
+
+    /** Service keeping the search indexes in step with item changes. */
+    private final ItemService itemService;
+
+    /** Template for pushing status events to STOMP clients. */
+    private final SimpMessagingTemplate messagingTemplate;
+
+    /** Runs each sweep batch in its own transaction. */
+    private final TransactionTemplate transactionTemplate;
+
+    /** How long a reservation holds an item. */
+    private final Duration reservationDuration;
+
+    /** How often the wheel is advanced. */
+    private final Duration sweepInterval;
+
+    /** Maximum number of items released per update statement. */
+    private final int batchSize;
+
+    /** Pending reservation deadlines by item ID. */
+    private final HashedTimingWheel<Long> wheel;
+
+    /** Thread advancing the wheel. */
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reservation-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReservationExpiryService(ItemRepository itemRepository, ItemService itemService,
+            SimpMessagingTemplate messagingTemplate, PlatformTransactionManager transactionManager,
+            @Value("${app.items.reservation.duration:1h}") Duration reservationDuration,
+            @Value("${app.items.reservation.sweep-interval:1s}") Duration sweepInterval,
+            @Value("${app.items.reservation.sweep-batch-size:500}") int batchSize) {
+        this.itemRepository = itemRepository;
+        this.itemService = itemService;
+        this.messagingTemplate = messagingTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reservationDuration = reservationDuration;
+        this.sweepInterval = sweepInterval;
+        this.batchSize = Math.max(1, batchSize);
+        this.wheel = new HashedTimingWheel<>(sweepInterval.toMillis(), WHEEL_SIZE, System.currentTimeMillis());
+    }
+
+    /**
+     * Loads the deadlines of existing reservations and starts the sweeper once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        itemRepository.findReservations().forEach(reservation ->
+                schedule(reservation.getId(), reservation.getReservationDate()));
+        LOGGER.info("Tracking {} reservations for expiry", wheel.size());
+        long interval = sweepInterval.toMillis();
+        sweeper.scheduleWithFixedDelay(this::sweep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the sweeper.
+     */
+    @PreDestroy
+    public void stop() {
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * Tracks a reservation so it is released when it expires.
+     *
+     * @param itemId the ID of the reserved item
+     * @param reservationDate when the item was reserved, or null to release it on the next sweep
+     */
+    public void schedule(Long itemId, LocalDateTime reservationDate) {
+        long deadline = reservationDate == null ? 0
+                : reservationDate.plus(reservationDuration).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        wheel.schedule(itemId, deadline);
+    }
+
+    /**
+     * Stops tracking a reservation that was cancelled.
+     *
+     * @param itemId the ID of the item
+     */
+    public void cancel(Long itemId) {
+        wheel.cancel(itemId);
+    }
+
+    /**
+     * Pushes the current status of an item to STOMP clients, after the current
+     * transaction commits if there is one.
+     *
+     * @param item the item whose status changed
+     */
+    public void publishStatus(Item item) {
+        ItemStatusEventDTO event = new ItemStatusEventDTO(item.getId(), item.getStatus(),
+                item.getReservedBy() == null ? null : item.getReservedBy().getId());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            messagingTemplate.convertAndSend(STATUS_TOPIC, event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                messagingTemplate.convertAndSend(STATUS_TOPIC, event);
+            }
+        });
+    }
+
+    /**
+     * Advances the wheel and releases every reservation that has expired.
+     */
+    void sweep() {
+        List<Long> due = wheel.advance(System.currentTimeMillis());
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Long> batch = due.subList(from, Math.min(due.size(), from + batchSize));
+            try {
+                transactionTemplate.executeWithoutResult(status -> release(batch));
+            } catch (RuntimeException e) {
+                // The sweeper thread must survive a failed batch, so retry it on the next tick
+                LOGGER.error("Failed to release {} expired reservations", batch.size(), e);
+                batch.forEach(itemId -> wheel.schedule(itemId, 0));
+            }
+        }
+    }
+
+    private void release(List<Long> itemIds) {
+        int released = itemRepository.releaseExpiredReservations(itemIds,
+                LocalDateTime.now().minus(reservationDuration));
+        for (Item item : itemRepository.findByIdIn(itemIds)) {
+            if (item.getStatus() == ItemStatus.RESERVED) {
+                // Reserved again since it was scheduled, so follow the new deadline
+                schedule(item.getId(), item.getReservationDate());
+            } else {
+                itemService.reindex(item);
+                publishStatus(item);
+            }
+        }
+        LOGGER.debug("Released {} expired reservations", released);
+    }
+}
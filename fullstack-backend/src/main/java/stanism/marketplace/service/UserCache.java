@@ -0,0 +1,217 @@
+package stanism.marketplace.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import stanism.marketplace.metrics.CacheStats;
+import stanism.marketplace.model.User;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, time-limited cache of users keyed by ID and email.
+ * Entries hold detached copies of the scalar user fields only, so a cached
+ * user never triggers lazy loading of its collections, and every read returns
+ * a fresh copy so callers can modify it without affecting the cache.
+ * Users are evicted on update and delete; the time limit bounds how long a
+ * change made outside {@link UserService} can stay unseen.
+ */
+@Component
+public class UserCache {
+
+    /** Cached users by ID, least recently used first. */
+    private final LinkedHashMap<Long, Entry> byId = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** User IDs by lowercase email. */
+    private final Map<String, Long> idsByEmail = new HashMap<>();
+
+    /** Maximum number of cached users. */
+    private final int maxEntries;
+
+    /** How long a cached user stays valid, in nanoseconds. */
+    private final long ttlNanos;
+
+    /** Hit and miss counts of lookups. */
+    private final CacheStats stats = new CacheStats();
+
+    /**
+     * Creates the cache.
+     *
+     * @param maxEntries the maximum number of cached users; 0 disables caching
+     * @param ttl how long a cached user stays valid
+     */
+    public UserCache(@Value("${app.users.cache.max-entries:10000}") int maxEntries,
+            @Value("${app.users.cache.ttl:5m}") Duration ttl) {
+        this.maxEntries = Math.max(0, maxEntries);
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Gets a user by ID, loading and caching it on a miss.
+     *
+     * @param id the ID of the user
+     * @param loader loads the user when it is not cached
+     * @return a copy of the user, or empty if the loader found none
+     */
+    public Optional<User> getById(Long id, Supplier<Optional<User>> loader) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        User cached = lookup(id);
+        if (cached != null) {
+            stats.hit();
+            return Optional.of(copyOf(cached));
+        }
+        stats.miss();
+        return load(loader);
+    }
+
+    /**
+     * Gets a user by email, loading and caching it on a miss.
+     *
+     * @param email the email of the user
+     * @param loader loads the user when it is not cached
+     * @return a copy of the user, or empty if the loader found none
+     */
+    public Optional<User> getByEmail(String email, Supplier<Optional<User>> loader) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        Long id;
+        synchronized (this) {
+            id = idsByEmail.get(normalize(email));
+        }
+        User cached = id == null ? null : lookup(id);
+        // Emails are matched case-insensitively here, so confirm an exact match as the database lookup would
+        if (cached != null && email.equals(cached.getEmail())) {
+            stats.hit();
+            return Optional.of(copyOf(cached));
+        }
+        stats.miss();
+        return load(loader);
+    }
+
+    /**
+     * Removes a user from the cache.
+     *
+     * @param id the ID of the user, or null if unknown
+     * @param email an email the user was cached under, or null if unknown
+     */
+    public synchronized void evict(Long id, String email) {
+        if (email != null) {
+            Long mapped = idsByEmail.remove(normalize(email));
+            if (mapped != null) {
+                remove(mapped);
+            }
+        }
+        if (id != null) {
+            remove(id);
+        }
+    }
+
+    /**
+     * Removes every user from the cache.
+     */
+    public synchronized void clear() {
+        byId.clear();
+        idsByEmail.clear();
+    }
+
+    /**
+     * Returns the number of cached users.
+     *
+     * @return the number of cached users
+     */
+    public synchronized int size() {
+        return byId.size();
+    }
+
+    /**
+     * Returns the hit and miss counts of lookups.
+     *
+     * @return the counts
+     */
+    public CacheStats getStats() {
+        return stats;
+    }
+
+    private synchronized User lookup(Long id) {
+        Entry entry = byId.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.loadedAt() >= ttlNanos) {
+            remove(id);
+            return null;
+        }
+        return entry.user();
+    }
+
+    private Optional<User> load(Supplier<Optional<User>> loader) {
+        Optional<User> loaded = loader.get();
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    private synchronized void put(User user) {
+        if (maxEntries == 0 || user.getId() == null) {
+            return;
+        }
+        remove(user.getId());
+        byId.put(user.getId(), new Entry(copyOf(user), System.nanoTime()));
+        if (user.getEmail() != null) {
+            idsByEmail.put(normalize(user.getEmail()), user.getId());
+        }
+        Iterator<Map.Entry<Long, Entry>> eldest = byId.entrySet().iterator();
+        while (byId.size() > maxEntries && eldest.hasNext()) {
+            User evicted = eldest.next().getValue().user();
+            eldest.remove();
+            unmapEmail(evicted);
+        }
+    }
+
+    private void remove(Long id) {
+        Entry entry = byId.remove(id);
+        if (entry != null) {
+            unmapEmail(entry.user());
+        }
+    }
+
+    private void unmapEmail(User user) {
+        if (user.getEmail() != null) {
+            idsByEmail.remove(normalize(user.getEmail()), user.getId());
+        }
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase();
+    }
+
+    /**
+     * Copies the scalar fields of a user: ID, display name, email, password hash and role.
+     * The items, favorites, messages and orders collections are not copied and stay null
+     * on the copy, so callers that need them must load the user from the repository.
+     *
+     * @param user the user to copy
+     * @return the detached copy
+     */
+    private static User copyOf(User user) {
+        User copy = new User(user.getDisplayUsername(), user.getEmail(), user.getPassword(), user.getRole());
+        copy.setId(user.getId());
+        return copy;
+    }
+
+    /**
+     * A cached user and when it was loaded.
+     *
+     * @param user the scalar copy of the user
+     * @param loadedAt the {@link System#nanoTime()} at which it was loaded
+     */
+    private record Entry(User user, long loadedAt) {
+    }
+}
@@ -1,5 +1,7 @@
 package stanism.marketplace.service;
 
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.core.context.SecurityContextHolder;
 import stanism.marketplace.model.Role;
@@ -9,6 +11,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Optional;
 
@@ -28,6 +32,9 @@ public class UserService {
   /** Password encoder for hashing passwords. */
   private final PasswordEncoder passwordEncoder;
 
+  /** Cache of users by ID and email. */
+  private final UserCache userCache;
+
   /**
    * Constructs a new UserService instance.
    *
@@ -35,10 +42,13 @@ public class UserService {
    *          The user repository to use
    * @param passwordEncoder
    *          The password encoder to use
+   * @param userCache
+   *          The cache of users by ID and email
    */
-  public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+  public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, UserCache userCache) {
     this.userRepository = userRepository;
     this.passwordEncoder = passwordEncoder;
+    this.userCache = userCache;
   }
 
   /**
@@ -125,11 +135,24 @@ public class UserService {
         updatedUser.setPassword(passwordEncoder.encode(user.getPassword()));
       }
       userRepository.save(updatedUser);
+      evictAfterCommit(updatedUser.getId(), updatedUser.getEmail());
     } else {
       throw new RuntimeException("User not found");
     }
   }
 
+  /**
+   * Deletes a user.
+   *
+   * @param user
+   *          The user to delete
+   */
+  @Transactional
+  public void deleteUser(User user) {
+    evictAfterCommit(user.getId(), user.getEmail());
+    userRepository.delete(user);
+  }
+
   /**
    * Verifies a user's credentials using email and password.
    *
@@ -146,13 +169,32 @@ public class UserService {
 
   /**
    * Gets the currently authenticated user from Spring Security context.
+   * The user is served from the user cache, so repeated calls across requests
+   * do not query the database. The returned user is a detached copy holding
+   * only its scalar fields.
    *
    * @return An Optional containing the authenticated user if present
    */
   public Optional<User> getCurrentUser() {
     String email = SecurityContextHolder.getContext().getAuthentication().getName();
-    LOGGER.info("Getting current user with email: {}", email);
-    return findUserByEmail(email);
+    LOGGER.debug("Getting current user with email: {}", email);
+    return userCache.getByEmail(email, () -> userRepository.findByEmail(email));
+  }
+
+  /**
+   * Gets the currently authenticated user, if the request carries one.
+   * Unlike {@link #getCurrentUser()}, anonymous requests are answered without
+   * a user lookup, so public endpoints can personalise responses cheaply.
+   *
+   * @return An Optional containing the authenticated user, or empty for anonymous requests
+   */
+  public Optional<User> getAuthenticatedUser() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication == null || !authentication.isAuthenticated()
+        || authentication instanceof AnonymousAuthenticationToken) {
+      return Optional.empty();
+    }
+    return getCurrentUser();
   }
 
   /**
@@ -163,10 +205,10 @@ public class UserService {
    * @return An Optional containing the user if found
    */
   public Optional<User> getUserById(Long id) {
-    LOGGER.info("Looking up user by ID: {}", id);
-    Optional<User> user = userRepository.findById(id);
+    LOGGER.debug("Looking up user by ID: {}", id);
+    Optional<User> user = userCache.getById(id, () -> userRepository.findById(id));
     if (user.isPresent()) {
-      LOGGER.info("Found user with ID {}: {}", id, user.get().getEmail());
+      LOGGER.debug("Found user with ID {}: {}", id, user.get().getEmail());
     } else {
       LOGGER.warn("No user found with ID: {}", id);
     }
@@ -181,13 +223,34 @@ public class UserService {
    * @return An Optional containing the user if found
    */
   public Optional<User> getUserByEmail(String email) {
-    LOGGER.info("Looking up user by email: {}", email);
-    Optional<User> user = userRepository.findByEmail(email);
+    LOGGER.debug("Looking up user by email: {}", email);
+    Optional<User> user = userCache.getByEmail(email, () -> userRepository.findByEmail(email));
     if (user.isPresent()) {
-      LOGGER.info("Found user with email {}: {}", email, user.get().getId());
+      LOGGER.debug("Found user with email {}: {}", email, user.get().getId());
     } else {
       LOGGER.warn("No user found with email: {}", email);
     }
     return user;
   }
-}
\ No newline at end of file
+
+  /**
+   * Evicts a user from the cache now and again once the current transaction
+   * commits, so a concurrent read cannot re-cache the state being replaced.
+   *
+   * @param id
+   *          The ID of the user to evict
+   * @param email
+   *          The email the user is cached under
+   */
+  private void evictAfterCommit(Long id, String email) {
+    userCache.evict(id, email);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          userCache.evict(id, email);
+        }
+      });
+    }
+  }
+}
@@ -0,0 +1,202 @@
+package stanism.marketplace.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * Image storage that keys every file by the SHA-256 of its content.
+ * Identical uploads are stored once. The key carries the extension of the
+ * format detected from the content, never the one the client sent, so the
+ * same bytes always map to the same key. Files live under two levels of
+ * two-character shard directories ({@code ab/cd/abcd...ef.jpg}) so no single
+ * directory grows unbounded. Keys that are not content hashes are treated as
+ * files stored flat by earlier versions and resolved directly in the root.
+ * Stores and deletes of one key are serialised by a lock stripe picked from
+ * the key, held outside any map so the in-use check and file I/O never block
+ * unrelated keys.
+ */
+@Component
+public class ContentAddressedImageStorage implements ImageStorage {
+    /** Logger for this class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContentAddressedImageStorage.class);
+
+    /** Content-addressed key: a hex SHA-256 and an optional extension. */
+    private static final Pattern HASH_KEY = Pattern.compile("[0-9a-f]{64}(\\.[a-z0-9]{1,10})?");
+
+    /** Flat key written before content addressing: a single plain file name. */
+    private static final Pattern LEGACY_KEY = Pattern.compile("[A-Za-z0-9_-]+(\\.[A-Za-z0-9]{1,10})?");
+
+    /** Size of the direct buffer used while hashing and copying. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** Number of lock stripes; a power of two. */
+    private static final int LOCK_STRIPES = 64;
+
+    /** Root directory of the store. */
+    private final Path root;
+
+    /** Directory for uploads that are still being written. */
+    private final Path incoming;
+
+    /** Locks serialising stores and deletes, striped by key. */
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    /** Number of outstanding pins per key; guarded by the key's lock stripe. */
+    private final Map<String, Integer> pins = new HashMap<>();
+
+    public ContentAddressedImageStorage(@Value("${app.images.storage.root:uploads}") String root) throws IOException {
+        this.root = Paths.get(root);
+        this.incoming = this.root.resolve(".incoming");
+        Files.createDirectories(incoming);
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public String store(InputStream content) throws IOException {
+        Path temp = Files.createTempFile(incoming, "upload-", ".tmp");
+        try {
+            String hash = copyAndHash(content, temp);
+            String key = ImageFormat.detect(readHead(temp))
+                    .map(format -> hash + format.getExtension())
+                    .orElse(hash);
+            Path target = shardPath(key);
+            Files.createDirectories(target.getParent());
+            ReentrantLock lock = lockFor(key);
+            lock.lock();
+            try {
+                if (!Files.exists(target)) {
+                    moveIntoPlace(temp, target);
+                } else {
+                    LOGGER.debug("Deduplicated upload {}", key);
+                }
+                pins.merge(key, 1, Integer::sum);
+            } finally {
+                lock.unlock();
+            }
+            return key;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public void release(String key) {
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            pins.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<Path> resolve(String key) {
+        Path path;
+        if (HASH_KEY.matcher(key).matches()) {
+            path = shardPath(key);
+        } else if (LEGACY_KEY.matcher(key).matches()) {
+            path = root.resolve(key);
+        } else {
+            return Optional.empty();
+        }
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    @Override
+    public boolean deleteIfUnused(String key, BooleanSupplier inUse) {
+        Optional<Path> path = resolve(key);
+        if (path.isEmpty()) {
+            return false;
+        }
+        boolean deleted = false;
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            if (!pins.containsKey(key) && !inUse.getAsBoolean()) {
+                deleted = Files.deleteIfExists(path.get());
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Could not delete stored image {}: {}", key, e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+        if (deleted) {
+            LOGGER.info("Deleted unreferenced image {}", key);
+        }
+        return deleted;
+    }
+
+    private ReentrantLock lockFor(String key) {
+        return locks[key.hashCode() & (LOCK_STRIPES - 1)];
+    }
+
+    private Path shardPath(String key) {
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    private static String copyAndHash(InputStream content, Path target) throws IOException {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        ReadableByteChannel source = Channels.newChannel(content);
+        try (FileChannel destination = FileChannel.open(target, StandardOpenOption.WRITE)) {
+            while (source.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    destination.write(buffer);
+                }
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static byte[] readHead(Path file) throws IOException {
+        try (InputStream input = Files.newInputStream(file)) {
+            return input.readNBytes(ImageFormat.HEADER_LENGTH);
+        }
+    }
+
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
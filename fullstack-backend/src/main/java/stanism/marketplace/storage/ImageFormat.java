@@ -0,0 +1,94 @@
+package stanism.marketplace.storage;
+
+import java.util.Optional;
+
+/**
+ * Image formats recognised from the leading bytes of a file.
+ * The format of a stored upload is always detected from its content, never
+ * taken from the name the client uploaded it under.
+ */
+public enum ImageFormat {
+    /** JPEG image. */
+    JPEG("image/jpeg", ".jpg"),
+
+    /** PNG image. */
+    PNG("image/png", ".png"),
+
+    /** GIF image. */
+    GIF("image/gif", ".gif"),
+
+    /** WebP image. */
+    WEBP("image/webp", ".webp"),
+
+    /** AVIF image. */
+    AVIF("image/avif", ".avif");
+
+    /** Number of leading bytes needed to detect a format. */
+    public static final int HEADER_LENGTH = 12;
+
+    /** Media type served for the format. */
+    private final String mediaType;
+
+    /** File extension of the format, including the dot. */
+    private final String extension;
+
+    ImageFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    /**
+     * Gets the media type served for the format.
+     *
+     * @return the media type, e.g. "image/png"
+     */
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Gets the file extension of the format.
+     *
+     * @return the extension including the dot, e.g. ".png"
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Detects the format from the leading bytes of a file.
+     *
+     * @param head up to {@link #HEADER_LENGTH} leading bytes
+     * @return the format, or empty if the bytes are not a recognised image
+     */
+    public static Optional<ImageFormat> detect(byte[] head) {
+        if (startsWith(head, 0, 0xFF, 0xD8, 0xFF)) {
+            return Optional.of(JPEG);
+        }
+        if (startsWith(head, 0, 0x89, 'P', 'N', 'G')) {
+            return Optional.of(PNG);
+        }
+        if (startsWith(head, 0, 'G', 'I', 'F', '8')) {
+            return Optional.of(GIF);
+        }
+        if (startsWith(head, 0, 'R', 'I', 'F', 'F') && startsWith(head, 8, 'W', 'E', 'B', 'P')) {
+            return Optional.of(WEBP);
+        }
+        if (startsWith(head, 4, 'f', 't', 'y', 'p') && startsWith(head, 8, 'a', 'v', 'i')) {
+            return Optional.of(AVIF);
+        }
+        return Optional.empty();
+    }
+
+    private static boolean startsWith(byte[] data, int offset, int... expected) {
+        if (data.length < offset + expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if ((data[offset + i] & 0xFF) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,52 @@
+package stanism.marketplace.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Storage backend for uploaded image files.
+ * Files are addressed by a storage key, which is also the last segment of
+ * the image URL ("/uploads/{key}"). A stored key is pinned until the caller
+ * releases it, so a file that has been written but is not yet referenced by
+ * an image row cannot be garbage collected underneath the upload.
+ */
+public interface ImageStorage {
+
+    /**
+     * Stores an image and pins its key.
+     * The key depends only on the content, including any extension it carries.
+     *
+     * @param content the image content, read to the end but not closed
+     * @return the storage key of the image
+     * @throws IOException if the content cannot be read or written
+     */
+    String store(InputStream content) throws IOException;
+
+    /**
+     * Releases a pin taken by {@link #store}.
+     *
+     * @param key the storage key
+     */
+    void release(String key);
+
+    /**
+     * Resolves a storage key to the file holding its content.
+     *
+     * @param key the storage key
+     * @return the file, or empty if the key is invalid or nothing is stored under it
+     */
+    Optional<Path> resolve(String key);
+
+    /**
+     * Deletes the content stored under a key unless it is pinned or still in use.
+     * The in-use check runs while the key is locked against concurrent stores.
+     *
+     * @param key the storage key
+     * @param inUse reports whether anything still references the key
+     * @return true if the content was deleted
+     */
+    boolean deleteIfUnused(String key, BooleanSupplier inUse);
+}
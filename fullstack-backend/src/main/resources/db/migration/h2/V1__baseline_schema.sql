@@ -0,0 +1,85 @@
+-- Baseline: the schema as Hibernate generated it before migrations were introduced.
+
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    username VARCHAR(20) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role ENUM('ADMIN', 'USER'),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE categories (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE items (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    title VARCHAR(255),
+    brief_description VARCHAR(255),
+    full_description VARCHAR(255),
+    price DOUBLE PRECISION,
+    latitude DOUBLE PRECISION,
+    longitude DOUBLE PRECISION,
+    publish_date TIMESTAMP(6),
+    reservation_date TIMESTAMP(6),
+    reserved_by_id BIGINT,
+    status ENUM('ACTIVE', 'ARCHIVED', 'SOLD', 'RESERVED'),
+    user_id BIGINT NOT NULL,
+    category_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_items_reserved_by FOREIGN KEY (reserved_by_id) REFERENCES users (id),
+    CONSTRAINT fk_items_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_items_category FOREIGN KEY (category_id) REFERENCES categories (id)
+);
+
+CREATE TABLE images (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    item_id BIGINT NOT NULL,
+    image_url VARCHAR(255),
+    alt_text VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_images_item FOREIGN KEY (item_id) REFERENCES items (id)
+);
+
+CREATE INDEX idx_images_image_url ON images (image_url);
+
+CREATE TABLE favorites (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    date_added TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_favorites_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_favorites_item FOREIGN KEY (item_id) REFERENCES items (id)
+);
+
+CREATE TABLE messages (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    sender_id BIGINT NOT NULL,
+    receiver_id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    content VARCHAR(255),
+    timestamp TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_messages_sender FOREIGN KEY (sender_id) REFERENCES users (id),
+    CONSTRAINT fk_messages_receiver FOREIGN KEY (receiver_id) REFERENCES users (id),
+    CONSTRAINT fk_messages_item FOREIGN KEY (item_id) REFERENCES items (id)
+);
+
+CREATE TABLE orders (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    buyer_id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    order_date TIMESTAMP(6),
+    status ENUM('RESERVED', 'COMPLETED', 'CANCELLED'),
+    payment_method VARCHAR(255),
+    transaction_id VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_orders_buyer FOREIGN KEY (buyer_id) REFERENCES users (id),
+    CONSTRAINT fk_orders_item FOREIGN KEY (item_id) REFERENCES items (id)
+);
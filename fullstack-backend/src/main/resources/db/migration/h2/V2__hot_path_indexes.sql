@@ -0,0 +1,41 @@
+-- Indexes and constraints for the hot repository queries.
+
+-- Inbox summaries: one row per participant, item and counterparty, listed by recency.
+CREATE TABLE IF NOT EXISTS conversations (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id BIGINT NOT NULL,
+    other_user_id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    last_message VARCHAR(255),
+    last_sender_id BIGINT NOT NULL,
+    last_timestamp TIMESTAMP(6) NOT NULL,
+    unread_count INT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_conversations_user_other_item UNIQUE (user_id, other_user_id, item_id),
+    CONSTRAINT fk_conversations_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_conversations_other_user FOREIGN KEY (other_user_id) REFERENCES users (id),
+    CONSTRAINT fk_conversations_item FOREIGN KEY (item_id) REFERENCES items (id)
+);
+CREATE INDEX idx_conversations_user_last ON conversations (user_id, last_timestamp);
+
+-- Conversation history pages, keyed on ID; also serves the journal replay duplicate check.
+CREATE INDEX idx_messages_item_sender_receiver ON messages (item_id, sender_id, receiver_id, id);
+
+-- A user favorites an item at most once.
+ALTER TABLE favorites ADD CONSTRAINT uk_favorites_user_item UNIQUE (user_id, item_id);
+
+-- Item feed, newest first, continued by (publish_date, id) cursor.
+CREATE INDEX idx_items_publish_date_id ON items (publish_date DESC, id DESC);
+
+-- Listings by category and by seller, optionally narrowed by status.
+CREATE INDEX idx_items_category_status ON items (category_id, status);
+CREATE INDEX idx_items_user_status ON items (user_id, status);
+
+-- Price range search.
+CREATE INDEX idx_items_price ON items (price);
+
+-- Reservations loaded for expiry tracking.
+CREATE INDEX idx_items_status_reservation_date ON items (status, reservation_date);
+
+-- Order lookup by buyer and item.
+CREATE INDEX idx_orders_buyer_item ON orders (buyer_id, item_id);
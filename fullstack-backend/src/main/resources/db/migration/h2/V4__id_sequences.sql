@@ -0,0 +1,13 @@
+-- ID sequences for the entities written through JPA, so Hibernate can assign IDs up front and batch inserts.
+-- Each fetch reserves a block of 50 IDs. Messages, conversations and images keep identity columns, as they
+-- are inserted with plain JDBC.
+
+CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE categories_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE items_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE favorites_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE orders_seq START WITH 1 INCREMENT BY 50;
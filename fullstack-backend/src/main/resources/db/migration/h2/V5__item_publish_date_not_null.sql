@@ -0,0 +1,5 @@
+-- The item feed is paged by (publish_date, id) keyset, which never matches a NULL publish date. Rows without
+-- one get the epoch, which keeps them at the end of the feed where NULLs sorted before.
+UPDATE items SET publish_date = TIMESTAMP '1970-01-01 00:00:00' WHERE publish_date IS NULL;
+
+ALTER TABLE items ALTER COLUMN publish_date SET NOT NULL;
@@ -0,0 +1,85 @@
+-- Baseline: the schema as Hibernate generated it before migrations were introduced.
+-- Databases created that way are baselined at this version and start from V2.
+
+CREATE TABLE users (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    username VARCHAR(20) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role ENUM('ADMIN', 'USER'),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE categories (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE items (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    title VARCHAR(255),
+    brief_description VARCHAR(255),
+    full_description VARCHAR(255),
+    price DOUBLE,
+    latitude DOUBLE,
+    longitude DOUBLE,
+    publish_date DATETIME(6),
+    reservation_date DATETIME(6),
+    reserved_by_id BIGINT,
+    status ENUM('ACTIVE', 'ARCHIVED', 'SOLD', 'RESERVED'),
+    user_id BIGINT NOT NULL,
+    category_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_items_reserved_by FOREIGN KEY (reserved_by_id) REFERENCES users (id),
+    CONSTRAINT fk_items_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_items_category FOREIGN KEY (category_id) REFERENCES categories (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE images (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    item_id BIGINT NOT NULL,
+    image_url VARCHAR(255),
+    alt_text VARCHAR(255),
+    PRIMARY KEY (id),
+    INDEX idx_images_image_url (image_url),
+    CONSTRAINT fk_images_item FOREIGN KEY (item_id) REFERENCES items (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE favorites (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    date_added DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_favorites_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_favorites_item FOREIGN KEY (item_id) REFERENCES items (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE messages (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    sender_id BIGINT NOT NULL,
+    receiver_id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    content VARCHAR(255),
+    timestamp DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_messages_sender FOREIGN KEY (sender_id) REFERENCES users (id),
+    CONSTRAINT fk_messages_receiver FOREIGN KEY (receiver_id) REFERENCES users (id),
+    CONSTRAINT fk_messages_item FOREIGN KEY (item_id) REFERENCES items (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE orders (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    buyer_id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    order_date DATETIME(6),
+    status ENUM('RESERVED', 'COMPLETED', 'CANCELLED'),
+    payment_method VARCHAR(255),
+    transaction_id VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_orders_buyer FOREIGN KEY (buyer_id) REFERENCES users (id),
+    CONSTRAINT fk_orders_item FOREIGN KEY (item_id) REFERENCES items (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,4 @@
+-- Denormalised number of users who favorited each item, kept current by the favorite counters.
+ALTER TABLE items ADD COLUMN favorite_count INT NOT NULL DEFAULT 0;
+
+UPDATE items SET favorite_count = (SELECT COUNT(*) FROM favorites f WHERE f.item_id = items.id);
@@ -0,0 +1,19 @@
+-- ID sequences for the entities written through JPA, so Hibernate can assign IDs up front and batch inserts.
+-- MySQL has no sequences; Hibernate emulates each one with a single-row table. Every fetch reserves a block
+-- of 50 IDs ending at the stored value, so each sequence starts one block above the highest existing ID.
+-- Messages, conversations and images keep AUTO_INCREMENT, as they are inserted with plain JDBC.
+
+CREATE TABLE users_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO users_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM users;
+
+CREATE TABLE categories_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO categories_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM categories;
+
+CREATE TABLE items_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO items_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM items;
+
+CREATE TABLE favorites_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO favorites_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM favorites;
+
+CREATE TABLE orders_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO orders_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM orders;
@@ -0,0 +1,89 @@
+package stanism.marketplace.benchmark;
+
+import stanism.marketplace.model.Category;
+import stanism.marketplace.model.Image;
+import stanism.marketplace.model.Item;
+import stanism.marketplace.model.ItemStatus;
+import stanism.marketplace.model.Message;
+import stanism.marketplace.model.Role;
+import stanism.marketplace.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Detached entities shaped like those the listing and chat endpoints map and
+ * serialize: items with an owner, a category and three images, and messages
+ * about them.
+ */
+final class BenchmarkFixtures {
+
+    /** Publish date of the first item; later items are a minute older each. */
+    private static final LocalDateTime PUBLISHED = LocalDateTime.of(2025, 4, 1, 12, 0);
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Builds items with distinct IDs and owners from a small set of sellers.
+     *
+     * @param count the number of items
+     * @return the items
+     */
+    static List<Item> items(int count) {
+        Category category = new Category();
+        category.setId(1L);
+        category.setName("Elektronikk");
+        List<User> sellers = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            sellers.add(user(i + 1L));
+        }
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Item item = new Item.Builder()
+                    .title("Pent brukt sykkel " + i)
+                    .briefDescription("Lite brukt, selges grunnet flytting")
+                    .fullDescription("Sykkelen er i god stand og har nylig vært på service. Kan hentes i Oslo.")
+                    .price(1500.0 + i)
+                    .latitude(59.9139)
+                    .longitude(10.7522)
+                    .user(sellers.get(i % sellers.size()))
+                    .category(category)
+                    .build();
+            item.setId(i + 1L);
+            item.setStatus(ItemStatus.ACTIVE);
+            item.setPublishDate(PUBLISHED.minusMinutes(i));
+            item.setFavoriteCount(i % 7);
+            Set<Image> images = new HashSet<>();
+            for (int j = 0; j < 3; j++) {
+                images.add(new Image(item, "https://example.com/images/" + item.getId() + "_" + j + ".jpg",
+                        "Bilde " + j));
+            }
+            item.setImages(images);
+            items.add(item);
+        }
+        return items;
+    }
+
+    /**
+     * Builds a message from a buyer to the owner of an item.
+     *
+     * @param item the item the message is about
+     * @return the message
+     */
+    static Message message(Item item) {
+        Message message = new Message(user(100L), item.getUser(), item, "Hei, er dette fortsatt tilgjengelig?");
+        message.setId(1L);
+        message.setTimestamp(PUBLISHED.plusHours(1));
+        return message;
+    }
+
+    private static User user(Long id) {
+        User user = new User("user" + id, "user" + id + "@example.com", "unused", Role.USER);
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,48 @@
+package stanism.marketplace.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Runs the JMH benchmarks of this package with the GC profiler, which adds
+ * the allocation rate and bytes allocated per operation to every result, and
+ * writes the results as JSON for comparison between commits, e.g. with
+ * jmh.morethan.io.
+ * Run every benchmark with {@code mvn -Pbenchmarks test}; pass
+ * {@code -Dbenchmark.include=<regex>} to run a subset and
+ * {@code -Dbenchmark.result=<file>} to change the result file, which defaults
+ * to {@code target/jmh-result.json}.
+ */
+public final class BenchmarkSuite {
+
+    private BenchmarkSuite() {
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args optional regular expression selecting benchmarks and result file
+     * @throws RunnerException if the benchmarks cannot be run
+     */
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 && !args[0].isBlank() ? args[0]
+                : BenchmarkSuite.class.getPackageName() + ".*";
+        String result = args.length > 1 && !args[1].isBlank() ? args[1] : "target/jmh-result.json";
+        File resultFile = new File(result);
+        if (resultFile.getParentFile() != null) {
+            resultFile.getParentFile().mkdirs();
+        }
+
+        new Runner(new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result)
+                .build()).run();
+    }
+}
@@ -0,0 +1,173 @@
+package stanism.marketplace.benchmark;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.user.DefaultUserDestinationResolver;
+import org.springframework.messaging.simp.user.UserDestinationMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.socket.messaging.DefaultSimpUserRegistry;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+
+import java.security.Principal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load test of chat fan-out through the STOMP broker pipeline configured in
+ * {@code WebSocketConfig}: user destination resolution, the simple broker and
+ * a bounded outbound channel, with 10,000 connected sessions each subscribed
+ * to {@code /user/queue/chat}. Producers send chat messages to random users
+ * and the outbound channel records the delivery latency of each one; the run
+ * reports delivered messages per second and latency percentiles.
+ * Network I/O is not included. Run with {@code mvn test-compile} followed by
+ * {@code mvn exec:java -Dexec.mainClass=stanism.marketplace.benchmark.ChatBrokerLoadBenchmark
+ * -Dexec.classpathScope=test}; optional arguments are the session count, the
+ * message count and the producer thread count.
+ */
+public final class ChatBrokerLoadBenchmark {
+
+    /** User destination chat messages are sent to. */
+    private static final String CHAT_QUEUE = "/queue/chat";
+
+    /** Threads on the outbound channel, matching the application default. */
+    private static final int OUTBOUND_THREADS = 16;
+
+    /** Outbound queue capacity, matching the application default. */
+    private static final int QUEUE_CAPACITY = 10000;
+
+    private ChatBrokerLoadBenchmark() {
+    }
+
+    /**
+     * Runs the load test.
+     *
+     * @param args optional session count, message count and producer thread count
+     * @throws InterruptedException if interrupted while waiting for delivery
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int messages = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int producers = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+
+        ThreadPoolTaskExecutor outboundExecutor = new ThreadPoolTaskExecutor();
+        outboundExecutor.setCorePoolSize(OUTBOUND_THREADS);
+        outboundExecutor.setMaxPoolSize(OUTBOUND_THREADS);
+        outboundExecutor.setQueueCapacity(QUEUE_CAPACITY);
+        // Block producers instead of rejecting when the outbound queue is full, as a slow network would
+        outboundExecutor.setRejectedExecutionHandler((task, executor) -> {
+            try {
+                executor.getQueue().put(task);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        outboundExecutor.initialize();
+
+        ExecutorSubscribableChannel clientInbound = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel clientOutbound = new ExecutorSubscribableChannel(outboundExecutor);
+        ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+
+        long[] latencies = new long[messages];
+        AtomicInteger delivered = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(messages);
+        clientOutbound.subscribe(message -> {
+            long sentAt = (Long) message.getPayload();
+            latencies[delivered.getAndIncrement()] = System.nanoTime() - sentAt;
+            done.countDown();
+        });
+
+        SimpleBrokerMessageHandler broker = new SimpleBrokerMessageHandler(clientInbound, clientOutbound,
+                brokerChannel, List.of("/topic", "/queue"));
+        broker.setSelectorHeaderName(null);
+        broker.setCacheLimit(sessions + 1024);
+        broker.start();
+
+        DefaultSimpUserRegistry userRegistry = new DefaultSimpUserRegistry();
+        UserDestinationMessageHandler userDestinations = new UserDestinationMessageHandler(clientInbound,
+                brokerChannel, new DefaultUserDestinationResolver(userRegistry));
+        userDestinations.start();
+
+        for (int i = 0; i < sessions; i++) {
+            String sessionId = "session-" + i;
+            Principal user = new BenchmarkUser("user" + i + "@example.com");
+            userRegistry.onApplicationEvent(new SessionConnectedEvent(ChatBrokerLoadBenchmark.class,
+                    message(SimpMessageType.CONNECT_ACK, sessionId, null), user));
+            // What UserDestinationMessageHandler turns a SUBSCRIBE to /user/queue/chat into
+            broker.handleMessage(message(SimpMessageType.SUBSCRIBE, sessionId, CHAT_QUEUE + "-user" + sessionId));
+        }
+
+        SimpMessagingTemplate template = new SimpMessagingTemplate(brokerChannel);
+        ExecutorService producerPool = Executors.newFixedThreadPool(producers);
+        int perProducer = messages / producers;
+        long start = System.nanoTime();
+        for (int p = 0; p < producers; p++) {
+            int count = p == producers - 1 ? messages - perProducer * (producers - 1) : perProducer;
+            producerPool.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int m = 0; m < count; m++) {
+                    String receiver = "user" + random.nextInt(sessions) + "@example.com";
+                    template.convertAndSendToUser(receiver, CHAT_QUEUE, System.nanoTime());
+                }
+            });
+        }
+        boolean completed = done.await(5, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - start;
+
+        producerPool.shutdownNow();
+        userDestinations.stop();
+        broker.stop();
+        outboundExecutor.shutdown();
+
+        int count = delivered.get();
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        System.out.printf("Sessions:       %d%n", sessions);
+        System.out.printf("Delivered:      %d of %d%s%n", count, messages, completed ? "" : " (timed out)");
+        System.out.printf("Throughput:     %.0f messages/s%n", count / (elapsed / 1e9));
+        System.out.printf("Latency p50:    %.1f us%n", percentile(sorted, 0.50) / 1e3);
+        System.out.printf("Latency p99:    %.1f us%n", percentile(sorted, 0.99) / 1e3);
+        System.out.printf("Latency p99.9:  %.1f us%n", percentile(sorted, 0.999) / 1e3);
+        System.out.printf("Latency max:    %.1f us%n", count == 0 ? 0 : sorted[count - 1] / 1e3);
+    }
+
+    private static Message<byte[]> message(SimpMessageType type, String sessionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId(sessionId);
+        if (destination != null) {
+            accessor.setSubscriptionId("chat");
+            accessor.setDestination(destination);
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    /**
+     * Principal of a simulated chat user.
+     *
+     * @param name the principal name, an email address as in the application
+     */
+    private record BenchmarkUser(String name) implements Principal {
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+}
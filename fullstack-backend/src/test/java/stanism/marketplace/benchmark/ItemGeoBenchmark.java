@@ -0,0 +1,127 @@
+package stanism.marketplace.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import stanism.marketplace.model.Item;
+import stanism.marketplace.search.ItemGeoIndex;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures nearby and bounding-box search over a spatial index of a million
+ * items, sampling every call so the results include the latency
+ * distribution (p50, p99, p99.9) rather than only the mean. Items cluster
+ * around Norwegian cities, half of them around Oslo, so a query in Oslo
+ * matches far more items than one in Tromsø; each query is run for the
+ * first page and for a page deep into the hits.
+ * Run with {@link BenchmarkSuite}, or this class's main method for this class alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ItemGeoBenchmark {
+
+    /** Number of indexed items. */
+    private static final int ITEM_COUNT = 1_000_000;
+
+    /** Hits per page, matching the default feed page size. */
+    private static final int PAGE_SIZE = 20;
+
+    /** City centres items cluster around; the first takes half of the items. */
+    private static final double[][] CITIES = {
+        { 59.9139, 10.7522 }, // Oslo
+        { 60.3913, 5.3221 }, // Bergen
+        { 63.4305, 10.3951 }, // Trondheim
+        { 58.9700, 5.7331 }, // Stavanger
+        { 69.6492, 18.9553 } // Tromsø
+    };
+
+    /** Index of the city the query is centred on. */
+    @Param({ "0", "4" })
+    private int city;
+
+    /** Search radius in kilometres; the bounding box spans the same distance. */
+    @Param({ "10", "50" })
+    private double radiusKm;
+
+    /** Index over the generated items. */
+    private ItemGeoIndex index;
+
+    /** Indexes the generated items. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new ItemGeoIndex();
+        Random random = new Random(42);
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            double[] centre = random.nextBoolean() ? CITIES[0] : CITIES[1 + random.nextInt(CITIES.length - 1)];
+            Item item = new Item.Builder()
+                    .latitude(centre[0] + random.nextGaussian() * 0.2)
+                    .longitude(centre[1] + random.nextGaussian() * 0.4)
+                    .build();
+            item.setId(i + 1L);
+            index.index(item);
+        }
+    }
+
+    /**
+     * Finds the nearest page of items.
+     *
+     * @return the page
+     */
+    @Benchmark
+    public ItemGeoIndex.GeoResult nearbyFirstPage() {
+        return index.nearby(CITIES[city][0], CITIES[city][1], radiusKm, 0, PAGE_SIZE);
+    }
+
+    /**
+     * Finds a page deep into the nearby hits.
+     *
+     * @return the page
+     */
+    @Benchmark
+    public ItemGeoIndex.GeoResult nearbyDeepPage() {
+        return index.nearby(CITIES[city][0], CITIES[city][1], radiusKm, 50 * PAGE_SIZE, PAGE_SIZE);
+    }
+
+    /**
+     * Finds the first page of items in a box around the city.
+     *
+     * @return the page
+     */
+    @Benchmark
+    public ItemGeoIndex.GeoResult boundingBoxFirstPage() {
+        double latitudeSpan = radiusKm / 111.32;
+        double longitudeSpan = latitudeSpan / Math.cos(Math.toRadians(CITIES[city][0]));
+        return index.within(CITIES[city][0] - latitudeSpan, CITIES[city][1] - longitudeSpan,
+                CITIES[city][0] + latitudeSpan, CITIES[city][1] + longitudeSpan, 0, PAGE_SIZE);
+    }
+
+    /**
+     * Runs the benchmark from the IDE or command line.
+     *
+     * @param args ignored
+     * @throws RunnerException if the benchmark cannot be run
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ItemGeoBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
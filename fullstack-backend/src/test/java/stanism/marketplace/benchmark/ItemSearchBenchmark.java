@@ -0,0 +1,137 @@
+package stanism.marketplace.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import stanism.marketplace.model.Item;
+import stanism.marketplace.search.ItemSearchIndex;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures ranked search over an index of a million items, sampling every
+ * call so the results include the latency distribution (p50, p99, p99.9)
+ * rather than only the mean. Titles combine a noun picked with a Zipf-like
+ * skew and an adjective, and every item shares the brief description, so
+ * the queries cover a term in every item, a common and a rare noun, and a
+ * two-term query.
+ * Run with {@link BenchmarkSuite}, or this class's main method for this class alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ItemSearchBenchmark {
+
+    /** Number of indexed items. */
+    private static final int ITEM_COUNT = 1_000_000;
+
+    /** Hits per page, matching the default feed page size. */
+    private static final int PAGE_SIZE = 20;
+
+    /** Title nouns, most frequent first. */
+    private static final String[] NOUNS = {
+        "sykkel", "sofa", "jakke", "stol", "bord", "lampe", "seng", "ski", "telefon", "barnevogn",
+        "kommode", "speil", "teppe", "hylle", "gitar", "kamera", "skrivebord", "vinterdekk", "støvler",
+        "tursekk"
+    };
+
+    /** Title adjectives, picked uniformly. */
+    private static final String[] ADJECTIVES = {
+        "pent", "brukt", "ny", "gammel", "rød", "blå", "svart", "hvit", "stor", "liten"
+    };
+
+    /** The query: a term in every item, a common noun, a rare noun, or two terms. */
+    @Param({ "selges", "sykkel", "tursekk", "rød sofa" })
+    private String query;
+
+    /** Index over the generated items. */
+    private ItemSearchIndex index;
+
+    /** Indexes the generated items. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new ItemSearchIndex();
+        Random random = new Random(42);
+        double[] cumulative = zipf(NOUNS.length, 1.1);
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            String noun = NOUNS[pick(cumulative, random.nextDouble())];
+            Item item = new Item.Builder()
+                    .title(ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + noun)
+                    .briefDescription("Selges grunnet flytting")
+                    .fullDescription("Fin " + noun + " i god stand, kan hentes i Oslo")
+                    .build();
+            item.setId(i + 1L);
+            index.index(item);
+        }
+    }
+
+    /**
+     * Ranks the first page of hits.
+     *
+     * @return the page
+     */
+    @Benchmark
+    public ItemSearchIndex.SearchResult firstPage() {
+        return index.search(query, 0, PAGE_SIZE);
+    }
+
+    /**
+     * Ranks a page deep into the hits.
+     *
+     * @return the page
+     */
+    @Benchmark
+    public ItemSearchIndex.SearchResult deepPage() {
+        return index.search(query, 50 * PAGE_SIZE, PAGE_SIZE);
+    }
+
+    private static double[] zipf(int count, double exponent) {
+        double[] cumulative = new double[count];
+        double sum = 0;
+        for (int rank = 0; rank < count; rank++) {
+            sum += 1 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < count; rank++) {
+            cumulative[rank] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int pick(double[] cumulative, double value) {
+        for (int rank = 0; rank < cumulative.length; rank++) {
+            if (value < cumulative[rank]) {
+                return rank;
+            }
+        }
+        return cumulative.length - 1;
+    }
+
+    /**
+     * Runs the benchmark from the IDE or command line.
+     *
+     * @param args ignored
+     * @throws RunnerException if the benchmark cannot be run
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ItemSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,110 @@
+package stanism.marketplace.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import stanism.marketplace.model.dto.ItemMapper;
+import stanism.marketplace.model.dto.ItemResponseDTO;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Jackson serialization of {@link ItemResponseDTO}, one item and a
+ * feed page, with an object mapper configured as Spring Boot configures the
+ * one used for responses. Compares writing through a shared mapper with a
+ * prebuilt {@link ObjectWriter} for the list type.
+ * Run with {@link BenchmarkSuite}, or this class's main method for this class alone.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemSerializationBenchmark {
+
+    /** Items per page, matching the default feed page size. */
+    private static final int PAGE_SIZE = 20;
+
+    /** Mapper with Spring Boot's defaults: Java time support and ISO dates. */
+    private ObjectMapper objectMapper;
+
+    /** Writer bound to the list type, resolved once. */
+    private ObjectWriter pageWriter;
+
+    /** DTOs of one feed page. */
+    private List<ItemResponseDTO> page;
+
+    /** Builds the mapper and the DTOs. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        pageWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, ItemResponseDTO.class));
+        page = BenchmarkFixtures.items(PAGE_SIZE).stream().map(ItemMapper::toDTO).toList();
+    }
+
+    /**
+     * Serializes one item.
+     *
+     * @return the JSON
+     * @throws JsonProcessingException if serialization fails
+     */
+    @Benchmark
+    public byte[] serializeItem() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page.get(0));
+    }
+
+    /**
+     * Serializes a feed page through the shared mapper.
+     *
+     * @return the JSON
+     * @throws JsonProcessingException if serialization fails
+     */
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    /**
+     * Serializes a feed page through the prebuilt writer.
+     *
+     * @return the JSON
+     * @throws JsonProcessingException if serialization fails
+     */
+    @Benchmark
+    public byte[] serializePageWithWriter() throws JsonProcessingException {
+        return pageWriter.writeValueAsBytes(page);
+    }
+
+    /**
+     * Runs the benchmark from the IDE or command line.
+     *
+     * @param args ignored
+     * @throws RunnerException if the benchmark cannot be run
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ItemSerializationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
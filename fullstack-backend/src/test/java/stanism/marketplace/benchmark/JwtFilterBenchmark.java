@@ -0,0 +1,92 @@
+package stanism.marketplace.benchmark;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.Cookie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import stanism.marketplace.security.JwtFilter;
+import stanism.marketplace.security.JwtUtil;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of authenticating a request carrying a JWT cookie through
+ * {@link JwtFilter}, with the verified-token cache enabled and disabled.
+ * Run with {@code mvn test-compile} followed by this class's main method, e.g.
+ * {@code mvn exec:java -Dexec.mainClass=stanism.marketplace.benchmark.JwtFilterBenchmark
+ * -Dexec.classpathScope=test}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    /** Secret of the same length as the one in application.properties. */
+    private static final String SECRET = "BenchmarkSecretKeyThatIsLongEnoughForHs256Signing";
+
+    /** Verified-token cache size; 0 measures the uncached path. */
+    @Param({ "0", "10000" })
+    private int cacheMaxEntries;
+
+    /** Filter under test. */
+    private Filter filter;
+
+    /** Token presented by every request. */
+    private String token;
+
+    /** Builds the filter and a token for it. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, TimeUnit.HOURS.toMillis(1), cacheMaxEntries);
+        filter = new JwtFilter(jwtUtil);
+        token = jwtUtil.generateToken("benchmark@example.com");
+    }
+
+    /**
+     * Sends one authenticated request through the filter.
+     *
+     * @return the response, so the work is not eliminated
+     * @throws Exception if the filter fails
+     */
+    @Benchmark
+    public MockHttpServletResponse authenticateRequest() throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/items/user");
+        request.setCookies(new Cookie("Authorization", token));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    /**
+     * Runs the benchmark from the IDE or command line.
+     *
+     * @param args ignored
+     * @throws RunnerException if the benchmark cannot be run
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
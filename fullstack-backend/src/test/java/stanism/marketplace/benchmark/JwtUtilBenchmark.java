@@ -0,0 +1,108 @@
+package stanism.marketplace.benchmark;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import stanism.marketplace.security.JwtUtil;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link JwtUtil} on its own, without the servlet filter around it:
+ * validating a token, extracting its claims and issuing a new one, with the
+ * verified-token cache enabled and disabled.
+ * Run with {@link BenchmarkSuite}, or this class's main method for this class alone.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    /** Secret of the same length as the one in application.properties. */
+    private static final String SECRET = "BenchmarkSecretKeyThatIsLongEnoughForHs256Signing";
+
+    /** Verified-token cache size; 0 measures the uncached path. */
+    @Param({ "0", "10000" })
+    private int cacheMaxEntries;
+
+    /** Utility under test. */
+    private JwtUtil jwtUtil;
+
+    /** Token validated by every call. */
+    private String token;
+
+    /** Builds the utility and a token for it. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, TimeUnit.HOURS.toMillis(1), cacheMaxEntries);
+        token = jwtUtil.generateToken("benchmark@example.com");
+    }
+
+    /**
+     * Validates the token.
+     *
+     * @return whether it is valid
+     */
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+
+    /**
+     * Extracts the token's claims.
+     *
+     * @return the claims
+     */
+    @Benchmark
+    public Claims extractAllClaims() {
+        return jwtUtil.extractAllClaims(token);
+    }
+
+    /**
+     * Validates the token and extracts its username, as the filter does.
+     *
+     * @return the username
+     */
+    @Benchmark
+    public String validateAndExtractUsername() {
+        return jwtUtil.validateAndExtractUsername(token);
+    }
+
+    /**
+     * Issues a new token, as on login.
+     *
+     * @return the token
+     */
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("benchmark@example.com");
+    }
+
+    /**
+     * Runs the benchmark from the IDE or command line.
+     *
+     * @param args ignored
+     * @throws RunnerException if the benchmark cannot be run
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtUtilBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,146 @@
+package stanism.marketplace.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what logging one request event costs the request thread, with
+ * four threads logging concurrently as request threads do under load:
+ * the {@code System.out.println} the controllers used to do, a synchronous
+ * Log4j2 logger and an asynchronous one writing the same JSON events with
+ * the request ID from the MDC, and a DEBUG call on a logger at INFO.
+ * Output goes to {@code /dev/null} unless {@code -Dlogging.benchmark.file}
+ * names a file, so the numbers show the cost of formatting and locking
+ * rather than of the disk. When the asynchronous logger's background thread
+ * falls behind, the ring buffer fills and INFO events are discarded as in
+ * production, so its result is the cost of enqueuing an event.
+ * Run with {@link BenchmarkSuite}, or this class's main method for this class alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(value = 1, jvmArgsAppend = {
+    "-Dlog4j2.configurationFile=log4j2-benchmark.xml",
+    "-Dlog4j2.contextSelector=org.apache.logging.log4j.core.selector.ClassLoaderContextSelector",
+    "-Dlog4j2.asyncQueueFullPolicy=Discard",
+    "-Dlog4j2.discardThreshold=INFO" })
+public class LoggingBenchmark {
+
+    /** Logger writing on the calling thread. */
+    private static final Logger SYNC = LoggerFactory.getLogger("benchmark.sync");
+
+    /** Logger handing events to the ring buffer. */
+    private static final Logger ASYNC = LoggerFactory.getLogger("benchmark.async");
+
+    /** E-mail logged with each event. */
+    private static final String EMAIL = "user42@example.com";
+
+    /** User ID logged with each event. */
+    private static final long USER_ID = 42L;
+
+    /** Stream standing in for {@code System.out}: synchronized and flushed on every line. */
+    private PrintStream stdout;
+
+    /**
+     * Opens the stream.
+     *
+     * @throws FileNotFoundException if the output file cannot be opened
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws FileNotFoundException {
+        stdout = new PrintStream(new FileOutputStream(System.getProperty("logging.benchmark.file", "/dev/null"), true),
+                true);
+    }
+
+    /** Closes the stream. */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        stdout.close();
+    }
+
+    /**
+     * Sets the request ID of the benchmark thread, as the correlation filter does.
+     */
+    @State(Scope.Thread)
+    public static class RequestContext {
+
+        /** Puts a request ID in the MDC. */
+        @Setup(Level.Trial)
+        public void setUp() {
+            MDC.put("requestId", Long.toHexString(Thread.currentThread().threadId()));
+        }
+    }
+
+    /** Prints a line as the controllers used to. */
+    @Benchmark
+    public void systemOut() {
+        stdout.println("Found current user: " + USER_ID + " - " + EMAIL);
+    }
+
+    /**
+     * Logs an event synchronously.
+     *
+     * @param context the thread's request context
+     */
+    @Benchmark
+    public void syncLogger(RequestContext context) {
+        SYNC.info("Found current user: {} - {}", USER_ID, EMAIL);
+    }
+
+    /**
+     * Logs an event asynchronously.
+     *
+     * @param context the thread's request context
+     */
+    @Benchmark
+    public void asyncLogger(RequestContext context) {
+        ASYNC.info("Found current user: {} - {}", USER_ID, EMAIL);
+    }
+
+    /**
+     * Logs a disabled DEBUG event, the cost of leaving debug statements in place.
+     *
+     * @param context the thread's request context
+     */
+    @Benchmark
+    public void disabledDebug(RequestContext context) {
+        ASYNC.debug("Found current user: {} - {}", USER_ID, EMAIL);
+    }
+
+    /**
+     * Runs the benchmark from the IDE or command line.
+     *
+     * @param args ignored
+     * @throws RunnerException if the benchmark cannot be run
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LoggingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
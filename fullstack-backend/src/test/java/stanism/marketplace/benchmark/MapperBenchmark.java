@@ -0,0 +1,113 @@
+package stanism.marketplace.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import stanism.marketplace.model.Item;
+import stanism.marketplace.model.Message;
+import stanism.marketplace.model.dto.ItemMapper;
+import stanism.marketplace.model.dto.ItemResponseDTO;
+import stanism.marketplace.model.dto.MessageMapper;
+import stanism.marketplace.model.dto.MessageResponseDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the entity-to-DTO mapping done for every listed item and every
+ * chat message: {@link ItemMapper#toDTO} for one item and for a feed page,
+ * and the full and history forms of {@link MessageMapper}.
+ * Run with {@link BenchmarkSuite}, or this class's main method for this class alone.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    /** Items per page, matching the default feed page size. */
+    private static final int PAGE_SIZE = 20;
+
+    /** Items of one feed page. */
+    private List<Item> page;
+
+    /** Message about the first item. */
+    private Message message;
+
+    /** Builds the entities. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        page = BenchmarkFixtures.items(PAGE_SIZE);
+        message = BenchmarkFixtures.message(page.get(0));
+    }
+
+    /**
+     * Maps one item.
+     *
+     * @return the DTO
+     */
+    @Benchmark
+    public ItemResponseDTO itemToDto() {
+        return ItemMapper.toDTO(page.get(0));
+    }
+
+    /**
+     * Maps a feed page of items.
+     *
+     * @return the DTOs
+     */
+    @Benchmark
+    public List<ItemResponseDTO> itemPageToDto() {
+        List<ItemResponseDTO> dtos = new ArrayList<>(page.size());
+        for (Item item : page) {
+            dtos.add(ItemMapper.toDTO(item));
+        }
+        return dtos;
+    }
+
+    /**
+     * Maps a message with its full item.
+     *
+     * @return the DTO
+     */
+    @Benchmark
+    public MessageResponseDTO messageToDto() {
+        return MessageMapper.toDTO(message);
+    }
+
+    /**
+     * Maps a message as in conversation history, with only the item ID.
+     *
+     * @return the DTO
+     */
+    @Benchmark
+    public MessageResponseDTO messageToHistoryDto() {
+        return MessageMapper.toHistoryDTO(message);
+    }
+
+    /**
+     * Runs the benchmark from the IDE or command line.
+     *
+     * @param args ignored
+     * @throws RunnerException if the benchmark cannot be run
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MapperBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,130 @@
+package stanism.marketplace.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import stanism.marketplace.MarketplaceApplication;
+import stanism.marketplace.model.Category;
+import stanism.marketplace.model.Item;
+import stanism.marketplace.model.Role;
+import stanism.marketplace.model.User;
+import stanism.marketplace.repository.CategoryRepository;
+import stanism.marketplace.repository.ItemRepository;
+import stanism.marketplace.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares item insert throughput of the two ways the application writes rows
+ * through JPA: one repository save per row in its own transaction, as the data
+ * seeder used to, and {@code saveAll} over chunks in one transaction, which
+ * with sequence IDs lets Hibernate send the inserts as JDBC batches. Each run
+ * reports rows per second and the number of JDBC statements prepared.
+ * Runs against the configured database, so pass {@code prod} as the profile to
+ * measure MySQL with the production pool and driver settings. Run with
+ * {@code mvn test-compile} followed by
+ * {@code mvn exec:java -Dexec.mainClass=stanism.marketplace.benchmark.PersistenceInsertBenchmark
+ * -Dexec.classpathScope=test}; optional arguments are the row count and a
+ * comma-separated list of Spring profiles.
+ */
+public final class PersistenceInsertBenchmark {
+
+    /** Rows saved per transaction in the batched run. */
+    private static final int CHUNK_SIZE = 1000;
+
+    /** Rows saved by each warm-up run. */
+    private static final int WARM_UP_ROWS = 1000;
+
+    private PersistenceInsertBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional row count and Spring profiles
+     */
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        String[] profiles = args.length > 1 ? args[1].split(",") : new String[0];
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MarketplaceApplication.class)
+                .profiles(profiles)
+                .properties("server.port=0", "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.generate_statistics=true")
+                .run()) {
+            UserRepository userRepository = context.getBean(UserRepository.class);
+            CategoryRepository categoryRepository = context.getBean(CategoryRepository.class);
+            ItemRepository itemRepository = context.getBean(ItemRepository.class);
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            TransactionTemplate transactionTemplate = new TransactionTemplate(
+                    context.getBean(PlatformTransactionManager.class));
+            Statistics statistics = context.getBean(EntityManagerFactory.class)
+                    .unwrap(SessionFactory.class).getStatistics();
+
+            String suffix = Long.toString(System.currentTimeMillis() % 1_000_000);
+            User seller = userRepository.save(new User("bench" + suffix, "insert-benchmark-" + suffix
+                    + "@example.com", "unused", Role.USER));
+            Category newCategory = new Category();
+            newCategory.setName("Insert benchmark " + suffix);
+            Category category = categoryRepository.save(newCategory);
+
+            try {
+                // Warm up both paths so class loading and statement preparation are not measured
+                run("Warm-up", WARM_UP_ROWS, () -> saveRowByRow(itemRepository, seller, category, WARM_UP_ROWS),
+                        statistics);
+                run("Warm-up", WARM_UP_ROWS, () -> saveBatched(itemRepository, transactionTemplate, seller,
+                        category, WARM_UP_ROWS), statistics);
+
+                run("Row by row", rows, () -> saveRowByRow(itemRepository, seller, category, rows), statistics);
+                run("Batched", rows, () -> saveBatched(itemRepository, transactionTemplate, seller, category,
+                        rows), statistics);
+            } finally {
+                jdbcTemplate.update("DELETE FROM items WHERE user_id = ?", seller.getId());
+                jdbcTemplate.update("DELETE FROM categories WHERE id = ?", category.getId());
+                jdbcTemplate.update("DELETE FROM users WHERE id = ?", seller.getId());
+            }
+        }
+    }
+
+    private static void run(String name, int rows, Runnable insert, Statistics statistics) {
+        statistics.clear();
+        long start = System.nanoTime();
+        insert.run();
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-12s %8d rows  %10.0f rows/s  %8d statements%n", name, rows,
+                rows / (elapsed / 1e9), statistics.getPrepareStatementCount());
+    }
+
+    private static void saveRowByRow(ItemRepository itemRepository, User seller, Category category, int rows) {
+        for (int i = 0; i < rows; i++) {
+            itemRepository.save(item(seller, category, i));
+        }
+    }
+
+    private static void saveBatched(ItemRepository itemRepository, TransactionTemplate transactionTemplate,
+            User seller, Category category, int rows) {
+        for (int offset = 0; offset < rows; offset += CHUNK_SIZE) {
+            List<Item> chunk = new ArrayList<>(CHUNK_SIZE);
+            for (int i = offset; i < Math.min(rows, offset + CHUNK_SIZE); i++) {
+                chunk.add(item(seller, category, i));
+            }
+            transactionTemplate.executeWithoutResult(status -> itemRepository.saveAll(chunk));
+        }
+    }
+
+    private static Item item(User seller, Category category, int index) {
+        return new Item.Builder()
+                .title("Benchmark item " + index)
+                .briefDescription("Inserted by PersistenceInsertBenchmark")
+                .price(100.0 + index % 1000)
+                .user(seller)
+                .category(category)
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package stanism.marketplace.chat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+
+class ChatJournalTest {
+
+    private static final LocalDateTime SENT = LocalDateTime.of(2025, 1, 1, 12, 0, 0, 123456000);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysMessagesAfterTheCheckpointWhenReopened() throws IOException {
+        try (ChatJournal journal = new ChatJournal(directory, 1024 * 1024)) {
+            journal.append(1, 2, 3, "first", SENT);
+            journal.append(1, 2, 3, "second ✓", SENT);
+            journal.append(2, 1, 3, "third", SENT);
+            journal.markPersisted(1);
+        }
+
+        try (ChatJournal journal = new ChatJournal(directory, 1024 * 1024)) {
+            assertThat(journal.unpersisted())
+                    .extracting(PendingChatMessage::sequence, PendingChatMessage::content)
+                    .containsExactly(tuple(2L, "second ✓"), tuple(3L, "third"));
+            assertThat(journal.unpersisted().get(0).timestamp()).isEqualTo(SENT);
+            assertThat(journal.append(1, 2, 3, "fourth", SENT).sequence()).isEqualTo(4);
+        }
+    }
+
+    @Test
+    void ignoresATornRecordAtTheEndOfASegment() throws IOException {
+        try (ChatJournal journal = new ChatJournal(directory, 1024 * 1024)) {
+            journal.append(1, 2, 3, "kept", SENT);
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            Path segment = files.filter(file -> file.toString().endsWith(".log")).findFirst().orElseThrow();
+            Files.write(segment, new byte[] { 0, 0, 0, 60, 1, 2 }, StandardOpenOption.APPEND);
+        }
+
+        try (ChatJournal journal = new ChatJournal(directory, 1024 * 1024)) {
+            assertThat(journal.unpersisted()).extracting(PendingChatMessage::content).containsExactly("kept");
+        }
+    }
+
+    @Test
+    void deletesSegmentsOnceTheirMessagesArePersisted() throws IOException {
+        try (ChatJournal journal = new ChatJournal(directory, 64)) {
+            for (int i = 0; i < 5; i++) {
+                journal.append(1, 2, 3, "message " + i, SENT);
+            }
+            assertThat(segmentCount()).isEqualTo(6);
+
+            journal.markPersisted(5);
+            assertThat(segmentCount()).isEqualTo(1);
+            assertThat(journal.unpersisted()).isEmpty();
+        }
+    }
+
+    @Test
+    void syncTakenBeforeRolloverStillCoversItsMessages() throws IOException {
+        try (ChatJournal journal = new ChatJournal(directory, 64)) {
+            journal.append(1, 2, 3, "first", SENT);
+            ChatJournal.Sync sync = journal.sync();
+            journal.append(1, 2, 3, "second", SENT);
+
+            sync.force();
+            assertThat(sync.sequence()).isEqualTo(1);
+            assertThat(journal.sync().sequence()).isEqualTo(2);
+        }
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".log")).count();
+        }
+    }
+}
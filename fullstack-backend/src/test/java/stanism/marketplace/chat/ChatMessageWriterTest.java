@@ -0,0 +1,51 @@
+package stanism.marketplace.chat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import stanism.marketplace.service.ConversationService;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChatMessageWriterTest {
+
+    private static final LocalDateTime SENT = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void failsStartupWhenTheJournalCannotBeReplayed() throws IOException {
+        Path journalDirectory = directory.resolve("journal");
+        try (ChatJournal journal = new ChatJournal(journalDirectory, 1024 * 1024)) {
+            journal.append(1, 2, 3, "waiting", SENT);
+        }
+        // The database does not exist, so every connection attempt fails
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:file:" + directory.resolve("missing") + ";IFEXISTS=TRUE", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        ChatWriterProperties properties = new ChatWriterProperties(
+                new ChatWriterProperties.Journal(journalDirectory, 1024 * 1024, false),
+                new ChatWriterProperties.WriteBehind(10, Duration.ofMillis(10), Duration.ofMillis(10), 10,
+                        Duration.ofMillis(1), 3));
+        ChatMessageWriter writer = new ChatMessageWriter(jdbcTemplate, transactionManager,
+                new ConversationService(null, jdbcTemplate, transactionManager), properties);
+
+        assertThatThrownBy(writer::start)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Failed to store 1 journaled chat messages after 3 attempts; is the database available?");
+
+        try (ChatJournal journal = new ChatJournal(journalDirectory, 1024 * 1024)) {
+            assertThat(journal.unpersisted()).extracting(PendingChatMessage::content).containsExactly("waiting");
+        }
+    }
+}
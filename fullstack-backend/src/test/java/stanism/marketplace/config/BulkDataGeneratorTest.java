@@ -0,0 +1,76 @@
+package stanism.marketplace.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import stanism.marketplace.model.Category;
+import stanism.marketplace.model.Role;
+import stanism.marketplace.model.User;
+import stanism.marketplace.repository.CategoryRepository;
+import stanism.marketplace.repository.UserRepository;
+import stanism.marketplace.search.ItemFacetIndex;
+import stanism.marketplace.service.ConversationService;
+import stanism.marketplace.service.FavoriteCounterService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({ ConversationService.class, FavoriteCounterService.class, ItemFacetIndex.class })
+// The generator commits each batch, and reserving IDs alters sequences, which H2 commits implicitly
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BulkDataGeneratorTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ConversationService conversationService;
+
+    @Autowired
+    private FavoriteCounterService favoriteCounterService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void generatesTheConfiguredRowCountsWithIdsClearOfLaterInserts() {
+        Category category = new Category();
+        category.setName("Generated");
+        categoryRepository.save(category);
+        BulkDataGenerator generator = new BulkDataGenerator(jdbcTemplate, transactionManager, conversationService,
+                favoriteCounterService, new BCryptPasswordEncoder(4),
+                new BulkDataGeneratorProperties(50, 200, 2, 500, 1000, 30, 42L, 1.0, 1.1, 1.8, 64));
+
+        generator.generate();
+
+        assertThat(count("SELECT COUNT(*) FROM users")).isEqualTo(50);
+        assertThat(count("SELECT COUNT(*) FROM items")).isEqualTo(200);
+        assertThat(count("SELECT COUNT(*) FROM images")).isBetween(200L, 400L);
+        assertThat(count("SELECT COUNT(*) FROM favorites")).isEqualTo(500);
+        assertThat(count("SELECT COUNT(*) FROM messages")).isEqualTo(1000);
+        assertThat(count("SELECT COUNT(*) FROM orders")).isEqualTo(30);
+        assertThat(count("SELECT COALESCE(SUM(favorite_count), 0) FROM items")).isEqualTo(500);
+        assertThat(count("SELECT COUNT(*) FROM conversations")).isPositive();
+        // Popularity is skewed: the hottest item draws far more than the average of 2.5 favorites
+        assertThat(count("SELECT MAX(favorite_count) FROM items")).isGreaterThan(10);
+
+        User user = userRepository.save(new User("afterload", "afterload@example.com", "password123", Role.USER));
+        assertThat(user.getId()).isGreaterThan(count("SELECT MAX(id) FROM users WHERE username <> 'afterload'"));
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,83 @@
+package stanism.marketplace.controller;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import stanism.marketplace.chat.PendingChatMessage;
+import stanism.marketplace.model.Category;
+import stanism.marketplace.model.Item;
+import stanism.marketplace.model.Role;
+import stanism.marketplace.model.User;
+import stanism.marketplace.repository.CategoryRepository;
+import stanism.marketplace.repository.ItemRepository;
+import stanism.marketplace.repository.UserRepository;
+import stanism.marketplace.security.JwtUtil;
+import stanism.marketplace.service.ConversationService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MessageControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ConversationService conversationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Test
+    void inboxIsServedToTheUserInTheJwtCookie() throws Exception {
+        User seller = userRepository.save(new User("inbox-seller", "inbox-seller@example.com", "password123",
+                Role.USER));
+        User buyer = userRepository.save(new User("inbox-buyer", "inbox-buyer@example.com", "password123",
+                Role.USER));
+        Category category = new Category();
+        category.setName("Inbox test");
+        category = categoryRepository.save(category);
+        Item item = itemRepository.save(new Item.Builder()
+                .title("Bike")
+                .price(100.0)
+                .user(seller)
+                .category(category)
+                .build());
+        conversationService.recordMessages(List.of(new PendingChatMessage(0, buyer.getId(), seller.getId(),
+                item.getId(), "Is it available?", LocalDateTime.of(2025, 1, 1, 12, 0))));
+
+        mockMvc.perform(get("/api/messages/conversations")
+                .cookie(new Cookie("Authorization", jwtUtil.generateToken(seller.getEmail()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].itemId").value(item.getId()))
+                .andExpect(jsonPath("$[0].otherUser.id").value(buyer.getId()))
+                .andExpect(jsonPath("$[0].lastMessage").value("Is it available?"))
+                .andExpect(jsonPath("$[0].unreadCount").value(1));
+    }
+
+    @Test
+    void inboxOfAnUnknownUserIsUnauthorized() throws Exception {
+        mockMvc.perform(get("/api/messages/conversations")
+                .cookie(new Cookie("Authorization", jwtUtil.generateToken("deleted@example.com"))))
+                .andExpect(status().isUnauthorized());
+    }
+}
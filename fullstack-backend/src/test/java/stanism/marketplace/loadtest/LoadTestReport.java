@@ -0,0 +1,136 @@
+package stanism.marketplace.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Result of one load test run: its configuration and the latency percentiles
+ * and throughput of each endpoint. Written as JSON so runs on different
+ * commits can be kept and compared.
+ *
+ * @param label identifies the run, e.g. the commit it was run on
+ * @param startedAt when the measurement started, as an ISO-8601 instant
+ * @param config the settings of the run
+ * @param endpoints the statistics of each endpoint, by name
+ */
+public record LoadTestReport(String label, String startedAt, Map<String, Object> config,
+        Map<String, EndpointStats> endpoints) {
+
+    /** Mapper reading and writing reports. */
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    /**
+     * Statistics of one endpoint. Latencies are in milliseconds.
+     *
+     * @param requests number of completed requests
+     * @param errors number of requests that failed or returned a status of 400 or more
+     * @param throughput completed requests per second
+     * @param mean mean latency
+     * @param p50 median latency
+     * @param p90 90th percentile latency
+     * @param p99 99th percentile latency
+     * @param p999 99.9th percentile latency
+     * @param max highest latency
+     * @param statuses number of responses by HTTP status, 0 for requests that failed without one
+     */
+    public record EndpointStats(long requests, long errors, double throughput, double mean, double p50, double p90,
+            double p99, double p999, double max, Map<Integer, Long> statuses) {
+
+        /**
+         * Summarizes a histogram of latencies recorded in microseconds.
+         *
+         * @param histogram the latencies
+         * @param errors the number of failed requests
+         * @param statuses the number of responses by status
+         * @param seconds the length of the measurement
+         * @return the statistics
+         */
+        public static EndpointStats of(Histogram histogram, long errors, Map<Integer, Long> statuses,
+                double seconds) {
+            return new EndpointStats(histogram.getTotalCount(), errors,
+                    round(histogram.getTotalCount() / seconds), round(histogram.getMean() / 1000),
+                    millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                    round(histogram.getMaxValue() / 1000.0), new TreeMap<>(statuses));
+        }
+
+        private static double millis(Histogram histogram, double percentile) {
+            return round(histogram.getValueAtPercentile(percentile) / 1000.0);
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 100) / 100.0;
+        }
+    }
+
+    /**
+     * Writes the report as JSON, creating parent directories as needed.
+     *
+     * @param path the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        MAPPER.writeValue(path.toFile(), this);
+    }
+
+    /**
+     * Reads a report written by {@link #write(Path)}.
+     *
+     * @param path the file to read
+     * @return the report
+     * @throws IOException if the file cannot be read or parsed
+     */
+    public static LoadTestReport read(Path path) throws IOException {
+        return MAPPER.readValue(path.toFile(), LoadTestReport.class);
+    }
+
+    /**
+     * Formats the statistics of each endpoint as a table.
+     *
+     * @return the table
+     */
+    public String summary() {
+        StringBuilder table = new StringBuilder(String.format("%-14s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        endpoints.forEach((name, stats) -> table.append(String.format(
+                "%-14s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, stats.requests(), stats.errors(),
+                stats.throughput(), stats.p50(), stats.p90(), stats.p99(), stats.p999(), stats.max())));
+        return table.toString();
+    }
+
+    /**
+     * Formats the change of throughput and tail latency of each endpoint
+     * relative to an earlier run, as percentages.
+     *
+     * @param baseline the earlier run
+     * @return the table
+     */
+    public String compareTo(LoadTestReport baseline) {
+        StringBuilder table = new StringBuilder(String.format("Compared to %s:%n%-14s %9s %9s %9s %9s%n",
+                baseline.label(), "endpoint", "req/s", "p50", "p99", "p99.9"));
+        endpoints.forEach((name, stats) -> {
+            EndpointStats before = baseline.endpoints().get(name);
+            if (before == null) {
+                table.append(String.format("%-14s %s%n", name, "not in baseline"));
+                return;
+            }
+            table.append(String.format("%-14s %9s %9s %9s %9s%n", name,
+                    change(before.throughput(), stats.throughput()), change(before.p50(), stats.p50()),
+                    change(before.p99(), stats.p99()), change(before.p999(), stats.p999())));
+        });
+        return table.toString();
+    }
+
+    private static String change(double before, double after) {
+        return before == 0 ? "n/a" : String.format("%+.1f%%", (after - before) / before * 100);
+    }
+}
@@ -0,0 +1,449 @@
+package stanism.marketplace.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import stanism.marketplace.MarketplaceApplication;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end load test of the REST API. Boots the application on a random
+ * port, by default against the in-memory H2 database of the test classpath
+ * (pass {@code -Dloadtest.profiles=prod} and a MySQL URL to test MySQL
+ * instead), fills it with {@code BulkDataGenerator}, and runs a weighted mix of
+ * reads and writes from concurrent virtual users over real HTTP, each logged in
+ * as its own user.
+ * Latencies are recorded per endpoint in HdrHistograms. After a warm-up, the
+ * run is measured for a fixed time, and a table of percentiles is printed and
+ * written as a JSON {@link LoadTestReport}, optionally compared to a report
+ * from an earlier commit. By default each virtual user sends its next request
+ * as soon as the previous one completes. With a target rate, requests are
+ * scheduled at fixed intervals and latency is measured from the scheduled
+ * time, so a stalled server is not hidden by the requests it delayed
+ * (coordinated omission).
+ * Run with {@code mvn test-compile} followed by
+ * {@code mvn exec:java -Dexec.mainClass=stanism.marketplace.loadtest.RestApiLoadHarness
+ * -Dexec.classpathScope=test}. Settings are system properties:
+ * <ul>
+ * <li>{@code loadtest.concurrency}: virtual users, default 32</li>
+ * <li>{@code loadtest.warmup} and {@code loadtest.duration}: ISO-8601 or seconds, default 10 and 30</li>
+ * <li>{@code loadtest.rate}: target requests per second across all users, default 0 for as fast as possible</li>
+ * <li>{@code loadtest.mix}: endpoint weights, e.g. {@code feed=30,category=20,login=5}</li>
+ * <li>{@code loadtest.users}, {@code loadtest.items}, {@code loadtest.favorites}, {@code loadtest.messages},
+ * {@code loadtest.orders}: size of the generated data set, or {@code loadtest.generate=false} to use the
+ * database as it is</li>
+ * <li>{@code loadtest.profiles}: Spring profiles to run the application with</li>
+ * <li>{@code loadtest.label}: name of the run in the report, e.g. the commit</li>
+ * <li>{@code loadtest.report}: report file, default {@code target/loadtest/report.json}</li>
+ * <li>{@code loadtest.baseline}: earlier report to compare to</li>
+ * </ul>
+ */
+public final class RestApiLoadHarness {
+
+    /** Password of the generated and seeded users. */
+    private static final String PASSWORD = "password123";
+
+    /** Highest latency the histograms track, in microseconds. */
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    /** Timeout of each request. */
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    /** Largest number of item IDs requests are spread over. */
+    private static final int MAX_SAMPLED_ITEMS = 100_000;
+
+    /** Endpoints exercised by the load test. */
+    enum Endpoint {
+        /** First page of the item feed. */
+        FEED("feed", 30),
+        /** A single item. */
+        ITEM("item", 20),
+        /** All items of a category. */
+        CATEGORY("category", 15),
+        /** The logged-in user's conversations. */
+        CONVERSATIONS("conversations", 15),
+        /** Adding or removing a favorite, alternately. */
+        FAVORITE("favorite", 10),
+        /** Logging in. */
+        LOGIN("login", 5),
+        /** The full item list, streamed. */
+        ALL_ITEMS("all-items", 0);
+
+        /** Name used in the mix setting and the report. */
+        private final String key;
+
+        /** Weight in the default mix. */
+        private final int defaultWeight;
+
+        Endpoint(String key, int defaultWeight) {
+            this.key = key;
+            this.defaultWeight = defaultWeight;
+        }
+    }
+
+    /** Base URL of the application. */
+    private final String baseUrl;
+
+    /** Client shared by the virtual users. */
+    private final HttpClient client;
+
+    /** Item IDs requests pick from. */
+    private final long[] itemIds;
+
+    /** Category IDs requests pick from. */
+    private final long[] categoryIds;
+
+    /** Endpoints by cumulative weight, for weighted picks. */
+    private final Endpoint[] endpoints;
+
+    /** Cumulative weights matching {@link #endpoints}. */
+    private final int[] cumulativeWeights;
+
+    /** When measurement starts, in {@link System#nanoTime()} units. */
+    private final long measureFrom;
+
+    /** When the run ends, in {@link System#nanoTime()} units. */
+    private final long endAt;
+
+    /** Interval between requests of each virtual user, 0 for as fast as possible. */
+    private final long intervalNanos;
+
+    private RestApiLoadHarness(String baseUrl, long[] itemIds, long[] categoryIds, Map<Endpoint, Integer> mix,
+            long measureFrom, long endAt, long intervalNanos) {
+        this.baseUrl = baseUrl;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+        this.itemIds = itemIds;
+        this.categoryIds = categoryIds;
+        List<Endpoint> weighted = new ArrayList<>();
+        List<Integer> cumulative = new ArrayList<>();
+        int total = 0;
+        for (Map.Entry<Endpoint, Integer> entry : mix.entrySet()) {
+            if (entry.getValue() > 0) {
+                total += entry.getValue();
+                weighted.add(entry.getKey());
+                cumulative.add(total);
+            }
+        }
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("The endpoint mix has no positive weights");
+        }
+        this.endpoints = weighted.toArray(Endpoint[]::new);
+        this.cumulativeWeights = cumulative.stream().mapToInt(Integer::intValue).toArray();
+        this.measureFrom = measureFrom;
+        this.endAt = endAt;
+        this.intervalNanos = intervalNanos;
+    }
+
+    /**
+     * Runs the load test.
+     *
+     * @param args unused; settings are system properties
+     * @throws Exception if the application fails to start or a report cannot be written
+     */
+    public static void main(String[] args) throws Exception {
+        int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+        Duration warmup = duration("loadtest.warmup", Duration.ofSeconds(10));
+        Duration duration = duration("loadtest.duration", Duration.ofSeconds(30));
+        double rate = Double.parseDouble(System.getProperty("loadtest.rate", "0"));
+        Map<Endpoint, Integer> mix = mix(System.getProperty("loadtest.mix", ""));
+        boolean generate = Boolean.parseBoolean(System.getProperty("loadtest.generate", "true"));
+        String profiles = System.getProperty("loadtest.profiles", "");
+        Path reportPath = Path.of(System.getProperty("loadtest.report", "target/loadtest/report.json"));
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("concurrency", concurrency);
+        config.put("warmupSeconds", warmup.toSeconds());
+        config.put("durationSeconds", duration.toSeconds());
+        config.put("rate", rate);
+        config.put("profiles", profiles);
+        mix.forEach((endpoint, weight) -> config.put("weight." + endpoint.key, weight));
+
+        Map<String, Integer> dataSizes = new LinkedHashMap<>();
+        dataSizes.put("users", Integer.getInteger("loadtest.users", 2_000));
+        dataSizes.put("items", Integer.getInteger("loadtest.items", 20_000));
+        dataSizes.put("favorites", Integer.getInteger("loadtest.favorites", 40_000));
+        dataSizes.put("messages", Integer.getInteger("loadtest.messages", 100_000));
+        dataSizes.put("orders", Integer.getInteger("loadtest.orders", 2_000));
+        List<String> properties = new ArrayList<>(List.of("server.port=0", "spring.jpa.show-sql=false",
+                "logging.level.org.springframework.security=WARN"));
+        if (generate) {
+            dataSizes.forEach((key, size) -> {
+                properties.add("app.generator." + key + "=" + size);
+                config.put("data." + key, size);
+            });
+        }
+        SpringApplicationBuilder application = new SpringApplicationBuilder(MarketplaceApplication.class)
+                .profiles(profiles.isBlank() ? new String[0] : profiles.split(","))
+                .properties(properties.toArray(String[]::new));
+        String[] applicationArgs = generate ? new String[] { "--generate-data" } : new String[0];
+
+        try (ConfigurableApplicationContext context = application.run(applicationArgs)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            long[] itemIds = jdbcTemplate.queryForList("SELECT id FROM items ORDER BY id DESC", Long.class)
+                    .stream().limit(MAX_SAMPLED_ITEMS).mapToLong(Long::longValue).toArray();
+            long[] categoryIds = jdbcTemplate.queryForList("SELECT id FROM categories", Long.class)
+                    .stream().mapToLong(Long::longValue).toArray();
+            // The most recently created users, so generated users are preferred over the seeded ones
+            List<String> emails = jdbcTemplate.queryForList(
+                    "SELECT email FROM users WHERE role = 'USER' ORDER BY id DESC", String.class)
+                    .stream().limit(concurrency).toList();
+            if (itemIds.length == 0 || categoryIds.length == 0 || emails.isEmpty()) {
+                throw new IllegalStateException("The load test needs items, categories and users to run against");
+            }
+
+            long start = System.nanoTime();
+            long measureFrom = start + warmup.toNanos();
+            long intervalNanos = rate > 0 ? (long) (concurrency * 1e9 / rate) : 0;
+            RestApiLoadHarness harness = new RestApiLoadHarness("http://localhost:" + port, itemIds, categoryIds,
+                    mix, measureFrom, measureFrom + duration.toNanos(), intervalNanos);
+
+            System.out.printf("Running %d virtual users for %d s after a %d s warm-up%n", concurrency,
+                    duration.toSeconds(), warmup.toSeconds());
+            ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+            List<VirtualUser> users = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                VirtualUser user = harness.new VirtualUser(emails.get(i % emails.size()), i);
+                users.add(user);
+                pool.execute(user);
+            }
+            pool.shutdown();
+            if (!pool.awaitTermination(warmup.plus(duration).plus(REQUEST_TIMEOUT).toSeconds(), TimeUnit.SECONDS)) {
+                pool.shutdownNow();
+            }
+
+            LoadTestReport report = harness.report(users, duration.toNanos() / 1e9,
+                    System.getProperty("loadtest.label", "unlabelled"), config);
+            report.write(reportPath);
+            System.out.print(report.summary());
+            System.out.println("Report written to " + reportPath.toAbsolutePath());
+            String baseline = System.getProperty("loadtest.baseline");
+            if (baseline != null && Files.exists(Path.of(baseline))) {
+                System.out.print(report.compareTo(LoadTestReport.read(Path.of(baseline))));
+            }
+        }
+    }
+
+    private LoadTestReport report(List<VirtualUser> users, double seconds, String label,
+            Map<String, Object> config) {
+        Map<String, LoadTestReport.EndpointStats> stats = new LinkedHashMap<>();
+        for (Endpoint endpoint : Endpoint.values()) {
+            Histogram merged = histogram();
+            long errors = 0;
+            Map<Integer, Long> statuses = new HashMap<>();
+            for (VirtualUser user : users) {
+                merged.add(user.latencies.get(endpoint));
+                errors += user.errors.get(endpoint)[0];
+                user.statuses.get(endpoint).forEach((status, count) -> statuses.merge(status, count, Long::sum));
+            }
+            if (merged.getTotalCount() > 0) {
+                stats.put(endpoint.key, LoadTestReport.EndpointStats.of(merged, errors, statuses, seconds));
+            }
+        }
+        Instant startedAt = Instant.now().minusNanos((long) (seconds * 1e9));
+        return new LoadTestReport(label, startedAt.toString(), config, stats);
+    }
+
+    private Endpoint pick(SplittableRandom random) {
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        return endpoints[endpoints.length - 1];
+    }
+
+    private static Histogram histogram() {
+        return new Histogram(MAX_LATENCY_MICROS, 3);
+    }
+
+    private static Duration duration(String property, Duration defaultValue) {
+        String value = System.getProperty(property);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        return value.startsWith("P") ? Duration.parse(value) : Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    private static Map<Endpoint, Integer> mix(String setting) {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            mix.put(endpoint, setting.isBlank() ? endpoint.defaultWeight : 0);
+        }
+        for (String part : setting.split(",")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            String[] pair = part.split("=");
+            Endpoint endpoint = null;
+            for (Endpoint candidate : Endpoint.values()) {
+                if (candidate.key.equals(pair[0].trim())) {
+                    endpoint = candidate;
+                }
+            }
+            if (endpoint == null || pair.length != 2) {
+                throw new IllegalArgumentException("Invalid endpoint weight: " + part);
+            }
+            mix.put(endpoint, Integer.parseInt(pair[1].trim()));
+        }
+        return mix;
+    }
+
+    /**
+     * One virtual user: logs in, then sends requests until the run ends,
+     * recording the latency and status of those sent after the warm-up.
+     */
+    private final class VirtualUser implements Runnable {
+        /** Email the user logs in with. */
+        private final String email;
+
+        /** Random source of this user's choices. */
+        private final SplittableRandom random;
+
+        /** Latencies in microseconds by endpoint. */
+        private final Map<Endpoint, Histogram> latencies = new EnumMap<>(Endpoint.class);
+
+        /** Failed requests by endpoint, in a one-element array. */
+        private final Map<Endpoint, long[]> errors = new EnumMap<>(Endpoint.class);
+
+        /** Responses by endpoint and status. */
+        private final Map<Endpoint, Map<Integer, Long>> statuses = new EnumMap<>(Endpoint.class);
+
+        /** Item favorited by the last favorite request, removed by the next one; 0 if none. */
+        private long favoritedItemId;
+
+        /** Authentication cookie. */
+        private String cookie = "";
+
+        private VirtualUser(String email, int index) {
+            this.email = email;
+            this.random = new SplittableRandom(index);
+            for (Endpoint endpoint : Endpoint.values()) {
+                latencies.put(endpoint, histogram());
+                errors.put(endpoint, new long[1]);
+                statuses.put(endpoint, new HashMap<>());
+            }
+        }
+
+        @Override
+        public void run() {
+            send(Endpoint.LOGIN, login());
+            long next = System.nanoTime();
+            while (System.nanoTime() < endAt) {
+                if (intervalNanos > 0) {
+                    // Fixed schedule: wait for the intended start, and measure from it even when running late
+                    while (System.nanoTime() < next) {
+                        LockSupport.parkNanos(next - System.nanoTime());
+                    }
+                } else {
+                    next = System.nanoTime();
+                }
+                Endpoint endpoint = pick(random);
+                int status = send(endpoint, request(endpoint));
+                long latency = System.nanoTime() - next;
+                if (next >= measureFrom && next < endAt) {
+                    latencies.get(endpoint).recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latency),
+                            MAX_LATENCY_MICROS));
+                    statuses.get(endpoint).merge(status, 1L, Long::sum);
+                    if (status == 0 || status >= 400) {
+                        errors.get(endpoint)[0]++;
+                    }
+                }
+                next += intervalNanos;
+            }
+        }
+
+        private HttpRequest request(Endpoint endpoint) {
+            return switch (endpoint) {
+                case FEED -> get("/api/items/feed?size=20");
+                case ITEM -> get("/api/items/" + randomItemId());
+                case CATEGORY -> get("/api/items/category/" + categoryIds[random.nextInt(categoryIds.length)]);
+                case CONVERSATIONS -> get("/api/messages/conversations");
+                case ALL_ITEMS -> get("/api/items");
+                case LOGIN -> login();
+                case FAVORITE -> {
+                    if (favoritedItemId == 0) {
+                        favoritedItemId = randomItemId();
+                        yield builder("/api/items/" + favoritedItemId + "/favorite")
+                                .POST(HttpRequest.BodyPublishers.noBody()).build();
+                    }
+                    long itemId = favoritedItemId;
+                    favoritedItemId = 0;
+                    yield builder("/api/items/" + itemId + "/favorite").DELETE().build();
+                }
+            };
+        }
+
+        private HttpRequest login() {
+            String body = "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}";
+            return builder("/api/auth/login")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+
+        private HttpRequest get(String path) {
+            return builder(path).GET().build();
+        }
+
+        private HttpRequest.Builder builder(String path) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+            return cookie.isEmpty() ? builder : builder.header("Cookie", cookie);
+        }
+
+        private long randomItemId() {
+            return itemIds[random.nextInt(itemIds.length)];
+        }
+
+        /**
+         * Sends a request and reads the whole response, keeping the
+         * authentication cookie of a login.
+         *
+         * @return the response status, or 0 if the request failed
+         */
+        private int send(Endpoint endpoint, HttpRequest request) {
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (endpoint == Endpoint.LOGIN) {
+                    response.headers().allValues("Set-Cookie").stream()
+                            .filter(value -> value.startsWith("Authorization="))
+                            .findFirst()
+                            .ifPresent(value -> cookie = value.substring(0, value.indexOf(';') < 0
+                                    ? value.length() : value.indexOf(';')));
+                }
+                return response.statusCode();
+            } catch (IOException e) {
+                return 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package stanism.marketplace.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs EXPLAIN for the SQL behind each hot repository query against the migrated schema,
+// so a missing or unusable index fails here instead of as a full scan in production
+@DataJpaTest
+class HotQueryPlanTest {
+
+    private static final String TABLE_SCAN = "tableScan";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void conversationHistoryPageUsesAnIndex() {
+        assertThat(plan("SELECT m.id FROM messages m WHERE m.item_id = 1"
+                + " AND ((m.sender_id = 2 AND m.receiver_id = 3) OR (m.sender_id = 3 AND m.receiver_id = 2))"
+                + " AND m.id < 100 ORDER BY m.id DESC LIMIT 50"))
+                .doesNotContain(TABLE_SCAN);
+    }
+
+    @Test
+    void journalReplayDuplicateCheckUsesAnIndex() {
+        // Any of the participant or item indexes narrows the check; which one wins is the optimizer's choice
+        assertThat(plan("SELECT COUNT(*) FROM messages WHERE sender_id = 2 AND receiver_id = 3 AND item_id = 1"
+                + " AND timestamp = TIMESTAMP '2025-01-01 12:00:00'"))
+                .doesNotContain(TABLE_SCAN);
+    }
+
+    @Test
+    void inboxUsesAnIndex() {
+        assertThat(plan("SELECT c.id FROM conversations c WHERE c.user_id = 1 ORDER BY c.last_timestamp DESC"))
+                .doesNotContain(TABLE_SCAN);
+        assertThat(plan("SELECT user_id, other_user_id, item_id FROM conversations"
+                + " WHERE user_id IN (1, 2) AND item_id IN (3)"))
+                .doesNotContain(TABLE_SCAN);
+    }
+
+    @Test
+    void favoriteLookupUsesAnIndex() {
+        assertThat(plan("SELECT f.id FROM favorites f WHERE f.user_id = 1 AND f.item_id = 2"))
+                .doesNotContain(TABLE_SCAN);
+        assertThat(plan("SELECT f.id FROM favorites f WHERE f.user_id = 1"))
+                .doesNotContain(TABLE_SCAN);
+    }
+
+    @Test
+    void itemFeedPagesReadTheFeedIndexInOrder() {
+        assertThat(plan("SELECT i.id FROM items i ORDER BY i.publish_date DESC, i.id DESC LIMIT 20"))
+                .containsIgnoringCase("idx_items_publish_date_id")
+                .doesNotContain(TABLE_SCAN);
+        assertThat(plan("SELECT i.id FROM items i WHERE i.publish_date < TIMESTAMP '2025-01-01 12:00:00'"
+                + " OR (i.publish_date = TIMESTAMP '2025-01-01 12:00:00' AND i.id < 5)"
+                + " ORDER BY i.publish_date DESC, i.id DESC LIMIT 20"))
+                .containsIgnoringCase("idx_items_publish_date_id")
+                .doesNotContain(TABLE_SCAN);
+    }
+
+    @Test
+    void itemListingsUseAnIndex() {
+        assertThat(plan("SELECT i.id FROM items i WHERE i.category_id = 1")).doesNotContain(TABLE_SCAN);
+        assertThat(plan("SELECT i.id FROM items i WHERE i.user_id = 1")).doesNotContain(TABLE_SCAN);
+        assertThat(plan("SELECT i.id FROM items i WHERE i.price BETWEEN 10 AND 20"))
+                .containsIgnoringCase("idx_items_price")
+                .doesNotContain(TABLE_SCAN);
+        assertThat(plan("SELECT i.id, i.reservation_date FROM items i WHERE i.status = 'RESERVED'"))
+                .containsIgnoringCase("idx_items_status_reservation_date")
+                .doesNotContain(TABLE_SCAN);
+    }
+
+    @Test
+    void orderLookupUsesAnIndex() {
+        assertThat(plan("SELECT o.id FROM orders o WHERE o.buyer_id = 1 AND o.item_id = 2"))
+                .doesNotContain(TABLE_SCAN);
+    }
+
+    private String plan(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+}
@@ -0,0 +1,82 @@
+package stanism.marketplace.repository;
+
+import jakarta.persistence.PersistenceException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import stanism.marketplace.model.Category;
+import stanism.marketplace.model.Item;
+import stanism.marketplace.model.Role;
+import stanism.marketplace.model.User;
+import stanism.marketplace.model.dto.ItemCursor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+class ItemFeedPagingTest {
+
+    private static final LocalDateTime PUBLISHED = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void cursorPagesVisitEveryItemOnceAcrossSharedPublishDates() {
+        List<Long> seeded = seed(7);
+
+        List<Long> visited = new ArrayList<>();
+        List<Item> page = itemRepository.findFeedFirstPage(PageRequest.of(0, 3));
+        while (!page.isEmpty()) {
+            page.forEach(item -> visited.add(item.getId()));
+            Item last = page.get(page.size() - 1);
+            ItemCursor cursor = ItemCursor.decode(new ItemCursor(last.getPublishDate(), last.getId()).encode());
+            page = itemRepository.findFeedPageAfter(cursor.getPublishDate(), cursor.getId(), PageRequest.of(0, 3));
+        }
+
+        assertThat(visited).containsExactlyInAnyOrderElementsOf(seeded).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void itemsCannotLoseTheirPublishDate() {
+        Long id = seed(1).get(0);
+
+        assertThatThrownBy(() -> entityManager.getEntityManager()
+                .createNativeQuery("UPDATE items SET publish_date = NULL WHERE id = ?1")
+                .setParameter(1, id)
+                .executeUpdate())
+                .isInstanceOf(PersistenceException.class);
+    }
+
+    private List<Long> seed(int itemCount) {
+        User owner = entityManager.persist(new User("feedowner", "feedowner@example.com", "password123", Role.USER));
+        Category category = new Category();
+        category.setName("Feed");
+        entityManager.persist(category);
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            Item item = new Item.Builder()
+                    .title("Item " + i)
+                    .price(100.0)
+                    .user(owner)
+                    .category(category)
+                    .build();
+            // Pairs of items share a publish date, so the id tiebreak decides where a page ends
+            item.setPublishDate(PUBLISHED.minusMinutes(i / 2));
+            ids.add(entityManager.persist(item).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return ids;
+    }
+}
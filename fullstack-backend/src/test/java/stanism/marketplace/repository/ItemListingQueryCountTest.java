@@ -0,0 +1,112 @@
+package stanism.marketplace.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import stanism.marketplace.model.Category;
+import stanism.marketplace.model.Favorite;
+import stanism.marketplace.model.Image;
+import stanism.marketplace.model.Item;
+import stanism.marketplace.model.Role;
+import stanism.marketplace.model.User;
+import stanism.marketplace.model.dto.ItemMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ItemListingQueryCountTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void categoryListingUsesConstantStatementCount() {
+        assertThat(categoryListingStatements(3)).isEqualTo(categoryListingStatements(40));
+    }
+
+    @Test
+    void feedPageUsesConstantStatementCount() {
+        assertThat(feedPageStatements(3)).isEqualTo(feedPageStatements(40));
+    }
+
+    @Test
+    void favoritesListingUsesConstantStatementCount() {
+        assertThat(favoritesListingStatements(3)).isEqualTo(favoritesListingStatements(40));
+    }
+
+    private long categoryListingStatements(int itemCount) {
+        Category category = seed(itemCount).get(0).getCategory();
+        return countStatements(() -> itemRepository.findByCategory(category).forEach(ItemMapper::toDTO));
+    }
+
+    private long feedPageStatements(int itemCount) {
+        seed(itemCount);
+        return countStatements(() -> itemRepository.findFeedFirstPage(PageRequest.of(0, 100))
+                .forEach(ItemMapper::toDTO));
+    }
+
+    private long favoritesListingStatements(int itemCount) {
+        List<Item> items = seed(itemCount);
+        User fan = entityManager.persist(new User("fan" + itemCount, "fan" + itemCount + "@example.com",
+                "password123", Role.USER));
+        items.forEach(item -> entityManager.persist(new Favorite(fan, item)));
+        entityManager.flush();
+        entityManager.clear();
+        return countStatements(() -> favoriteRepository.findByUser(fan)
+                .forEach(favorite -> ItemMapper.toDTO(favorite.getItem())));
+    }
+
+    private List<Item> seed(int itemCount) {
+        Category category = new Category();
+        category.setName("Category " + itemCount);
+        entityManager.persist(category);
+
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            // A distinct owner per item so to-one loading cannot hide behind the persistence context
+            User owner = entityManager.persist(new User("owner" + itemCount + "_" + i,
+                    "owner" + itemCount + "_" + i + "@example.com", "password123", Role.USER));
+            Item item = entityManager.persist(new Item.Builder()
+                    .title("Item " + i)
+                    .price(100.0)
+                    .user(owner)
+                    .category(category)
+                    .build());
+            entityManager.persist(new Image(item, "/uploads/" + i + "_a.jpg", "a"));
+            entityManager.persist(new Image(item, "/uploads/" + i + "_b.jpg", "b"));
+            items.add(item);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return items;
+    }
+
+    private long countStatements(Runnable query) {
+        entityManager.clear();
+        statistics.clear();
+        query.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,133 @@
+package stanism.marketplace.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import stanism.marketplace.model.Category;
+import stanism.marketplace.model.Item;
+import stanism.marketplace.model.ItemStatus;
+import stanism.marketplace.model.Role;
+import stanism.marketplace.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Each reservation attempt must commit in its own transaction, so the test-managed transaction is disabled
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ItemReservationConcurrencyTest {
+
+    private static final int BUYERS = 200;
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void exactlyOneOfManyConcurrentBuyersReservesTheItem() throws InterruptedException {
+        Item item = seedItem();
+        List<User> buyers = new ArrayList<>();
+        for (int i = 0; i < BUYERS; i++) {
+            buyers.add(userRepository.save(new User("buyer" + i, "buyer" + i + "@example.com",
+                    "password123", Role.USER)));
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Queue<User> winners = new ConcurrentLinkedQueue<>();
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        for (User buyer : buyers) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    LocalDateTime now = LocalDateTime.now();
+                    Integer updated = transaction.execute(status ->
+                            itemRepository.reserveIfAvailable(item.getId(), buyer, now, now.minusHours(1)));
+                    if (updated != null && updated == 1) {
+                        winners.add(buyer);
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(failures).isEmpty();
+        assertThat(winners).hasSize(1);
+        Item reserved = itemRepository.findById(item.getId()).orElseThrow();
+        assertThat(reserved.getStatus()).isEqualTo(ItemStatus.RESERVED);
+        assertThat(reserved.getReservedBy().getId()).isEqualTo(winners.peek().getId());
+    }
+
+    @Test
+    void expiredReservationCanBeTakenOverAndOnlyTheReserverCancels() {
+        Item item = seedItem();
+        User first = userRepository.save(new User("first", "first@example.com", "password123", Role.USER));
+        User second = userRepository.save(new User("second", "second@example.com", "password123", Role.USER));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        LocalDateTime now = LocalDateTime.now();
+
+        Integer expiredReservation = transaction.execute(status ->
+                itemRepository.reserveIfAvailable(item.getId(), first, now.minusHours(2), now.minusHours(3)));
+        Integer takeover = transaction.execute(status ->
+                itemRepository.reserveIfAvailable(item.getId(), second, now, now.minusHours(1)));
+        Integer cancelByFormerReserver = transaction.execute(status ->
+                itemRepository.cancelReservation(item.getId(), first.getId()));
+        Integer cancelByReserver = transaction.execute(status ->
+                itemRepository.cancelReservation(item.getId(), second.getId()));
+
+        assertThat(expiredReservation).isEqualTo(1);
+        assertThat(takeover).isEqualTo(1);
+        assertThat(cancelByFormerReserver).isZero();
+        assertThat(cancelByReserver).isEqualTo(1);
+        assertThat(itemRepository.findById(item.getId()).orElseThrow().getStatus()).isEqualTo(ItemStatus.ACTIVE);
+    }
+
+    private Item seedItem() {
+        Category category = new Category();
+        category.setName("Hot items");
+        category = categoryRepository.save(category);
+        User seller = userRepository.save(new User("seller", "seller@example.com", "password123", Role.USER));
+        return itemRepository.save(new Item.Builder()
+                .title("Hot item")
+                .price(100.0)
+                .user(seller)
+                .category(category)
+                .build());
+    }
+}
@@ -0,0 +1,110 @@
+package stanism.marketplace.search;
+
+import org.junit.jupiter.api.Test;
+import stanism.marketplace.model.Category;
+import stanism.marketplace.model.Item;
+import stanism.marketplace.model.ItemStatus;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemFacetIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 4, 1, 12, 0);
+
+    @Test
+    void combinesPredicatesAndCountsFacetsDisjunctively() {
+        ItemFacetIndex index = new ItemFacetIndex();
+        index.index(item(1L, 1L, 300.0, ItemStatus.ACTIVE, 1));
+        index.index(item(2L, 1L, 1500.0, ItemStatus.ACTIVE, 2));
+        index.index(item(3L, 2L, 400.0, ItemStatus.ACTIVE, 3));
+        index.index(item(4L, 1L, 200.0, ItemStatus.SOLD, 4));
+
+        ItemFilter filter = new ItemFilter.Builder()
+                .categoryId(1L)
+                .price(0.0, 499.0)
+                .status(ItemStatus.ACTIVE)
+                .build();
+        ItemFacetIndex.FacetResult result = index.filter(filter, 0, 10);
+
+        assertThat(result.itemIds()).containsExactly(1L);
+        // Category counts ignore the category predicate, price buckets ignore the price predicate
+        assertThat(result.categoryCounts()).containsEntry(1L, 1).containsEntry(2L, 1);
+        assertThat(result.priceBuckets().get(0).count()).isEqualTo(1);
+        assertThat(result.priceBuckets().get(2).count()).isEqualTo(1);
+    }
+
+    @Test
+    void filterOnUnknownCategoryStillCountsTheOthers() {
+        ItemFacetIndex index = new ItemFacetIndex();
+        index.index(item(1L, 1L, 300.0, ItemStatus.ACTIVE, 1));
+        index.index(item(2L, 2L, 400.0, ItemStatus.ACTIVE, 2));
+
+        ItemFacetIndex.FacetResult result = index.filter(new ItemFilter.Builder().categoryId(9L).build(), 0, 10);
+
+        assertThat(result.itemIds()).isEmpty();
+        assertThat(result.totalHits()).isZero();
+        assertThat(result.categoryCounts()).containsEntry(1L, 1).containsEntry(2L, 1).hasSize(2);
+    }
+
+    @Test
+    void sortsByPriceAndPages() {
+        ItemFacetIndex index = new ItemFacetIndex();
+        index.index(item(1L, 1L, 300.0, ItemStatus.ACTIVE, 1));
+        index.index(item(2L, 1L, 100.0, ItemStatus.ACTIVE, 2));
+        index.index(item(3L, 1L, 200.0, ItemStatus.ACTIVE, 3));
+
+        ItemFilter filter = new ItemFilter.Builder().sort(ItemFilter.Sort.PRICE_ASC).build();
+
+        assertThat(index.filter(filter, 0, 2).itemIds()).containsExactly(2L, 3L);
+        assertThat(index.filter(filter, 2, 2).itemIds()).containsExactly(1L);
+        assertThat(index.filter(filter, 0, 2).totalHits()).isEqualTo(3);
+    }
+
+    @Test
+    void reindexingMovesItemBetweenStatuses() {
+        ItemFacetIndex index = new ItemFacetIndex();
+        index.index(item(1L, 1L, 300.0, ItemStatus.ACTIVE, 1));
+        index.index(item(1L, 1L, 300.0, ItemStatus.RESERVED, 1));
+        index.remove(2L);
+
+        ItemFilter active = new ItemFilter.Builder().status(ItemStatus.ACTIVE).build();
+        ItemFilter reserved = new ItemFilter.Builder().status(ItemStatus.RESERVED).build();
+
+        assertThat(index.filter(active, 0, 10).totalHits()).isZero();
+        assertThat(index.filter(reserved, 0, 10).itemIds()).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void sortsByFavoriteCountsKeptAcrossReindexing() {
+        ItemFacetIndex index = new ItemFacetIndex();
+        Item first = item(1L, 1L, 300.0, ItemStatus.ACTIVE, 1);
+        first.setFavoriteCount(2);
+        index.index(first);
+        index.index(item(2L, 1L, 100.0, ItemStatus.ACTIVE, 2));
+        index.index(item(3L, 1L, 200.0, ItemStatus.ACTIVE, 3));
+
+        index.addFavoriteCounts(Map.of(2L, 3L, 3L, 1L, 4L, 5L));
+        index.index(item(2L, 1L, 100.0, ItemStatus.RESERVED, 2));
+
+        ItemFilter filter = new ItemFilter.Builder().sort(ItemFilter.Sort.MOST_FAVORITED).build();
+        assertThat(index.filter(filter, 0, 10).itemIds()).containsExactly(2L, 1L, 3L);
+    }
+
+    private static Item item(Long id, Long categoryId, Double price, ItemStatus status, int daysAgo) {
+        Category category = new Category();
+        category.setId(categoryId);
+        Item item = new Item.Builder()
+                .title("Item " + id)
+                .price(price)
+                .category(category)
+                .build();
+        item.setId(id);
+        item.setStatus(status);
+        item.setPublishDate(NOW.minusDays(daysAgo));
+        return item;
+    }
+}
@@ -0,0 +1,121 @@
+package stanism.marketplace.search;
+
+import org.junit.jupiter.api.Test;
+import stanism.marketplace.model.Item;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemGeoIndexTest {
+
+    private static final double OSLO_LAT = 59.9139;
+
+    private static final double OSLO_LON = 10.7522;
+
+    @Test
+    void returnsHitsInsideRadiusNearestFirst() {
+        ItemGeoIndex index = new ItemGeoIndex();
+        index.index(item(1L, 59.9500, 10.7522)); // ~4 km north
+        index.index(item(2L, 59.9150, 10.7530)); // ~0.1 km
+        index.index(item(3L, 60.3913, 5.3221)); // Bergen
+
+        ItemGeoIndex.GeoResult result = index.nearby(OSLO_LAT, OSLO_LON, 10, 0, 10);
+
+        assertThat(result.hits()).extracting(ItemGeoIndex.GeoHit::itemId).containsExactly(2L, 1L);
+        assertThat(result.hits().get(1).distanceKm()).isBetween(3.5, 4.5);
+    }
+
+    @Test
+    void boundingBoxCrossingTheAntimeridianMatchesBothSides() {
+        ItemGeoIndex index = new ItemGeoIndex();
+        index.index(item(1L, 0.0, 179.95));
+        index.index(item(2L, 0.0, -179.95));
+        index.index(item(3L, 0.0, 0.0));
+
+        ItemGeoIndex.GeoResult result = index.within(-1, 179.5, 1, 180.5, 0, 10);
+
+        assertThat(result.hits()).extracting(ItemGeoIndex.GeoHit::itemId).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void wholeWorldBoxFindsEveryItem() {
+        ItemGeoIndex index = new ItemGeoIndex();
+        index.index(item(1L, OSLO_LAT, OSLO_LON));
+        index.index(item(2L, -33.8688, 151.2093)); // Sydney
+        index.index(item(3L, 89.95, -179.95));
+
+        ItemGeoIndex.GeoResult result = index.within(-90, -180, 90, 180, 0, 10);
+
+        assertThat(result.hits()).extracting(ItemGeoIndex.GeoHit::itemId).containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    @Test
+    void radiusReachingThePoleMatchesItemsBeyondIt() {
+        ItemGeoIndex index = new ItemGeoIndex();
+        index.index(item(1L, 89.0, 180.0)); // ~445 km away across the pole
+        index.index(item(2L, 80.0, 180.0)); // ~1450 km away across the pole
+
+        assertThat(index.nearby(87.0, 0.0, 500, 0, 10).hits())
+                .extracting(ItemGeoIndex.GeoHit::itemId).containsExactly(1L);
+    }
+
+    @Test
+    void radiusEdgeMatchesAtHighLatitudes() {
+        ItemGeoIndex index = new ItemGeoIndex();
+        // ~498 km away, where the circle is widest in longitude: beyond radius / (km per degree * cos latitude)
+        index.index(item(1L, 70.49, 23.2));
+
+        assertThat(index.nearby(70.0, 10.0, 500, 0, 10).hits())
+                .extracting(ItemGeoIndex.GeoHit::itemId).containsExactly(1L);
+    }
+
+    @Test
+    void pageEndBeyondIntegerRangeDoesNotOverflow() {
+        ItemGeoIndex index = new ItemGeoIndex();
+        index.index(item(1L, OSLO_LAT, OSLO_LON));
+        index.index(item(2L, 59.9500, 10.7522));
+
+        assertThat(index.nearby(OSLO_LAT, OSLO_LON, 10, 1, Integer.MAX_VALUE).hits())
+                .extracting(ItemGeoIndex.GeoHit::itemId).containsExactly(2L);
+        assertThat(index.nearby(OSLO_LAT, OSLO_LON, 10, Integer.MAX_VALUE, 20).hits()).isEmpty();
+    }
+
+    @Test
+    void queryCostDoesNotGrowWithCatalogueSize() {
+        assertThat(candidatesExaminedWith(1_000)).isEqualTo(candidatesExaminedWith(200_000));
+    }
+
+    @Test
+    void movingAnItemUpdatesItsCell() {
+        ItemGeoIndex index = new ItemGeoIndex();
+        index.index(item(1L, OSLO_LAT, OSLO_LON));
+        index.index(item(1L, 60.3913, 5.3221));
+
+        assertThat(index.nearby(OSLO_LAT, OSLO_LON, 10, 0, 10).totalHits()).isZero();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    /**
+     * Indexes a fixed cluster around Oslo plus a variable number of items on
+     * another continent, then reports how many entries a 10 km query visited.
+     */
+    private static int candidatesExaminedWith(int backgroundItems) {
+        ItemGeoIndex index = new ItemGeoIndex();
+        Random random = new Random(42);
+        long id = 1;
+        for (int i = 0; i < 200; i++) {
+            index.index(item(id++, OSLO_LAT + random.nextGaussian() * 0.05, OSLO_LON + random.nextGaussian() * 0.05));
+        }
+        for (int i = 0; i < backgroundItems; i++) {
+            index.index(item(id++, -50 + random.nextDouble() * 40, -120 + random.nextDouble() * 60));
+        }
+        return index.nearby(OSLO_LAT, OSLO_LON, 10, 0, 20).candidatesExamined();
+    }
+
+    private static Item item(Long id, double latitude, double longitude) {
+        Item item = new Item.Builder().latitude(latitude).longitude(longitude).build();
+        item.setId(id);
+        return item;
+    }
+}
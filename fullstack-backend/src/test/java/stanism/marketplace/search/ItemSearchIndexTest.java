@@ -0,0 +1,64 @@
+package stanism.marketplace.search;
+
+import org.junit.jupiter.api.Test;
+import stanism.marketplace.model.Item;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemSearchIndexTest {
+
+    private final ItemSearchIndex index = new ItemSearchIndex();
+
+    @Test
+    void matchesInflectedFormsAndRanksWeightedFieldsFirst() {
+        index.index(item(1L, "Bergans vinterjakke", "Varm jakke", "Lite brukt"));
+        index.index(item(2L, "Stressless lenestol", "Fin stol", "Passer godt til jakkene i gangen"));
+        index.index(item(3L, "Helly Hansen regnjakke", "Jakken er vanntett", "Som ny"));
+
+        ItemSearchIndex.SearchResult result = index.search("jakker", 0, 10);
+
+        assertThat(result.totalHits()).isEqualTo(3);
+        assertThat(result.itemIds()).last().isEqualTo(2L);
+    }
+
+    @Test
+    void reindexAndRemoveKeepPostingsInStep() {
+        index.index(item(1L, "Sofa", "Grå sofa", ""));
+        index.index(item(1L, "Seng", "Dobbeltseng", ""));
+        assertThat(index.search("sofa", 0, 10).totalHits()).isZero();
+        assertThat(index.search("seng", 0, 10).itemIds()).containsExactly(1L);
+
+        index.remove(1L);
+        assertThat(index.size()).isZero();
+        assertThat(index.search("seng", 0, 10).totalHits()).isZero();
+    }
+
+    @Test
+    void reusedSlotsDoNotKeepScoresOfRemovedItems() {
+        index.index(item(1L, "Sofa", "Grå sofa", ""));
+        index.index(item(2L, "Sofa", "Brun sofa", ""));
+        assertThat(index.search("sofa", 0, 10).totalHits()).isEqualTo(2);
+
+        index.remove(1L);
+        index.index(item(3L, "Lampe", "Taklampe", ""));
+        assertThat(index.search("sofa", 0, 10).itemIds()).containsExactly(2L);
+        assertThat(index.search("lampe", 0, 10).itemIds()).containsExactly(3L);
+        assertThat(index.search("sofa lampe", 0, 10).totalHits()).isEqualTo(2);
+    }
+
+    @Test
+    void pagesThroughRankedHits() {
+        for (long id = 1; id <= 25; id++) {
+            index.index(item(id, "Sykkel " + id, "Sykkel", ""));
+        }
+        assertThat(index.search("sykkel", 0, 10).itemIds()).hasSize(10);
+        assertThat(index.search("sykkel", 20, 10).itemIds()).hasSize(5);
+        assertThat(index.search("sykkel", 30, 10).itemIds()).isEmpty();
+    }
+
+    private static Item item(Long id, String title, String brief, String full) {
+        Item item = new Item.Builder().title(title).briefDescription(brief).fullDescription(full).build();
+        item.setId(id);
+        return item;
+    }
+}
@@ -0,0 +1,100 @@
+package stanism.marketplace.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import stanism.marketplace.chat.PendingChatMessage;
+import stanism.marketplace.model.Category;
+import stanism.marketplace.model.Conversation;
+import stanism.marketplace.model.Item;
+import stanism.marketplace.model.Role;
+import stanism.marketplace.model.User;
+import stanism.marketplace.repository.CategoryRepository;
+import stanism.marketplace.repository.ItemRepository;
+import stanism.marketplace.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(ConversationService.class)
+class ConversationServiceTest {
+
+    private static final LocalDateTime SENT = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Autowired
+    private ConversationService conversationService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Test
+    void keepsTheLatestMessageAndUnreadCountForEachParticipant() {
+        User seller = userRepository.save(new User("seller", "seller@example.com", "password123", Role.USER));
+        User buyer = userRepository.save(new User("buyer", "buyer@example.com", "password123", Role.USER));
+        Item item = seedItem(seller);
+
+        conversationService.recordMessages(List.of(
+                message(buyer, seller, item, "Is it available?", SENT),
+                message(buyer, seller, item, "Hello?", SENT.plusMinutes(1))));
+        conversationService.recordMessages(List.of(
+                message(seller, buyer, item, "Yes", SENT.plusMinutes(2)),
+                message(buyer, seller, item, "Great", SENT.plusMinutes(3))));
+
+        Conversation sellerSide = conversationService.getConversations(seller.getId()).get(0);
+        assertThat(sellerSide.getOtherUser().getId()).isEqualTo(buyer.getId());
+        assertThat(sellerSide.getLastMessage()).isEqualTo("Great");
+        assertThat(sellerSide.getLastSenderId()).isEqualTo(buyer.getId());
+        assertThat(sellerSide.getUnreadCount()).isEqualTo(3);
+        Conversation buyerSide = conversationService.getConversations(buyer.getId()).get(0);
+        assertThat(buyerSide.getLastTimestamp()).isEqualTo(SENT.plusMinutes(3));
+        assertThat(buyerSide.getUnreadCount()).isEqualTo(1);
+
+        conversationService.markRead(seller.getId(), buyer.getId(), item.getId());
+        assertThat(conversationService.getConversations(seller.getId()))
+                .extracting(Conversation::getUnreadCount)
+                .containsExactly(0);
+    }
+
+    @Test
+    void listsConversationsMostRecentFirst() {
+        User seller = userRepository.save(new User("seller", "seller@example.com", "password123", Role.USER));
+        User first = userRepository.save(new User("first", "first@example.com", "password123", Role.USER));
+        User second = userRepository.save(new User("second", "second@example.com", "password123", Role.USER));
+        Item item = seedItem(seller);
+
+        conversationService.recordMessages(List.of(message(first, seller, item, "First", SENT)));
+        conversationService.recordMessages(List.of(message(second, seller, item, "Second", SENT.plusMinutes(1))));
+
+        assertThat(conversationService.getConversations(seller.getId()))
+                .extracting(Conversation::getLastMessage)
+                .containsExactly("Second", "First");
+    }
+
+    private Item seedItem(User seller) {
+        Category category = new Category();
+        category.setName("Bikes");
+        category = categoryRepository.save(category);
+        // Flush the users and item so the JDBC summary inserts can reference them
+        return itemRepository.saveAndFlush(new Item.Builder()
+                .title("Bike")
+                .price(100.0)
+                .user(seller)
+                .category(category)
+                .build());
+    }
+
+    private static PendingChatMessage message(User sender, User receiver, Item item, String content,
+            LocalDateTime timestamp) {
+        return new PendingChatMessage(0, sender.getId(), receiver.getId(), item.getId(), content, timestamp);
+    }
+}
@@ -0,0 +1,175 @@
+package stanism.marketplace.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import stanism.marketplace.model.Category;
+import stanism.marketplace.model.Item;
+import stanism.marketplace.model.Role;
+import stanism.marketplace.model.User;
+import stanism.marketplace.repository.CategoryRepository;
+import stanism.marketplace.repository.ItemRepository;
+import stanism.marketplace.repository.UserRepository;
+import stanism.marketplace.search.ItemFacetIndex;
+import stanism.marketplace.search.ItemFilter;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Each flush must commit or roll back on its own, so the test-managed transaction is disabled
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FavoriteCounterServiceTest {
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private FailingJdbcTemplate jdbcTemplate;
+
+    private ItemFacetIndex facetIndex;
+
+    private FavoriteCounterService counters;
+
+    private List<Long> itemIds;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new FailingJdbcTemplate(dataSource);
+        facetIndex = new ItemFacetIndex();
+        // Never started, so every flush is run by the test itself
+        counters = new FavoriteCounterService(jdbcTemplate, transactionManager, facetIndex, Duration.ofHours(1),
+                false);
+
+        User owner = userRepository.save(new User("owner", "owner@example.com", "password123", Role.USER));
+        Category category = new Category();
+        category.setName("Counters");
+        categoryRepository.save(category);
+        itemIds = new ArrayList<>();
+        for (String title : List.of("Lamp", "Chair", "Desk")) {
+            Item item = itemRepository.save(new Item.Builder()
+                    .title(title)
+                    .price(100.0)
+                    .user(owner)
+                    .category(category)
+                    .build());
+            facetIndex.index(item);
+            itemIds.add(item.getId());
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void flushesAnIncrementMadeJustBeforeItsAdderWasRetired() {
+        Long lamp = itemIds.get(0);
+        counters.increment(lamp);
+        assertThat(counters.flush()).isEqualTo(1);
+
+        // An increment that looked up the adder just before the flush found it idle and retired it
+        LongAdder adder = counters.adder(lamp);
+        assertThat(counters.flush()).isZero();
+        adder.increment();
+
+        assertThat(counters.flush()).isEqualTo(1);
+        assertThat(storedCount(lamp)).isEqualTo(2);
+        assertThat(mostFavorited(facetIndex).get(0)).isEqualTo(lamp);
+        assertIndexAgreesWithStoredCounts();
+    }
+
+    @Test
+    void retriesAFailedFlushWithoutCountingTwice() {
+        Long lamp = itemIds.get(0);
+        Long chair = itemIds.get(1);
+        Long desk = itemIds.get(2);
+        for (int i = 0; i < 3; i++) {
+            counters.increment(lamp);
+        }
+        counters.increment(chair);
+        counters.increment(desk);
+
+        // The updates run, then the transaction fails and rolls them back
+        jdbcTemplate.failNextBatch = true;
+        assertThatThrownBy(counters::flush).isInstanceOf(TransientDataAccessResourceException.class);
+        assertThat(storedCount(lamp)).isZero();
+
+        counters.increment(desk);
+        assertThat(counters.flush()).isEqualTo(3);
+        assertThat(counters.flush()).isZero();
+
+        assertThat(List.of(storedCount(lamp), storedCount(chair), storedCount(desk))).containsExactly(3L, 1L, 2L);
+        assertThat(mostFavorited(facetIndex)).containsExactly(lamp, desk, chair);
+        assertIndexAgreesWithStoredCounts();
+    }
+
+    private long storedCount(Long itemId) {
+        return jdbcTemplate.queryForObject("SELECT favorite_count FROM items WHERE id = ?", Long.class, itemId);
+    }
+
+    /**
+     * Checks that the live index orders items as an index built from the stored counts does.
+     */
+    private void assertIndexAgreesWithStoredCounts() {
+        ItemFacetIndex rebuilt = new ItemFacetIndex();
+        itemRepository.findAll().forEach(rebuilt::index);
+        assertThat(mostFavorited(facetIndex)).isEqualTo(mostFavorited(rebuilt));
+    }
+
+    private static List<Long> mostFavorited(ItemFacetIndex index) {
+        ItemFilter filter = new ItemFilter.Builder().sort(ItemFilter.Sort.MOST_FAVORITED).build();
+        return index.filter(filter, 0, 10).itemIds();
+    }
+
+    /**
+     * JDBC template whose next batch update fails after its statements have run.
+     */
+    private static final class FailingJdbcTemplate extends JdbcTemplate {
+        private boolean failNextBatch;
+
+        FailingJdbcTemplate(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                ParameterizedPreparedStatementSetter<T> pss) {
+            int[][] counts = super.batchUpdate(sql, batchArgs, batchSize, pss);
+            if (failNextBatch) {
+                failNextBatch = false;
+                throw new TransientDataAccessResourceException("Connection reset");
+            }
+            return counts;
+        }
+    }
+}
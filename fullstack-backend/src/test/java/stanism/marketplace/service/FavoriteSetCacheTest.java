@@ -0,0 +1,95 @@
+package stanism.marketplace.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FavoriteSetCacheTest {
+
+    @Test
+    void servesRepeatedLookupsFromOneLoad() {
+        FavoriteSetCache cache = new FavoriteSetCache(10, Duration.ofMinutes(5));
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<Collection<Long>> loader = counting(loads, List.of(30L, 10L, 20L));
+
+        cache.get(1L, loader);
+        long[] itemIds = cache.get(1L, loader);
+
+        assertThat(loads).hasValue(1);
+        assertThat(itemIds).containsExactly(10L, 20L, 30L);
+        assertThat(FavoriteSetCache.contains(itemIds, 20L)).isTrue();
+        assertThat(FavoriteSetCache.contains(itemIds, 25L)).isFalse();
+    }
+
+    @Test
+    void appliesAdditionsAndRemovalsToCachedSets() {
+        FavoriteSetCache cache = new FavoriteSetCache(10, Duration.ofMinutes(5));
+        long[] before = cache.get(1L, () -> List.of(10L, 30L));
+
+        cache.added(1L, 20L);
+        cache.added(1L, 20L);
+        cache.removed(1L, 10L);
+        cache.removed(1L, 40L);
+
+        assertThat(cache.get(1L, List::of)).containsExactly(20L, 30L);
+        assertThat(before).containsExactly(10L, 30L);
+    }
+
+    @Test
+    void doesNotCacheASetLoadedWhileAWriteHappened() {
+        FavoriteSetCache cache = new FavoriteSetCache(10, Duration.ofMinutes(5));
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, () -> {
+            loads.incrementAndGet();
+            cache.added(1L, 20L);
+            return List.of(10L);
+        });
+        long[] itemIds = cache.get(1L, counting(loads, List.of(10L, 20L)));
+
+        assertThat(loads).hasValue(2);
+        assertThat(itemIds).containsExactly(10L, 20L);
+    }
+
+    @Test
+    void cachesASetLoadedWhileAnotherUserWrote() {
+        FavoriteSetCache cache = new FavoriteSetCache(10, Duration.ofMinutes(5));
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, () -> {
+            loads.incrementAndGet();
+            cache.added(2L, 20L);
+            cache.evict(2L);
+            return List.of(10L);
+        });
+        long[] itemIds = cache.get(1L, counting(loads, List.of()));
+
+        assertThat(loads).hasValue(1);
+        assertThat(itemIds).containsExactly(10L);
+    }
+
+    @Test
+    void dropsLeastRecentlyUsedUsersBeyondCapacity() {
+        FavoriteSetCache cache = new FavoriteSetCache(2, Duration.ofMinutes(5));
+        cache.get(1L, () -> List.of(10L));
+        cache.get(2L, () -> List.of(20L));
+        cache.get(1L, List::of);
+        cache.get(3L, () -> List.of(30L));
+
+        assertThat(cache.get(1L, List::of)).containsExactly(10L);
+        assertThat(cache.get(2L, List::of)).isEmpty();
+    }
+
+    private static Supplier<Collection<Long>> counting(AtomicInteger loads, List<Long> itemIds) {
+        return () -> {
+            loads.incrementAndGet();
+            return itemIds;
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package stanism.marketplace.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashedTimingWheelTest {
+
+    @Test
+    void expiresKeysOnceTheirDeadlinePasses() {
+        HashedTimingWheel<Long> wheel = new HashedTimingWheel<>(1000, 8, 0);
+        wheel.schedule(1L, 2500);
+        wheel.schedule(2L, 4000);
+
+        assertThat(wheel.advance(2000)).isEmpty();
+        assertThat(wheel.advance(3000)).containsExactly(1L);
+        assertThat(wheel.advance(4000)).containsExactly(2L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void keepsDeadlinesMoreThanOneRevolutionAway() {
+        HashedTimingWheel<Long> wheel = new HashedTimingWheel<>(1000, 4, 0);
+        wheel.schedule(1L, 9000);
+
+        for (long now = 1000; now < 9000; now += 1000) {
+            assertThat(wheel.advance(now)).isEmpty();
+        }
+        assertThat(wheel.advance(9000)).containsExactly(1L);
+    }
+
+    @Test
+    void rescheduledAndCancelledKeysFollowTheirLatestState() {
+        HashedTimingWheel<Long> wheel = new HashedTimingWheel<>(1000, 8, 0);
+        wheel.schedule(1L, 2000);
+        wheel.schedule(1L, 5000);
+        wheel.schedule(2L, 2000);
+        wheel.cancel(2L);
+
+        assertThat(wheel.advance(3000)).isEmpty();
+        assertThat(wheel.advance(5000)).containsExactly(1L);
+    }
+
+    @Test
+    void catchesUpAfterALongPauseAndExpiresPastDeadlinesImmediately() {
+        HashedTimingWheel<Long> wheel = new HashedTimingWheel<>(1000, 4, 0);
+        wheel.schedule(1L, 3000);
+        wheel.schedule(2L, 30000);
+
+        assertThat(wheel.advance(60000)).containsExactlyInAnyOrder(1L, 2L);
+        wheel.schedule(3L, 0);
+        assertThat(wheel.advance(61000)).containsExactly(3L);
+    }
+}
@@ -0,0 +1,213 @@
+package stanism.marketplace.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.multipart.MultipartFile;
+import stanism.marketplace.config.ImageIngestionConfig;
+import stanism.marketplace.model.Category;
+import stanism.marketplace.model.Image;
+import stanism.marketplace.model.Item;
+import stanism.marketplace.model.Role;
+import stanism.marketplace.model.User;
+import stanism.marketplace.repository.ImageRepository;
+import stanism.marketplace.storage.ContentAddressedImageStorage;
+import stanism.marketplace.storage.ImageStorage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+class ImageIngestionServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path root;
+
+    private RecordingStorage storage;
+
+    private ThreadPoolTaskExecutor executor;
+
+    private ImageService imageService;
+
+    private ImageIngestionService ingestionService;
+
+    private Item item;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storage = new RecordingStorage(new ContentAddressedImageStorage(root.resolve("uploads").toString()));
+        // Two copy threads and a one-slot queue; a fourth concurrent upload would run on the caller
+        executor = new ImageIngestionConfig().imageIngestionExecutor(2, 1);
+        executor.initialize();
+        imageService = new ImageService(imageRepository, jdbcTemplate, storage);
+        // Variant pre-generation is dropped; it is covered by the variant service itself
+        ImageVariantService variants = new ImageVariantService(root.resolve("cache").toString(), 1024 * 1024,
+                1_000_000, new TaskExecutorAdapter(task -> { }), storage);
+        ingestionService = new ImageIngestionService(imageService, variants, storage, executor,
+                new SimpleMeterRegistry());
+
+        User owner = entityManager.persist(new User("owner", "owner@example.com", "password123", Role.USER));
+        Category category = new Category();
+        category.setName("Images");
+        entityManager.persist(category);
+        item = entityManager.persistAndFlush(new Item.Builder()
+                .title("Lamp")
+                .price(100.0)
+                .user(owner)
+                .category(category)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void storesUploadsInParallelOnTheIngestionPool() throws IOException {
+        List<Image> images = ingestionService.ingest(item, new MultipartFile[] {
+                upload("front.jpg", "front"), upload("back.jpg", "back")});
+
+        assertThat(storage.overlapped).isTrue();
+        assertThat(storage.threads).allMatch(thread -> thread.startsWith("image-ingest-")).hasSize(2);
+        assertThat(images).extracting(Image::getAltText).containsExactly("front.jpg", "back.jpg");
+        assertThat(images).allSatisfy(image -> assertThat(storage.resolve(key(image))).isPresent());
+        assertThat(imageRepository.findImageUrlsByItemId(item.getId()))
+                .containsExactlyInAnyOrderElementsOf(images.stream().map(Image::getImageUrl).toList());
+    }
+
+    @Test
+    void deletesStoredFilesWhenOneUploadFails() {
+        assertThatThrownBy(() -> ingestionService.ingest(item, new MultipartFile[] {
+                upload("front.jpg", "front"), upload("broken.jpg", "broken"), upload("back.jpg", "back")}))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Disk full");
+
+        assertThat(storage.keys).hasSize(2).allSatisfy(key -> assertThat(storage.resolve(key)).isEmpty());
+        assertThat(imageRepository.findImageUrlsByItemId(item.getId())).isEmpty();
+    }
+
+    @Test
+    void insertsAllRowsInOneStatementAndMapsGeneratedIdsBack() {
+        List<Image> images = List.of(
+                new Image(item, "/uploads/a.jpg", "a"),
+                new Image(item, "/uploads/b.jpg", "b"),
+                new Image(item, "/uploads/c.jpg", "c"));
+
+        assertThat(imageService.saveImages(images)).isSameAs(images);
+
+        assertThat(images).extracting(Image::getId).doesNotContainNull().doesNotHaveDuplicates();
+        entityManager.clear();
+        for (Image image : images) {
+            assertThat(imageRepository.findById(image.getId()))
+                    .hasValueSatisfying(row -> assertThat(row.getImageUrl()).isEqualTo(image.getImageUrl()));
+        }
+    }
+
+    @Test
+    void savesNoRowsWhenOneRowIsRejected() {
+        List<Image> images = List.of(
+                new Image(item, "/uploads/a.jpg", "a"),
+                new Image(item, "/uploads/b.jpg", "b".repeat(300)));
+
+        assertThatThrownBy(() -> imageService.saveImages(images))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(images).extracting(Image::getId).containsOnlyNulls();
+        assertThat(imageRepository.findImageUrlsByItemId(item.getId())).isEmpty();
+    }
+
+    private static MockMultipartFile upload(String filename, String content) {
+        return new MockMultipartFile("images", filename, "image/jpeg", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String key(Image image) {
+        return image.getImageUrl().substring(ImageService.URL_PREFIX.length());
+    }
+
+    /**
+     * Image storage that records which threads stored uploads and fails on the content "broken".
+     * The first two stores wait for each other, so they only both finish promptly when run in parallel.
+     */
+    private static final class RecordingStorage implements ImageStorage {
+        private final ImageStorage delegate;
+        private final CountDownLatch firstTwo = new CountDownLatch(2);
+        private final List<String> keys = Collections.synchronizedList(new ArrayList<>());
+        private final Set<String> threads = ConcurrentHashMap.newKeySet();
+        private volatile boolean overlapped;
+
+        RecordingStorage(ImageStorage delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String store(InputStream content) throws IOException {
+            threads.add(Thread.currentThread().getName());
+            firstTwo.countDown();
+            try {
+                if (firstTwo.await(5, TimeUnit.SECONDS)) {
+                    overlapped = true;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            byte[] bytes = content.readAllBytes();
+            if ("broken".equals(new String(bytes, StandardCharsets.UTF_8))) {
+                throw new IOException("Disk full");
+            }
+            String key = delegate.store(new ByteArrayInputStream(bytes));
+            keys.add(key);
+            return key;
+        }
+
+        @Override
+        public void release(String key) {
+            delegate.release(key);
+        }
+
+        @Override
+        public Optional<Path> resolve(String key) {
+            return delegate.resolve(key);
+        }
+
+        @Override
+        public boolean deleteIfUnused(String key, BooleanSupplier inUse) {
+            return delegate.deleteIfUnused(key, inUse);
+        }
+    }
+}
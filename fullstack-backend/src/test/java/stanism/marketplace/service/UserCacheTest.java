@@ -0,0 +1,86 @@
+package stanism.marketplace.service;
+
+import org.junit.jupiter.api.Test;
+import stanism.marketplace.model.Role;
+import stanism.marketplace.model.User;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserCacheTest {
+
+    @Test
+    void servesRepeatedLookupsByEmailAndIdFromOneLoad() {
+        UserCache cache = new UserCache(10, Duration.ofMinutes(5));
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<Optional<User>> loader = counting(loads, user(1L, "ada@example.com"));
+
+        cache.getByEmail("ada@example.com", loader);
+        Optional<User> byEmail = cache.getByEmail("ada@example.com", loader);
+        Optional<User> byId = cache.getById(1L, loader);
+
+        assertThat(loads).hasValue(1);
+        assertThat(byEmail).hasValueSatisfying(user -> assertThat(user.getDisplayUsername()).isEqualTo("ada"));
+        assertThat(byId).hasValueSatisfying(user -> assertThat(user.getEmail()).isEqualTo("ada@example.com"));
+        assertThat(cache.getStats().hits()).isEqualTo(2);
+        assertThat(cache.getStats().misses()).isEqualTo(1);
+    }
+
+    @Test
+    void changesToReturnedCopiesDoNotLeakIntoTheCache() {
+        UserCache cache = new UserCache(10, Duration.ofMinutes(5));
+        Supplier<Optional<User>> loader = () -> Optional.of(user(1L, "ada@example.com"));
+
+        cache.getById(1L, loader).orElseThrow().setUsername("changed");
+
+        assertThat(cache.getById(1L, Optional::empty))
+                .hasValueSatisfying(user -> assertThat(user.getDisplayUsername()).isEqualTo("ada"));
+    }
+
+    @Test
+    void evictionAndExpiryForceAReload() {
+        AtomicInteger loads = new AtomicInteger();
+        UserCache cache = new UserCache(10, Duration.ofMinutes(5));
+        Supplier<Optional<User>> loader = counting(loads, user(1L, "ada@example.com"));
+
+        cache.getById(1L, loader);
+        cache.evict(null, "ADA@example.com");
+        cache.getById(1L, loader);
+        assertThat(loads).hasValue(2);
+
+        UserCache expired = new UserCache(10, Duration.ZERO);
+        expired.getById(1L, loader);
+        expired.getById(1L, loader);
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    void dropsLeastRecentlyUsedUsersBeyondCapacity() {
+        UserCache cache = new UserCache(2, Duration.ofMinutes(5));
+        cache.getById(1L, () -> Optional.of(user(1L, "a@example.com")));
+        cache.getById(2L, () -> Optional.of(user(2L, "b@example.com")));
+        cache.getById(1L, Optional::empty);
+        cache.getById(3L, () -> Optional.of(user(3L, "c@example.com")));
+
+        assertThat(cache.getById(1L, Optional::empty)).isPresent();
+        assertThat(cache.getById(2L, Optional::empty)).isEmpty();
+        assertThat(cache.getByEmail("b@example.com", Optional::empty)).isEmpty();
+    }
+
+    private static Supplier<Optional<User>> counting(AtomicInteger loads, User user) {
+        return () -> {
+            loads.incrementAndGet();
+            return Optional.of(user);
+        };
+    }
+
+    private static User user(Long id, String email) {
+        User user = new User(email.substring(0, email.indexOf('@')), email, "hash", Role.USER);
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,61 @@
+package stanism.marketplace.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentAddressedImageStorageTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void identicalUploadsShareOneShardedFile() throws IOException {
+        ContentAddressedImageStorage storage = new ContentAddressedImageStorage(root.toString());
+
+        String first = storage.store(content("same photo"));
+        String second = storage.store(content("same photo"));
+
+        assertThat(second).isEqualTo(first);
+        assertThat(storage.resolve(first)).hasValueSatisfying(path -> assertThat(path)
+                .isEqualTo(root.resolve(first.substring(0, 2)).resolve(first.substring(2, 4)).resolve(first)));
+    }
+
+    @Test
+    void takesTheExtensionFromTheContent() throws IOException {
+        ContentAddressedImageStorage storage = new ContentAddressedImageStorage(root.toString());
+        byte[] png = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 0};
+
+        assertThat(storage.store(new ByteArrayInputStream(png))).endsWith(".png");
+        assertThat(storage.store(content("<html><script>alert(1)</script></html>"))).matches("[0-9a-f]{64}");
+    }
+
+    @Test
+    void keepsPinnedAndReferencedFiles() throws IOException {
+        ContentAddressedImageStorage storage = new ContentAddressedImageStorage(root.toString());
+        String key = storage.store(content("photo"));
+
+        assertThat(storage.deleteIfUnused(key, () -> false)).isFalse();
+        storage.release(key);
+        assertThat(storage.deleteIfUnused(key, () -> true)).isFalse();
+        assertThat(storage.deleteIfUnused(key, () -> false)).isTrue();
+        assertThat(storage.resolve(key)).isEmpty();
+    }
+
+    @Test
+    void rejectsKeysOutsideTheStore() throws IOException {
+        ContentAddressedImageStorage storage = new ContentAddressedImageStorage(root.toString());
+
+        assertThat(storage.resolve("../secret.png")).isEmpty();
+    }
+
+    private static ByteArrayInputStream content(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
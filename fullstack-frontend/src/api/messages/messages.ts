@@ -32,6 +32,7 @@ import type {
 } from 'vue';
 
 import type {
+  ConversationDTO,
   MessageResponseDTO
 } from '.././model';
 
@@ -44,7 +45,7 @@ import type {
  */
 export const getUserConversations = (
      options?: AxiosRequestConfig
- ): Promise<AxiosResponse<MessageResponseDTO[]>> => {
+ ): Promise<AxiosResponse<ConversationDTO[]>> => {
     
     
     return axios.default.get(
@@ -0,0 +1,26 @@
+/**
+ * Generated by orval v7.8.0 🍺
+ * Do not edit manually.
+ * OpenAPI definition
+ * OpenAPI spec version: v0
+ */
+import type { UserResponse } from './userResponse';
+
+/**
+ * Conversation summary in the inbox
+ */
+export interface ConversationDTO {
+  /** ID of the item */
+  itemId?: number;
+  /** Title of the item */
+  itemTitle?: string;
+  otherUser?: UserResponse;
+  /** Latest message content */
+  lastMessage?: string;
+  /** ID of the sender of the latest message */
+  lastSenderId?: number;
+  /** Time of the latest message */
+  lastTimestamp?: string;
+  /** Number of unread messages */
+  unreadCount?: number;
+}
@@ -10,6 +10,7 @@ export * from './addToFavorites200';
 export * from './cancelReservation200';
 export * from './category';
 export * from './categoryResponseDTO';
+export * from './conversationDTO';
 export * from './createItem200';
 export * from './createItemParams';
 export * from './deleteItem200';
@@ -2,16 +2,19 @@ import { computed } from 'vue';
 
 const API_BASE_URL = 'http://localhost:8080';
 
-export const getImageUrl = (imagePath: string): string => {
+export type ImageVariant = 'thumb' | 'card' | 'full';
+
+export const getImageUrl = (imagePath: string, variant?: ImageVariant): string => {
   if (!imagePath) return '';
   if (imagePath.startsWith('http')) return imagePath;
   
   // Remove any leading slashes and the uploads/ prefix from the image path
   const cleanPath = imagePath.replace(/^\/+/, '').replace(/^uploads\//, '');
-  return `${API_BASE_URL}/api/items/images/${cleanPath}`;
+  const query = variant ? `?variant=${variant}` : '';
+  return `${API_BASE_URL}/api/items/images/${cleanPath}${query}`;
 };
 
 export const getImageUrls = (imagePaths: string[] | undefined): string[] => {
   if (!imagePaths || !Array.isArray(imagePaths)) return [];
-  return imagePaths.map(getImageUrl);
+  return imagePaths.map((imagePath) => getImageUrl(imagePath));
 }; 
\ No newline at end of file